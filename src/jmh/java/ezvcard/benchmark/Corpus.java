@@ -0,0 +1,175 @@
+package ezvcard.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ezvcard.Ezvcard;
+import ezvcard.VCard;
+import ezvcard.parameter.ImageType;
+import ezvcard.property.Photo;
+import ezvcard.util.Gobble;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Builds the vCards that the benchmarks read and write. The sample vCard files
+ * that the unit tests use are the seed corpus.
+ * @author Michael Angstadt
+ */
+public final class Corpus {
+	/**
+	 * The classpath directory that contains the seed files.
+	 */
+	private static final String SEED_DIR = "/ezvcard/io/text/";
+
+	//@formatter:off
+	private static final String[] SEED_FILES = {
+		"John_Doe_ANDROID.vcf",
+		"John_Doe_BLACK_BERRY.vcf",
+		"John_Doe_EVOLUTION.vcf",
+		"John_Doe_GMAIL.vcf",
+		"John_Doe_IPHONE.vcf",
+		"John_Doe_LOTUS_NOTES.vcf",
+		"John_Doe_MAC_ADDRESS_BOOK.vcf",
+		"John_Doe_MS_OUTLOOK.vcf",
+		"fullcontact.vcf",
+		"gmail-list.vcf",
+		"gmail-single.vcf",
+		"gmail-single2.vcf",
+		"outlook-2003.vcf",
+		"outlook-2007.vcf",
+		"rfc2426-example.vcf",
+		"rfc6350-example.vcf",
+		"thunderbird-MoreFunctionsForAddressBook-extension.vcf"
+	};
+	//@formatter:on
+
+	/**
+	 * The file that is used as the smallest possible "real world" vCard.
+	 */
+	private static final String TINY_FILE = "rfc6350-example.vcf";
+
+	/**
+	 * The image that is attached to the vCard in the {@link Shape#PHOTO}
+	 * corpus.
+	 */
+	private static final String PHOTO_FILE = "gmail-single2.png";
+
+	/**
+	 * The number of vCards in the {@link Shape#BULK} corpus.
+	 */
+	public static final int BULK_SIZE = 100_000;
+
+	/**
+	 * The different kinds of vCard collections the benchmarks are run
+	 * against.
+	 */
+	public enum Shape {
+		/**
+		 * A single, small vCard.
+		 */
+		TINY,
+
+		/**
+		 * A single vCard that contains a large, base64-encoded PHOTO property.
+		 */
+		PHOTO,
+
+		/**
+		 * A large number of vCards (see {@link Corpus#BULK_SIZE}), built by
+		 * cycling through the seed corpus.
+		 */
+		BULK
+	}
+
+	/**
+	 * Builds a vCard collection.
+	 * @param shape the kind of collection to build
+	 * @return the vCards
+	 */
+	public static List<VCard> build(Shape shape) {
+		switch (shape) {
+		case TINY:
+			return Collections.singletonList(tiny());
+		case PHOTO:
+			VCard vcard = tiny();
+			vcard.addPhoto(new Photo(resource(PHOTO_FILE), ImageType.PNG));
+			return Collections.singletonList(vcard);
+		case BULK:
+			List<VCard> seed = seed();
+			List<VCard> vcards = new ArrayList<>(BULK_SIZE);
+			for (int i = 0; i < BULK_SIZE; i++) {
+				vcards.add(seed.get(i % seed.size()));
+			}
+			return vcards;
+		}
+		throw new IllegalArgumentException(shape.name());
+	}
+
+	/**
+	 * Parses all of the vCards in the seed corpus.
+	 * @return the vCards
+	 */
+	public static List<VCard> seed() {
+		List<VCard> vcards = new ArrayList<>();
+		for (String file : SEED_FILES) {
+			vcards.addAll(parse(file));
+		}
+		return vcards;
+	}
+
+	private static VCard tiny() {
+		return parse(TINY_FILE).get(0);
+	}
+
+	private static List<VCard> parse(String file) {
+		try (InputStream in = Corpus.class.getResourceAsStream(SEED_DIR + file)) {
+			return Ezvcard.parse(in).all();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static byte[] resource(String file) {
+		try (InputStream in = Corpus.class.getResourceAsStream(SEED_DIR + file)) {
+			return new Gobble(in).asByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Corpus() {
+		//hide
+	}
+}
@@ -0,0 +1,100 @@
+package ezvcard.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.PreparedVCard;
+import ezvcard.io.json.JCardWriter;
+import ezvcard.io.text.VCardWriter;
+import ezvcard.io.xml.XCardWriter;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Measures how long it takes to write each vCard as a version 4.0 plain-text
+ * vCard, a jCard, and an xCard, with and without preparing each vCard once
+ * up front (see {@link PreparedVCard}).
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FanOutBenchmark {
+	@Param({ "false", "true" })
+	public boolean prepared;
+
+	@Param({ "TINY", "BULK" })
+	public Corpus.Shape shape;
+
+	private List<VCard> vcards;
+
+	@Setup
+	public void setup() {
+		vcards = Corpus.build(shape);
+	}
+
+	@Benchmark
+	public long write() throws IOException {
+		NullWriter out = new NullWriter();
+		try (VCardWriter textWriter = new VCardWriter(out, VCardVersion.V4_0); JCardWriter jcardWriter = new JCardWriter(out, true); XCardWriter xcardWriter = new XCardWriter(out)) {
+			for (VCard vcard : vcards) {
+				if (prepared) {
+					PreparedVCard preparedVCard = textWriter.prepare(vcard);
+					textWriter.write(preparedVCard);
+					jcardWriter.write(preparedVCard);
+					xcardWriter.write(preparedVCard);
+				} else {
+					textWriter.write(vcard);
+					jcardWriter.write(vcard);
+					xcardWriter.write(vcard);
+				}
+			}
+		}
+		return out.getCount();
+	}
+}
@@ -0,0 +1,191 @@
+package ezvcard.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.StreamReader;
+import ezvcard.io.html.HCardPage;
+import ezvcard.io.html.HCardParser;
+import ezvcard.io.json.JCardReader;
+import ezvcard.io.json.JCardWriter;
+import ezvcard.io.text.VCardReader;
+import ezvcard.io.text.VCardWriter;
+import ezvcard.io.xml.XCardReader;
+import ezvcard.io.xml.XCardWriter;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * The data formats that the benchmarks are run against. Each plain-text vCard
+ * version is treated as its own format.
+ * @author Michael Angstadt
+ */
+public enum Format {
+	VCARD_2_1 {
+		@Override
+		StreamReader reader(String data) {
+			return new VCardReader(data);
+		}
+
+		@Override
+		void write(List<VCard> vcards, Writer out) throws IOException {
+			writeText(vcards, out, VCardVersion.V2_1);
+		}
+	},
+
+	VCARD_3_0 {
+		@Override
+		StreamReader reader(String data) {
+			return new VCardReader(data);
+		}
+
+		@Override
+		void write(List<VCard> vcards, Writer out) throws IOException {
+			writeText(vcards, out, VCardVersion.V3_0);
+		}
+	},
+
+	VCARD_4_0 {
+		@Override
+		StreamReader reader(String data) {
+			return new VCardReader(data);
+		}
+
+		@Override
+		void write(List<VCard> vcards, Writer out) throws IOException {
+			writeText(vcards, out, VCardVersion.V4_0);
+		}
+	},
+
+	XCARD {
+		@Override
+		StreamReader reader(String data) {
+			return new XCardReader(data);
+		}
+
+		@Override
+		void write(List<VCard> vcards, Writer out) throws IOException {
+			try (XCardWriter writer = new XCardWriter(out)) {
+				for (VCard vcard : vcards) {
+					writer.write(vcard);
+				}
+			}
+		}
+	},
+
+	JCARD {
+		@Override
+		StreamReader reader(String data) {
+			return new JCardReader(data);
+		}
+
+		@Override
+		void write(List<VCard> vcards, Writer out) throws IOException {
+			try (JCardWriter writer = new JCardWriter(out, true)) {
+				for (VCard vcard : vcards) {
+					writer.write(vcard);
+				}
+			}
+		}
+	},
+
+	HCARD {
+		@Override
+		StreamReader reader(String data) {
+			return new HCardParser(data);
+		}
+
+		@Override
+		void write(List<VCard> vcards, Writer out) throws IOException {
+			HCardPage page = new HCardPage();
+			for (VCard vcard : vcards) {
+				page.add(vcard);
+			}
+			page.write(out);
+		}
+	};
+
+	/**
+	 * Creates a reader that parses the given data.
+	 * @param data the data, in this format
+	 * @return the reader
+	 */
+	abstract StreamReader reader(String data);
+
+	/**
+	 * Writes vCards in this format.
+	 * @param vcards the vCards to write
+	 * @param out the writer to write to
+	 * @throws IOException if there's a problem writing to the writer
+	 */
+	abstract void write(List<VCard> vcards, Writer out) throws IOException;
+
+	/**
+	 * Reads every vCard in the given data, handing each one to the blackhole
+	 * so the parsed objects are not retained.
+	 * @param data the data, in this format
+	 * @param bh the blackhole
+	 * @throws IOException if there's a problem reading the data
+	 */
+	void read(String data, Blackhole bh) throws IOException {
+		try (StreamReader reader = reader(data)) {
+			VCard vcard;
+			while ((vcard = reader.readNext()) != null) {
+				bh.consume(vcard);
+			}
+		}
+	}
+
+	/**
+	 * Writes vCards in this format to a string.
+	 * @param vcards the vCards to write
+	 * @return the string
+	 * @throws IOException if there's a problem writing the vCards
+	 */
+	String write(List<VCard> vcards) throws IOException {
+		StringWriter sw = new StringWriter();
+		write(vcards, sw);
+		return sw.toString();
+	}
+
+	private static void writeText(List<VCard> vcards, Writer out, VCardVersion version) throws IOException {
+		try (VCardWriter writer = new VCardWriter(out, version)) {
+			for (VCard vcard : vcards) {
+				writer.write(vcard);
+			}
+		}
+	}
+}
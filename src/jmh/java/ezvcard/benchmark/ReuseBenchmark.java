@@ -0,0 +1,112 @@
+package ezvcard.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.text.VCardReader;
+import ezvcard.io.text.VCardWriter;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Measures the cost of parsing and writing a single, small vCard with a new
+ * reader/writer each time versus reusing one (see {@link VCardReader#reset}
+ * and {@link VCardWriter#reset}). Run with "-prof gc" to see the allocation
+ * rate.
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReuseBenchmark {
+	@Param({ "false", "true" })
+	public boolean reuse;
+
+	@Param({ "false", "true" })
+	public boolean fastTokenizer;
+
+	private String data;
+	private VCard vcard;
+	private VCardReader reader;
+	private VCardWriter writer;
+
+	@Setup
+	public void setup() throws IOException {
+		vcard = Corpus.build(Corpus.Shape.TINY).get(0);
+		data = Format.VCARD_4_0.write(Corpus.build(Corpus.Shape.TINY));
+
+		reader = new VCardReader(data);
+		reader.setFastTokenizerEnabled(fastTokenizer);
+		writer = new VCardWriter(new StringWriter(), VCardVersion.V4_0);
+	}
+
+	@Benchmark
+	public VCard read() throws IOException {
+		if (reuse) {
+			reader.reset(data);
+			return reader.readNext();
+		}
+
+		VCardReader reader = new VCardReader(data);
+		reader.setFastTokenizerEnabled(fastTokenizer);
+		return reader.readNext();
+	}
+
+	@Benchmark
+	public int write() throws IOException {
+		StringWriter sw = new StringWriter();
+		if (reuse) {
+			writer.reset(sw);
+			writer.write(vcard);
+		} else {
+			VCardWriter writer = new VCardWriter(sw, VCardVersion.V4_0);
+			writer.write(vcard);
+		}
+		return sw.getBuffer().length();
+	}
+}
@@ -0,0 +1,111 @@
+package ezvcard.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.text.VCardWriter;
+import ezvcard.parameter.EmailType;
+import ezvcard.parameter.TelephoneType;
+import ezvcard.property.Categories;
+import ezvcard.property.Email;
+import ezvcard.property.Note;
+import ezvcard.property.RawProperty;
+import ezvcard.property.Telephone;
+import ezvcard.property.Url;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Measures the throughput of writing a plain-text vCard that contains a large
+ * number of small properties, where the per-property overhead of the writer
+ * (as opposed to the cost of serializing each value) dominates.
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WritePlanBenchmark {
+	private static final int PROPERTIES_PER_TYPE = 40;
+
+	@Param({ "V3_0", "V4_0" })
+	public VCardVersion version;
+
+	private VCard vcard;
+
+	@Setup
+	public void setup() {
+		vcard = new VCard();
+		vcard.setFormattedName("John Doe");
+		for (int i = 0; i < PROPERTIES_PER_TYPE; i++) {
+			Telephone tel = new Telephone("+1 555 555 " + i);
+			tel.getTypes().add(TelephoneType.WORK);
+			vcard.addTelephoneNumber(tel);
+
+			Email email = new Email("john" + i + "@example.com");
+			email.getTypes().add(EmailType.HOME);
+			vcard.addEmail(email);
+
+			vcard.addNote(new Note("Note " + i));
+			vcard.addUrl(new Url("http://www.example.com/" + i));
+
+			Categories categories = new Categories();
+			categories.getValues().add("category" + i);
+			vcard.addCategories(categories);
+
+			vcard.addProperty(new RawProperty("X-CUSTOM", "value " + i));
+		}
+	}
+
+	@Benchmark
+	public long write() throws IOException {
+		NullWriter out = new NullWriter();
+		try (VCardWriter writer = new VCardWriter(out, version)) {
+			writer.write(vcard);
+		}
+		return out.getCount();
+	}
+}
@@ -0,0 +1,115 @@
+package ezvcard.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import ezvcard.VCard;
+import ezvcard.io.xml.XCardDocument;
+import ezvcard.property.Uid;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Measures how long it takes to look up vCards in an {@link XCardDocument}
+ * that is kept in memory and queried repeatedly.
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XCardDocumentBenchmark {
+	private static final int SIZE = 1000;
+
+	private Document document;
+	private XCardDocument xcard;
+	private int next;
+
+	@Setup
+	public void setup() {
+		XCardDocument xcard = new XCardDocument();
+		for (int i = 0; i < SIZE; i++) {
+			VCard vcard = new VCard();
+			vcard.setFormattedName("John Doe " + i);
+			vcard.addEmail("johndoe" + i + "@example.com");
+			vcard.addTelephoneNumber("+1 555 555 " + i);
+			vcard.setUid(new Uid(uid(i)));
+			xcard.addVCard(vcard);
+		}
+		document = xcard.getDocument();
+		this.xcard = new XCardDocument(document);
+	}
+
+	private static String uid(int i) {
+		return "urn:uuid:" + i;
+	}
+
+	/**
+	 * Wraps the DOM, which includes finding the {@code <vcards>} element.
+	 */
+	@Benchmark
+	public XCardDocument wrap() {
+		return new XCardDocument(document);
+	}
+
+	/**
+	 * Parses the entire document.
+	 */
+	@Benchmark
+	public List<VCard> getVCards() {
+		return xcard.getVCards();
+	}
+
+	@Benchmark
+	public VCard getVCard() {
+		next = (next + 1) % SIZE;
+		return xcard.getVCard(next);
+	}
+
+	@Benchmark
+	public VCard getVCardByUid() {
+		next = (next + 1) % SIZE;
+		return xcard.getVCardByUid(uid(next));
+	}
+}
@@ -0,0 +1,141 @@
+package ezvcard.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ezvcard.VCard;
+import ezvcard.io.xml.XCardReader;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Measures the cost of parsing a small xCard document from start to finish,
+ * which is dominated by reader setup and teardown. Alongside the latency, the
+ * {@code threadsStarted} counter reports how many threads were started per
+ * document.
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XCardReaderBenchmark {
+	private String xml;
+	private String seedXml;
+
+	@Setup
+	public void setup() throws IOException {
+		xml = Format.XCARD.write(Corpus.build(Corpus.Shape.TINY));
+
+		/*
+		 * Leave out the vCards that contain characters which are not allowed
+		 * in XML 1.0 (such as form feeds).
+		 */
+		List<VCard> vcards = new ArrayList<>();
+		for (VCard vcard : Corpus.seed()) {
+			try (XCardReader reader = new XCardReader(Format.XCARD.write(Collections.singletonList(vcard)))) {
+				reader.readNext();
+				vcards.add(vcard);
+			} catch (IOException e) {
+				//skip it
+			}
+		}
+		seedXml = Format.XCARD.write(vcards);
+	}
+
+	@Benchmark
+	public VCard readSmallDocument(ThreadCounter counter) throws IOException {
+		try (XCardReader reader = new XCardReader(xml)) {
+			return reader.readNext();
+		}
+	}
+
+	/**
+	 * Reads every vCard in the seed corpus, which contains a wide variety of
+	 * properties.
+	 */
+	@Benchmark
+	public void readSeedDocument(Blackhole bh) throws IOException {
+		try (XCardReader reader = new XCardReader(seedXml)) {
+			VCard vcard;
+			while ((vcard = reader.readNext()) != null) {
+				bh.consume(vcard);
+			}
+		}
+	}
+
+	/**
+	 * Counts the number of threads the JVM starts during each iteration.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class ThreadCounter {
+		private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		private long start;
+
+		/**
+		 * The number of threads that were started during the iteration.
+		 */
+		public long threadsStarted;
+
+		@Setup(Level.Iteration)
+		public void start() {
+			threadsStarted = 0;
+			start = threads.getTotalStartedThreadCount();
+		}
+
+		@TearDown(Level.Iteration)
+		public void stop() {
+			threadsStarted = threads.getTotalStartedThreadCount() - start;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package ezvcard.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import ezvcard.VCard;
+import ezvcard.io.xml.StaxXCardWriter;
+import ezvcard.io.xml.XCardDocument;
+import ezvcard.io.xml.XCardReader;
+import ezvcard.io.xml.XCardWriter;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Measures the fixed cost of creating an xCard reader or writer and using it
+ * to process a single, small vCard. This is what a short-lived request handler
+ * pays on every request, so the cost is dominated by setting up the XML
+ * parsers and serializers rather than by the vCard data.
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XCardStartupBenchmark {
+	private VCard vcard;
+	private String xml;
+
+	@Setup
+	public void setup() {
+		vcard = new VCard();
+		vcard.setFormattedName("John Doe");
+		vcard.addEmail("johndoe@example.com");
+
+		StringWriter sw = new StringWriter();
+		try (XCardWriter writer = new XCardWriter(sw)) {
+			writer.write(vcard);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		xml = sw.toString();
+	}
+
+	@Benchmark
+	public VCard readStream() throws IOException {
+		try (XCardReader reader = new XCardReader(xml)) {
+			return reader.readNext();
+		}
+	}
+
+	@Benchmark
+	public VCard readDocument() throws SAXException {
+		return new XCardDocument(xml).getVCards().get(0);
+	}
+
+	@Benchmark
+	public String writeTransformer() throws IOException {
+		StringWriter sw = new StringWriter();
+		try (XCardWriter writer = new XCardWriter(sw)) {
+			writer.write(vcard);
+		}
+		return sw.toString();
+	}
+
+	@Benchmark
+	public String writeStax() throws IOException {
+		StringWriter sw = new StringWriter();
+		try (StaxXCardWriter writer = new StaxXCardWriter(sw)) {
+			writer.write(vcard);
+		}
+		return sw.toString();
+	}
+
+	@Benchmark
+	public String writeDocument() {
+		XCardDocument document = new XCardDocument();
+		document.addVCard(vcard);
+		return document.write();
+	}
+}
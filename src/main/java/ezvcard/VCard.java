@@ -8,6 +8,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.Temporal;
 import java.util.AbstractList;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -20,6 +21,7 @@ import java.util.Set;
 
 import javax.xml.transform.TransformerException;
 
+import ezvcard.io.DeferredProperty;
 import ezvcard.io.html.HCardPage;
 import ezvcard.io.json.JCardWriter;
 import ezvcard.io.text.VCardWriter;
@@ -118,6 +120,7 @@ import ezvcard.util.StringUtils;
 public class VCard implements Iterable<VCardProperty> {
 	private VCardVersion version;
 	private final ListMultimap<Class<? extends VCardProperty>, VCardProperty> properties = new ListMultimap<>();
+	private DeferredProperties deferred;
 
 	/**
 	 * Creates a new vCard set to version 3.0.
@@ -4198,6 +4201,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the iterator
 	 */
 	public Iterator<VCardProperty> iterator() {
+		parseDeferredProperties();
 		return properties.values().iterator();
 	}
 
@@ -4208,6 +4212,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the property or null if not found
 	 */
 	public <T extends VCardProperty> T getProperty(Class<T> clazz) {
+		parseDeferredProperties(clazz);
 		return clazz.cast(properties.first(clazz));
 	}
 
@@ -4263,6 +4268,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the properties (this list is immutable)
 	 */
 	public Collection<VCardProperty> getProperties() {
+		parseDeferredProperties();
 		return properties.values();
 	}
 
@@ -4271,6 +4277,17 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @param property the property to add
 	 */
 	public void addProperty(VCardProperty property) {
+		/*
+		 * RawProperty objects can be added without parsing the deferred
+		 * properties, because deferred properties that cannot be parsed are
+		 * inserted in front of them (see addDeferredProperty).
+		 */
+		if (property.getClass() != RawProperty.class) {
+			parseDeferredProperties(property.getClass());
+		} else if (deferred != null && !properties.containsKey(RawProperty.class)) {
+			//this property decides the RawProperty class's position, unless a deferred property that was read before it cannot be parsed
+			deferred.rawClassOrder = deferred.count;
+		}
 		properties.put(property.getClass(), property);
 	}
 
@@ -4281,6 +4298,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the properties that were replaced (this list is immutable)
 	 */
 	public List<VCardProperty> setProperty(VCardProperty property) {
+		parseDeferredProperties(property.getClass());
 		return properties.replace(property.getClass(), property);
 	}
 
@@ -4294,6 +4312,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the properties that were replaced (this list is immutable)
 	 */
 	public <T extends VCardProperty> List<T> setProperty(Class<T> clazz, T property) {
+		parseDeferredProperties(clazz);
 		List<VCardProperty> replaced = properties.replace(clazz, property);
 		return castList(replaced, clazz);
 	}
@@ -4304,6 +4323,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return true if it was removed, false if it wasn't found
 	 */
 	public boolean removeProperty(VCardProperty property) {
+		parseDeferredProperties(property.getClass());
 		return properties.remove(property.getClass(), property);
 	}
 
@@ -4314,6 +4334,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the properties that were removed (this list is immutable)
 	 */
 	public <T extends VCardProperty> List<T> removeProperties(Class<T> clazz) {
+		parseDeferredProperties(clazz);
 		List<VCardProperty> removed = properties.removeAll(clazz);
 		return castList(removed, clazz);
 	}
@@ -4490,6 +4511,248 @@ public class VCard implements Iterable<VCardProperty> {
 		return removed;
 	}
 
+	/**
+	 * <p>
+	 * Adds a property whose value will be parsed the first time the properties
+	 * of the given class are accessed. This is used by readers that parse
+	 * property values on demand (see
+	 * {@link ezvcard.io.text.VCardReader#setLazyParsing}).
+	 * </p>
+	 * <p>
+	 * Deferred properties must be added in the order they were read. If a
+	 * deferred property cannot be parsed and is converted to a
+	 * {@link RawProperty}, it is put in the same position it would have been
+	 * put in if it had been parsed right away, no matter when it is parsed.
+	 * </p>
+	 * <p>
+	 * Note that vCards that contain deferred properties are not thread-safe,
+	 * even when they are only being read from, because accessing a property
+	 * may cause it to be parsed.
+	 * </p>
+	 * @param clazz the class of the property once it is parsed
+	 * @param property the deferred property
+	 */
+	public void addDeferredProperty(Class<? extends VCardProperty> clazz, DeferredProperty property) {
+		if (deferred == null) {
+			deferred = new DeferredProperties(properties.containsKey(RawProperty.class));
+		}
+
+		/*
+		 * Reserve the class's position in the property map so that the
+		 * properties are iterated over in the same order as they would be if
+		 * they had been parsed right away.
+		 */
+		Map<Class<? extends VCardProperty>, List<VCardProperty>> map = properties.getMap();
+		boolean reserved = !map.containsKey(clazz);
+		if (reserved) {
+			map.put(clazz, new ArrayList<>());
+		}
+
+		/*
+		 * Remember how many of the vCard's RawProperty objects were read
+		 * before this property, in case it cannot be parsed.
+		 */
+		List<VCardProperty> raws = map.get(RawProperty.class);
+		int rawIndex = ((raws == null) ? 0 : raws.size()) - deferred.unparseable.size();
+
+		deferred.slots.put(clazz, new DeferredSlot(property, deferred.count++, rawIndex, reserved));
+	}
+
+	/**
+	 * Determines if this vCard contains any properties that have not been
+	 * parsed yet.
+	 * @return true if there are deferred properties, false if not
+	 * @see #addDeferredProperty
+	 */
+	public boolean hasDeferredProperties() {
+		return deferred != null;
+	}
+
+	/**
+	 * Parses all properties that have not been parsed yet.
+	 * @see #addDeferredProperty
+	 */
+	public void parseDeferredProperties() {
+		if (deferred == null) {
+			return;
+		}
+
+		DeferredProperties toParse = deferred;
+		deferred = null;
+		for (Map.Entry<Class<? extends VCardProperty>, List<DeferredSlot>> entry : toParse.slots) {
+			parseDeferredProperties(toParse, entry.getKey(), entry.getValue());
+		}
+	}
+
+	private void parseDeferredProperties(Class<? extends VCardProperty> clazz) {
+		if (deferred == null) {
+			return;
+		}
+
+		/*
+		 * Properties that cannot be parsed are converted to RawProperty
+		 * objects, so every property must be parsed in order to know what the
+		 * vCard's RawProperty objects are.
+		 */
+		if (clazz == RawProperty.class) {
+			parseDeferredProperties();
+			return;
+		}
+
+		DeferredProperties toParse = deferred;
+		List<DeferredSlot> slots = toParse.slots.removeAll(clazz);
+		if (toParse.slots.isEmpty()) {
+			deferred = null;
+		}
+		parseDeferredProperties(toParse, clazz, slots);
+	}
+
+	private void parseDeferredProperties(DeferredProperties deferred, Class<? extends VCardProperty> clazz, List<DeferredSlot> slots) {
+		for (DeferredSlot slot : slots) {
+			VCardProperty property = slot.property.parse();
+			if (property == null) {
+				continue;
+			}
+
+			if (property.getClass() == RawProperty.class) {
+				addUnparseableProperty(deferred, clazz, slot, property);
+				continue;
+			}
+
+			properties.put(property.getClass(), property);
+		}
+
+		//remove the reserved position if no properties were added to it
+		Map<Class<? extends VCardProperty>, List<VCardProperty>> map = properties.getMap();
+		List<VCardProperty> list = map.get(clazz);
+		if (list != null && list.isEmpty()) {
+			map.remove(clazz);
+		}
+	}
+
+	/**
+	 * Adds a deferred property that could not be parsed, and was converted to
+	 * a {@link RawProperty}, to the position it would have if it had been
+	 * parsed right away.
+	 * @param deferred the deferred properties
+	 * @param clazz the class the property was supposed to be parsed as
+	 * @param slot the property's slot
+	 * @param property the converted property
+	 */
+	private void addUnparseableProperty(DeferredProperties deferred, Class<? extends VCardProperty> clazz, DeferredSlot slot, VCardProperty property) {
+		List<Integer> unparseable = deferred.unparseable;
+		int before = -Collections.binarySearch(unparseable, slot.order) - 1;
+		unparseable.add(before, slot.order);
+
+		List<VCardProperty> raws = properties.get(RawProperty.class);
+
+		raws.add(slot.rawIndex + before, property);
+
+		//the RawProperty class's position in the property map is decided by the RawProperty that was read first
+		if (slot.order < deferred.rawClassOrder) {
+			deferred.rawClassOrder = slot.order;
+			moveRawPropertyClass(clazz, slot.reserved);
+		}
+	}
+
+	/**
+	 * Moves the {@link RawProperty} class next to another class in the
+	 * property map.
+	 * @param clazz the other class
+	 * @param before true to move it in front of the other class (used when
+	 * the other class's position was reserved by the unparseable property,
+	 * which will be removed if nothing else is added to it), false to move it
+	 * after the other class
+	 */
+	private void moveRawPropertyClass(Class<? extends VCardProperty> clazz, boolean before) {
+		Map<Class<? extends VCardProperty>, List<VCardProperty>> map = properties.getMap();
+		List<VCardProperty> raws = map.remove(RawProperty.class);
+
+		List<Map.Entry<Class<? extends VCardProperty>, List<VCardProperty>>> moved = new ArrayList<>();
+		boolean found = false;
+		for (Iterator<Map.Entry<Class<? extends VCardProperty>, List<VCardProperty>>> it = map.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<Class<? extends VCardProperty>, List<VCardProperty>> entry = it.next();
+			if (entry.getKey() == clazz) {
+				found = true;
+				if (!before) {
+					continue;
+				}
+			}
+			if (found) {
+				moved.add(new AbstractMap.SimpleEntry<>(entry));
+				it.remove();
+			}
+		}
+
+		map.put(RawProperty.class, raws);
+		for (Map.Entry<Class<? extends VCardProperty>, List<VCardProperty>> entry : moved) {
+			map.put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Holds the properties of a vCard that have not been parsed yet.
+	 * @see VCard#addDeferredProperty
+	 */
+	private static class DeferredProperties {
+		private final ListMultimap<Class<? extends VCardProperty>, DeferredSlot> slots = new ListMultimap<>();
+
+		/**
+		 * The read order of the deferred properties that were converted to
+		 * {@link RawProperty} objects because they could not be parsed
+		 * (sorted).
+		 */
+		private final List<Integer> unparseable = new ArrayList<>(0);
+
+		/**
+		 * The read order of the {@link RawProperty} that decided the
+		 * {@link RawProperty} class's position in the property map. A
+		 * {@link RawProperty} that was added directly has the read order of the
+		 * next deferred property.
+		 */
+		private int rawClassOrder;
+
+		/**
+		 * The number of deferred properties that have been added.
+		 */
+		private int count;
+
+		/**
+		 * @param hasRawProperties true if the vCard already has
+		 * {@link RawProperty} objects, false if not
+		 */
+		public DeferredProperties(boolean hasRawProperties) {
+			rawClassOrder = hasRawProperties ? -1 : Integer.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * A deferred property and the information needed to put it in its
+	 * original position once it is parsed.
+	 */
+	private static class DeferredSlot {
+		private final DeferredProperty property;
+		private final int order;
+		private final int rawIndex;
+		private final boolean reserved;
+
+		/**
+		 * @param property the deferred property
+		 * @param order the order the property was read in
+		 * @param rawIndex the number of the vCard's {@link RawProperty}
+		 * objects that were read before this property, not counting
+		 * unparseable deferred properties
+		 * @param reserved true if this property reserved its class's position
+		 * in the property map, false if the class was already there
+		 */
+		public DeferredSlot(DeferredProperty property, int order, int rawIndex, boolean reserved) {
+			this.property = property;
+			this.order = order;
+			this.rawIndex = rawIndex;
+			this.reserved = reserved;
+		}
+	}
+
 	/**
 	 * Casts all objects in the given list to the given class, adding the casted
 	 * objects to a new list.
@@ -4541,6 +4804,8 @@ public class VCard implements Iterable<VCardProperty> {
 
 	@Override
 	public String toString() {
+		parseDeferredProperties();
+
 		StringBuilder sb = new StringBuilder();
 		sb.append("version=").append(version);
 		for (VCardProperty property : properties.values()) {
@@ -4551,6 +4816,8 @@ public class VCard implements Iterable<VCardProperty> {
 
 	@Override
 	public int hashCode() {
+		parseDeferredProperties();
+
 		final int prime = 31;
 		int result = 1;
 
@@ -4572,6 +4839,9 @@ public class VCard implements Iterable<VCardProperty> {
 		if (getClass() != obj.getClass()) return false;
 		VCard other = (VCard) obj;
 		if (version != other.version) return false;
+
+		parseDeferredProperties();
+		other.parseDeferredProperties();
 		if (properties.size() != other.properties.size()) return false;
 
 		for (Map.Entry<Class<? extends VCardProperty>, List<VCardProperty>> entry : properties) {
@@ -4636,6 +4906,7 @@ public class VCard implements Iterable<VCardProperty> {
 		 * @param propertyClass the property class
 		 */
 		public VCardPropertyList(Class<T> propertyClass) {
+			parseDeferredProperties(propertyClass);
 			this.propertyClass = propertyClass;
 			properties = VCard.this.properties.get(propertyClass);
 		}
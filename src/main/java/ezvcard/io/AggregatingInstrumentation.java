@@ -0,0 +1,309 @@
+package ezvcard.io;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import ezvcard.io.scribe.VCardPropertyScribe;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Adds up the measurements that a reader or writer reports, both for the
+ * vCard that was most recently read or written and for all vCards. This
+ * class is thread-safe.
+ * </p>
+ * <p>
+ * Properties are grouped by the property name of their scribe (see
+ * {@link VCardPropertyScribe#getPropertyName}). A separate instance should be
+ * used for each reader and writer, since the measurements of all vCards are
+ * added up together.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * AggregatingInstrumentation instrumentation = new AggregatingInstrumentation();
+ * try (VCardReader reader = new VCardReader(file)) {
+ *   reader.setInstrumentation(instrumentation);
+ *   VCard vcard;
+ *   while ((vcard = reader.readNext()) != null) {
+ *     AggregatingInstrumentation.Metrics metrics = instrumentation.getLastVCard();
+ *     //...
+ *   }
+ * }
+ *
+ * AggregatingInstrumentation.Metrics total = instrumentation.getTotal();
+ * for (Map.Entry&lt;String, AggregatingInstrumentation.Timing&gt; entry : total.getParsedProperties().entrySet()) {
+ *   String propertyName = entry.getKey();
+ *   AggregatingInstrumentation.Timing timing = entry.getValue();
+ *   //...
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ */
+public class AggregatingInstrumentation implements Instrumentation {
+	private final Metrics total = new Metrics();
+	private Metrics current = new Metrics();
+	private Metrics last = new Metrics();
+
+	/**
+	 * Gets the measurements of all the vCards.
+	 * @return a copy of the measurements
+	 */
+	public synchronized Metrics getTotal() {
+		return new Metrics(total);
+	}
+
+	/**
+	 * Gets the measurements of the vCard that was most recently read or
+	 * written. This relies on the measurements of each vCard being reported
+	 * together, which the parallel readers and writers take care of, so the
+	 * result is mixed up if the instance is shared by readers or writers that
+	 * run at the same time.
+	 * @return a copy of the measurements
+	 */
+	public synchronized Metrics getLastVCard() {
+		return new Metrics(last);
+	}
+
+	/**
+	 * Discards all measurements.
+	 */
+	public synchronized void reset() {
+		total.clear();
+		current = new Metrics();
+		last = new Metrics();
+	}
+
+	public synchronized void propertyParsed(VCardPropertyScribe<?> scribe, long nanos) {
+		String name = scribe.getPropertyName();
+		total.parsedProperties.computeIfAbsent(name, k -> new Timing()).add(nanos);
+		current.parsedProperties.computeIfAbsent(name, k -> new Timing()).add(nanos);
+	}
+
+	public synchronized void binaryDataDecoded(int bytes) {
+		total.binaryBytesDecoded += bytes;
+		current.binaryBytesDecoded += bytes;
+	}
+
+	public synchronized void nestedVCardRead() {
+		total.nestedVCards++;
+		current.nestedVCards++;
+	}
+
+	public synchronized void linesRead(int lines) {
+		total.lines += lines;
+		current.lines += lines;
+	}
+
+	public synchronized void warningGenerated(ParseWarning warning) {
+		Integer code = warning.getCode();
+		total.warningCounts.merge(code, 1, Integer::sum);
+		current.warningCounts.merge(code, 1, Integer::sum);
+	}
+
+	public synchronized void vcardRead() {
+		endVCard();
+	}
+
+	public synchronized void propertyWritten(VCardPropertyScribe<?> scribe, long nanos) {
+		String name = scribe.getPropertyName();
+		total.writtenProperties.computeIfAbsent(name, k -> new Timing()).add(nanos);
+		current.writtenProperties.computeIfAbsent(name, k -> new Timing()).add(nanos);
+	}
+
+	public synchronized void nestedVCardWritten() {
+		total.nestedVCards++;
+		current.nestedVCards++;
+	}
+
+	public synchronized void vcardWritten() {
+		endVCard();
+	}
+
+	private void endVCard() {
+		total.vcards++;
+		current.vcards++;
+		last = current;
+		current = new Metrics();
+	}
+
+	/**
+	 * A snapshot of the measurements of one or more vCards.
+	 */
+	public static class Metrics {
+		private int vcards;
+		private int nestedVCards;
+		private long lines;
+		private long binaryBytesDecoded;
+		private final Map<String, Timing> parsedProperties;
+		private final Map<String, Timing> writtenProperties;
+		private final Map<Integer, Integer> warningCounts;
+
+		private Metrics() {
+			parsedProperties = new HashMap<>();
+			writtenProperties = new HashMap<>();
+			warningCounts = new HashMap<>();
+		}
+
+		private Metrics(Metrics original) {
+			vcards = original.vcards;
+			nestedVCards = original.nestedVCards;
+			lines = original.lines;
+			binaryBytesDecoded = original.binaryBytesDecoded;
+			parsedProperties = copy(original.parsedProperties);
+			writtenProperties = copy(original.writtenProperties);
+			warningCounts = new HashMap<>(original.warningCounts);
+		}
+
+		private static Map<String, Timing> copy(Map<String, Timing> timings) {
+			Map<String, Timing> copy = new HashMap<>(timings.size());
+			for (Map.Entry<String, Timing> entry : timings.entrySet()) {
+				copy.put(entry.getKey(), new Timing(entry.getValue()));
+			}
+			return copy;
+		}
+
+		private void clear() {
+			vcards = 0;
+			nestedVCards = 0;
+			lines = 0;
+			binaryBytesDecoded = 0;
+			parsedProperties.clear();
+			writtenProperties.clear();
+			warningCounts.clear();
+		}
+
+		/**
+		 * Gets the number of vCards that were read or written.
+		 * @return the number of vCards
+		 */
+		public int getVCards() {
+			return vcards;
+		}
+
+		/**
+		 * Gets the number of nested vCards (such as the values of AGENT
+		 * properties) that were read or written.
+		 * @return the number of nested vCards
+		 */
+		public int getNestedVCards() {
+			return nestedVCards;
+		}
+
+		/**
+		 * Gets the number of lines that the vCards span in the data stream
+		 * they were read from.
+		 * @return the number of lines
+		 */
+		public long getLines() {
+			return lines;
+		}
+
+		/**
+		 * Gets the number of bytes of binary property data (such as
+		 * base64-encoded photos) that were decoded.
+		 * @return the number of bytes
+		 */
+		public long getBinaryBytesDecoded() {
+			return binaryBytesDecoded;
+		}
+
+		/**
+		 * Gets how many property values each scribe parsed, and how long it
+		 * took.
+		 * @return the timings, keyed by property name
+		 */
+		public Map<String, Timing> getParsedProperties() {
+			return Collections.unmodifiableMap(parsedProperties);
+		}
+
+		/**
+		 * Gets how many property values each scribe wrote, and how long it
+		 * took.
+		 * @return the timings, keyed by property name
+		 */
+		public Map<String, Timing> getWrittenProperties() {
+			return Collections.unmodifiableMap(writtenProperties);
+		}
+
+		/**
+		 * Gets the number of warnings of each warning code that were
+		 * generated.
+		 * @return the number of warnings of each code (warnings that do not
+		 * have a code are stored under a null key)
+		 */
+		public Map<Integer, Integer> getWarningCounts() {
+			return Collections.unmodifiableMap(warningCounts);
+		}
+	}
+
+	/**
+	 * The number of times an operation was performed, and how long it took
+	 * altogether.
+	 */
+	public static class Timing {
+		private int count;
+		private long nanos;
+
+		private Timing() {
+			//empty
+		}
+
+		private Timing(Timing original) {
+			count = original.count;
+			nanos = original.nanos;
+		}
+
+		private void add(long nanos) {
+			count++;
+			this.nanos += nanos;
+		}
+
+		/**
+		 * Gets the number of times the operation was performed.
+		 * @return the count
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * Gets the total amount of time the operation took.
+		 * @return the time in nanoseconds
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+	}
+}
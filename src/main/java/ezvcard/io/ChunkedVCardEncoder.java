@@ -0,0 +1,231 @@
+package ezvcard.io;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Function;
+
+import ezvcard.Messages;
+import ezvcard.VCard;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Encodes vCards into chunks of bytes on demand. Nothing is encoded until a
+ * chunk is requested, and vCards are pulled from the source one at a time, only
+ * when all of the previously encoded data has been handed out. This makes it
+ * possible to stream vCards to a slow consumer (such as a non-blocking network
+ * connection) without blocking a thread on the consumer and without encoding
+ * the entire data stream in memory.
+ * </p>
+ * <p>
+ * The vCards are encoded by a regular {@link StreamWriter} (such as a
+ * {@link ezvcard.io.text.VCardWriter VCardWriter} or a
+ * {@link ezvcard.io.json.JCardWriter JCardWriter}), which is created by the
+ * given factory function and writes to an internal buffer. The buffer only
+ * ever holds the encoded form of a single vCard, so its size is bounded by the
+ * size of the largest vCard.
+ * </p>
+ * <p>
+ * Writers that implement {@link Flushable} are flushed after each vCard.
+ * Writers that do not (such as
+ * {@link ezvcard.io.xml.XCardWriter XCardWriter}) may hold onto their output
+ * until they are closed, which happens once the source runs out of vCards.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * Iterator&lt;VCard&gt; vcards = ...
+ * ChunkedVCardEncoder encoder = new ChunkedVCardEncoder(vcards, out -&gt; new JCardWriter(out, true), 8192);
+ *
+ * //called whenever the consumer is ready for more data
+ * ByteBuffer chunk = encoder.nextChunk();
+ * if (chunk == null) {
+ *   //all the vCards have been encoded
+ * }
+ * </pre>
+ * <p>
+ * <b>Thread safety:</b> Instances of this class are not thread-safe.
+ * </p>
+ * @author Michael Angstadt
+ */
+public class ChunkedVCardEncoder implements Closeable {
+	private final Iterator<? extends VCard> vcards;
+	private final Function<OutputStream, ? extends StreamWriter> writerFactory;
+	private final int chunkSize;
+	private final ChunkBuffer buffer = new ChunkBuffer();
+	private StreamWriter writer;
+	private boolean finished = false;
+
+	/**
+	 * @param vcards the vCards to encode
+	 * @param writerFactory creates the writer that encodes the vCards. The
+	 * function is passed the output stream that the writer must write to. It is
+	 * called once, when the first chunk is requested.
+	 * @param chunkSize the maximum size of each chunk, in bytes
+	 * @throws IllegalArgumentException if the chunk size is less than 1
+	 */
+	public ChunkedVCardEncoder(Iterator<? extends VCard> vcards, Function<OutputStream, ? extends StreamWriter> writerFactory, int chunkSize) {
+		if (chunkSize < 1) {
+			throw Messages.INSTANCE.getIllegalArgumentException(46);
+		}
+
+		this.vcards = vcards;
+		this.writerFactory = writerFactory;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Gets the next chunk of encoded data. If there is no encoded data waiting
+	 * to be handed out, the next vCard is pulled from the source and encoded.
+	 * @return the next chunk (at most the chunk size in length, and never
+	 * empty) or null if all the vCards have been encoded. The returned buffer
+	 * is not used by this class after it is returned, so it can be handed off
+	 * to another thread.
+	 * @throws IOException if there's a problem encoding a vCard
+	 */
+	public ByteBuffer nextChunk() throws IOException {
+		while (buffer.available() == 0) {
+			if (finished) {
+				return null;
+			}
+			encodeNext();
+		}
+
+		return ByteBuffer.wrap(buffer.read(chunkSize));
+	}
+
+	/**
+	 * Determines if all the vCards have been encoded and all the encoded data
+	 * has been handed out.
+	 * @return true if the encoder is done, false if not
+	 */
+	public boolean isDone() {
+		return finished && buffer.available() == 0;
+	}
+
+	/**
+	 * Gets the number of encoded bytes that are waiting to be handed out.
+	 * @return the number of bytes
+	 */
+	public int available() {
+		return buffer.available();
+	}
+
+	private void encodeNext() throws IOException {
+		if (writer == null) {
+			writer = writerFactory.apply(buffer);
+		}
+
+		if (!vcards.hasNext()) {
+			finished = true;
+			writer.close();
+			return;
+		}
+
+		writer.write(vcards.next());
+		if (writer instanceof Flushable) {
+			((Flushable) writer).flush();
+		}
+	}
+
+	/**
+	 * Stops encoding vCards. Any encoded data that has not been handed out is
+	 * discarded.
+	 * @throws IOException if there's a problem closing the writer
+	 */
+	public void close() throws IOException {
+		buffer.discard();
+		if (finished) {
+			return;
+		}
+
+		finished = true;
+		if (writer != null) {
+			writer.close();
+			buffer.discard();
+		}
+	}
+
+	/**
+	 * Holds the encoded data until it is handed out. The buffer's storage is
+	 * reused once all of its data has been read.
+	 */
+	private static class ChunkBuffer extends OutputStream {
+		private byte[] buf = new byte[1024];
+		private int count = 0;
+		private int pos = 0;
+
+		@Override
+		public void write(int b) {
+			ensureCapacity(1);
+			buf[count++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			ensureCapacity(len);
+			System.arraycopy(b, off, buf, count, len);
+			count += len;
+		}
+
+		private void ensureCapacity(int len) {
+			int needed = count + len;
+			if (needed > buf.length) {
+				buf = Arrays.copyOf(buf, Math.max(buf.length * 2, needed));
+			}
+		}
+
+		public int available() {
+			return count - pos;
+		}
+
+		public byte[] read(int max) {
+			int len = Math.min(max, available());
+			byte[] chunk = Arrays.copyOfRange(buf, pos, pos + len);
+			pos += len;
+			if (pos == count) {
+				discard();
+			}
+			return chunk;
+		}
+
+		public void discard() {
+			pos = count = 0;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package ezvcard.io;
+
+import ezvcard.io.scribe.VCardPropertyScribe;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Receives measurements from a {@link StreamReader} or {@link StreamWriter},
+ * such as how long each property scribe takes to parse or write its property
+ * values. Instrumentation is disabled by default, in which case the readers
+ * and writers do not take any measurements.
+ * </p>
+ * <p>
+ * Measurements are reported as events. The events that belong to a vCard
+ * are followed by a {@link #vcardRead} or {@link #vcardWritten} event, which
+ * marks the end of the vCard. {@link AggregatingInstrumentation} adds the
+ * measurements up, both per vCard and in total.
+ * </p>
+ * <p>
+ * Property-level measurements (timings, binary data, line counts, and nested
+ * vCards) are only taken by the plain-text readers and writers. The other
+ * readers and writers only report warnings and the vCard boundaries.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * AggregatingInstrumentation metrics = new AggregatingInstrumentation();
+ * try (VCardReader reader = new VCardReader(file)) {
+ *   reader.setInstrumentation(metrics);
+ *   VCard vcard;
+ *   while ((vcard = reader.readNext()) != null) {
+ *     //...
+ *   }
+ * }
+ * AggregatingInstrumentation.Metrics total = metrics.getTotal();
+ * </pre>
+ * @author Michael Angstadt
+ * @see StreamReader#setInstrumentation
+ * @see StreamWriter#setInstrumentation
+ */
+public interface Instrumentation {
+	/**
+	 * Called after a property scribe parses a property value.
+	 * @param scribe the scribe
+	 * @param nanos the amount of time the scribe took, in nanoseconds
+	 */
+	void propertyParsed(VCardPropertyScribe<?> scribe, long nanos);
+
+	/**
+	 * Called after the binary data of a property (such as a base64-encoded
+	 * photo) is decoded.
+	 * @param bytes the number of bytes that were decoded
+	 */
+	void binaryDataDecoded(int bytes);
+
+	/**
+	 * Called when a nested vCard (such as the value of an AGENT property) is
+	 * read.
+	 */
+	void nestedVCardRead();
+
+	/**
+	 * Called when the reader reaches the end of a vCard.
+	 * @param lines the number of lines the vCard spans in the data stream
+	 */
+	void linesRead(int lines);
+
+	/**
+	 * Called when the reader generates a warning.
+	 * @param warning the warning
+	 */
+	void warningGenerated(ParseWarning warning);
+
+	/**
+	 * Called after a vCard is read.
+	 */
+	void vcardRead();
+
+	/**
+	 * Called after a property scribe writes a property value.
+	 * @param scribe the scribe
+	 * @param nanos the amount of time the scribe took, in nanoseconds
+	 */
+	void propertyWritten(VCardPropertyScribe<?> scribe, long nanos);
+
+	/**
+	 * Called when a nested vCard (such as the value of an AGENT property) is
+	 * written.
+	 */
+	void nestedVCardWritten();
+
+	/**
+	 * Called after a vCard is written.
+	 */
+	void vcardWritten();
+}
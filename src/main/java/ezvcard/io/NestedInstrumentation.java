@@ -0,0 +1,87 @@
+package ezvcard.io;
+
+import ezvcard.io.scribe.VCardPropertyScribe;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Passes the property-level measurements of a reader or writer that is used
+ * internally by another reader or writer (for example, to parse an embedded
+ * vCard) on to the outer reader or writer's instrumentation. The line counts,
+ * warnings, and vCard boundaries are not passed on, because the outer reader
+ * or writer reports those itself.
+ * @author Michael Angstadt
+ */
+class NestedInstrumentation implements Instrumentation {
+	private final Instrumentation parent;
+
+	/**
+	 * @param parent the outer reader or writer's instrumentation
+	 */
+	public NestedInstrumentation(Instrumentation parent) {
+		this.parent = parent;
+	}
+
+	public void propertyParsed(VCardPropertyScribe<?> scribe, long nanos) {
+		parent.propertyParsed(scribe, nanos);
+	}
+
+	public void binaryDataDecoded(int bytes) {
+		parent.binaryDataDecoded(bytes);
+	}
+
+	public void nestedVCardRead() {
+		parent.nestedVCardRead();
+	}
+
+	public void linesRead(int lines) {
+		//ignore
+	}
+
+	public void warningGenerated(ParseWarning warning) {
+		//ignore
+	}
+
+	public void vcardRead() {
+		//ignore
+	}
+
+	public void propertyWritten(VCardPropertyScribe<?> scribe, long nanos) {
+		parent.propertyWritten(scribe, nanos);
+	}
+
+	public void nestedVCardWritten() {
+		parent.nestedVCardWritten();
+	}
+
+	public void vcardWritten() {
+		//ignore
+	}
+}
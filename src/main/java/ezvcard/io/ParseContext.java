@@ -43,6 +43,18 @@ public class ParseContext {
 	private List<ParseWarning> warnings = new ArrayList<>();
 	private Integer lineNumber;
 	private String propertyName;
+	private TempFileStore tempFileStore;
+
+	/**
+	 * Clears the context so it can be used to parse another vCard.
+	 */
+	void reset() {
+		version = null;
+		warnings.clear();
+		lineNumber = null;
+		propertyName = null;
+		tempFileStore = null;
+	}
 
 	/**
 	 * Gets the version of the vCard being parsed.
@@ -93,6 +105,26 @@ public class ParseContext {
 		this.propertyName = propertyName;
 	}
 
+	/**
+	 * Gets the store that large binary property values should be decoded
+	 * into.
+	 * @return the store or null if binary values should always be decoded
+	 * into memory
+	 */
+	public TempFileStore getTempFileStore() {
+		return tempFileStore;
+	}
+
+	/**
+	 * Sets the store that large binary property values should be decoded
+	 * into.
+	 * @param tempFileStore the store or null to always decode binary values
+	 * into memory
+	 */
+	public void setTempFileStore(TempFileStore tempFileStore) {
+		this.tempFileStore = tempFileStore;
+	}
+
 	/**
 	 * Adds a parse warning.
 	 * @param code the warning code
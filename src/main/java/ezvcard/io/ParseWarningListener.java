@@ -0,0 +1,72 @@
+package ezvcard.io;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Receives the warnings that a {@link StreamReader} generates, as they are
+ * generated.
+ * </p>
+ * <p>
+ * Unlike {@link StreamReader#getWarnings}, a listener does not require the
+ * reader to hold on to the warnings. Combining a listener with
+ * {@link WarningMode#DISCARD} allows the warnings of a large data stream to be
+ * logged or counted without keeping any of them in memory.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * try (VCardReader reader = new VCardReader(file)) {
+ *   reader.setWarningMode(WarningMode.DISCARD);
+ *   reader.setWarningListener((vcardIndex, warning) -&gt; {
+ *     log.warn("vCard #" + vcardIndex + ": " + warning);
+ *   });
+ *   VCard vcard;
+ *   while ((vcard = reader.readNext()) != null) {
+ *     //...
+ *   }
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ * @see StreamReader#setWarningListener
+ */
+public interface ParseWarningListener {
+	/**
+	 * Called when a warning is generated.
+	 * @param vcardIndex the 0-based index of the vCard that the warning belongs
+	 * to (in other words, the number of vCards that were read from the data
+	 * stream before it)
+	 * @param warning the warning (the line number the warning occurred on, if
+	 * known, can be retrieved with {@link ParseWarning#getLineNumber})
+	 */
+	void onWarning(int vcardIndex, ParseWarning warning);
+}
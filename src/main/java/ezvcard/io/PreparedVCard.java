@@ -0,0 +1,177 @@
+package ezvcard.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.scribe.ScribeIndex;
+import ezvcard.io.scribe.VCardPropertyScribe;
+import ezvcard.parameter.VCardParameters;
+import ezvcard.property.RawProperty;
+import ezvcard.property.VCardProperty;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * A vCard that has been prepared for being written as a particular version.
+ * This holds the work that every {@link StreamWriter} has to do before
+ * writing a vCard: deciding which properties to write (including generated
+ * LABEL and PRODID properties), looking up each property's scribe, and
+ * sanitizing each property's parameters.
+ * </p>
+ * <p>
+ * When the same vCard is written to multiple data streams (for example, as a
+ * plain-text vCard, a jCard, and an xCard), the vCard can be prepared once per
+ * target version and then passed to each writer's
+ * {@link StreamWriter#write(PreparedVCard)} method, so the work is not
+ * repeated for each writer.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * VCard vcard = ...
+ * JCardWriter jcardWriter = ...
+ * XCardWriter xcardWriter = ...
+ *
+ * PreparedVCard prepared = jcardWriter.prepare(vcard);
+ * jcardWriter.write(prepared);
+ * xcardWriter.write(prepared);
+ * </pre>
+ * <p>
+ * Instances of this class are immutable and can be written by multiple
+ * writers at the same time. The vCard must not be modified while it is in use.
+ * </p>
+ * @author Michael Angstadt
+ * @see StreamWriter#prepare
+ */
+public class PreparedVCard {
+	private final VCard vcard;
+	private final VCardVersion version;
+	private final List<PreparedProperty> properties;
+
+	/**
+	 * @param vcard the vCard
+	 * @param version the version the vCard will be written as
+	 * @param properties the properties to write
+	 * @param index the scribes to use (all properties must have a registered
+	 * scribe)
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	PreparedVCard(VCard vcard, VCardVersion version, List<VCardProperty> properties, ScribeIndex index) {
+		this.vcard = vcard;
+		this.version = version;
+
+		List<PreparedProperty> prepared = new ArrayList<>(properties.size());
+		for (VCardProperty property : properties) {
+			//raw property scribes are looked up by property name, so they are not part of the write plan
+			VCardPropertyScribe scribe;
+			if (property instanceof RawProperty) {
+				scribe = index.getPropertyScribe(property);
+			} else {
+				scribe = index.getWritePlan(property.getClass()).getScribe();
+			}
+			VCardParameters parameters = scribe.prepareParameters(property, version, vcard);
+			prepared.add(new PreparedProperty(property, scribe, parameters));
+		}
+		this.properties = Collections.unmodifiableList(prepared);
+	}
+
+	/**
+	 * Gets the vCard that was prepared.
+	 * @return the vCard
+	 */
+	public VCard getVCard() {
+		return vcard;
+	}
+
+	/**
+	 * Gets the version that the vCard was prepared for.
+	 * @return the version
+	 */
+	public VCardVersion getVersion() {
+		return version;
+	}
+
+	/**
+	 * Gets the properties to write, in the order they should be written.
+	 * @return the properties (this list is immutable)
+	 */
+	public List<PreparedProperty> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * A property that has been prepared for being written.
+	 */
+	public static class PreparedProperty {
+		private final VCardProperty property;
+		private final VCardPropertyScribe<? extends VCardProperty> scribe;
+		private final VCardParameters parameters;
+
+		private PreparedProperty(VCardProperty property, VCardPropertyScribe<? extends VCardProperty> scribe, VCardParameters parameters) {
+			this.property = property;
+			this.scribe = scribe;
+			this.parameters = parameters;
+		}
+
+		/**
+		 * Gets the property.
+		 * @return the property
+		 */
+		public VCardProperty getProperty() {
+			return property;
+		}
+
+		/**
+		 * Gets the scribe that marshals the property.
+		 * @return the scribe
+		 */
+		public VCardPropertyScribe<? extends VCardProperty> getScribe() {
+			return scribe;
+		}
+
+		/**
+		 * Gets the property's sanitized parameters (see
+		 * {@link VCardPropertyScribe#prepareParameters}). A copy-on-write copy
+		 * is returned each time this method is called, so the caller can
+		 * modify it without affecting other writers. The parameters are only
+		 * duplicated if the copy is modified.
+		 * @return the parameters
+		 */
+		public VCardParameters getParameters() {
+			return new VCardParameters(parameters, true);
+		}
+	}
+}
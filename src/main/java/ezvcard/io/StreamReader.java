@@ -2,10 +2,20 @@ package ezvcard.io;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.namespace.QName;
 
 import ezvcard.VCard;
 import ezvcard.io.scribe.ScribeIndex;
@@ -13,6 +23,7 @@ import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.AddressType;
 import ezvcard.property.Address;
 import ezvcard.property.Label;
+import ezvcard.property.RawProperty;
 import ezvcard.property.VCardProperty;
 
 /*
@@ -49,10 +60,40 @@ import ezvcard.property.VCardProperty;
  * @author Michael Angstadt
  */
 public abstract class StreamReader implements Closeable {
-	protected final List<ParseWarning> warnings = new ArrayList<>();
+	protected final List<ParseWarning> warnings = new WarningList();
+	private final Map<Integer, Integer> warningCounts = new HashMap<>();
+	private WarningMode warningMode = WarningMode.KEEP;
+	private ParseWarningListener warningListener;
 	protected ScribeIndex index = new ScribeIndex();
 	protected ParseContext context;
 
+	/**
+	 * The classes of the properties to parse, or null to parse all properties.
+	 */
+	protected Set<Class<? extends VCardProperty>> filterClasses;
+
+	/**
+	 * The names of the properties to parse, or null to parse all properties.
+	 */
+	protected List<String> filterNames;
+
+	/**
+	 * The store that large binary property values are decoded into, or null to
+	 * decode them into memory.
+	 */
+	protected TempFileStore tempFileStore;
+
+	/**
+	 * The number of vCards that have been read from the data stream.
+	 */
+	protected int vcardsRead = 0;
+
+	/**
+	 * Receives measurements about the parsing process, or null if
+	 * instrumentation is disabled.
+	 */
+	protected Instrumentation instrumentation;
+
 	/**
 	 * Reads all vCards from the data stream.
 	 * @return the vCards
@@ -67,6 +108,50 @@ public abstract class StreamReader implements Closeable {
 		return vcards;
 	}
 
+	/**
+	 * <p>
+	 * Creates a lazily-populated stream of the vCards in the data stream.
+	 * vCards are only read as the stream consumes them, so the entire data
+	 * stream is never held in memory at once. The stream supports parallel
+	 * processing. Closing the stream closes this reader.
+	 * </p>
+	 * <p>
+	 * I/O errors are thrown as {@link UncheckedIOException UncheckedIOExceptions}
+	 * when the stream is traversed.
+	 * </p>
+	 * <p>
+	 * <b>Example:</b>
+	 * </p>
+	 * 
+	 * <pre class="brush:java">
+	 * try (Stream&lt;VCard&gt; stream = new VCardReader(file).stream()) {
+	 *   stream.filter(vcard -&gt; vcard.getBirthday() != null).forEach(...);
+	 * }
+	 * </pre>
+	 * @return the stream
+	 */
+	public Stream<VCard> stream() {
+		return stream(null);
+	}
+
+	/**
+	 * Creates a lazily-populated stream of the vCards in the data stream.
+	 * @param warnings the list object that will be populated with the warnings
+	 * of each parsed vCard (can be null)
+	 * @return the stream
+	 * @see #stream()
+	 * @see VCardSpliterator#VCardSpliterator(StreamReader, List)
+	 */
+	public Stream<VCard> stream(List<List<ParseWarning>> warnings) {
+		return StreamSupport.stream(new VCardSpliterator(this, warnings), false).onClose(() -> {
+			try {
+				close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
 	/**
 	 * Reads the next vCard from the data stream.
 	 * @return the next vCard or null if there are no more
@@ -74,8 +159,21 @@ public abstract class StreamReader implements Closeable {
 	 */
 	public VCard readNext() throws IOException {
 		warnings.clear();
-		context = new ParseContext();
-		return _readNext();
+		if (context == null) {
+			context = new ParseContext();
+		} else {
+			context.reset();
+		}
+		context.setTempFileStore(tempFileStore);
+
+		VCard vcard = _readNext();
+		if (vcard != null) {
+			vcardsRead++;
+			if (instrumentation != null) {
+				instrumentation.vcardRead();
+			}
+		}
+		return vcard;
 	}
 
 	/**
@@ -93,6 +191,10 @@ public abstract class StreamReader implements Closeable {
 	 * @param labels the LABEL properties
 	 */
 	protected void assignLabels(VCard vcard, List<Label> labels) {
+		if (labels.isEmpty()) {
+			return;
+		}
+
 		List<Address> adrs = vcard.getAddresses();
 		for (Label label : labels) {
 			boolean orphaned = true;
@@ -116,6 +218,177 @@ public abstract class StreamReader implements Closeable {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Sets the properties that the reader should parse. All other properties
+	 * are skipped over without being parsed, which can speed things up
+	 * considerably when only a few properties are needed from each vCard.
+	 * </p>
+	 * <p>
+	 * Keeping {@link Address} also keeps {@link Label} because LABEL
+	 * properties are assigned to the addresses they belong to.
+	 * </p>
+	 * @param classes the classes of the properties to parse (use
+	 * {@link RawProperty} to parse all extended properties that do not have a
+	 * scribe)
+	 * @see #setPropertyFilter(Collection, Collection)
+	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs") //the array is only ever read from, so it cannot cause heap pollution
+	public final void setPropertyFilter(Class<? extends VCardProperty>... classes) {
+		setPropertyFilter(Arrays.asList(classes), Collections.<String> emptyList());
+	}
+
+	/**
+	 * <p>
+	 * Sets the properties that the reader should parse. All other properties
+	 * are skipped over without being parsed, which can speed things up
+	 * considerably when only a few properties are needed from each vCard.
+	 * </p>
+	 * <p>
+	 * Keeping {@link Address} also keeps {@link Label} because LABEL
+	 * properties are assigned to the addresses they belong to.
+	 * </p>
+	 * @param classes the classes of the properties to parse (use
+	 * {@link RawProperty} to parse all extended properties that do not have a
+	 * scribe)
+	 * @param names the names of the properties to parse (case-insensitive, e.g.
+	 * "X-FOO")
+	 */
+	public void setPropertyFilter(Collection<Class<? extends VCardProperty>> classes, Collection<String> names) {
+		filterClasses = new HashSet<>(classes);
+		if (filterClasses.contains(Address.class)) {
+			filterClasses.add(Label.class);
+		}
+
+		filterNames = new ArrayList<>(names);
+		for (String name : names) {
+			if ("ADR".equalsIgnoreCase(name)) {
+				filterNames.add("LABEL");
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Removes the property filter, so that all properties are parsed.
+	 * @see #setPropertyFilter(Collection, Collection)
+	 */
+	public void clearPropertyFilter() {
+		filterClasses = null;
+		filterNames = null;
+	}
+
+	/**
+	 * Applies this reader's property filter to another reader (for example, a
+	 * reader that parses an embedded vCard).
+	 * @param reader the other reader
+	 */
+	protected void copyPropertyFilterTo(StreamReader reader) {
+		reader.filterClasses = filterClasses;
+		reader.filterNames = filterNames;
+	}
+
+	/**
+	 * Passes the property-level measurements of another reader (for example,
+	 * a reader that parses an embedded vCard) on to this reader's
+	 * instrumentation.
+	 * @param reader the other reader
+	 */
+	protected void copyInstrumentationTo(StreamReader reader) {
+		reader.instrumentation = getNestedInstrumentation();
+	}
+
+	/**
+	 * Gets the instrumentation that another reader (for example, a reader that
+	 * parses an embedded vCard) should use to pass its property-level
+	 * measurements on to this reader's instrumentation.
+	 * @return the instrumentation or null if instrumentation is disabled
+	 */
+	protected Instrumentation getNestedInstrumentation() {
+		return (instrumentation == null) ? null : new NestedInstrumentation(instrumentation);
+	}
+
+	/**
+	 * Determines if a property should be skipped over because of the property
+	 * filter.
+	 * @param propertyName the property name
+	 * @return true to skip it, false to parse it
+	 * @see #setPropertyFilter(Collection, Collection)
+	 */
+	protected boolean isFilteredOut(String propertyName) {
+		if (filterClasses == null) {
+			return false;
+		}
+
+		VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(propertyName);
+		Class<? extends VCardProperty> clazz = (scribe == null) ? RawProperty.class : scribe.getPropertyClass();
+		return isFilteredOut(clazz, propertyName);
+	}
+
+	/**
+	 * Determines if an xCard property should be skipped over because of the
+	 * property filter.
+	 * @param qname the property's XML element name
+	 * @return true to skip it, false to parse it
+	 * @see #setPropertyFilter(Collection, Collection)
+	 */
+	protected boolean isFilteredOut(QName qname) {
+		if (filterClasses == null) {
+			return false;
+		}
+
+		VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(qname);
+		return isFilteredOut(scribe.getPropertyClass(), qname.getLocalPart());
+	}
+
+	/**
+	 * Determines if a property should be skipped over because of the property
+	 * filter.
+	 * @param clazz the property class
+	 * @param propertyName the property name
+	 * @return true to skip it, false to parse it
+	 * @see #setPropertyFilter(Collection, Collection)
+	 */
+	protected boolean isFilteredOut(Class<? extends VCardProperty> clazz, String propertyName) {
+		if (filterClasses == null) {
+			return false;
+		}
+
+		if (filterClasses.contains(clazz)) {
+			return false;
+		}
+
+		for (String name : filterNames) {
+			if (name.equalsIgnoreCase(propertyName)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the store that large binary property values (such as photos) are
+	 * decoded into.
+	 * @return the store or null if binary values are decoded into memory
+	 */
+	public TempFileStore getTempFileStore() {
+		return tempFileStore;
+	}
+
+	/**
+	 * Sets the store that large binary property values (such as photos) are
+	 * decoded into. Values that are smaller than the store's threshold are
+	 * still decoded into memory.
+	 * @param tempFileStore the store or null to decode all binary values into
+	 * memory (default)
+	 * @see TempFileStore
+	 */
+	public void setTempFileStore(TempFileStore tempFileStore) {
+		this.tempFileStore = tempFileStore;
+	}
+
 	/**
 	 * <p>
 	 * Registers a property scribe. This is the same as calling:
@@ -153,4 +426,145 @@ public abstract class StreamReader implements Closeable {
 	public List<ParseWarning> getWarnings() {
 		return new ArrayList<>(warnings);
 	}
+
+	/**
+	 * Gets the number of warnings of each warning code from the last vCard
+	 * that was unmarshalled. This map is reset every time a new vCard is read.
+	 * @return the number of warnings of each code (warnings that do not have
+	 * a code are stored under a null key) or an empty map if there were no
+	 * warnings or if the warning mode is {@link WarningMode#DISCARD}
+	 * @see #setWarningMode
+	 */
+	public Map<Integer, Integer> getWarningCounts() {
+		return new HashMap<>(warningCounts);
+	}
+
+	/**
+	 * Gets what the reader does with the warnings that are generated while
+	 * parsing.
+	 * @return the warning mode
+	 */
+	public WarningMode getWarningMode() {
+		return warningMode;
+	}
+
+	/**
+	 * Sets what the reader does with the warnings that are generated while
+	 * parsing (defaults to {@link WarningMode#KEEP}). Keeping only the
+	 * warning counts, or discarding the warnings altogether, saves memory
+	 * when parsing vCards that generate lots of warnings.
+	 * @param warningMode the warning mode (cannot be null)
+	 */
+	public void setWarningMode(WarningMode warningMode) {
+		this.warningMode = warningMode;
+	}
+
+	/**
+	 * Gets the object that is notified of each warning as it is generated.
+	 * @return the listener or null if not set
+	 */
+	public ParseWarningListener getWarningListener() {
+		return warningListener;
+	}
+
+	/**
+	 * Sets an object that is notified of each warning as it is generated. The
+	 * listener is notified regardless of the warning mode.
+	 * @param warningListener the listener or null to remove
+	 * @see #setWarningMode
+	 */
+	public void setWarningListener(ParseWarningListener warningListener) {
+		this.warningListener = warningListener;
+	}
+
+	/**
+	 * Gets the object that receives measurements about the parsing process.
+	 * @return the instrumentation or null if instrumentation is disabled
+	 */
+	public Instrumentation getInstrumentation() {
+		return instrumentation;
+	}
+
+	/**
+	 * Sets an object that receives measurements about the parsing process
+	 * (disabled by default). No measurements are taken while instrumentation
+	 * is disabled.
+	 * @param instrumentation the instrumentation or null to disable
+	 * @see AggregatingInstrumentation
+	 */
+	public void setInstrumentation(Instrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+
+	/**
+	 * Determines whether the warnings that are generated while parsing are
+	 * thrown away, meaning they are neither kept, counted, passed to a
+	 * listener, nor reported to the instrumentation.
+	 * @return true if the warnings are thrown away, false if not
+	 */
+	protected boolean isDiscardingWarnings() {
+		return warningMode == WarningMode.DISCARD && warningListener == null && instrumentation == null;
+	}
+
+	/**
+	 * Passes the warnings to the listener and applies the warning mode to them
+	 * as they are added.
+	 */
+	private class WarningList extends ArrayList<ParseWarning> {
+		private static final long serialVersionUID = 5329516547713485416L;
+
+		@Override
+		public boolean add(ParseWarning warning) {
+			return accept(warning) && super.add(warning);
+		}
+
+		@Override
+		public void add(int index, ParseWarning warning) {
+			if (accept(warning)) {
+				super.add(index, warning);
+			}
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends ParseWarning> warnings) {
+			boolean changed = false;
+			for (ParseWarning warning : warnings) {
+				changed |= add(warning);
+			}
+			return changed;
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<? extends ParseWarning> warnings) {
+			int i = index;
+			for (ParseWarning warning : warnings) {
+				if (accept(warning)) {
+					super.add(i++, warning);
+				}
+			}
+			return i > index;
+		}
+
+		@Override
+		public void clear() {
+			super.clear();
+			warningCounts.clear();
+		}
+
+		private boolean accept(ParseWarning warning) {
+			if (warningListener != null) {
+				warningListener.onWarning(vcardsRead, warning);
+			}
+			if (instrumentation != null) {
+				instrumentation.warningGenerated(warning);
+			}
+
+			if (warningMode == WarningMode.DISCARD) {
+				return false;
+			}
+
+			warningCounts.merge(warning.getCode(), 1, Integer::sum);
+			return warningMode == WarningMode.KEEP;
+		}
+	}
 }
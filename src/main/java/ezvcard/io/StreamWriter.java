@@ -13,6 +13,7 @@ import ezvcard.VCard;
 import ezvcard.VCardVersion;
 import ezvcard.io.scribe.ScribeIndex;
 import ezvcard.io.scribe.VCardPropertyScribe;
+import ezvcard.io.scribe.WritePlan;
 import ezvcard.property.Address;
 import ezvcard.property.Label;
 import ezvcard.property.ProductId;
@@ -57,6 +58,12 @@ public abstract class StreamWriter implements Closeable {
 	protected boolean addProdId = true;
 	protected boolean versionStrict = true;
 
+	/**
+	 * Receives measurements about the writing process, or null if
+	 * instrumentation is disabled.
+	 */
+	protected Instrumentation instrumentation;
+
 	/**
 	 * Writes a vCard to the stream.
 	 * @param vcard the vCard that is being written
@@ -65,17 +72,39 @@ public abstract class StreamWriter implements Closeable {
 	 * custom property class (see: {@link #registerScribe registerScribe})
 	 */
 	public void write(VCard vcard) throws IOException {
-		List<VCardProperty> properties = prepare(vcard);
-		_write(vcard, properties);
+		_write(prepare(vcard));
+		if (instrumentation != null) {
+			instrumentation.vcardWritten();
+		}
+	}
+
+	/**
+	 * Writes a vCard that was prepared ahead of time to the stream. Use this
+	 * method to avoid repeating the preparation work when the same vCard is
+	 * written to multiple streams.
+	 * @param vcard the prepared vCard
+	 * @throws IOException if there's a problem writing to the output stream
+	 * @throws IllegalArgumentException if the vCard was prepared for a version
+	 * other than this writer's target version
+	 * @see #prepare
+	 */
+	public void write(PreparedVCard vcard) throws IOException {
+		VCardVersion targetVersion = getTargetVersion();
+		if (vcard.getVersion() != targetVersion) {
+			throw Messages.INSTANCE.getIllegalArgumentException(45, vcard.getVersion().getVersion(), targetVersion.getVersion());
+		}
+		_write(vcard);
+		if (instrumentation != null) {
+			instrumentation.vcardWritten();
+		}
 	}
 
 	/**
 	 * Writes a vCard to the stream.
 	 * @param vcard the vCard that is being written
-	 * @param properties the properties to write
 	 * @throws IOException if there's a problem writing to the output stream
 	 */
-	protected abstract void _write(VCard vcard, List<VCardProperty> properties) throws IOException;
+	protected abstract void _write(PreparedVCard vcard) throws IOException;
 
 	/**
 	 * Gets the version that the next vCard will be written as.
@@ -157,20 +186,67 @@ public abstract class StreamWriter implements Closeable {
 	}
 
 	/**
-	 * Determines which properties need to be written.
-	 * @param vcard the vCard to write
-	 * @return the properties to write
+	 * Gets the object that receives measurements about the writing process.
+	 * @return the instrumentation or null if instrumentation is disabled
+	 */
+	public Instrumentation getInstrumentation() {
+		return instrumentation;
+	}
+
+	/**
+	 * Sets an object that receives measurements about the writing process
+	 * (disabled by default). No measurements are taken while instrumentation
+	 * is disabled.
+	 * @param instrumentation the instrumentation or null to disable
+	 * @see AggregatingInstrumentation
+	 */
+	public void setInstrumentation(Instrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+
+	/**
+	 * Passes the property-level measurements of another writer (for example,
+	 * a writer that writes an embedded vCard) on to this writer's
+	 * instrumentation.
+	 * @param writer the other writer
+	 */
+	protected void copyInstrumentationTo(StreamWriter writer) {
+		writer.instrumentation = (instrumentation == null) ? null : new NestedInstrumentation(instrumentation);
+	}
+
+	/**
+	 * Prepares a vCard for being written, using this writer's current settings
+	 * (target version, scribe index, etc). The returned object can be passed
+	 * to the {@link #write(PreparedVCard)} method of any writer that has the
+	 * same target version.
+	 * @param vcard the vCard to prepare
+	 * @return the prepared vCard
 	 * @throws IllegalArgumentException if a scribe hasn't been registered for a
 	 * custom property class (see: {@link #registerScribe(VCardPropertyScribe)
 	 * registerScribe})
 	 */
-	private List<VCardProperty> prepare(VCard vcard) {
+	public PreparedVCard prepare(VCard vcard) {
 		VCardVersion targetVersion = getTargetVersion();
+		List<VCardProperty> properties = getPropertiesToWrite(vcard, targetVersion);
+		return new PreparedVCard(vcard, targetVersion, properties, index);
+	}
+
+	/**
+	 * Determines which properties need to be written.
+	 * @param vcard the vCard to write
+	 * @param targetVersion the version the vCard will be written as
+	 * @return the properties to write
+	 * @throws IllegalArgumentException if a scribe hasn't been registered for a
+	 * custom property class
+	 */
+	private List<VCardProperty> getPropertiesToWrite(VCard vcard, VCardVersion targetVersion) {
 		List<VCardProperty> propertiesToAdd = new ArrayList<>();
-		Set<Class<? extends VCardProperty>> unregistered = new HashSet<>();
+		Set<Class<? extends VCardProperty>> unregistered = null;
 		VCardProperty prodIdProperty = null;
 		for (VCardProperty property : vcard) {
-			if (versionStrict && !property.isSupportedBy(targetVersion)) {
+			WritePlan plan = index.getWritePlan(property.getClass());
+
+			if (versionStrict && !plan.isSupportedBy(targetVersion)) {
 				//do not add the property to the vCard if it is not supported by the target version
 				continue;
 			}
@@ -182,7 +258,10 @@ public abstract class StreamWriter implements Closeable {
 			}
 
 			//check for scribe
-			if (!index.hasPropertyScribe(property)) {
+			if (plan.getScribe() == null && !(property instanceof RawProperty)) {
+				if (unregistered == null) {
+					unregistered = new HashSet<>();
+				}
 				unregistered.add(property.getClass());
 				continue;
 			}
@@ -203,7 +282,7 @@ public abstract class StreamWriter implements Closeable {
 			}
 		}
 
-		if (!unregistered.isEmpty()) {
+		if (unregistered != null) {
 			List<String> classes = new ArrayList<>(unregistered.size());
 			for (Class<? extends VCardProperty> clazz : unregistered) {
 				classes.add(clazz.getName());
@@ -0,0 +1,162 @@
+package ezvcard.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import ezvcard.property.BinaryProperty;
+import ezvcard.util.Base64Utils;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Moves large binary property values (such as high-resolution photos) out of
+ * the Java heap while vCards are being parsed. When a reader is assigned a
+ * store, base64-encoded values that decode to at least {@link #getThreshold}
+ * bytes are decoded directly into a temporary file instead of a byte array.
+ * The file is then memory-mapped and assigned to the property as a read-only
+ * {@link ByteBuffer} (see {@link BinaryProperty#getDataBuffer}).
+ * </p>
+ * <p>
+ * Each temporary file is deleted as soon as it is mapped. On most operating
+ * systems, the mapped data remains accessible until the buffer is garbage
+ * collected. If the file cannot be deleted right away (for example, on
+ * Windows), it is deleted when the JVM exits.
+ * </p>
+ * <p>
+ * The data is not copied to the heap when the vCard is written, since all of
+ * the writers stream binary data directly from the buffer.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * try (VCardReader reader = new VCardReader(file)) {
+ *   reader.setTempFileStore(new TempFileStore(1024 * 1024));
+ *   VCard vcard;
+ *   while ((vcard = reader.readNext()) != null) {
+ *     //...
+ *   }
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ */
+public class TempFileStore {
+	private final int threshold;
+	private final Path directory;
+
+	/**
+	 * Creates a store that writes to the system's default temporary directory.
+	 * @param threshold the minimum size, in bytes, of the decoded data before
+	 * it is written to a file
+	 */
+	public TempFileStore(int threshold) {
+		this(threshold, null);
+	}
+
+	/**
+	 * Creates a store.
+	 * @param threshold the minimum size, in bytes, of the decoded data before
+	 * it is written to a file
+	 * @param directory the directory to create the temporary files in or null
+	 * to use the system's default temporary directory
+	 */
+	public TempFileStore(int threshold, Path directory) {
+		this.threshold = threshold;
+		this.directory = directory;
+	}
+
+	/**
+	 * Gets the minimum size, in bytes, of the decoded data before it is
+	 * written to a file.
+	 * @return the threshold
+	 */
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Gets the directory the temporary files are created in.
+	 * @return the directory or null if the system's default temporary
+	 * directory is used
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Determines if a base64-encoded value is large enough to be written to a
+	 * file.
+	 * @param value the base64-encoded value
+	 * @param start the index where the base64 data starts
+	 * @return true if the value should be written to a file, false if not
+	 */
+	public boolean accepts(CharSequence value, int start) {
+		long decodedLength = (long) (value.length() - start) / 4 * 3;
+		return decodedLength >= threshold;
+	}
+
+	/**
+	 * Decodes a base64-encoded value into a temporary file and memory-maps the
+	 * file.
+	 * @param value the base64-encoded value
+	 * @param start the index where the base64 data starts
+	 * @return the decoded data (read-only)
+	 * @throws IOException if there's a problem writing or mapping the file
+	 */
+	public ByteBuffer decode(CharSequence value, int start) throws IOException {
+		Path file = (directory == null) ? Files.createTempFile("ez-vcard", ".bin") : Files.createTempFile(directory, "ez-vcard", ".bin");
+		try {
+			try (OutputStream out = Files.newOutputStream(file)) {
+				Base64Utils.decode(value, start, out);
+			}
+
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+		} finally {
+			delete(file);
+		}
+	}
+
+	private static void delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			file.toFile().deleteOnExit();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package ezvcard.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import ezvcard.VCard;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * A {@link Spliterator} that lazily reads vCards from a {@link StreamReader}.
+ * </p>
+ * <p>
+ * vCards are read one at a time as the spliterator is traversed, so the data
+ * stream never has to be held in memory all at once. When the spliterator is
+ * split, it reads a batch of vCards off the front of the data stream and hands
+ * them off to the new spliterator, which allows parallel streams to process
+ * the vCards concurrently.
+ * </p>
+ * @author Michael Angstadt
+ * @see StreamReader#stream()
+ */
+public class VCardSpliterator extends Spliterators.AbstractSpliterator<VCard> {
+	private final StreamReader reader;
+	private final List<List<ParseWarning>> warnings;
+
+	/**
+	 * Creates a new spliterator.
+	 * @param reader the reader to read the vCards from
+	 */
+	public VCardSpliterator(StreamReader reader) {
+		this(reader, null);
+	}
+
+	/**
+	 * Creates a new spliterator.
+	 * @param reader the reader to read the vCards from
+	 * @param warnings the list object that will be populated with the warnings
+	 * of each parsed vCard, in the order the vCards appear in the data stream
+	 * (can be null). Each element in the list is a list of warnings for one
+	 * parsed vCard. The list is populated as the vCards are read, which may be
+	 * before they are passed to the stream pipeline when the stream is parallel.
+	 */
+	public VCardSpliterator(StreamReader reader, List<List<ParseWarning>> warnings) {
+		super(Long.MAX_VALUE, ORDERED | NONNULL);
+		this.reader = reader;
+		this.warnings = warnings;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UncheckedIOException if there's a problem reading from the data
+	 * stream
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super VCard> action) {
+		VCard vcard;
+		try {
+			vcard = reader.readNext();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		if (vcard == null) {
+			return false;
+		}
+
+		if (warnings != null) {
+			warnings.add(reader.getWarnings());
+		}
+		action.accept(vcard);
+		return true;
+	}
+}
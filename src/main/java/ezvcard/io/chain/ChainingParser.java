@@ -3,13 +3,23 @@ package ezvcard.io.chain;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import ezvcard.VCard;
 import ezvcard.io.ParseWarning;
+import ezvcard.io.ParseWarningListener;
 import ezvcard.io.StreamReader;
+import ezvcard.io.TempFileStore;
+import ezvcard.io.VCardSpliterator;
+import ezvcard.io.WarningMode;
 import ezvcard.io.scribe.ScribeIndex;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.property.VCardProperty;
@@ -53,6 +63,10 @@ abstract class ChainingParser<T extends ChainingParser<?>> {
 
 	ScribeIndex index;
 	List<List<ParseWarning>> warnings;
+	ParseWarningListener warningListener;
+	Collection<Class<? extends VCardProperty>> filterClasses;
+	Collection<String> filterNames;
+	TempFileStore tempFileStore;
 
 	@SuppressWarnings("unchecked")
 	final T this_ = (T) this;
@@ -111,16 +125,27 @@ abstract class ChainingParser<T extends ChainingParser<?>> {
 		return this_;
 	}
 
+	/**
+	 * Provides an object that is notified of each parser warning as it is
+	 * generated. Unlike {@link #warnings}, the warnings are not held in
+	 * memory, which makes this better suited for logging the warnings of large
+	 * data streams.
+	 * @param warningListener the listener
+	 * @return this
+	 * @see StreamReader#setWarningListener
+	 */
+	public T warningListener(ParseWarningListener warningListener) {
+		this.warningListener = warningListener;
+		return this_;
+	}
+
 	/**
 	 * Reads the first vCard from the stream.
 	 * @return the vCard or null if there are no vCards
 	 * @throws IOException if there's an I/O problem
 	 */
 	public VCard first() throws IOException {
-		StreamReader reader = constructReader();
-		if (index != null) {
-			reader.setScribeIndex(index);
-		}
+		StreamReader reader = prepareReader();
 
 		try {
 			VCard vcard = reader.readNext();
@@ -141,10 +166,7 @@ abstract class ChainingParser<T extends ChainingParser<?>> {
 	 * @throws IOException if there's an I/O problem
 	 */
 	public List<VCard> all() throws IOException {
-		StreamReader reader = constructReader();
-		if (index != null) {
-			reader.setScribeIndex(index);
-		}
+		StreamReader reader = prepareReader();
 
 		try {
 			List<VCard> vcards = new ArrayList<>();
@@ -163,6 +185,87 @@ abstract class ChainingParser<T extends ChainingParser<?>> {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Creates a lazily-populated stream of the vCards. vCards are only read as
+	 * the stream consumes them, so the entire data stream is never held in
+	 * memory at once. If a warnings list was provided, it is populated as the
+	 * vCards are read.
+	 * </p>
+	 * <p>
+	 * The stream should be closed when it is no longer needed. I/O errors are
+	 * thrown as {@link UncheckedIOException UncheckedIOExceptions} when the
+	 * stream is traversed.
+	 * </p>
+	 * @return the stream
+	 * @throws IOException if there's an I/O problem
+	 * @see StreamReader#stream()
+	 */
+	public Stream<VCard> stream() throws IOException {
+		StreamReader reader = prepareReader();
+
+		if (closeWhenDone()) {
+			return reader.stream(warnings);
+		}
+
+		//do not close streams that were passed in by the caller
+		return StreamSupport.stream(new VCardSpliterator(reader, warnings), false);
+	}
+
+	/**
+	 * Only parses the given properties. All other properties are skipped over.
+	 * @param classes the classes of the properties to parse
+	 * @return this
+	 * @see StreamReader#setPropertyFilter(Class...)
+	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs") //the array is only ever read from, so it cannot cause heap pollution
+	public final T filter(Class<? extends VCardProperty>... classes) {
+		return filter(Arrays.asList(classes), Collections.<String> emptyList());
+	}
+
+	/**
+	 * Only parses the given properties. All other properties are skipped over.
+	 * @param classes the classes of the properties to parse
+	 * @param names the names of the properties to parse (case-insensitive)
+	 * @return this
+	 * @see StreamReader#setPropertyFilter(Collection, Collection)
+	 */
+	public T filter(Collection<Class<? extends VCardProperty>> classes, Collection<String> names) {
+		filterClasses = classes;
+		filterNames = names;
+		return this_;
+	}
+
+	/**
+	 * Decodes large binary property values (such as photos) into temporary
+	 * files instead of memory.
+	 * @param tempFileStore the store
+	 * @return this
+	 * @see StreamReader#setTempFileStore(TempFileStore)
+	 */
+	public T tempFileStore(TempFileStore tempFileStore) {
+		this.tempFileStore = tempFileStore;
+		return this_;
+	}
+
+	private StreamReader prepareReader() throws IOException {
+		StreamReader reader = constructReader();
+		if (index != null) {
+			reader.setScribeIndex(index);
+		}
+		if (filterClasses != null) {
+			reader.setPropertyFilter(filterClasses, filterNames);
+		}
+		reader.setTempFileStore(tempFileStore);
+		reader.setWarningListener(warningListener);
+		if (warnings == null) {
+			//nothing reads the warnings, so do not keep them
+			reader.setWarningMode(WarningMode.DISCARD);
+		}
+		return reader;
+	}
+
 	abstract StreamReader constructReader() throws IOException;
 
 	private boolean closeWhenDone() {
@@ -7,6 +7,7 @@ import java.nio.file.Path;
 
 import ezvcard.Ezvcard;
 import ezvcard.io.StreamReader;
+import ezvcard.io.text.ParallelVCardReader;
 import ezvcard.io.text.VCardReader;
 
 /*
@@ -43,6 +44,9 @@ import ezvcard.io.text.VCardReader;
  */
 public class ChainingTextParser<T extends ChainingTextParser<?>> extends ChainingParser<T> {
 	private boolean caretDecoding = true;
+	private boolean lazy = false;
+	private boolean fastTokenizer = false;
+	private int threads = 0;
 
 	public ChainingTextParser(String string) {
 		super(string);
@@ -74,10 +78,59 @@ public class ChainingTextParser<T extends ChainingTextParser<?>> extends Chainin
 		return this_;
 	}
 
+	/**
+	 * Sets whether property values should be parsed on demand, the first time
+	 * the properties of each class are accessed (disabled by default). This
+	 * setting is ignored when parsing with multiple threads.
+	 * @param enable true to enable lazy parsing, false to disable it
+	 * @return this
+	 * @see VCardReader#setLazyParsing(boolean)
+	 */
+	public T lazy(boolean enable) {
+		lazy = enable;
+		return this_;
+	}
+
+	/**
+	 * Sets whether to use the built-in tokenizer instead of vinnie's parser
+	 * (disabled by default). The built-in tokenizer produces the same results,
+	 * but is faster and creates fewer temporary objects.
+	 * @param enable true to use the built-in tokenizer, false not to
+	 * @return this
+	 * @see VCardReader#setFastTokenizerEnabled(boolean)
+	 */
+	public T fastTokenizer(boolean enable) {
+		fastTokenizer = enable;
+		return this_;
+	}
+
+	/**
+	 * Parses the vCards using multiple threads. This can speed things up
+	 * considerably when the data stream contains a large number of vCards. The
+	 * vCards and warnings are returned in the same order as they would be
+	 * otherwise.
+	 * @param threads the number of threads to use
+	 * @return this
+	 * @see ParallelVCardReader
+	 */
+	public T parallel(int threads) {
+		this.threads = threads;
+		return this_;
+	}
+
 	@Override
 	StreamReader constructReader() throws IOException {
+		if (threads > 0) {
+			ParallelVCardReader reader = newParallelReader();
+			reader.setCaretDecodingEnabled(caretDecoding);
+			reader.setFastTokenizerEnabled(fastTokenizer);
+			return reader;
+		}
+
 		VCardReader reader = newReader();
 		reader.setCaretDecodingEnabled(caretDecoding);
+		reader.setLazyParsing(lazy);
+		reader.setFastTokenizerEnabled(fastTokenizer);
 		return reader;
 	}
 
@@ -93,4 +146,17 @@ public class ChainingTextParser<T extends ChainingTextParser<?>> extends Chainin
 		}
 		return new VCardReader(file);
 	}
+
+	private ParallelVCardReader newParallelReader() throws IOException {
+		if (string != null) {
+			return new ParallelVCardReader(string, threads);
+		}
+		if (in != null) {
+			return new ParallelVCardReader(in, threads);
+		}
+		if (reader != null) {
+			return new ParallelVCardReader(reader, threads);
+		}
+		return new ParallelVCardReader(file, threads);
+	}
 }
@@ -13,6 +13,7 @@ import ezvcard.VCard;
 import ezvcard.VCardVersion;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.io.text.TargetApplication;
+import ezvcard.io.text.ParallelVCardWriter;
 import ezvcard.io.text.VCardWriter;
 import ezvcard.property.Address;
 import ezvcard.property.StructuredName;
@@ -55,6 +56,7 @@ public class ChainingTextWriter extends ChainingWriter<ChainingTextWriter> {
 	private Boolean includeTrailingSemicolons;
 	private boolean foldLines = true;
 	private TargetApplication targetApplication;
+	private int threads = 0;
 
 	/**
 	 * @param vcards the vCards to write
@@ -156,6 +158,19 @@ public class ChainingTextWriter extends ChainingWriter<ChainingTextWriter> {
 		return this;
 	}
 
+	/**
+	 * Serializes the vCards using multiple threads. This can speed things up
+	 * considerably when writing a large number of vCards. The output is
+	 * identical to what it would be otherwise.
+	 * @param threads the number of threads to use
+	 * @return this
+	 * @see ParallelVCardWriter
+	 */
+	public ChainingTextWriter parallel(int threads) {
+		this.threads = threads;
+		return this;
+	}
+
 	@Override
 	public ChainingTextWriter prodId(boolean include) {
 		return super.prodId(include);
@@ -239,20 +254,44 @@ public class ChainingTextWriter extends ChainingWriter<ChainingTextWriter> {
 			writer.setScribeIndex(index);
 		}
 
+		if (threads > 0) {
+			goParallel(writer);
+			return;
+		}
+
 		for (VCard vcard : vcards) {
-			if (version == null) {
-				//use the version that's assigned to each individual vCard
-				VCardVersion vcardVersion = vcard.getVersion();
-				if (vcardVersion == null) {
-					vcardVersion = VCardVersion.V3_0;
-				}
-				writer.setTargetVersion(vcardVersion);
-			}
+			setTargetVersion(writer, vcard);
 			writer.write(vcard);
 			writer.flush();
 		}
 	}
 
+	private void goParallel(VCardWriter writer) throws IOException {
+		ParallelVCardWriter parallelWriter = new ParallelVCardWriter(writer, threads);
+		try {
+			for (VCard vcard : vcards) {
+				setTargetVersion(writer, vcard);
+				parallelWriter.write(vcard);
+			}
+			parallelWriter.flush();
+		} finally {
+			parallelWriter.shutdown();
+		}
+	}
+
+	private void setTargetVersion(VCardWriter writer, VCard vcard) {
+		if (version != null) {
+			return;
+		}
+
+		//use the version that's assigned to each individual vCard
+		VCardVersion vcardVersion = vcard.getVersion();
+		if (vcardVersion == null) {
+			vcardVersion = VCardVersion.V3_0;
+		}
+		writer.setTargetVersion(vcardVersion);
+	}
+
 	/**
 	 * <p>
 	 * Gets the {@link VCardVersion} object to pass into the {@link VCardWriter}
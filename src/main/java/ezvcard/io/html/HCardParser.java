@@ -26,14 +26,15 @@ import ezvcard.io.EmbeddedVCardException;
 import ezvcard.io.ParseWarning;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.StreamReader;
-import ezvcard.io.scribe.RawPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
+import ezvcard.property.Agent;
 import ezvcard.property.Categories;
 import ezvcard.property.Email;
 import ezvcard.property.Impp;
 import ezvcard.property.Label;
 import ezvcard.property.Nickname;
 import ezvcard.property.RawProperty;
+import ezvcard.property.Source;
 import ezvcard.property.Telephone;
 import ezvcard.property.Url;
 import ezvcard.property.VCardProperty;
@@ -277,7 +278,7 @@ public class HCardParser extends StreamReader {
 
 		vcard = new VCard();
 		vcard.setVersion(VCardVersion.V3_0);
-		if (pageUrl != null) {
+		if (pageUrl != null && !isFilteredOut(Source.class, index.getPropertyScribe(Source.class).getPropertyName())) {
 			vcard.addSource(pageUrl);
 		}
 
@@ -304,7 +305,7 @@ public class HCardParser extends StreamReader {
 						className = emailName;
 					} else if (!classNames.contains(telName) && href.matches("(?i)tel:.*")) {
 						className = telName;
-					} else {
+					} else if (!isFilteredOut(Impp.class, index.getPropertyScribe(Impp.class).getPropertyName())) {
 						//try parsing as IMPP
 						VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(Impp.class);
 
@@ -335,7 +336,15 @@ public class HCardParser extends StreamReader {
 				if (!className.startsWith("x-")) {
 					continue;
 				}
-				scribe = new RawPropertyScribe(className);
+				scribe = index.getRawPropertyScribe(className);
+			}
+
+			if (isFilteredOut(scribe.getPropertyClass(), className)) {
+				if (scribe.getPropertyClass() == Agent.class) {
+					//don't treat the embedded vCard's properties as properties of this vCard
+					visitChildren = false;
+				}
+				continue;
 			}
 
 			context.getWarnings().clear();
@@ -402,6 +411,8 @@ public class HCardParser extends StreamReader {
 
 				embeddedVCards.add(element);
 				HCardParser embeddedReader = new HCardParser(element, pageUrl);
+				copyPropertyFilterTo(embeddedReader);
+				embeddedReader.setTempFileStore(tempFileStore);
 				try {
 					VCard embeddedVCard = embeddedReader.readNext();
 					e.injectVCard(embeddedVCard);
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
@@ -52,6 +53,7 @@ public class JCardRawReader implements Closeable {
 	private boolean eof = false;
 	private JCardDataStreamListener listener;
 	private boolean strict = false;
+	private Predicate<String> propertyFilter;
 
 	/**
 	 * @param reader the reader to wrap
@@ -74,6 +76,16 @@ public class JCardRawReader implements Closeable {
 		this.strict = strict;
 	}
 
+	/**
+	 * Sets which properties to read. Properties that are not accepted by the
+	 * filter are skipped over, and are not passed to the listener.
+	 * @param propertyFilter determines whether a property should be read,
+	 * given its name (e.g. "fn"), or null to read all properties
+	 */
+	public void setPropertyFilter(Predicate<String> propertyFilter) {
+		this.propertyFilter = propertyFilter;
+	}
+
 	/**
 	 * Gets the current line number.
 	 * @return the line number
@@ -154,6 +166,14 @@ public class JCardRawReader implements Closeable {
 		checkCurrent(JsonToken.VALUE_STRING);
 		String propertyName = parser.getValueAsString().toLowerCase();
 
+		if (propertyFilter != null && !propertyFilter.test(propertyName)) {
+			//skip the rest of the property array
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				parser.skipChildren();
+			}
+			return;
+		}
+
 		//get parameters
 		VCardParameters parameters = parseParameters();
 
@@ -3,6 +3,7 @@ package ezvcard.io.json;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.Writer;
 import java.util.List;
 import java.util.Map;
@@ -248,6 +249,8 @@ public class JCardRawWriter implements Closeable, Flushable {
 				generator.writeNumber((Double) val);
 			} else if (val instanceof Boolean) {
 				generator.writeBoolean((Boolean) val);
+			} else if (val instanceof Reader) {
+				writeString((Reader) val);
 			} else {
 				generator.writeString(val.toString());
 			}
@@ -276,6 +279,27 @@ public class JCardRawWriter implements Closeable, Flushable {
 		}
 	}
 
+	/**
+	 * Writes a string value that is read from a {@link Reader}, so that very
+	 * large values (such as binary data) do not have to be held in memory.
+	 * @param reader the reader
+	 * @throws IOException if there's a problem writing the value
+	 */
+	private void writeString(Reader reader) throws IOException {
+		try {
+			generator.writeString(reader, -1);
+		} catch (UnsupportedOperationException e) {
+			//generator does not support readers, so read the entire value
+			StringBuilder sb = new StringBuilder();
+			char[] buffer = new char[4096];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				sb.append(buffer, 0, read);
+			}
+			generator.writeString(sb.toString());
+		}
+	}
+
 	/**
 	 * Flushes the JSON stream.
 	 * @throws IOException if there's a problem writing to the output stream
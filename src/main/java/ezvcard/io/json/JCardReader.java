@@ -20,7 +20,6 @@ import ezvcard.io.ParseWarning;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.StreamReader;
 import ezvcard.io.json.JCardRawReader.JCardDataStreamListener;
-import ezvcard.io.scribe.RawPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.VCardProperty;
@@ -104,6 +103,7 @@ public class JCardReader extends StreamReader {
 	 */
 	public JCardReader(Reader reader) {
 		this.reader = new JCardRawReader(reader);
+		this.reader.setPropertyFilter(this::isAccepted);
 	}
 
 	/**
@@ -111,6 +111,12 @@ public class JCardReader extends StreamReader {
 	 */
 	public JCardReader(JsonParser parser) {
 		this.reader = new JCardRawReader(parser, true);
+		this.reader.setPropertyFilter(this::isAccepted);
+	}
+
+	private boolean isAccepted(String propertyName) {
+		//the "version" property is always read
+		return "version".equals(propertyName) || !isFilteredOut(propertyName);
 	}
 
 	@Override
@@ -172,7 +178,7 @@ public class JCardReader extends StreamReader {
 
 			VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(propertyName);
 			if (scribe == null) {
-				scribe = new RawPropertyScribe(propertyName);
+				scribe = index.getRawPropertyScribe(propertyName);
 			}
 
 			VCardProperty property;
@@ -188,7 +194,7 @@ public class JCardReader extends StreamReader {
 				//@formatter:on
 				return;
 			} catch (CannotParseException e) {
-				scribe = new RawPropertyScribe(propertyName);
+				scribe = index.getRawPropertyScribe(propertyName);
 				property = scribe.parseJson(value, dataType, parameters, context);
 
 				//@formatter:off
@@ -8,7 +8,6 @@ import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.PrettyPrinter;
@@ -17,10 +16,14 @@ import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.EmbeddedVCardException;
+import ezvcard.io.PreparedVCard;
+import ezvcard.io.PreparedVCard.PreparedProperty;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.StreamWriter;
+import ezvcard.io.scribe.BinaryPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.VCardParameters;
+import ezvcard.property.BinaryProperty;
 import ezvcard.property.VCardProperty;
 
 /*
@@ -139,37 +142,42 @@ public class JCardWriter extends StreamWriter implements Flushable {
 	/**
 	 * Writes a vCard to the stream.
 	 * @param vcard the vCard that is being written
-	 * @param properties the properties to write
 	 * @throws IOException if there's a problem writing to the output stream
 	 * @throws IllegalArgumentException if a scribe hasn't been registered for a
 	 * custom property class (see: {@link #registerScribe registerScribe})
 	 */
 	@Override
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	protected void _write(VCard vcard, List<VCardProperty> properties) throws IOException {
+	protected void _write(PreparedVCard vcard) throws IOException {
 		Object previousValue = getCurrentValue();
 
 		writer.writeStartVCard();
 		writer.writeProperty("version", VCardDataType.TEXT, JCardValue.single(targetVersion.getVersion()));
 
-		for (VCardProperty property : properties) {
-			VCardPropertyScribe scribe = index.getPropertyScribe(property);
+		for (PreparedProperty prepared : vcard.getProperties()) {
+			VCardProperty property = prepared.getProperty();
+			VCardPropertyScribe scribe = prepared.getScribe();
 
 			//marshal the value
 			JCardValue value;
-			try {
-				value = scribe.writeJson(property);
-			} catch (SkipMeException e) {
-				//property has requested not to be written
-				continue;
-			} catch (EmbeddedVCardException e) {
-				//don't write because jCard does not support embedded vCards
-				continue;
+			if (scribe instanceof BinaryPropertyScribe && ((BinaryPropertyScribe) scribe).canStreamJson((BinaryProperty) property)) {
+				//stream the binary data instead of building the entire data URI in memory
+				value = JCardValue.single(((BinaryPropertyScribe) scribe).getDataReader((BinaryProperty) property, targetVersion));
+			} else {
+				try {
+					value = scribe.writeJson(property);
+				} catch (SkipMeException e) {
+					//property has requested not to be written
+					continue;
+				} catch (EmbeddedVCardException e) {
+					//don't write because jCard does not support embedded vCards
+					continue;
+				}
 			}
 
 			String group = property.getGroup();
 			String name = scribe.getPropertyName().toLowerCase();
-			VCardParameters parameters = scribe.prepareParameters(property, targetVersion, vcard);
+			VCardParameters parameters = prepared.getParameters();
 			removeUnsupportedParameters(parameters);
 			VCardDataType dataType = scribe.dataType(property, targetVersion);
 
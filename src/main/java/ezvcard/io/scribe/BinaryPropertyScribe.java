@@ -1,5 +1,16 @@
 package ezvcard.io.scribe;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import com.github.mangstadt.vinnie.io.VObjectPropertyValues;
 
 import ezvcard.VCard;
@@ -7,6 +18,7 @@ import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.CannotParseException;
 import ezvcard.io.ParseContext;
+import ezvcard.io.TempFileStore;
 import ezvcard.io.html.HCardElement;
 import ezvcard.io.json.JCardValue;
 import ezvcard.io.text.WriteContext;
@@ -15,8 +27,8 @@ import ezvcard.parameter.Encoding;
 import ezvcard.parameter.MediaTypeParameter;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.BinaryProperty;
+import ezvcard.util.Base64Utils;
 import ezvcard.util.DataUri;
-import ezvcard.util.org.apache.commons.codec.binary.Base64;
 
 /*
  Copyright (c) 2012-2023, Michael Angstadt
@@ -50,6 +62,8 @@ import ezvcard.util.org.apache.commons.codec.binary.Base64;
  * @param <U> the media type class
  */
 public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extends MediaTypeParameter> extends VCardPropertyScribe<T> {
+	private volatile Set<String> overriddenWriteMethods;
+
 	public BinaryPropertyScribe(Class<T> clazz, String propertyName) {
 		super(clazz, propertyName);
 	}
@@ -78,7 +92,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 			}
 		}
 
-		if (property.getData() != null) {
+		if (property.hasData()) {
 			switch (version) {
 			case V2_1:
 			case V3_0:
@@ -118,7 +132,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 			return;
 		}
 
-		if (property.getData() != null) {
+		if (property.hasData()) {
 			copy.setMediaType(null);
 
 			switch (version) {
@@ -148,7 +162,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 	@Override
 	protected T _parseText(String value, VCardDataType dataType, VCardParameters parameters, ParseContext context) {
 		value = VObjectPropertyValues.unescape(value);
-		return parse(value, dataType, parameters, context.getVersion());
+		return parse(value, dataType, parameters, context.getVersion(), context.getTempFileStore());
 	}
 
 	@Override
@@ -160,7 +174,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 	protected T _parseXml(XCardElement element, VCardParameters parameters, ParseContext context) {
 		String value = element.first(VCardDataType.URI);
 		if (value != null) {
-			return parse(value, VCardDataType.URI, parameters, element.version());
+			return parse(value, VCardDataType.URI, parameters, element.version(), context.getTempFileStore());
 		}
 
 		throw missingXmlElements(VCardDataType.URI);
@@ -178,6 +192,11 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 			throw new CannotParseException(2);
 		}
 
+		T property = parseLargeDataUri(data, context.getTempFileStore());
+		if (property != null) {
+			return property;
+		}
+
 		try {
 			DataUri uri = DataUri.parse(data);
 			U mediaType = _mediaTypeFromMediaTypeParameter(uri.getContentType());
@@ -206,7 +225,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 	@Override
 	protected T _parseJson(JCardValue value, VCardDataType dataType, VCardParameters parameters, ParseContext context) {
 		String valueStr = value.asSingle();
-		return parse(valueStr, dataType, parameters, VCardVersion.V4_0);
+		return parse(valueStr, dataType, parameters, VCardVersion.V4_0, context.getTempFileStore());
 	}
 
 	/**
@@ -225,7 +244,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 			if (value.startsWith("http")) {
 				return _newInstance(value, contentType);
 			}
-			return _newInstance(Base64.decodeBase64(value), contentType);
+			return _newInstance(Base64Utils.decode(value), contentType);
 		case V4_0:
 			return _newInstance(value, contentType);
 		}
@@ -328,6 +347,20 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 	 * @return the parsed property
 	 */
 	protected T parse(String value, VCardDataType dataType, VCardParameters parameters, VCardVersion version) {
+		return parse(value, dataType, parameters, version, null);
+	}
+
+	/**
+	 * Parses the property.
+	 * @param value the property value
+	 * @param dataType the data type
+	 * @param parameters the property parameters
+	 * @param version the vCard version
+	 * @param store the store to decode large binary values into or null to
+	 * decode them into memory
+	 * @return the parsed property
+	 */
+	protected T parse(String value, VCardDataType dataType, VCardParameters parameters, VCardVersion version, TempFileStore store) {
 		U contentType = parseContentTypeFromValueAndParameters(value, parameters, version);
 
 		switch (version) {
@@ -341,11 +374,16 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 			//parse as binary
 			Encoding encodingSubType = parameters.getEncoding();
 			if (encodingSubType == Encoding.BASE64 || encodingSubType == Encoding.B) {
-				return _newInstance(Base64.decodeBase64(value), contentType);
+				return decode(value, 0, contentType, store);
 			}
 
 			break;
 		case V4_0:
+			T property = parseLargeDataUri(value, store);
+			if (property != null) {
+				return property;
+			}
+
 			try {
 				//parse as data URI
 				DataUri uri = DataUri.parse(value);
@@ -360,23 +398,215 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 		return cannotUnmarshalValue(value, version, contentType);
 	}
 
+	/**
+	 * Creates a new instance of the property object from binary data.
+	 * @param data the data
+	 * @param contentType the content type or null if unknown
+	 * @return the property object
+	 */
+	protected T _newInstance(ByteBuffer data, U contentType) {
+		T property = _newInstance((byte[]) null, contentType);
+		property.setData(data, contentType);
+		return property;
+	}
+
+	/**
+	 * Decodes a base64 value.
+	 * @param value the value
+	 * @param start the index where the base64 data starts
+	 * @param contentType the content type or null if unknown
+	 * @param store the store to decode large values into or null to decode
+	 * them into memory
+	 * @return the property object
+	 */
+	private T decode(String value, int start, U contentType, TempFileStore store) {
+		if (store != null && store.accepts(value, start)) {
+			try {
+				return _newInstance(store.decode(value, start), contentType);
+			} catch (IOException e) {
+				//decode into memory instead
+			}
+		}
+
+		byte[] data = Base64Utils.decode((start == 0) ? value : value.substring(start));
+		return _newInstance(data, contentType);
+	}
+
+	/**
+	 * Parses a data URI, decoding its data into a {@link TempFileStore} if it
+	 * is large enough. This avoids {@link DataUri#parse}, which decodes the
+	 * data into memory.
+	 * @param value the property value
+	 * @param store the store or null if there is none
+	 * @return the property object or null if the value is not a large data URI
+	 * containing base64-encoded binary data
+	 */
+	private T parseLargeDataUri(String value, TempFileStore store) {
+		if (store == null || !store.accepts(value, 0)) {
+			return null;
+		}
+
+		int comma = value.indexOf(',');
+		if (comma < 0) {
+			return null;
+		}
+
+		DataUri header;
+		try {
+			header = DataUri.parse(value.substring(0, comma + 1));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+
+		if (header.getData() == null) {
+			//not base64-encoded or contains text
+			return null;
+		}
+
+		U contentType = _mediaTypeFromMediaTypeParameter(header.getContentType());
+		return decode(value, comma + 1, contentType, store);
+	}
+
+	/**
+	 * Determines whether a plain-text writer can stream the property's binary
+	 * data with {@link #writeData writeData} instead of calling
+	 * {@link #writeText writeText}. This is only the case if the property has
+	 * binary data and {@link #_writeText _writeText} has not been overridden.
+	 * @param property the property
+	 * @return true if the data can be streamed, false if
+	 * {@link #writeText writeText} must be called
+	 */
+	public boolean canStreamText(T property) {
+		return property.hasData() && !overriddenWriteMethods().contains("_writeText");
+	}
+
+	/**
+	 * Determines whether an xCard writer can stream the property's binary data
+	 * with {@link #writeData writeData} instead of calling
+	 * {@link #writeXml writeXml}. This is only the case if the property has
+	 * binary data and {@link #_writeXml _writeXml} has not been overridden.
+	 * @param property the property
+	 * @return true if the data can be streamed, false if
+	 * {@link #writeXml writeXml} must be called
+	 */
+	public boolean canStreamXml(T property) {
+		return property.hasData() && !overriddenWriteMethods().contains("_writeXml");
+	}
+
+	/**
+	 * Determines whether a jCard writer can stream the property's binary data
+	 * with {@link #getDataReader getDataReader} instead of calling
+	 * {@link #writeJson writeJson}. This is only the case if the property has
+	 * binary data and {@link #_writeJson _writeJson} has not been overridden.
+	 * @param property the property
+	 * @return true if the data can be streamed, false if
+	 * {@link #writeJson writeJson} must be called
+	 */
+	public boolean canStreamJson(T property) {
+		return property.hasData() && !overriddenWriteMethods().contains("_writeJson");
+	}
+
+	/**
+	 * <p>
+	 * Gets the class that the streaming checks stop at when looking for
+	 * overridden write methods. Overrides declared in this class or in its
+	 * superclasses are assumed to delegate to this class for binary data.
+	 * </p>
+	 * <p>
+	 * Subclasses whose write methods only handle non-binary values (and call
+	 * {@code super} for binary data) can return their own class here so that
+	 * their binary data is still streamed.
+	 * </p>
+	 * @return the class
+	 */
+	protected Class<?> streamingBoundary() {
+		return BinaryPropertyScribe.class;
+	}
+
+	private Set<String> overriddenWriteMethods() {
+		Set<String> overridden = overriddenWriteMethods;
+		if (overridden == null) {
+			overridden = new HashSet<String>();
+			Class<?> boundary = streamingBoundary();
+			for (Class<?> c = getClass(); c != null && boundary.isAssignableFrom(c) && c != boundary; c = c.getSuperclass()) {
+				for (Method method : c.getDeclaredMethods()) {
+					overridden.add(method.getName());
+				}
+			}
+			overridden.retainAll(Arrays.asList("_writeText", "_writeXml", "_writeJson"));
+			overriddenWriteMethods = overridden = Collections.unmodifiableSet(overridden);
+		}
+		return overridden;
+	}
+
+	/**
+	 * Creates a reader that returns the property's binary data as a base64
+	 * string (2.1 and 3.0) or a data URI (4.0). The data is encoded as it is
+	 * read, so the encoded value is never held in memory all at once.
+	 * @param property the property
+	 * @param version the vCard version
+	 * @return the reader or null if the property does not have binary data
+	 */
+	public Reader getDataReader(T property, VCardVersion version) {
+		ByteBuffer data = property.getDataBuffer();
+		if (data == null) {
+			return null;
+		}
+
+		String prefix = (version == VCardVersion.V4_0) ? dataUriPrefix(property) : null;
+		return Base64Utils.encodingReader(prefix, data);
+	}
+
+	/**
+	 * <p>
+	 * Writes the property's binary data directly to a character stream. 2.1
+	 * and 3.0 vCards get the raw base64 string and 4.0 vCards get a data URI.
+	 * </p>
+	 * <p>
+	 * The data is encoded in small chunks, so the encoded value is never held
+	 * in memory all at once.
+	 * </p>
+	 * @param property the property
+	 * @param version the vCard version
+	 * @param writer the writer to write the value to
+	 * @return true if the data was written, false if the property does not
+	 * have binary data (nothing is written in this case)
+	 * @throws IOException if there's a problem writing to the writer
+	 */
+	public boolean writeData(T property, VCardVersion version, Writer writer) throws IOException {
+		ByteBuffer data = property.getDataBuffer();
+		if (data == null) {
+			return false;
+		}
+
+		if (version == VCardVersion.V4_0) {
+			writer.write(dataUriPrefix(property));
+		}
+
+		Base64Utils.encode(data, writer);
+		return true;
+	}
+
+	private String dataUriPrefix(T property) {
+		U contentType = property.getContentType();
+		String mediaType = (contentType == null || contentType.getMediaType() == null) ? "application/octet-stream" : contentType.getMediaType();
+		return "data:" + mediaType.toLowerCase() + ";base64,";
+	}
+
 	private String write(T property, VCardVersion version) {
 		String url = property.getUrl();
 		if (url != null) {
 			return url;
 		}
 
-		byte data[] = property.getData();
-		if (data != null) {
-			switch (version) {
-			case V2_1:
-			case V3_0:
-				return Base64.encodeBase64String(data);
-			case V4_0:
-				U contentType = property.getContentType();
-				String mediaType = (contentType == null || contentType.getMediaType() == null) ? "application/octet-stream" : contentType.getMediaType();
-				return new DataUri(mediaType, data).toString();
+		if (property.hasData()) {
+			StringWriter sw = new StringWriter(property.getDataLength() / 3 * 4 + 40);
+			try {
+				writeData(property, version, sw);
+			} catch (IOException ignore) {
+				//should never be thrown because we're writing to a string
 			}
+			return sw.toString();
 		}
 
 		return "";
@@ -98,6 +98,12 @@ public class KeyScribe extends BinaryPropertyScribe<Key, KeyType> {
 		super._prepareParameters(property, copy, version, vcard);
 	}
 
+	@Override
+	protected Class<?> streamingBoundary() {
+		//the write methods in this class only handle text keys
+		return KeyScribe.class;
+	}
+
 	@Override
 	protected String _writeText(Key property, WriteContext context) {
 		String text = property.getText();
@@ -122,7 +128,7 @@ public class KeyScribe extends BinaryPropertyScribe<Key, KeyType> {
 			return property;
 		}
 
-		return parse(value, dataType, parameters, context.getVersion());
+		return parse(value, dataType, parameters, context.getVersion(), context.getTempFileStore());
 	}
 
 	@Override
@@ -148,7 +154,7 @@ public class KeyScribe extends BinaryPropertyScribe<Key, KeyType> {
 
 		String value = element.first(VCardDataType.URI);
 		if (value != null) {
-			return parse(value, VCardDataType.URI, parameters, element.version());
+			return parse(value, VCardDataType.URI, parameters, element.version(), context.getTempFileStore());
 		}
 
 		throw missingXmlElements(VCardDataType.URI, VCardDataType.TEXT);
@@ -0,0 +1,292 @@
+package ezvcard.io.scribe;
+
+import java.util.Arrays;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * An open-addressing hash table that maps property names to values. Keys are
+ * compared case-insensitively using ASCII case folding, so looking up a name
+ * does not require the name to be upper-cased first (which would create a new
+ * string for every lookup).
+ * </p>
+ * <p>
+ * The table is not thread-safe. However, it can be safely shared across
+ * threads once it is no longer being modified.
+ * </p>
+ * @author Michael Angstadt
+ * @param <V> the value type
+ */
+class PropertyNameTable<V> {
+	private String[] keys;
+	private Object[] values;
+	private int size = 0;
+
+	/**
+	 * Creates an empty table.
+	 */
+	public PropertyNameTable() {
+		this(8);
+	}
+
+	/**
+	 * Creates an empty table.
+	 * @param capacity the initial capacity (must be a power of two)
+	 */
+	private PropertyNameTable(int capacity) {
+		keys = new String[capacity];
+		values = new Object[capacity];
+	}
+
+	/**
+	 * Creates a copy of a table. The copy's capacity is increased until every
+	 * key hashes to its own slot, so that each lookup only has to compare
+	 * against a single key.
+	 * @param original the table to copy
+	 * @return the copy
+	 */
+	public static <V> PropertyNameTable<V> perfect(PropertyNameTable<V> original) {
+		int capacity = original.keys.length;
+		while (true) {
+			PropertyNameTable<V> table = new PropertyNameTable<>(capacity);
+			boolean collision = false;
+			for (int i = 0; i < original.keys.length; i++) {
+				String key = original.keys[i];
+				if (key == null) {
+					continue;
+				}
+
+				int index = hash(key) & (capacity - 1);
+				if (table.keys[index] != null) {
+					collision = true;
+					break;
+				}
+
+				table.keys[index] = key;
+				table.values[index] = original.values[i];
+				table.size++;
+			}
+
+			/*
+			 * Give up on a perfect hash if the table gets unreasonably large
+			 * and fall back to linear probing.
+			 */
+			if (!collision) {
+				return table;
+			}
+			if (capacity >= 1 << 16) {
+				return original.copy();
+			}
+
+			capacity <<= 1;
+		}
+	}
+
+	/**
+	 * Gets a value.
+	 * @param name the property name (case-insensitive)
+	 * @return the value or null if not found
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(String name) {
+		if (size == 0) {
+			return null;
+		}
+
+		int mask = keys.length - 1;
+		int index = hash(name) & mask;
+		String key;
+		while ((key = keys[index]) != null) {
+			if (equalsIgnoreAsciiCase(key, name)) {
+				return (V) values[index];
+			}
+			index = (index + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Adds a value, replacing the existing value if one is already assigned
+	 * to the given name.
+	 * @param name the property name (case-insensitive)
+	 * @param value the value
+	 */
+	public void put(String name, V value) {
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+
+		int mask = keys.length - 1;
+		int index = hash(name) & mask;
+		String key;
+		while ((key = keys[index]) != null) {
+			if (equalsIgnoreAsciiCase(key, name)) {
+				values[index] = value;
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+
+		keys[index] = name;
+		values[index] = value;
+		size++;
+	}
+
+	/**
+	 * Removes a value.
+	 * @param name the property name (case-insensitive)
+	 */
+	public void remove(String name) {
+		int mask = keys.length - 1;
+		int index = hash(name) & mask;
+		String key;
+		while ((key = keys[index]) != null) {
+			if (equalsIgnoreAsciiCase(key, name)) {
+				break;
+			}
+			index = (index + 1) & mask;
+		}
+
+		if (key == null) {
+			return;
+		}
+
+		/*
+		 * Shift the following entries back so that no gaps are left in the
+		 * probe sequences that pass through the removed slot.
+		 */
+		int empty = index;
+		while (true) {
+			index = (index + 1) & mask;
+			key = keys[index];
+			if (key == null) {
+				break;
+			}
+
+			int home = hash(key) & mask;
+			boolean canMove = (empty <= index) ? (home <= empty || home > index) : (home <= empty && home > index);
+			if (canMove) {
+				keys[empty] = key;
+				values[empty] = values[index];
+				empty = index;
+			}
+		}
+
+		keys[empty] = null;
+		values[empty] = null;
+		size--;
+	}
+
+	/**
+	 * Gets the number of entries in the table.
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Creates a copy of this table.
+	 * @return the copy
+	 */
+	public PropertyNameTable<V> copy() {
+		PropertyNameTable<V> copy = new PropertyNameTable<>(0);
+		copy.keys = Arrays.copyOf(keys, keys.length);
+		copy.values = Arrays.copyOf(values, values.length);
+		copy.size = size;
+		return copy;
+	}
+
+	private void resize(int capacity) {
+		String[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new String[capacity];
+		values = new Object[capacity];
+
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			String key = oldKeys[i];
+			if (key == null) {
+				continue;
+			}
+
+			int index = hash(key) & mask;
+			while (keys[index] != null) {
+				index = (index + 1) & mask;
+			}
+			keys[index] = key;
+			values[index] = oldValues[i];
+		}
+	}
+
+	/**
+	 * Hashes a property name, treating lower-case ASCII letters as upper-case.
+	 * @param name the property name
+	 * @return the hash
+	 */
+	static int hash(String name) {
+		int h = 0;
+		for (int i = 0; i < name.length(); i++) {
+			h = 31 * h + toUpperAscii(name.charAt(i));
+		}
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Compares two strings, ignoring the case of ASCII letters.
+	 * @param a the first string
+	 * @param b the second string
+	 * @return true if they are equal, false if not
+	 */
+	static boolean equalsIgnoreAsciiCase(String a, String b) {
+		if (a == b) {
+			return true;
+		}
+
+		int length = a.length();
+		if (length != b.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			char c1 = a.charAt(i);
+			char c2 = b.charAt(i);
+			if (c1 != c2 && toUpperAscii(c1) != toUpperAscii(c2)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char toUpperAscii(char c) {
+		return (c >= 'a' && c <= 'z') ? (char) (c - ('a' - 'A')) : c;
+	}
+}
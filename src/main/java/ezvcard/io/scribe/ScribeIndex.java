@@ -1,7 +1,9 @@
 package ezvcard.io.scribe;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.namespace.QName;
 
@@ -75,7 +77,7 @@ import ezvcard.property.Xml;
  */
 public class ScribeIndex {
 	//define standard property scribes
-	private static final Map<String, VCardPropertyScribe<? extends VCardProperty>> standardByName = new HashMap<>();
+	private static final PropertyNameTable<VCardPropertyScribe<? extends VCardProperty>> standardByName;
 	private static final Map<Class<? extends VCardProperty>, VCardPropertyScribe<? extends VCardProperty>> standardByClass = new HashMap<>();
 	private static final Map<QName, VCardPropertyScribe<? extends VCardProperty>> standardByQName = new HashMap<>();
 	static {
@@ -135,11 +137,84 @@ public class ScribeIndex {
 		registerStandard(new OrgDirectoryScribe());
 		registerStandard(new InterestScribe());
 		registerStandard(new HobbyScribe());
+
+		/*
+		 * Build a collision-free table so that looking up a standard property
+		 * by name only has to compare against a single key.
+		 */
+		PropertyNameTable<VCardPropertyScribe<? extends VCardProperty>> byName = new PropertyNameTable<>();
+		for (VCardPropertyScribe<? extends VCardProperty> scribe : standardByClass.values()) {
+			byName.put(scribe.getPropertyName(), scribe);
+		}
+		standardByName = PropertyNameTable.perfect(byName);
+	}
+
+	/**
+	 * The maximum number of {@link RawPropertyScribe} instances to cache. This
+	 * prevents a data stream with many unique extended property names from
+	 * filling up memory.
+	 */
+	private static final int RAW_SCRIBE_CACHE_LIMIT = 1000;
+	private static final Map<String, RawPropertyScribe> rawScribes = new ConcurrentHashMap<>();
+
+	/**
+	 * The write plans of indexes that do not have any extended scribes
+	 * registered. These only depend on the standard scribes, so they are
+	 * shared by all such indexes.
+	 */
+	private static final Map<Class<? extends VCardProperty>, WritePlan> standardWritePlans = new ConcurrentHashMap<>();
+
+	private final PropertyNameTable<VCardPropertyScribe<? extends VCardProperty>> extendedByName;
+	private final Map<Class<? extends VCardProperty>, VCardPropertyScribe<? extends VCardProperty>> extendedByClass;
+	private final Map<QName, VCardPropertyScribe<? extends VCardProperty>> extendedByQName;
+	private final Map<Class<? extends VCardProperty>, WritePlan> writePlans = new ConcurrentHashMap<>(0);
+	private final boolean frozen;
+
+	/**
+	 * Creates a new scribe index.
+	 */
+	public ScribeIndex() {
+		extendedByName = new PropertyNameTable<>();
+		extendedByClass = new HashMap<>(0);
+		extendedByQName = new HashMap<>(0);
+		frozen = false;
+	}
+
+	/**
+	 * Creates a frozen copy of a scribe index.
+	 * @param original the index to copy
+	 */
+	private ScribeIndex(ScribeIndex original) {
+		extendedByName = PropertyNameTable.perfect(original.extendedByName);
+		extendedByClass = Collections.unmodifiableMap(new HashMap<>(original.extendedByClass));
+		extendedByQName = Collections.unmodifiableMap(new HashMap<>(original.extendedByQName));
+		frozen = true;
+	}
+
+	/**
+	 * <p>
+	 * Creates an immutable copy of this scribe index. A frozen index can be
+	 * safely shared across threads (for example, by multiple readers that are
+	 * parsing data streams concurrently).
+	 * </p>
+	 * <p>
+	 * Any scribes registered with this index after it is frozen will not be
+	 * visible to the frozen copy.
+	 * </p>
+	 * @return the frozen copy (or this object if this index is already frozen)
+	 */
+	public ScribeIndex freeze() {
+		return frozen ? this : new ScribeIndex(this);
 	}
 
-	private final Map<String, VCardPropertyScribe<? extends VCardProperty>> extendedByName = new HashMap<>(0);
-	private final Map<Class<? extends VCardProperty>, VCardPropertyScribe<? extends VCardProperty>> extendedByClass = new HashMap<>(0);
-	private final Map<QName, VCardPropertyScribe<? extends VCardProperty>> extendedByQName = new HashMap<>(0);
+	/**
+	 * Determines if this index is frozen (immutable).
+	 * @return true if it is frozen, false if not
+	 * @see #freeze()
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
 
 	/**
 	 * Gets a property scribe by name.
@@ -147,8 +222,6 @@ public class ScribeIndex {
 	 * @return the property scribe or null if not found
 	 */
 	public VCardPropertyScribe<? extends VCardProperty> getPropertyScribe(String propertyName) {
-		propertyName = propertyName.toUpperCase();
-
 		VCardPropertyScribe<? extends VCardProperty> scribe = extendedByName.get(propertyName);
 		if (scribe != null) {
 			return scribe;
@@ -157,6 +230,29 @@ public class ScribeIndex {
 		return standardByName.get(propertyName);
 	}
 
+	/**
+	 * Gets a scribe for parsing and writing {@link RawProperty} instances
+	 * that have the given name. Scribes are cached, so the same instance is
+	 * returned for the same property name.
+	 * @param propertyName the property name (case-sensitive, e.g. "X-FOO")
+	 * @return the scribe
+	 */
+	public RawPropertyScribe getRawPropertyScribe(String propertyName) {
+		RawPropertyScribe scribe = rawScribes.get(propertyName);
+		if (scribe != null) {
+			return scribe;
+		}
+
+		scribe = new RawPropertyScribe(propertyName);
+		if (rawScribes.size() < RAW_SCRIBE_CACHE_LIMIT) {
+			RawPropertyScribe existing = rawScribes.putIfAbsent(propertyName, scribe);
+			if (existing != null) {
+				scribe = existing;
+			}
+		}
+		return scribe;
+	}
+
 	/**
 	 * Determines if a scribe exists for a given property instance.
 	 * @param property the property
@@ -192,7 +288,7 @@ public class ScribeIndex {
 	public VCardPropertyScribe<? extends VCardProperty> getPropertyScribe(VCardProperty property) {
 		if (property instanceof RawProperty) {
 			RawProperty raw = (RawProperty) property;
-			return new RawPropertyScribe(raw.getPropertyName());
+			return getRawPropertyScribe(raw.getPropertyName());
 		}
 
 		return getPropertyScribe(property.getClass());
@@ -215,34 +311,58 @@ public class ScribeIndex {
 		}
 
 		if (VCardVersion.V4_0.getXmlNamespace().equals(qname.getNamespaceURI())) {
-			return new RawPropertyScribe(qname.getLocalPart().toUpperCase());
+			return getRawPropertyScribe(qname.getLocalPart().toUpperCase());
 		}
 
 		return getPropertyScribe(Xml.class);
 	}
 
+	/**
+	 * Gets the write plan of a property class. The plan is built the first
+	 * time it is requested, and is cached until a scribe is registered with or
+	 * unregistered from this index. Plans are shared by all indexes that do not
+	 * have any extended scribes registered.
+	 * @param clazz the property class
+	 * @return the write plan
+	 */
+	public WritePlan getWritePlan(Class<? extends VCardProperty> clazz) {
+		Map<Class<? extends VCardProperty>, WritePlan> plans = extendedByClass.isEmpty() ? standardWritePlans : writePlans;
+		return plans.computeIfAbsent(clazz, c -> new WritePlan(c, getPropertyScribe(c)));
+	}
+
 	/**
 	 * Registers a property scribe.
 	 * @param scribe the scribe to register
+	 * @throws UnsupportedOperationException if this index is frozen
 	 */
 	public void register(VCardPropertyScribe<? extends VCardProperty> scribe) {
-		extendedByName.put(scribe.getPropertyName().toUpperCase(), scribe);
+		checkNotFrozen();
+		extendedByName.put(scribe.getPropertyName(), scribe);
 		extendedByClass.put(scribe.getPropertyClass(), scribe);
 		extendedByQName.put(scribe.getQName(), scribe);
+		writePlans.clear();
 	}
 
 	/**
 	 * Unregisters a property scribe.
 	 * @param scribe the scribe to unregister
+	 * @throws UnsupportedOperationException if this index is frozen
 	 */
 	public void unregister(VCardPropertyScribe<? extends VCardProperty> scribe) {
-		extendedByName.remove(scribe.getPropertyName().toUpperCase());
+		checkNotFrozen();
+		extendedByName.remove(scribe.getPropertyName());
 		extendedByClass.remove(scribe.getPropertyClass());
 		extendedByQName.remove(scribe.getQName());
+		writePlans.clear();
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new UnsupportedOperationException("This scribe index is frozen.");
+		}
 	}
 
 	private static void registerStandard(VCardPropertyScribe<? extends VCardProperty> scribe) {
-		standardByName.put(scribe.getPropertyName().toUpperCase(), scribe);
 		standardByClass.put(scribe.getPropertyClass(), scribe);
 		standardByQName.put(scribe.getQName(), scribe);
 	}
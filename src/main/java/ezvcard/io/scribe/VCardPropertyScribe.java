@@ -112,7 +112,10 @@ public abstract class VCardPropertyScribe<T extends VCardProperty> {
 	/**
 	 * Sanitizes a property's parameters (called before the property is
 	 * written). Note that a copy of the parameters is returned so that the
-	 * property object does not get modified.
+	 * property object does not get modified. The copy is copy-on-write, so
+	 * the property's parameters are only duplicated if the scribe or writer
+	 * modifies them. The property's parameters must not be modified while the
+	 * returned copy is in use.
 	 * @param property the property
 	 * @param version the version of the vCard that is being generated
 	 * @param vcard the vCard that the property belongs to
@@ -120,7 +123,7 @@ public abstract class VCardPropertyScribe<T extends VCardProperty> {
 	 */
 	public final VCardParameters prepareParameters(T property, VCardVersion version, VCard vcard) {
 		//make a copy because the property should not get modified when it is marshalled
-		VCardParameters copy = new VCardParameters(property.getParameters());
+		VCardParameters copy = new VCardParameters(property.getParameters(), true);
 		_prepareParameters(property, copy, version, vcard);
 		return copy;
 	}
@@ -181,6 +184,20 @@ public abstract class VCardPropertyScribe<T extends VCardProperty> {
 		_writeXml(property, xCardElement);
 	}
 
+	/**
+	 * Marshals a property's value to an XML element (xCard). The given element
+	 * may not be backed by a DOM element (see
+	 * {@link ezvcard.io.xml.StaxXCardWriter StaxXCardWriter}). In that case, a DOM
+	 * element is only built if the scribe calls {@link XCardElement#element()}.
+	 * @param property the property
+	 * @param element the property's XML element.
+	 * @throws SkipMeException if the property should not be written to the data
+	 * stream
+	 */
+	public final void writeXml(T property, XCardElement element) {
+		_writeXml(property, element);
+	}
+
 	/**
 	 * Marshals a property's value to a JSON data stream (jCard).
 	 * @param property the property
@@ -229,7 +246,26 @@ public abstract class VCardPropertyScribe<T extends VCardProperty> {
 	 * {@link VCard} object
 	 */
 	public final T parseXml(Element element, VCardParameters parameters, ParseContext context) {
-		T property = _parseXml(new XCardElement(element), parameters, context);
+		return parseXml(new XCardElement(element), parameters, context);
+	}
+
+	/**
+	 * Unmarshals a property's value from an XML document (xCard). The given
+	 * element may not be backed by a DOM element (see
+	 * {@link ezvcard.io.xml.XCardReader XCardReader}). In that case, a DOM
+	 * element is only built if the scribe calls {@link XCardElement#element()}
+	 * or {@link XCardElement#append}.
+	 * @param element the property's XML element
+	 * @param parameters the parsed parameters
+	 * @param context the parse context
+	 * @return the unmarshalled property
+	 * @throws CannotParseException if the marshaller could not parse the
+	 * property's value
+	 * @throws SkipMeException if the property should not be added to the final
+	 * {@link VCard} object
+	 */
+	public final T parseXml(XCardElement element, VCardParameters parameters, ParseContext context) {
+		T property = _parseXml(element, parameters, context);
 		property.setParameters(parameters);
 		return property;
 	}
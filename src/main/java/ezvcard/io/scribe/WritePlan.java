@@ -0,0 +1,90 @@
+package ezvcard.io.scribe;
+
+import ezvcard.SupportedVersions;
+import ezvcard.VCardVersion;
+import ezvcard.property.VCardProperty;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * The information a writer needs about a property class that does not depend
+ * on the property instance being written, such as the scribe that marshals
+ * the class and the vCard versions that support it.
+ * </p>
+ * <p>
+ * Write plans are built the first time they are requested from a
+ * {@link ScribeIndex} and then cached, so that this information does not
+ * have to be recomputed (using reflection, in the case of the supported
+ * versions) each time a property is written.
+ * </p>
+ * @author Michael Angstadt
+ * @see ScribeIndex#getWritePlan
+ */
+public final class WritePlan {
+	private final VCardPropertyScribe<? extends VCardProperty> scribe;
+	private final boolean[] supportedVersions = new boolean[VCardVersion.values().length];
+
+	/**
+	 * @param clazz the property class
+	 * @param scribe the scribe that marshals the property class or null if
+	 * there is none
+	 */
+	WritePlan(Class<? extends VCardProperty> clazz, VCardPropertyScribe<? extends VCardProperty> scribe) {
+		this.scribe = scribe;
+
+		SupportedVersions annotation = clazz.getAnnotation(SupportedVersions.class);
+		VCardVersion[] versions = (annotation == null) ? VCardVersion.values() : annotation.value();
+		for (VCardVersion version : versions) {
+			supportedVersions[version.ordinal()] = true;
+		}
+	}
+
+	/**
+	 * Gets the scribe that marshals the property class.
+	 * @return the scribe or null if no scribe is registered for the class
+	 * (always null for {@link ezvcard.property.RawProperty}, whose scribe
+	 * depends on the property name)
+	 */
+	public VCardPropertyScribe<? extends VCardProperty> getScribe() {
+		return scribe;
+	}
+
+	/**
+	 * Determines if the property class is supported by the given vCard
+	 * version. This is the same as calling
+	 * {@link VCardProperty#isSupportedBy} on an instance of the class.
+	 * @param version the vCard version
+	 * @return true if it is supported, false if not
+	 */
+	public boolean isSupportedBy(VCardVersion version) {
+		return supportedVersions[version.ordinal()];
+	}
+}
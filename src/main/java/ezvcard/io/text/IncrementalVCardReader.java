@@ -0,0 +1,389 @@
+package ezvcard.io.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.StreamReader;
+import ezvcard.io.WarningMode;
+import ezvcard.io.text.VCardSplitter.Chunk;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Parses {@link VCard} objects from a plain-text vCard data stream that is
+ * pushed into the reader one piece at a time, as it arrives. This makes it
+ * possible to parse vCards from a non-blocking source (such as a network
+ * connection) without blocking a thread on an {@link java.io.InputStream
+ * InputStream} and without buffering the entire data stream in memory.
+ * </p>
+ * <p>
+ * The data is passed to the reader by calling {@link #feed}. The pieces can
+ * be split up anywhere, including in the middle of a multi-byte character, a
+ * folded line, or a quoted-printable value. Once the entire data stream has
+ * been fed to the reader, {@link #endOfInput} must be called.
+ * </p>
+ * <p>
+ * The {@link #readNext} method returns the next vCard that has been
+ * completely received, or null if no vCard is available yet. This lets the
+ * caller decide when to parse each vCard, so vCards are never parsed faster
+ * than they can be consumed. Note that {@link #readAll} and {@link #stream}
+ * only return the vCards that are available at the time they are called.
+ * </p>
+ * <p>
+ * The parsed vCards and their warnings are identical to what
+ * {@link VCardReader} would produce.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * IncrementalVCardReader reader = new IncrementalVCardReader(StandardCharsets.UTF_8);
+ *
+ * //called whenever more data arrives
+ * reader.feed(buffer);
+ * VCard vcard;
+ * while ((vcard = reader.readNext()) != null) {
+ *   //...
+ * }
+ *
+ * //called when the upload is complete
+ * reader.endOfInput();
+ * while ((vcard = reader.readNext()) != null) {
+ *   //...
+ * }
+ * </pre>
+ * <p>
+ * <b>Thread safety:</b> Instances of this class are not thread-safe.
+ * </p>
+ * @author Michael Angstadt
+ */
+public class IncrementalVCardReader extends StreamReader {
+	private final CharsetDecoder decoder;
+	private final VCardVersion defaultVersion;
+	private final VCardSplitter splitter = new VCardSplitter();
+	private final Deque<Chunk> chunks = new ArrayDeque<>();
+
+	/**
+	 * Parses each chunk. It is reused for every chunk.
+	 */
+	private VCardReader chunkReader;
+
+	/**
+	 * Holds the bytes of a character that was split across two calls to
+	 * {@link #feed}.
+	 */
+	private final ByteBuffer partialChar = ByteBuffer.allocate(16);
+
+	private final CharBuffer decoded = CharBuffer.allocate(8192);
+	private final StringBuilder line = new StringBuilder();
+	private boolean skipLineFeed = false;
+	private boolean endOfInput = false;
+
+	private boolean caretDecodingEnabled = true;
+	private Charset defaultQuotedPrintableCharset;
+	private boolean fastTokenizerEnabled = false;
+
+	/**
+	 * Creates a reader that assumes all vCards without a VERSION property are
+	 * version 2.1.
+	 * @param charset the character encoding of the data stream
+	 */
+	public IncrementalVCardReader(Charset charset) {
+		this(charset, VCardVersion.V2_1);
+	}
+
+	/**
+	 * @param charset the character encoding of the data stream
+	 * @param defaultVersion the version to assume the vCards are if they don't
+	 * have a VERSION property
+	 */
+	public IncrementalVCardReader(Charset charset, VCardVersion defaultVersion) {
+		//@formatter:off
+		this.decoder = charset.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		//@formatter:on
+		this.defaultVersion = defaultVersion;
+		this.defaultQuotedPrintableCharset = charset;
+	}
+
+	/**
+	 * Gets whether the reader will decode parameter values that use circumflex
+	 * accent encoding (enabled by default). This escaping mechanism allows
+	 * newlines and double quotes to be included in parameter values.
+	 * @return true if circumflex accent decoding is enabled, false if not
+	 * @see VCardReader#isCaretDecodingEnabled()
+	 */
+	public boolean isCaretDecodingEnabled() {
+		return caretDecodingEnabled;
+	}
+
+	/**
+	 * Sets whether the reader will decode parameter values that use circumflex
+	 * accent encoding (enabled by default). This escaping mechanism allows
+	 * newlines and double quotes to be included in parameter values.
+	 * @param enable true to use circumflex accent decoding, false not to
+	 * @see VCardReader#setCaretDecodingEnabled(boolean)
+	 */
+	public void setCaretDecodingEnabled(boolean enable) {
+		caretDecodingEnabled = enable;
+	}
+
+	/**
+	 * Gets the character set to use when the parser cannot determine what
+	 * character set to use to decode a quoted-printable property value
+	 * (defaults to the character encoding of the data stream).
+	 * @return the character set
+	 * @see VCardReader#getDefaultQuotedPrintableCharset()
+	 */
+	public Charset getDefaultQuotedPrintableCharset() {
+		return defaultQuotedPrintableCharset;
+	}
+
+	/**
+	 * Sets the character set to use when the parser cannot determine what
+	 * character set to use to decode a quoted-printable property value
+	 * (defaults to the character encoding of the data stream).
+	 * @param charset the character set (cannot be null)
+	 * @see VCardReader#setDefaultQuotedPrintableCharset
+	 */
+	public void setDefaultQuotedPrintableCharset(Charset charset) {
+		defaultQuotedPrintableCharset = charset;
+	}
+
+	/**
+	 * Gets whether the built-in tokenizer is used to parse each vCard.
+	 * @return true if the built-in tokenizer is used, false if not
+	 * @see VCardReader#isFastTokenizerEnabled()
+	 */
+	public boolean isFastTokenizerEnabled() {
+		return fastTokenizerEnabled;
+	}
+
+	/**
+	 * Sets whether to use the built-in tokenizer to parse each vCard (disabled
+	 * by default).
+	 * @param enable true to use the built-in tokenizer, false not to
+	 * @see VCardReader#setFastTokenizerEnabled(boolean)
+	 */
+	public void setFastTokenizerEnabled(boolean enable) {
+		fastTokenizerEnabled = enable;
+	}
+
+	/**
+	 * Passes the next piece of the data stream to the reader. All of the
+	 * buffer's remaining bytes are consumed.
+	 * @param buffer the data
+	 * @throws IllegalStateException if {@link #endOfInput} has already been
+	 * called
+	 */
+	public void feed(ByteBuffer buffer) {
+		if (endOfInput) {
+			throw new IllegalStateException("End of input has already been reached.");
+		}
+
+		/*
+		 * Complete the character that was split across the previous call
+		 * and this one.
+		 */
+		while (partialChar.position() > 0 && buffer.hasRemaining()) {
+			partialChar.put(buffer.get());
+			partialChar.flip();
+			decode(partialChar, false);
+			partialChar.compact();
+		}
+
+		decode(buffer, false);
+
+		//save the start of the next character for the next call
+		partialChar.put(buffer);
+	}
+
+	/**
+	 * Signals that the entire data stream has been passed to the reader. Any
+	 * remaining data is processed. If the data stream ends in the middle of a
+	 * vCard, the incomplete vCard is still parsed, just like
+	 * {@link VCardReader} does.
+	 */
+	public void endOfInput() {
+		if (endOfInput) {
+			return;
+		}
+		endOfInput = true;
+
+		partialChar.flip();
+		decode(partialChar, true);
+		partialChar.clear();
+
+		CoderResult result;
+		do {
+			result = decoder.flush(decoded);
+			processDecoded();
+		} while (result.isOverflow());
+
+		if (line.length() > 0) {
+			endLine();
+		}
+
+		Chunk chunk = splitter.finish();
+		if (chunk != null) {
+			chunks.add(chunk);
+		}
+	}
+
+	/**
+	 * Determines if the end of the data stream has been reached and all of
+	 * the vCards have been read.
+	 * @return true if there is nothing left to read, false if not
+	 */
+	public boolean isDone() {
+		return endOfInput && chunks.isEmpty();
+	}
+
+	private void decode(ByteBuffer in, boolean last) {
+		CoderResult result;
+		do {
+			result = decoder.decode(in, decoded, last);
+			processDecoded();
+		} while (result.isOverflow());
+
+		if (result.isError()) {
+			//cannot happen because the decoder replaces invalid characters
+			try {
+				result.throwException();
+			} catch (CharacterCodingException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	/**
+	 * Splits the decoded characters into lines, treating "\r\n", "\r", and
+	 * "\n" as newlines, just like {@link java.io.BufferedReader#readLine}.
+	 */
+	private void processDecoded() {
+		decoded.flip();
+		while (decoded.hasRemaining()) {
+			char c = decoded.get();
+
+			if (skipLineFeed) {
+				skipLineFeed = false;
+				if (c == '\n') {
+					continue;
+				}
+			}
+
+			if (c == '\r') {
+				skipLineFeed = true;
+				endLine();
+				continue;
+			}
+
+			if (c == '\n') {
+				endLine();
+				continue;
+			}
+
+			line.append(c);
+		}
+		decoded.clear();
+	}
+
+	private void endLine() {
+		Chunk chunk = splitter.line(line.toString());
+		line.setLength(0);
+		if (chunk != null) {
+			chunks.add(chunk);
+		}
+	}
+
+	/**
+	 * Parses the next vCard that has been completely received.
+	 * @return the next vCard or null if no vCard is available yet (call
+	 * {@link #isDone} to determine if the end of the data stream has been
+	 * reached)
+	 * @throws IOException if there's a problem parsing the vCard
+	 */
+	@Override
+	public VCard readNext() throws IOException {
+		return super.readNext();
+	}
+
+	@Override
+	protected VCard _readNext() throws IOException {
+		Chunk chunk = chunks.poll();
+		if (chunk == null) {
+			return null;
+		}
+
+		if (chunkReader == null) {
+			chunkReader = new VCardReader(chunk.getText(), defaultVersion);
+		} else {
+			chunkReader.reset(chunk.getText());
+		}
+
+		chunkReader.setScribeIndex(index);
+		chunkReader.setCaretDecodingEnabled(caretDecodingEnabled);
+		chunkReader.setDefaultQuotedPrintableCharset(defaultQuotedPrintableCharset);
+		chunkReader.setFastTokenizerEnabled(fastTokenizerEnabled);
+		copyPropertyFilterTo(chunkReader);
+		chunkReader.setTempFileStore(tempFileStore);
+		chunkReader.setWarningMode(isDiscardingWarnings() ? WarningMode.DISCARD : WarningMode.KEEP);
+		copyInstrumentationTo(chunkReader);
+
+		VCard vcard = chunkReader.readNext();
+		warnings.addAll(chunk.shiftLineNumbers(chunkReader.getWarnings()));
+		if (instrumentation != null && vcard != null) {
+			instrumentation.linesRead(chunk.getLineCount());
+		}
+		return vcard;
+	}
+
+	/**
+	 * Discards any data that has not been parsed yet.
+	 */
+	public void close() {
+		endOfInput = true;
+		chunks.clear();
+		line.setLength(0);
+	}
+}
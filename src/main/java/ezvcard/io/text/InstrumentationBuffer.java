@@ -0,0 +1,96 @@
+package ezvcard.io.text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import ezvcard.io.Instrumentation;
+import ezvcard.io.ParseWarning;
+import ezvcard.io.scribe.VCardPropertyScribe;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Holds on to the property-level measurements that a thread pool thread takes
+ * while it reads or writes a single vCard, so that they can be reported later
+ * on, in the same order as the vCards. The line counts, warnings, and vCard
+ * boundaries are not held on to, because the parallel reader or writer
+ * reports those itself. This class is not thread-safe.
+ * @author Michael Angstadt
+ */
+class InstrumentationBuffer implements Instrumentation {
+	private final List<Consumer<Instrumentation>> events = new ArrayList<>();
+
+	/**
+	 * Reports the measurements to another instrumentation.
+	 * @param instrumentation the instrumentation
+	 */
+	public void replay(Instrumentation instrumentation) {
+		for (Consumer<Instrumentation> event : events) {
+			event.accept(instrumentation);
+		}
+	}
+
+	public void propertyParsed(VCardPropertyScribe<?> scribe, long nanos) {
+		events.add(i -> i.propertyParsed(scribe, nanos));
+	}
+
+	public void binaryDataDecoded(int bytes) {
+		events.add(i -> i.binaryDataDecoded(bytes));
+	}
+
+	public void nestedVCardRead() {
+		events.add(Instrumentation::nestedVCardRead);
+	}
+
+	public void linesRead(int lines) {
+		//ignore
+	}
+
+	public void warningGenerated(ParseWarning warning) {
+		//ignore
+	}
+
+	public void vcardRead() {
+		//ignore
+	}
+
+	public void propertyWritten(VCardPropertyScribe<?> scribe, long nanos) {
+		events.add(i -> i.propertyWritten(scribe, nanos));
+	}
+
+	public void nestedVCardWritten() {
+		events.add(Instrumentation::nestedVCardWritten);
+	}
+
+	public void vcardWritten() {
+		//ignore
+	}
+}
@@ -0,0 +1,400 @@
+package ezvcard.io.text;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.ParseWarning;
+import ezvcard.io.StreamReader;
+import ezvcard.io.WarningMode;
+import ezvcard.io.text.VCardSplitter.Chunk;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Parses {@link VCard} objects from a plain-text vCard data stream using
+ * multiple threads.
+ * </p>
+ * <p>
+ * The data stream is split up into chunks, each containing one vCard, and the
+ * chunks are parsed concurrently using a fixed-size thread pool. The vCards
+ * are returned in the same order they appear in the data stream, and the
+ * parsed vCards and their warnings are identical to what {@link VCardReader}
+ * would produce. Only a bounded number of chunks are read ahead of the vCard
+ * that is returned, so memory use does not grow with the size of the data
+ * stream.
+ * </p>
+ * <p>
+ * This class is only worth using with data streams that contain many vCards.
+ * The reader should be configured before the first call to
+ * {@link #readNext}, since chunks are handed off to the thread pool ahead of
+ * time.
+ * </p>
+ * <p>
+ * If instrumentation is enabled (see {@link #setInstrumentation}), the
+ * measurements that the threads in the thread pool take are held on to until
+ * their vCard is returned by {@link #readNext}. They are then reported by the
+ * calling thread, so the measurements of each vCard are reported together and
+ * in the same order as the vCards.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * Path file = Paths.get("vcards.vcf");
+ * try (ParallelVCardReader reader = new ParallelVCardReader(file, 8)) {
+ *   VCard vcard;
+ *   while ((vcard = reader.readNext()) != null) {
+ *     //...
+ *   }
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ */
+public class ParallelVCardReader extends StreamReader {
+	/**
+	 * The number of chunks, per thread, that are read ahead of the vCard that
+	 * is returned.
+	 */
+	private static final int READ_AHEAD = 4;
+
+	private final BufferedReader reader;
+	private final VCardVersion defaultVersion;
+	private final ExecutorService executor;
+	private final int maxPending;
+	private final Deque<Future<Result>> pending = new ArrayDeque<>();
+	private final VCardSplitter splitter = new VCardSplitter();
+	private boolean eof = false;
+
+	private boolean caretDecodingEnabled = true;
+	private Charset defaultQuotedPrintableCharset;
+	private boolean fastTokenizerEnabled = false;
+
+	/**
+	 * Creates a new parallel vCard reader.
+	 * @param str the string to read from
+	 * @param threads the number of threads to parse with
+	 */
+	public ParallelVCardReader(String str, int threads) {
+		this(new StringReader(str), threads);
+	}
+
+	/**
+	 * Creates a new parallel vCard reader.
+	 * @param in the input stream to read from
+	 * @param threads the number of threads to parse with
+	 */
+	public ParallelVCardReader(InputStream in, int threads) {
+		this(new InputStreamReader(in), threads);
+	}
+
+	/**
+	 * Creates a new parallel vCard reader.
+	 * @param file the file to read from
+	 * @param threads the number of threads to parse with
+	 * @throws IOException if there is a problem opening the file
+	 */
+	public ParallelVCardReader(Path file, int threads) throws IOException {
+		this(Files.newBufferedReader(file), threads);
+	}
+
+	/**
+	 * Creates a new parallel vCard reader.
+	 * @param reader the reader to read from
+	 * @param threads the number of threads to parse with
+	 */
+	public ParallelVCardReader(Reader reader, int threads) {
+		this(reader, VCardVersion.V2_1, threads);
+	}
+
+	/**
+	 * Creates a new parallel vCard reader.
+	 * @param reader the reader to read from
+	 * @param defaultVersion the version to assume each vCard is in until a
+	 * VERSION property is encountered (defaults to 2.1)
+	 * @param threads the number of threads to parse with
+	 * @throws IllegalArgumentException if the number of threads is less than 1
+	 */
+	public ParallelVCardReader(Reader reader, VCardVersion defaultVersion, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Thread count must be at least 1.");
+		}
+
+		this.reader = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader);
+		this.defaultVersion = defaultVersion;
+		this.maxPending = threads * READ_AHEAD;
+
+		if (reader instanceof InputStreamReader) {
+			InputStreamReader isr = (InputStreamReader) reader;
+			defaultQuotedPrintableCharset = Charset.forName(isr.getEncoding());
+		} else {
+			defaultQuotedPrintableCharset = Charset.defaultCharset();
+		}
+
+		/*
+		 * Let idle threads die off in case the reader is abandoned without
+		 * being closed or read to the end.
+		 */
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory(ParallelVCardReader.class));
+		executor.allowCoreThreadTimeOut(true);
+		this.executor = executor;
+	}
+
+	/**
+	 * Gets whether the reader will decode parameter values that use circumflex
+	 * accent encoding (enabled by default). This escaping mechanism allows
+	 * newlines and double quotes to be included in parameter values.
+	 * @return true if circumflex accent decoding is enabled, false if not
+	 * @see VCardReader#isCaretDecodingEnabled()
+	 */
+	public boolean isCaretDecodingEnabled() {
+		return caretDecodingEnabled;
+	}
+
+	/**
+	 * Sets whether the reader will decode parameter values that use circumflex
+	 * accent encoding (enabled by default). This escaping mechanism allows
+	 * newlines and double quotes to be included in parameter values.
+	 * @param enable true to use circumflex accent decoding, false not to
+	 * @see VCardReader#setCaretDecodingEnabled(boolean)
+	 */
+	public void setCaretDecodingEnabled(boolean enable) {
+		caretDecodingEnabled = enable;
+	}
+
+	/**
+	 * Gets the character set to use when the parser cannot determine what
+	 * character set to use to decode a quoted-printable property value.
+	 * @return the character set
+	 * @see VCardReader#getDefaultQuotedPrintableCharset()
+	 */
+	public Charset getDefaultQuotedPrintableCharset() {
+		return defaultQuotedPrintableCharset;
+	}
+
+	/**
+	 * Sets the character set to use when the parser cannot determine what
+	 * character set to use to decode a quoted-printable property value.
+	 * @param charset the character set (cannot be null)
+	 * @see VCardReader#setDefaultQuotedPrintableCharset
+	 */
+	public void setDefaultQuotedPrintableCharset(Charset charset) {
+		defaultQuotedPrintableCharset = charset;
+	}
+
+	/**
+	 * Gets whether the built-in tokenizer is used to parse each vCard.
+	 * @return true if the built-in tokenizer is used, false if not
+	 * @see VCardReader#isFastTokenizerEnabled()
+	 */
+	public boolean isFastTokenizerEnabled() {
+		return fastTokenizerEnabled;
+	}
+
+	/**
+	 * Sets whether to use the built-in tokenizer to parse each vCard (disabled
+	 * by default).
+	 * @param enable true to use the built-in tokenizer, false not to
+	 * @see VCardReader#setFastTokenizerEnabled(boolean)
+	 */
+	public void setFastTokenizerEnabled(boolean enable) {
+		fastTokenizerEnabled = enable;
+	}
+
+	@Override
+	protected VCard _readNext() throws IOException {
+		fill();
+
+		Future<Result> future = pending.poll();
+		if (future == null) {
+			executor.shutdown();
+			return null;
+		}
+
+		Result result = await(future);
+		fill();
+
+		warnings.addAll(result.warnings);
+		if (instrumentation != null && result.vcard != null) {
+			if (result.instrumentation != null) {
+				result.instrumentation.replay(instrumentation);
+			}
+			instrumentation.linesRead(result.lineCount);
+		}
+		return result.vcard;
+	}
+
+	/**
+	 * Reads chunks from the data stream and hands them off to the thread pool
+	 * until the read-ahead limit is reached.
+	 * @throws IOException if there's a problem reading from the data stream
+	 */
+	private void fill() throws IOException {
+		while (pending.size() < maxPending) {
+			Chunk chunk = nextChunk();
+			if (chunk == null) {
+				return;
+			}
+
+			pending.add(executor.submit(new ParseTask(chunk)));
+		}
+	}
+
+	/**
+	 * Reads the next chunk from the data stream.
+	 * @return the next chunk or null if there are no more
+	 * @throws IOException if there's a problem reading from the data stream
+	 */
+	private Chunk nextChunk() throws IOException {
+		if (eof) {
+			return null;
+		}
+
+		String line;
+		while ((line = reader.readLine()) != null) {
+			Chunk chunk = splitter.line(line);
+			if (chunk != null) {
+				return chunk;
+			}
+		}
+
+		eof = true;
+		return splitter.finish();
+	}
+
+	private static Result await(Future<Result> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Parses a single chunk.
+	 */
+	private class ParseTask implements Callable<Result> {
+		private final Chunk chunk;
+		private final VCardReader reader;
+		private final InstrumentationBuffer instrumentation;
+
+		public ParseTask(Chunk chunk) {
+			this.chunk = chunk;
+
+			/*
+			 * Configure the reader here so the settings are safely handed off
+			 * to the thread that runs the task.
+			 */
+			reader = new VCardReader(chunk.getText(), defaultVersion);
+			reader.setScribeIndex(index);
+			reader.setCaretDecodingEnabled(caretDecodingEnabled);
+			reader.setDefaultQuotedPrintableCharset(defaultQuotedPrintableCharset);
+			reader.setFastTokenizerEnabled(fastTokenizerEnabled);
+			copyPropertyFilterTo(reader);
+			reader.setTempFileStore(tempFileStore);
+			reader.setWarningMode(isDiscardingWarnings() ? WarningMode.DISCARD : WarningMode.KEEP);
+
+			/*
+			 * Hold on to the measurements so they can be reported in the same
+			 * order as the vCards.
+			 */
+			instrumentation = (ParallelVCardReader.this.instrumentation == null) ? null : new InstrumentationBuffer();
+			reader.setInstrumentation(instrumentation);
+		}
+
+		public Result call() throws IOException {
+			try {
+				VCard vcard = reader.readNext();
+				List<ParseWarning> warnings = chunk.shiftLineNumbers(reader.getWarnings());
+				int lineCount = (instrumentation == null) ? 0 : chunk.getLineCount();
+				return new Result(vcard, warnings, lineCount, instrumentation);
+			} finally {
+				reader.close();
+			}
+		}
+	}
+
+	private static class Result {
+		private final VCard vcard;
+		private final List<ParseWarning> warnings;
+		private final int lineCount;
+		private final InstrumentationBuffer instrumentation;
+
+		public Result(VCard vcard, List<ParseWarning> warnings, int lineCount, InstrumentationBuffer instrumentation) {
+			this.vcard = vcard;
+			this.warnings = warnings;
+			this.lineCount = lineCount;
+			this.instrumentation = instrumentation;
+		}
+	}
+
+	/**
+	 * Closes the input stream and stops the thread pool.
+	 * @throws IOException if there's a problem closing the input stream
+	 */
+	public void close() throws IOException {
+		executor.shutdownNow();
+		reader.close();
+	}
+}
@@ -0,0 +1,294 @@
+package ezvcard.io.text;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.github.mangstadt.vinnie.io.FoldedLineWriter;
+
+import ezvcard.VCard;
+import ezvcard.io.Instrumentation;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Writes {@link VCard} objects to a plain-text vCard data stream using
+ * multiple threads.
+ * </p>
+ * <p>
+ * Each vCard is serialized to its own buffer using a fixed-size thread pool,
+ * and the buffers are written to the output stream in the order in which the
+ * vCards were passed to {@link #write}. The output is identical to what the
+ * wrapped {@link VCardWriter} would produce if it wrote the vCards itself
+ * (including PRODID properties and nested AGENT vCards). Only a bounded number
+ * of vCards are serialized ahead of the output stream, so memory use does not
+ * grow with the number of vCards.
+ * </p>
+ * <p>
+ * The settings of the wrapped {@link VCardWriter} (target version, line
+ * folding, etc) are read each time {@link #write} is called, so they can be
+ * changed from one vCard to the next. Each vCard must only be modified after
+ * {@link #flush} is called, since it may still be in the process of being
+ * serialized. This class is only worth using when writing a large number of
+ * vCards.
+ * </p>
+ * <p>
+ * If the wrapped writer has instrumentation (see
+ * {@link VCardWriter#setInstrumentation}), the measurements that the threads
+ * in the thread pool take are held on to until their vCard is written to the
+ * output stream. They are then reported by the thread that writes the vCard
+ * to the output stream, so the measurements of each vCard are reported
+ * together and in the same order as the vCards.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * List&lt;VCard&gt; vcards = ...
+ * Path file = Paths.get("vcards.vcf");
+ * VCardWriter writer = new VCardWriter(file, VCardVersion.V3_0);
+ * try (ParallelVCardWriter parallelWriter = new ParallelVCardWriter(writer, 8)) {
+ *   for (VCard vcard : vcards) {
+ *     parallelWriter.write(vcard);
+ *   }
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ */
+public class ParallelVCardWriter implements Closeable, Flushable {
+	/**
+	 * The number of vCards, per thread, that are serialized ahead of the
+	 * output stream.
+	 */
+	private static final int WRITE_AHEAD = 4;
+
+	private final VCardWriter writer;
+	private final ExecutorService executor;
+	private final int maxPending;
+	private final Deque<Future<Result>> pending = new ArrayDeque<>();
+
+	/**
+	 * Creates a new parallel vCard writer.
+	 * @param writer the writer to write the vCards to, and whose settings are
+	 * used to serialize each vCard
+	 * @param threads the number of threads to serialize with
+	 * @throws IllegalArgumentException if the number of threads is less than 1
+	 */
+	public ParallelVCardWriter(VCardWriter writer, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Thread count must be at least 1.");
+		}
+
+		this.writer = writer;
+		this.maxPending = threads * WRITE_AHEAD;
+
+		/*
+		 * Let idle threads die off in case the writer is abandoned without
+		 * being closed.
+		 */
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory(ParallelVCardWriter.class));
+		executor.allowCoreThreadTimeOut(true);
+		this.executor = executor;
+	}
+
+	/**
+	 * Gets the writer that the vCards are written to.
+	 * @return the writer
+	 */
+	public VCardWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * Hands a vCard off to the thread pool to be serialized. If the write-ahead
+	 * limit has been reached, this method writes the oldest serialized vCards
+	 * to the output stream first.
+	 * @param vcard the vCard to write
+	 * @throws IOException if there's a problem writing to the output stream
+	 * @throws IllegalArgumentException if a previously submitted vCard
+	 * contains a property with an invalid name or parameter
+	 */
+	public void write(VCard vcard) throws IOException {
+		pending.add(executor.submit(new WriteTask(vcard)));
+		while (pending.size() > maxPending) {
+			writeNext();
+		}
+	}
+
+	/**
+	 * Writes all the vCards that have been handed off to the thread pool to the
+	 * output stream, and then flushes the output stream.
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	public void flush() throws IOException {
+		while (!pending.isEmpty()) {
+			writeNext();
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Waits for the oldest vCard to be serialized and writes it to the output
+	 * stream.
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	private void writeNext() throws IOException {
+		Result result = await(pending.poll());
+
+		/*
+		 * The vCard has already been folded, so bypass the writer's line
+		 * folding.
+		 */
+		writer.getVObjectWriter().getFoldedLineWriter().getWriter().write(result.vcardStr);
+
+		if (result.instrumentation != null) {
+			result.buffer.replay(result.instrumentation);
+			result.instrumentation.vcardWritten();
+		}
+	}
+
+	private static Result await(Future<Result> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Serializes a single vCard.
+	 */
+	private class WriteTask implements Callable<Result> {
+		private final VCard vcard;
+		private final StringWriter sw = new StringWriter();
+		private final VCardWriter writer;
+		private final Instrumentation instrumentation;
+		private final InstrumentationBuffer buffer;
+
+		public WriteTask(VCard vcard) {
+			this.vcard = vcard;
+
+			/*
+			 * Configure the writer here so the settings are safely handed off
+			 * to the thread that runs the task.
+			 */
+			VCardWriter template = ParallelVCardWriter.this.writer;
+			writer = new VCardWriter(sw, template.getTargetVersion());
+
+			FoldedLineWriter templateFolder = template.getVObjectWriter().getFoldedLineWriter();
+			FoldedLineWriter folder = writer.getVObjectWriter().getFoldedLineWriter();
+			folder.setLineLength(null); //so the indent string isn't validated against the default line length
+			folder.setIndent(templateFolder.getIndent());
+			folder.setLineLength(templateFolder.getLineLength());
+
+			writer.setAddProdId(template.isAddProdId());
+			writer.setCaretEncodingEnabled(template.isCaretEncodingEnabled());
+			writer.setIncludeTrailingSemicolons(template.isIncludeTrailingSemicolons());
+			writer.setScribeIndex(template.getScribeIndex());
+			writer.setTargetApplication(template.getTargetApplication());
+			writer.setVersionStrict(template.isVersionStrict());
+
+			/*
+			 * Hold on to the measurements so they can be reported in the same
+			 * order as the vCards.
+			 */
+			instrumentation = template.getInstrumentation();
+			buffer = (instrumentation == null) ? null : new InstrumentationBuffer();
+			writer.setInstrumentation(buffer);
+		}
+
+		public Result call() throws IOException {
+			writer.write(vcard);
+			return new Result(sw.toString(), instrumentation, buffer);
+		}
+	}
+
+	private static class Result {
+		private final String vcardStr;
+		private final Instrumentation instrumentation;
+		private final InstrumentationBuffer buffer;
+
+		public Result(String vcardStr, Instrumentation instrumentation, InstrumentationBuffer buffer) {
+			this.vcardStr = vcardStr;
+			this.instrumentation = instrumentation;
+			this.buffer = buffer;
+		}
+	}
+
+	/**
+	 * Stops the thread pool without writing the vCards that have not been
+	 * written yet and without closing the output stream.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+		pending.clear();
+	}
+
+	/**
+	 * Writes all remaining vCards, stops the thread pool, and closes the
+	 * output stream.
+	 * @throws IOException if there's a problem writing to or closing the
+	 * output stream
+	 */
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			shutdown();
+			writer.close();
+		}
+	}
+}
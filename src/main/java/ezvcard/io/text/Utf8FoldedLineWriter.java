@@ -0,0 +1,380 @@
+package ezvcard.io.text;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import com.github.mangstadt.vinnie.codec.EncoderException;
+import com.github.mangstadt.vinnie.codec.QuotedPrintableCodec;
+import com.github.mangstadt.vinnie.io.FoldedLineWriter;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * A {@link FoldedLineWriter} that encodes its output in UTF-8 and writes it
+ * directly to a {@link WritableByteChannel}.
+ * </p>
+ * <p>
+ * Lines are folded by counting octets instead of characters, as required by
+ * RFC 6350 (section 3.2). A line is never folded in the middle of a UTF-8
+ * character. Otherwise, lines are folded in the same places as the parent
+ * class, so ASCII data is folded identically.
+ * </p>
+ * <p>
+ * Characters are encoded into a buffer that is reused for the lifetime of the
+ * writer. The buffer is written to the channel when it fills up and when
+ * {@link #flush} is called.
+ * </p>
+ * @author Michael Angstadt
+ */
+class Utf8FoldedLineWriter extends FoldedLineWriter {
+	private static final char[] CRLF = { '\r', '\n' };
+
+	private final Utf8ChannelWriter out;
+	private int curLineLength = 0;
+
+	/**
+	 * @param channel the channel to write to
+	 */
+	public Utf8FoldedLineWriter(WritableByteChannel channel) {
+		this(new Utf8ChannelWriter(channel));
+	}
+
+	private Utf8FoldedLineWriter(Utf8ChannelWriter out) {
+		super(out);
+		this.out = out;
+	}
+
+	/**
+	 * Flushes any buffered data to the current channel and starts writing to
+	 * a new channel. The current channel is not closed.
+	 * @param channel the new channel
+	 * @throws IOException if there's a problem flushing the current channel
+	 */
+	public void setChannel(WritableByteChannel channel) throws IOException {
+		out.flush();
+		out.channel = channel;
+		out.writer = null;
+		curLineLength = 0;
+	}
+
+	/**
+	 * Flushes any buffered data to the current output stream and starts
+	 * writing characters to a writer instead of encoding them. The current
+	 * output stream is not closed. Lines are still folded by counting octets.
+	 * @param writer the new writer
+	 * @throws IOException if there's a problem flushing the current output
+	 * stream
+	 */
+	public void setWriter(Writer writer) throws IOException {
+		out.flush();
+		out.channel = null;
+		out.writer = writer;
+		curLineLength = 0;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len, boolean quotedPrintable, Charset charset) throws IOException {
+		if (quotedPrintable) {
+			QuotedPrintableCodec codec = new QuotedPrintableCodec(charset.name());
+			String encoded;
+			try {
+				encoded = codec.encode(new String(cbuf, off, len));
+			} catch (EncoderException e) {
+				throw new IOException(e);
+			}
+
+			cbuf = encoded.toCharArray();
+			off = 0;
+			len = cbuf.length;
+		}
+
+		Integer lineLength = getLineLength();
+		if (lineLength == null) {
+			out.write(cbuf, off, len);
+			return;
+		}
+
+		/*
+		 * This is the same algorithm as the parent class, except that the
+		 * length of the current line is measured in octets.
+		 */
+		int effectiveLineLength = lineLength;
+		if (quotedPrintable) {
+			//leave room for the "=" at the end of the line
+			effectiveLineLength--;
+		}
+
+		int encodedCharPos = -1;
+		int start = off;
+		int end = off + len;
+		for (int i = start; i < end; i++) {
+			char c = cbuf[i];
+
+			//keep track of the quoted-printable characters to prevent them from being cut in two at a folding boundary
+			if (encodedCharPos >= 0) {
+				encodedCharPos++;
+				if (encodedCharPos == 3) {
+					encodedCharPos = -1;
+				}
+			}
+
+			if (c == '\n') {
+				out.write(cbuf, start, i - start + 1);
+				curLineLength = 0;
+				start = i + 1;
+				continue;
+			}
+
+			if (c == '\r') {
+				if (i == end - 1 || cbuf[i + 1] != '\n') {
+					out.write(cbuf, start, i - start + 1);
+					curLineLength = 0;
+					start = i + 1;
+				} else {
+					curLineLength++;
+				}
+				continue;
+			}
+
+			if (c == '=' && quotedPrintable) {
+				encodedCharPos = 0;
+			}
+
+			if (curLineLength + octets(c) > effectiveLineLength) {
+				//if the last characters on the line are whitespace, then exceed the max line length in order to include the whitespace on the same line
+				//otherwise it will be lost because it will merge with the padding on the next line
+				if (Character.isWhitespace(c)) {
+					while (Character.isWhitespace(c) && i < end - 1) {
+						i++;
+						c = cbuf[i];
+					}
+					if (i >= end - 1) {
+						//the rest of the string is whitespace
+						break;
+					}
+				}
+
+				//if we are in the middle of a quoted-printable encoded char, then exceed the max line length so the sequence doesn't get split up across multiple lines
+				if (encodedCharPos > 0) {
+					i += 3 - encodedCharPos;
+					if (i >= end - 1) {
+						//the rest of the string was a partial encoded char
+						break;
+					}
+				}
+
+				//if the last char is the low (second) char in a surrogate pair, don't split the pair across two lines
+				if (Character.isLowSurrogate(c)) {
+					i++;
+					if (i >= end - 1) {
+						//surrogate pair finishes the string
+						break;
+					}
+				}
+
+				out.write(cbuf, start, i - start);
+				if (quotedPrintable) {
+					out.write('=');
+				}
+				out.write(CRLF, 0, CRLF.length);
+
+				curLineLength = octets(cbuf[i]);
+				if (!quotedPrintable) {
+					String indent = getIndent();
+					out.write(indent);
+					curLineLength += indent.length();
+				}
+				start = i;
+				continue;
+			}
+
+			curLineLength += octets(c);
+		}
+
+		out.write(cbuf, start, end - start);
+	}
+
+	/**
+	 * Determines how many octets a character takes up when encoded in UTF-8.
+	 * The high surrogate of a surrogate pair is counted as the entire 4-octet
+	 * sequence, and the low surrogate is counted as nothing.
+	 * @param c the character
+	 * @return the number of octets
+	 */
+	private static int octets(char c) {
+		if (c < 0x80) {
+			return 1;
+		}
+		if (c < 0x800) {
+			return 2;
+		}
+		if (Character.isHighSurrogate(c)) {
+			return 4;
+		}
+		if (Character.isLowSurrogate(c)) {
+			return 0;
+		}
+		return 3;
+	}
+
+	/**
+	 * Encodes characters in UTF-8 and writes them to a channel. Lone
+	 * surrogate characters are written as "?", like {@link Charset#encode}
+	 * does. If a {@link Writer} has been assigned, the characters are passed
+	 * to it instead.
+	 */
+	private static class Utf8ChannelWriter extends Writer {
+		private static final int BUFFER_SIZE = 8192;
+
+		private WritableByteChannel channel;
+		private Writer writer;
+		private final byte[] buf = new byte[BUFFER_SIZE];
+		private final ByteBuffer byteBuffer = ByteBuffer.wrap(buf);
+		private int pos = 0;
+
+		/**
+		 * A high surrogate that was the last character passed to the
+		 * previous write call, or 0 if there is none.
+		 */
+		private char highSurrogate = 0;
+
+		public Utf8ChannelWriter(WritableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			if (writer != null) {
+				writer.write(cbuf, off, len);
+				return;
+			}
+
+			int end = off + len;
+			for (int i = off; i < end; i++) {
+				char c = cbuf[i];
+
+				if (highSurrogate != 0) {
+					char high = highSurrogate;
+					highSurrogate = 0;
+					if (Character.isLowSurrogate(c)) {
+						writeCodePoint(Character.toCodePoint(high, c));
+						continue;
+					}
+					writeByte('?');
+				}
+
+				if (c < 0x80) {
+					if (pos == BUFFER_SIZE) {
+						drain();
+					}
+					buf[pos++] = (byte) c;
+				} else if (c < 0x800) {
+					ensureRoom(2);
+					buf[pos++] = (byte) (0xc0 | (c >> 6));
+					buf[pos++] = (byte) (0x80 | (c & 0x3f));
+				} else if (Character.isHighSurrogate(c)) {
+					highSurrogate = c;
+				} else if (Character.isLowSurrogate(c)) {
+					writeByte('?');
+				} else {
+					ensureRoom(3);
+					buf[pos++] = (byte) (0xe0 | (c >> 12));
+					buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+					buf[pos++] = (byte) (0x80 | (c & 0x3f));
+				}
+			}
+		}
+
+		private void writeCodePoint(int codePoint) throws IOException {
+			ensureRoom(4);
+			buf[pos++] = (byte) (0xf0 | (codePoint >> 18));
+			buf[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+			buf[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+			buf[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+		}
+
+		private void writeByte(char c) throws IOException {
+			ensureRoom(1);
+			buf[pos++] = (byte) c;
+		}
+
+		private void ensureRoom(int octets) throws IOException {
+			if (pos + octets > BUFFER_SIZE) {
+				drain();
+			}
+		}
+
+		/**
+		 * Writes the contents of the buffer to the channel.
+		 * @throws IOException if there's a problem writing to the channel
+		 */
+		private void drain() throws IOException {
+			byteBuffer.clear();
+			byteBuffer.limit(pos);
+			while (byteBuffer.hasRemaining()) {
+				channel.write(byteBuffer);
+			}
+			pos = 0;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (writer != null) {
+				writer.flush();
+				return;
+			}
+
+			drain();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (writer != null) {
+				writer.close();
+				return;
+			}
+
+			if (highSurrogate != 0) {
+				highSurrogate = 0;
+				writeByte('?');
+			}
+
+			try {
+				drain();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package ezvcard.io.text;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Writes {@link VCard} objects to a plain-text vCard data stream, encoding
+ * them in UTF-8.
+ * </p>
+ * <p>
+ * Unlike {@link VCardWriter}, which writes characters to a {@link Writer
+ * java.io.Writer}, this class encodes the vCard data straight into a byte
+ * buffer that is reused for the lifetime of the writer, and writes the buffer
+ * to a {@link WritableByteChannel}. Lines are folded by counting octets
+ * instead of characters, as required by RFC 6350 (section 3.2), and a line is
+ * never folded in the middle of a multi-byte character. Otherwise, the output
+ * is the same as {@link VCardWriter}'s output (for vCards that only contain
+ * ASCII characters, it is byte-for-byte identical).
+ * </p>
+ * <p>
+ * All vCard versions are encoded in UTF-8, including versions 2.1 and 3.0.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * VCard vcard1 = ...
+ * VCard vcard2 = ...
+ * OutputStream out = response.getOutputStream();
+ * try (Utf8VCardWriter writer = new Utf8VCardWriter(out, VCardVersion.V4_0)) {
+ *   writer.write(vcard1);
+ *   writer.write(vcard2);
+ * }
+ * </pre>
+ * <p>
+ * The line folding settings can be changed the same way as with
+ * {@link VCardWriter}. The line length is measured in octets.
+ * </p>
+ * @author Michael Angstadt
+ * @see <a href="http://tools.ietf.org/html/rfc6350#section-3.2">RFC 6350
+ * p.5</a>
+ */
+public class Utf8VCardWriter extends VCardWriter {
+	/**
+	 * @param channel the channel to write to
+	 * @param targetVersion the version that the vCards should conform to
+	 */
+	public Utf8VCardWriter(WritableByteChannel channel, VCardVersion targetVersion) {
+		super(new Utf8VObjectWriter(channel, targetVersion.getSyntaxStyle()), targetVersion);
+	}
+
+	/**
+	 * @param out the output stream to write to
+	 * @param targetVersion the version that the vCards should conform to
+	 */
+	public Utf8VCardWriter(OutputStream out, VCardVersion targetVersion) {
+		this(Channels.newChannel(out), targetVersion);
+	}
+
+	/**
+	 * @param file the file to write to
+	 * @param targetVersion the version that the vCards should conform to
+	 * @throws IOException if there's a problem opening the file
+	 */
+	public Utf8VCardWriter(Path file, VCardVersion targetVersion) throws IOException {
+		this(file, false, targetVersion);
+	}
+
+	/**
+	 * @param file the file to write to
+	 * @param append true to append to the end of the file, false to overwrite
+	 * it
+	 * @param targetVersion the version that the vCards should conform to
+	 * @throws IOException if there's a problem opening the file
+	 */
+	public Utf8VCardWriter(Path file, boolean append, VCardVersion targetVersion) throws IOException {
+		this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING), targetVersion);
+	}
+
+	/**
+	 * Prepares the writer to write to a new channel. Any buffered data is
+	 * flushed to the previous channel, which is not closed. All of the
+	 * writer's settings are kept.
+	 * @param channel the new channel
+	 * @throws IOException if there's a problem flushing the previous channel
+	 * @see VCardWriter#reset(Writer)
+	 */
+	public void reset(WritableByteChannel channel) throws IOException {
+		Utf8VObjectWriter writer = (Utf8VObjectWriter) getVObjectWriter();
+		writer.getFoldedLineWriter().setChannel(channel);
+	}
+
+	/**
+	 * Prepares the writer to write to a new output stream. Any buffered data is
+	 * flushed to the previous output stream, which is not closed. All of the
+	 * writer's settings are kept.
+	 * @param out the new output stream
+	 * @throws IOException if there's a problem flushing the previous output
+	 * stream
+	 * @see VCardWriter#reset(Writer)
+	 */
+	public void reset(OutputStream out) throws IOException {
+		reset(Channels.newChannel(out));
+	}
+
+	/**
+	 * Prepares the writer to write to a new writer. Any buffered data is
+	 * flushed to the previous output stream, which is not closed. All of the
+	 * writer's settings are kept. Characters are passed to the new writer
+	 * without being encoded, so it is responsible for encoding them. Lines are
+	 * still folded by counting UTF-8 octets.
+	 * @param writer the new writer
+	 * @throws IOException if there's a problem flushing the previous output
+	 * stream
+	 */
+	@Override
+	public void reset(Writer writer) throws IOException {
+		Utf8VObjectWriter vobjectWriter = (Utf8VObjectWriter) getVObjectWriter();
+		vobjectWriter.getFoldedLineWriter().setWriter(writer);
+	}
+}
@@ -0,0 +1,354 @@
+package ezvcard.io.text;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import com.github.mangstadt.vinnie.SyntaxStyle;
+import com.github.mangstadt.vinnie.Utils;
+import com.github.mangstadt.vinnie.VObjectParameters;
+import com.github.mangstadt.vinnie.io.FoldedLineWriter;
+import com.github.mangstadt.vinnie.io.VObjectWriter;
+import com.github.mangstadt.vinnie.validate.AllowedCharacters;
+import com.github.mangstadt.vinnie.validate.VObjectValidator;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * A {@link VObjectWriter} that writes UTF-8 encoded data directly to a
+ * {@link WritableByteChannel}, folding lines by counting octets (see
+ * {@link Utf8FoldedLineWriter}).
+ * </p>
+ * <p>
+ * The parent class writes to a {@link FoldedLineWriter} that it creates
+ * itself, so this class re-implements {@link #writeProperty(String, String,
+ * VObjectParameters, String)} in order to send everything to its own
+ * {@link Utf8FoldedLineWriter} instead. The output is otherwise identical to
+ * the parent class's output, including the validation rules.
+ * </p>
+ * @author Michael Angstadt
+ */
+class Utf8VObjectWriter extends VObjectWriter {
+	private final Utf8FoldedLineWriter writer;
+	private final AllowedCharacters allowedPropertyNameChars;
+	private final AllowedCharacters allowedGroupChars;
+	private final AllowedCharacters allowedParameterNameChars;
+	private AllowedCharacters allowedParameterValueChars;
+
+	/**
+	 * @param writer the writer to write to
+	 * @param syntaxStyle the syntax style to use
+	 */
+	public Utf8VObjectWriter(Utf8FoldedLineWriter writer, SyntaxStyle syntaxStyle) {
+		super(writer.getWriter(), syntaxStyle);
+		this.writer = writer;
+
+		/*
+		 * Like the parent class, only the parameter value rules change when
+		 * the syntax style changes (and only when caret encoding is toggled).
+		 */
+		allowedGroupChars = VObjectValidator.allowedCharactersGroup(syntaxStyle, false);
+		allowedPropertyNameChars = VObjectValidator.allowedCharactersPropertyName(syntaxStyle, false);
+		allowedParameterNameChars = VObjectValidator.allowedCharactersParameterName(syntaxStyle, false);
+		allowedParameterValueChars = VObjectValidator.allowedCharactersParameterValue(syntaxStyle, false, false);
+	}
+
+	/**
+	 * @param channel the channel to write to
+	 * @param syntaxStyle the syntax style to use
+	 */
+	public Utf8VObjectWriter(WritableByteChannel channel, SyntaxStyle syntaxStyle) {
+		this(new Utf8FoldedLineWriter(channel), syntaxStyle);
+	}
+
+	@Override
+	public Utf8FoldedLineWriter getFoldedLineWriter() {
+		return writer;
+	}
+
+	@Override
+	public void setCaretEncodingEnabled(boolean enable) {
+		super.setCaretEncodingEnabled(enable);
+		allowedParameterValueChars = VObjectValidator.allowedCharactersParameterValue(getSyntaxStyle(), enable, false);
+	}
+
+	@Override
+	public void writeProperty(String group, String name, VObjectParameters parameters, String value) throws IOException {
+		validate(group, name, parameters);
+
+		boolean parametersCopied = false;
+		if (value == null) {
+			value = "";
+		}
+
+		SyntaxStyle syntaxStyle = getSyntaxStyle();
+		switch (syntaxStyle) {
+		case OLD:
+			//old style does not support the "\n" escape sequence, so encode the value in quoted-printable encoding if it has newlines
+			if (containsNewlines(value) && !parameters.isQuotedPrintable()) {
+				parameters = new VObjectParameters(parameters);
+				parametersCopied = true;
+				parameters.put("ENCODING", "QUOTED-PRINTABLE");
+			}
+			break;
+		case NEW:
+			//escape newlines
+			value = Utils.escapeNewlines(value);
+			break;
+		}
+
+		boolean useQuotedPrintable = parameters.isQuotedPrintable();
+		Charset quotedPrintableCharset = null;
+		if (useQuotedPrintable) {
+			try {
+				quotedPrintableCharset = parameters.getCharset();
+			} catch (Exception e) {
+				//character set not recognized
+			}
+
+			if (quotedPrintableCharset == null) {
+				quotedPrintableCharset = StandardCharsets.UTF_8;
+				if (!parametersCopied) {
+					parameters = new VObjectParameters(parameters);
+				}
+				parameters.replace("CHARSET", quotedPrintableCharset.name());
+			}
+		}
+
+		if (group != null && !group.isEmpty()) {
+			writer.append(group).append('.');
+		}
+		writer.append(name);
+
+		for (Map.Entry<String, List<String>> parameter : parameters) {
+			String parameterName = parameter.getKey();
+			List<String> parameterValues = parameter.getValue();
+			if (parameterValues.isEmpty()) {
+				continue;
+			}
+
+			if (syntaxStyle == SyntaxStyle.OLD) {
+				//e.g. ADR;TYPE=home;TYPE=work;TYPE=another,value:
+				for (String parameterValue : parameterValues) {
+					parameterValue = sanitizeOldStyleParameterValue(parameterValue);
+
+					writer.append(';');
+					if (parameterName != null) {
+						writer.append(parameterName).append('=');
+					}
+					writer.append(parameterValue);
+				}
+				continue;
+			}
+
+			//e.g. ADR;TYPE=home,work,"another,value":
+			writer.append(';');
+			if (parameterName != null) {
+				writer.append(parameterName).append('=');
+			}
+
+			boolean first = true;
+			for (String parameterValue : parameterValues) {
+				parameterValue = sanitizeNewStyleParameterValue(parameterValue);
+
+				if (!first) {
+					writer.append(',');
+				}
+
+				if (shouldQuoteParameterValue(parameterValue)) {
+					writer.append('"').append(parameterValue).append('"');
+				} else {
+					writer.append(parameterValue);
+				}
+
+				first = false;
+			}
+		}
+
+		writer.append(':');
+		writer.write(value, useQuotedPrintable, quotedPrintableCharset);
+		writer.writeln();
+	}
+
+	private void validate(String group, String name, VObjectParameters parameters) {
+		//validate the group name
+		if (group != null) {
+			if (!allowedGroupChars.check(group)) {
+				throw new IllegalArgumentException("Property \"" + name + "\" has its group set to \"" + group + "\".  This group name contains one or more invalid characters.  The following characters are not permitted: " + allowedGroupChars.flip());
+			}
+			if (beginsWithWhitespace(group)) {
+				throw new IllegalArgumentException("Property \"" + name + "\" has its group set to \"" + group + "\".  This group name begins with one or more whitespace characters, which is not permitted.");
+			}
+		}
+
+		//validate the property name
+		if (name.isEmpty()) {
+			throw new IllegalArgumentException("Property name cannot be empty.");
+		}
+		if (!allowedPropertyNameChars.check(name)) {
+			throw new IllegalArgumentException("Property name \"" + name + "\" contains one or more invalid characters.  The following characters are not permitted: " + allowedPropertyNameChars.flip());
+		}
+		if (beginsWithWhitespace(name)) {
+			throw new IllegalArgumentException("Property name \"" + name + "\" begins with one or more whitespace characters, which is not permitted.");
+		}
+
+		//validate the parameter names and values
+		for (Map.Entry<String, List<String>> parameter : parameters) {
+			String parameterName = parameter.getKey();
+			if (parameterName == null && getSyntaxStyle() == SyntaxStyle.NEW) {
+				throw new IllegalArgumentException("Property \"" + name + "\" has a parameter whose name is null. This is not permitted with new style syntax.");
+			}
+			if (parameterName != null && !allowedParameterNameChars.check(parameterName)) {
+				throw new IllegalArgumentException("Property \"" + name + "\" has a parameter named \"" + parameterName + "\".  This parameter's name contains one or more invalid characters.  The following characters are not permitted: " + allowedParameterNameChars.flip());
+			}
+
+			for (String parameterValue : parameter.getValue()) {
+				if (!allowedParameterValueChars.check(parameterValue)) {
+					throw new IllegalArgumentException("Property \"" + name + "\" has a parameter named \"" + parameterName + "\" whose value contains one or more invalid characters.  The following characters are not permitted: " + allowedParameterValueChars.flip());
+				}
+			}
+		}
+	}
+
+	private static boolean containsNewlines(String string) {
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean shouldQuoteParameterValue(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == ':' || c == ';') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean beginsWithWhitespace(String string) {
+		if (string.isEmpty()) {
+			return false;
+		}
+
+		char first = string.charAt(0);
+		return first == ' ' || first == '\t';
+	}
+
+	private String sanitizeNewStyleParameterValue(String value) {
+		return isCaretEncodingEnabled() ? applyCaretEncoding(value) : value;
+	}
+
+	/**
+	 * Escapes backslashes and semicolons, since old style syntax does not
+	 * support quoted parameter values.
+	 * @param value the parameter value
+	 * @return the sanitized value
+	 */
+	private static String sanitizeOldStyleParameterValue(String value) {
+		StringBuilder sb = null;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' || c == ';') {
+				if (sb == null) {
+					sb = new StringBuilder(value.length() * 2);
+					sb.append(value, 0, i);
+				}
+				sb.append('\\');
+			}
+
+			if (sb != null) {
+				sb.append(c);
+			}
+		}
+		return (sb == null) ? value : sb.toString();
+	}
+
+	/**
+	 * Applies circumflex accent encoding to a parameter value.
+	 * @param value the parameter value
+	 * @return the encoded value
+	 * @see <a href="http://tools.ietf.org/html/rfc6868">RFC 6868</a>
+	 */
+	private static String applyCaretEncoding(String value) {
+		StringBuilder sb = null;
+		char prev = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			if (c == '^' || c == '"' || c == '\r' || c == '\n') {
+				if (c == '\n' && prev == '\r') {
+					//"\r\n" has already been written as "^n"
+				} else {
+					if (sb == null) {
+						sb = new StringBuilder(value.length() * 2);
+						sb.append(value, 0, i);
+					}
+					sb.append('^');
+
+					switch (c) {
+					case '\r':
+					case '\n':
+						sb.append('n');
+						break;
+					case '"':
+						sb.append('\'');
+						break;
+					default:
+						sb.append(c);
+					}
+				}
+			} else if (sb != null) {
+				sb.append(c);
+			}
+
+			prev = c;
+		}
+		return (sb == null) ? value : sb.toString();
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
@@ -9,7 +9,10 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.github.mangstadt.vinnie.VObjectProperty;
 import com.github.mangstadt.vinnie.io.Context;
@@ -23,15 +26,23 @@ import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.CannotParseException;
+import ezvcard.io.DeferredProperty;
 import ezvcard.io.EmbeddedVCardException;
+import ezvcard.io.Instrumentation;
+import ezvcard.io.ParseContext;
 import ezvcard.io.ParseWarning;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.StreamReader;
+import ezvcard.io.TempFileStore;
+import ezvcard.io.WarningMode;
 import ezvcard.io.scribe.RawPropertyScribe;
+import ezvcard.io.scribe.ScribeIndex;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.Encoding;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Address;
+import ezvcard.property.Agent;
+import ezvcard.property.BinaryProperty;
 import ezvcard.property.Label;
 import ezvcard.property.VCardProperty;
 import ezvcard.util.IOUtils;
@@ -83,14 +94,37 @@ import ezvcard.util.StringUtils;
  *   }
  * }
  * </pre>
+ * <p>
+ * To parse many small data streams (for example, one vCard per request in a
+ * web service), a single reader can be reused by calling {@link #reset}.
+ * </p>
  * @author Michael Angstadt
  * @see <a href="http://www.imc.org/pdi/vcard-21.rtf">vCard 2.1</a>
  * @see <a href="http://tools.ietf.org/html/rfc2426">RFC 2426 (3.0)</a>
  * @see <a href="http://tools.ietf.org/html/rfc6350">RFC 6350 (4.0)</a>
  */
 public class VCardReader extends StreamReader {
-	private final VObjectReader reader;
+	/**
+	 * The syntax rules for each default version. These objects are never
+	 * modified, so they can be shared by all readers.
+	 */
+	private static final Map<VCardVersion, SyntaxRules> syntaxRules = new EnumMap<>(VCardVersion.class);
+	static {
+		for (VCardVersion version : VCardVersion.values()) {
+			SyntaxRules rules = SyntaxRules.vcard();
+			rules.setDefaultSyntaxStyle(version.getSyntaxStyle());
+			syntaxRules.put(version, rules);
+		}
+	}
+
+	private Reader input;
+	private VObjectReader reader;
 	private final VCardVersion defaultVersion;
+	private final VObjectDataListenerImpl listener = new VObjectDataListenerImpl();
+	private VCardTokenizer tokenizer;
+	private boolean fastTokenizerEnabled = false;
+	private boolean lazyParsing = false;
+	private List<ParseWarning> lazyWarnings;
 
 	/**
 	 * Creates a new vCard reader.
@@ -163,12 +197,50 @@ public class VCardReader extends StreamReader {
 	 * VERSION property is encountered (defaults to 2.1)
 	 */
 	public VCardReader(Reader reader, VCardVersion defaultVersion) {
-		SyntaxRules rules = SyntaxRules.vcard();
-		rules.setDefaultSyntaxStyle(defaultVersion.getSyntaxStyle());
-		this.reader = new VObjectReader(reader, rules);
+		this.input = reader;
+		this.reader = new VObjectReader(reader, syntaxRules.get(defaultVersion));
 		this.defaultVersion = defaultVersion;
 	}
 
+	/**
+	 * <p>
+	 * Prepares the reader to read from a new data stream. The previous data
+	 * stream is not closed. All of the reader's settings (such as registered
+	 * scribes and the property filter) are kept, including the default
+	 * quoted-printable character set that is in effect.
+	 * </p>
+	 * <p>
+	 * Reusing a reader avoids the cost of creating a new one for each data
+	 * stream. If the built-in tokenizer is enabled, its internal buffers are
+	 * reused as well (see {@link #setFastTokenizerEnabled}).
+	 * </p>
+	 * @param reader the new data stream
+	 */
+	public void reset(Reader reader) {
+		VObjectReader oldReader = this.reader;
+		this.reader = new VObjectReader(reader, syntaxRules.get(defaultVersion));
+		this.reader.setCaretDecodingEnabled(oldReader.isCaretDecodingEnabled());
+		this.reader.setDefaultQuotedPrintableCharset(oldReader.getDefaultQuotedPrintableCharset());
+
+		input = reader;
+		if (tokenizer != null) {
+			tokenizer.reset(reader);
+		}
+
+		warnings.clear();
+		lazyWarnings = null;
+		vcardsRead = 0;
+	}
+
+	/**
+	 * Prepares the reader to read from a new data stream.
+	 * @param str the new data stream
+	 * @see #reset(Reader)
+	 */
+	public void reset(String str) {
+		reset(new StringReader(str));
+	}
+
 	/**
 	 * Gets whether the reader will decode parameter values that use circumflex
 	 * accent encoding (enabled by default). This escaping mechanism allows
@@ -211,19 +283,364 @@ public class VCardReader extends StreamReader {
 		reader.setDefaultQuotedPrintableCharset(charset);
 	}
 
+	/**
+	 * Gets whether the built-in tokenizer is used to parse the data stream.
+	 * @return true if the built-in tokenizer is used, false if vinnie's
+	 * {@link VObjectReader} is used
+	 * @see #setFastTokenizerEnabled(boolean)
+	 */
+	public boolean isFastTokenizerEnabled() {
+		return fastTokenizerEnabled;
+	}
+
+	/**
+	 * <p>
+	 * Sets whether to use the built-in tokenizer to parse the data stream
+	 * instead of vinnie's {@link VObjectReader} (disabled by default).
+	 * </p>
+	 * <p>
+	 * The built-in tokenizer produces the same vCards and warnings, but it
+	 * parses large data streams faster and creates far fewer temporary
+	 * objects. It reads the data stream into a character array, creates
+	 * property values directly from that array whenever they do not need to
+	 * be unfolded or decoded, and passes each property's parameters straight
+	 * to the property's scribe.
+	 * </p>
+	 * <p>
+	 * This setting must be set before the first vCard is read.
+	 * </p>
+	 * @param enable true to use the built-in tokenizer, false to use
+	 * {@link VObjectReader}
+	 */
+	public void setFastTokenizerEnabled(boolean enable) {
+		fastTokenizerEnabled = enable;
+	}
+
+	/**
+	 * Gets whether property values are parsed on demand.
+	 * @return true if lazy parsing is enabled, false if not
+	 * @see #setLazyParsing(boolean)
+	 */
+	public boolean isLazyParsing() {
+		return lazyParsing;
+	}
+
+	/**
+	 * <p>
+	 * Sets whether property values should be parsed on demand (disabled by
+	 * default).
+	 * </p>
+	 * <p>
+	 * When enabled, the reader does not parse a property's value when it reads
+	 * the property. Instead, it stores the property's raw group, name,
+	 * parameters, and value in the {@link VCard} object, and the value is
+	 * parsed the first time the properties of that class are accessed. This
+	 * can speed things up considerably if only a handful of properties are
+	 * needed from each vCard (for example, if large, base64-encoded photos do
+	 * not need to be decoded).
+	 * </p>
+	 * <p>
+	 * The parsed properties and warnings are the same as when lazy parsing is
+	 * disabled. The list returned by {@link #getWarnings()} is populated with
+	 * the warnings of each deferred property as it is parsed, after the
+	 * warnings that were generated when the vCard was read. The warnings of
+	 * deferred properties are not counted or passed to the warning listener,
+	 * and they are discarded if the warning mode is not
+	 * {@link WarningMode#KEEP}.
+	 * </p>
+	 * <p>
+	 * Extended properties, LABEL properties, AGENT properties, properties
+	 * without a value, and nested vCards are always parsed right away. Note
+	 * that vCard objects that contain unparsed properties are not thread-safe,
+	 * even if they are only being read from.
+	 * </p>
+	 * @param enable true to enable lazy parsing, false to disable it
+	 * @see VCard#addDeferredProperty
+	 */
+	public void setLazyParsing(boolean enable) {
+		lazyParsing = enable;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If lazy parsing is enabled, the returned list is not a copy. It is
+	 * populated with the warnings of the vCard's deferred properties as they
+	 * are parsed.
+	 * </p>
+	 * @see #setLazyParsing(boolean)
+	 */
+	@Override
+	public List<ParseWarning> getWarnings() {
+		return (lazyWarnings == null) ? super.getWarnings() : lazyWarnings;
+	}
+
 	@Override
 	protected VCard _readNext() throws IOException {
-		VObjectDataListenerImpl listener = new VObjectDataListenerImpl();
-		reader.parse(listener);
-		return listener.root;
+		lazyWarnings = null;
+		List<ParseWarning> deferredWarnings = lazyParsing ? new ArrayList<>() : null;
+		ParseSettings deferredSettings = lazyParsing ? new ParseSettings(this) : null;
+
+		listener.reset(deferredWarnings, deferredSettings);
+		if (fastTokenizerEnabled) {
+			if (tokenizer == null) {
+				tokenizer = new VCardTokenizer(input, syntaxRules.get(defaultVersion));
+			}
+			tokenizer.setCaretDecodingEnabled(isCaretDecodingEnabled());
+			tokenizer.setDefaultQuotedPrintableCharset(getDefaultQuotedPrintableCharset());
+			tokenizer.parse(listener);
+		} else {
+			reader.parse(listener);
+		}
+
+		if (deferredWarnings != null && getWarningMode() == WarningMode.KEEP) {
+			//some deferred properties may have already been parsed
+			deferredWarnings.addAll(0, warnings);
+			lazyWarnings = deferredWarnings;
+		}
+
+		VCard root = listener.root;
+		listener.reset(null, null);
+		return root;
+	}
+
+	/**
+	 * Parses a property value, reporting how long it took to the
+	 * instrumentation if instrumentation is enabled.
+	 * @param instrumentation the instrumentation or null if disabled
+	 * @param scribe the property's scribe
+	 * @param value the property value
+	 * @param dataType the property's data type
+	 * @param parameters the property's parameters
+	 * @param context the parse context
+	 * @return the parsed property
+	 */
+	private static VCardProperty parseValue(Instrumentation instrumentation, VCardPropertyScribe<? extends VCardProperty> scribe, String value, VCardDataType dataType, VCardParameters parameters, ParseContext context) {
+		if (instrumentation == null) {
+			return scribe.parseText(value, dataType, parameters, context);
+		}
+
+		long start = System.nanoTime();
+		try {
+			VCardProperty property = scribe.parseText(value, dataType, parameters, context);
+			if (property instanceof BinaryProperty) {
+				BinaryProperty<?> binaryProperty = (BinaryProperty<?>) property;
+				if (binaryProperty.hasData()) {
+					instrumentation.binaryDataDecoded(binaryProperty.getDataLength());
+				}
+			}
+			return property;
+		} finally {
+			instrumentation.propertyParsed(scribe, System.nanoTime() - start);
+		}
+	}
+
+	private static void handleSkippedProperty(ParseContext context, List<ParseWarning> warnings, SkipMeException e) {
+		//@formatter:off
+		warnings.add(new ParseWarning.Builder(context)
+			.message(22, e.getMessage())
+			.build()
+		);
+		//@formatter:on
+	}
+
+	private static VCardProperty handleUnparseableProperty(ScribeIndex index, ParseContext context, List<ParseWarning> warnings, String name, VCardParameters parameters, String value, VCardDataType dataType, CannotParseException e) {
+		//@formatter:off
+		warnings.add(new ParseWarning.Builder(context)
+			.message(e)
+			.build()
+		);
+		//@formatter:on
+
+		RawPropertyScribe scribe = index.getRawPropertyScribe(name);
+		return scribe.parseText(value, dataType, parameters, null);
 	}
 
-	private class VObjectDataListenerImpl implements VObjectDataListener {
+	/**
+	 * <p>
+	 * Unescapes newline sequences in the LABEL parameter of {@link Address}
+	 * properties. Newlines cannot normally be escaped in parameter values.
+	 * </p>
+	 * <p>
+	 * Only version 4.0 allows this (and only version 4.0 defines a LABEL
+	 * parameter), but do this for all versions for compatibility.
+	 * </p>
+	 * @param property the property
+	 */
+	private static void handleLabelParameter(VCardProperty property) {
+		if (!(property instanceof Address)) {
+			return;
+		}
+
+		Address adr = (Address) property;
+		String label = adr.getLabel();
+		if (label == null) {
+			return;
+		}
+
+		label = label.replace("\\n", StringUtils.NEWLINE);
+		adr.setLabel(label);
+	}
+
+	/**
+	 * A property whose value is parsed on demand. This class does not reference
+	 * the reader, so the reader can be garbage collected while the vCards it
+	 * read are still in use.
+	 * @see VCardReader#setLazyParsing(boolean)
+	 */
+	private static class DeferredPropertyImpl implements DeferredProperty {
+		private final VCardPropertyScribe<? extends VCardProperty> scribe;
+		private final String group;
+		private final String name;
+		private final VCardParameters parameters;
+		private final String value;
+		private final VCardDataType dataType;
+		private final VCardVersion version;
+		private final int lineNumber;
+		private final List<ParseWarning> warnings;
+		private final ParseSettings settings;
+
+		public DeferredPropertyImpl(VCardPropertyScribe<? extends VCardProperty> scribe, String group, String name, VCardParameters parameters, String value, VCardDataType dataType, VCardVersion version, int lineNumber, List<ParseWarning> warnings, ParseSettings settings) {
+			this.scribe = scribe;
+			this.group = group;
+			this.name = name;
+			this.parameters = parameters;
+			this.value = value;
+			this.dataType = dataType;
+			this.version = version;
+			this.lineNumber = lineNumber;
+			this.warnings = warnings;
+			this.settings = settings;
+		}
+
+		public VCardProperty parse() {
+			ParseContext context = new ParseContext();
+			context.setVersion(version);
+			context.setLineNumber(lineNumber);
+			context.setPropertyName(name);
+			context.setTempFileStore(settings.tempFileStore);
+
+			VCardProperty property;
+			try {
+				property = parseValue(settings.instrumentation, scribe, value, dataType, parameters, context);
+				warnings.addAll(context.getWarnings());
+			} catch (SkipMeException e) {
+				handleSkippedProperty(context, warnings, e);
+				return null;
+			} catch (CannotParseException e) {
+				property = handleUnparseableProperty(settings.index, context, warnings, name, parameters, value, dataType, e);
+			} catch (EmbeddedVCardException e) {
+				//properties without a value are not deferred, so the value must be the embedded vCard (3.0 style)
+				settings.readEmbeddedVCard(value, e, warnings);
+				property = e.getProperty();
+			}
+
+			property.setGroup(group);
+			handleLabelParameter(property);
+
+			return property;
+		}
+	}
+
+	/**
+	 * A copy of the reader settings that are needed to parse a property value
+	 * after the reader has moved on to the next vCard (or has been closed).
+	 */
+	private static class ParseSettings {
+		private final ScribeIndex index;
+		private final TempFileStore tempFileStore;
+		private final Instrumentation instrumentation;
+		private final Instrumentation nestedInstrumentation;
+		private final boolean caretDecodingEnabled;
+		private final Charset defaultQuotedPrintableCharset;
+		private final boolean fastTokenizerEnabled;
+		private final Set<Class<? extends VCardProperty>> filterClasses;
+		private final List<String> filterNames;
+
+		/**
+		 * @param reader the reader to copy the settings from
+		 */
+		public ParseSettings(VCardReader reader) {
+			index = reader.index;
+			tempFileStore = reader.tempFileStore;
+			instrumentation = reader.instrumentation;
+			nestedInstrumentation = reader.getNestedInstrumentation();
+			caretDecodingEnabled = reader.isCaretDecodingEnabled();
+			defaultQuotedPrintableCharset = reader.getDefaultQuotedPrintableCharset();
+			fastTokenizerEnabled = reader.fastTokenizerEnabled;
+			filterClasses = reader.filterClasses;
+			filterNames = reader.filterNames;
+		}
+
+		/**
+		 * Parses a property value that is an embedded vCard (3.0 style) and
+		 * injects the vCard into the property.
+		 * @param value the property value
+		 * @param exception the exception that the property's scribe threw
+		 * @param warnings the list to add the embedded vCard's warnings to
+		 */
+		public void readEmbeddedVCard(String value, EmbeddedVCardException exception, List<ParseWarning> warnings) {
+			value = VObjectPropertyValues.unescape(value);
+
+			VCardReader agentReader = new VCardReader(value);
+			agentReader.setCaretDecodingEnabled(caretDecodingEnabled);
+			agentReader.setDefaultQuotedPrintableCharset(defaultQuotedPrintableCharset);
+			agentReader.setScribeIndex(index);
+			agentReader.setTempFileStore(tempFileStore);
+			agentReader.setFastTokenizerEnabled(fastTokenizerEnabled);
+			agentReader.filterClasses = filterClasses;
+			agentReader.filterNames = filterNames;
+			agentReader.instrumentation = nestedInstrumentation;
+			if (instrumentation != null) {
+				instrumentation.nestedVCardRead();
+			}
+
+			try {
+				VCard nestedVCard = agentReader.readNext();
+				if (nestedVCard != null) {
+					exception.injectVCard(nestedVCard);
+				}
+			} catch (IOException ignore) {
+				//shouldn't be thrown because we're reading from a string
+			} finally {
+				warnings.addAll(agentReader.getWarnings());
+				IOUtils.closeQuietly(agentReader);
+			}
+		}
+	}
+
+	private class VObjectDataListenerImpl implements VObjectDataListener, VCardTokenizer.Listener {
 		private VCard root;
+		private int rootLineNumber;
 		private final VCardStack stack = new VCardStack();
 		private EmbeddedVCardException embeddedVCardException;
+		private List<ParseWarning> deferredWarnings;
+		private ParseSettings deferredSettings;
+
+		/**
+		 * Prepares the listener for the next vCard.
+		 * @param deferredWarnings the list to add the warnings of deferred
+		 * properties to, or null to parse all properties right away
+		 * @param deferredSettings the settings to parse deferred properties
+		 * with, or null to parse all properties right away
+		 */
+		public void reset(List<ParseWarning> deferredWarnings, ParseSettings deferredSettings) {
+			this.deferredWarnings = deferredWarnings;
+			this.deferredSettings = deferredSettings;
+			root = null;
+			stack.clear();
+			embeddedVCardException = null;
+		}
 
 		public void onComponentBegin(String name, Context context) {
+			onComponentBegin(name, context.getLineNumber());
+		}
+
+		public void onComponentBegin(String name, VCardTokenizer tokenizer) {
+			onComponentBegin(name, tokenizer.getLineNumber());
+		}
+
+		private void onComponentBegin(String name, int lineNumber) {
 			if (!isVCardComponent(name)) {
 				//ignore non-VCARD components
 				return;
@@ -232,6 +649,9 @@ public class VCardReader extends StreamReader {
 			VCard vcard = new VCard(defaultVersion);
 			if (stack.isEmpty()) {
 				root = vcard;
+				rootLineNumber = lineNumber;
+			} else if (instrumentation != null) {
+				instrumentation.nestedVCardRead();
 			}
 			stack.push(vcard);
 
@@ -242,17 +662,39 @@ public class VCardReader extends StreamReader {
 		}
 
 		public void onComponentEnd(String name, Context context) {
+			if (onComponentEnd(name, context.getLineNumber())) {
+				context.stop();
+			}
+		}
+
+		public void onComponentEnd(String name, VCardTokenizer tokenizer) {
+			if (onComponentEnd(name, tokenizer.getLineNumber())) {
+				tokenizer.stop();
+			}
+		}
+
+		/**
+		 * @param name the component name
+		 * @param lineNumber the line number of the END property
+		 * @return true if the root vCard has ended, false if not
+		 */
+		private boolean onComponentEnd(String name, int lineNumber) {
 			if (!isVCardComponent(name)) {
 				//ignore non-VCARD components
-				return;
+				return false;
 			}
 
 			VCardStack.Item item = stack.pop();
 			assignLabels(item.vcard, item.labels);
 
-			if (stack.isEmpty()) {
-				context.stop();
+			if (!stack.isEmpty()) {
+				return false;
 			}
+
+			if (instrumentation != null) {
+				instrumentation.linesRead(lineNumber - rootLineNumber + 1);
+			}
+			return true;
 		}
 
 		public void onProperty(VObjectProperty vobjectProperty, Context vobjectContext) {
@@ -261,27 +703,44 @@ public class VCardReader extends StreamReader {
 				return;
 			}
 
+			String group = vobjectProperty.getGroup();
+			String name = vobjectProperty.getName();
+			VCardParameters parameters = new VCardParameters(vobjectProperty.getParameters().getMap());
+			String value = vobjectProperty.getValue();
+			onProperty(group, name, parameters, value, vobjectContext.getLineNumber());
+		}
+
+		public void onProperty(String group, String name, VCardParameters parameters, String value, VCardTokenizer tokenizer) {
+			if (!inVCardComponent(tokenizer.getParentComponents())) {
+				//ignore properties that are not directly inside a VCARD component
+				return;
+			}
+
+			onProperty(group, name, parameters, value, tokenizer.getLineNumber());
+		}
+
+		private void onProperty(String group, String name, VCardParameters parameters, String value, int lineNumber) {
+
 			if (embeddedVCardException != null) {
 				//the next property was supposed to be the start of a nested vCard, but it wasn't
 				embeddedVCardException.injectVCard(null);
 				embeddedVCardException = null;
 			}
 
+			if (isFilteredOut(name)) {
+				return;
+			}
+
 			VCard curVCard = stack.peek().vcard;
 			VCardVersion version = curVCard.getVersion();
 
-			VCardProperty property = parseProperty(vobjectProperty, version, vobjectContext.getLineNumber());
+			VCardProperty property = parseProperty(group, name, parameters, value, curVCard, version, lineNumber);
 			if (property != null) {
 				curVCard.addProperty(property);
 			}
 		}
 
-		private VCardProperty parseProperty(VObjectProperty vobjectProperty, VCardVersion version, int lineNumber) {
-			String group = vobjectProperty.getGroup();
-			String name = vobjectProperty.getName();
-			VCardParameters parameters = new VCardParameters(vobjectProperty.getParameters().getMap());
-			String value = vobjectProperty.getValue();
-
+		private VCardProperty parseProperty(String group, String name, VCardParameters parameters, String value, VCard curVCard, VCardVersion version, int lineNumber) {
 			context.getWarnings().clear();
 			context.setVersion(version);
 			context.setLineNumber(lineNumber);
@@ -294,7 +753,7 @@ public class VCardReader extends StreamReader {
 			//get the scribe
 			VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(name);
 			if (scribe == null) {
-				scribe = new RawPropertyScribe(name);
+				scribe = index.getRawPropertyScribe(name);
 			}
 
 			//get the data type (VALUE parameter)
@@ -305,15 +764,21 @@ public class VCardReader extends StreamReader {
 				dataType = scribe.defaultDataType(version);
 			}
 
+			if (deferredWarnings != null && isDeferrable(scribe, value)) {
+				DeferredProperty deferred = new DeferredPropertyImpl(scribe, group, name, parameters, value, dataType, version, lineNumber, deferredWarnings, deferredSettings);
+				curVCard.addDeferredProperty(scribe.getPropertyClass(), deferred);
+				return null;
+			}
+
 			VCardProperty property;
 			try {
-				property = scribe.parseText(value, dataType, parameters, context);
+				property = parseValue(instrumentation, scribe, value, dataType, parameters, context);
 				warnings.addAll(context.getWarnings());
 			} catch (SkipMeException e) {
-				handleSkippedProperty(name, lineNumber, e);
+				handleSkippedProperty(context, warnings, e);
 				return null;
 			} catch (CannotParseException e) {
-				property = handleUnparseableProperty(name, parameters, value, dataType, lineNumber, version, e);
+				property = handleUnparseableProperty(index, context, warnings, name, parameters, value, dataType, e);
 			} catch (EmbeddedVCardException e) {
 				handledEmbeddedVCard(name, value, lineNumber, e);
 				property = e.getProperty();
@@ -339,25 +804,35 @@ public class VCardReader extends StreamReader {
 			return property;
 		}
 
-		private void handleSkippedProperty(String propertyName, int lineNumber, SkipMeException e) {
-			//@formatter:off
-			warnings.add(new ParseWarning.Builder(context)
-				.message(22, e.getMessage())
-				.build()
-			);
-			//@formatter:on
-		}
+		/**
+		 * Determines if the parsing of a property's value can be put off until
+		 * the property is accessed.
+		 * @param scribe the property's scribe
+		 * @param value the property value
+		 * @return true if it can be deferred, false if not
+		 */
+		private boolean isDeferrable(VCardPropertyScribe<? extends VCardProperty> scribe, String value) {
+			if (scribe instanceof RawPropertyScribe) {
+				//cheap to parse
+				return false;
+			}
 
-		private VCardProperty handleUnparseableProperty(String name, VCardParameters parameters, String value, VCardDataType dataType, int lineNumber, VCardVersion version, CannotParseException e) {
-			//@formatter:off
-			warnings.add(new ParseWarning.Builder(context)
-				.message(e)
-				.build()
-			);
-			//@formatter:on
+			if (value.trim().isEmpty()) {
+				/*
+				 * Cheap to parse, and if the scribe throws an
+				 * EmbeddedVCardException, the nested vCard is expected to be
+				 * next in the data stream (2.1 style).
+				 */
+				return false;
+			}
 
-			RawPropertyScribe scribe = new RawPropertyScribe(name);
-			return scribe.parseText(value, dataType, parameters, null);
+			Class<? extends VCardProperty> clazz = scribe.getPropertyClass();
+
+			/*
+			 * LABELs must be matched up with ADRs when the vCard ends, and AGENTs
+			 * may contain a nested vCard.
+			 */
+			return clazz != Label.class && clazz != Agent.class;
 		}
 
 		private void handledEmbeddedVCard(String name, String value, int lineNumber, EmbeddedVCardException exception) {
@@ -374,53 +849,18 @@ public class VCardReader extends StreamReader {
 			 * If the property does have a value, the property value should be
 			 * an embedded vCard (3.0 style).
 			 */
-			value = VObjectPropertyValues.unescape(value);
-
-			VCardReader agentReader = new VCardReader(value);
-			agentReader.setCaretDecodingEnabled(isCaretDecodingEnabled());
-			agentReader.setDefaultQuotedPrintableCharset(getDefaultQuotedPrintableCharset());
-			agentReader.setScribeIndex(index);
-
-			try {
-				VCard nestedVCard = agentReader.readNext();
-				if (nestedVCard != null) {
-					exception.injectVCard(nestedVCard);
-				}
-			} catch (IOException ignore) {
-				//shouldn't be thrown because we're reading from a string
-			} finally {
-				warnings.addAll(agentReader.getWarnings());
-				IOUtils.closeQuietly(agentReader);
-			}
+			new ParseSettings(VCardReader.this).readEmbeddedVCard(value, exception, warnings);
 		}
 
-		/**
-		 * <p>
-		 * Unescapes newline sequences in the LABEL parameter of {@link Address}
-		 * properties. Newlines cannot normally be escaped in parameter values.
-		 * </p>
-		 * <p>
-		 * Only version 4.0 allows this (and only version 4.0 defines a LABEL
-		 * parameter), but do this for all versions for compatibility.
-		 * </p>
-		 * @param property the property
-		 */
-		private void handleLabelParameter(VCardProperty property) {
-			if (!(property instanceof Address)) {
-				return;
-			}
-
-			Address adr = (Address) property;
-			String label = adr.getLabel();
-			if (label == null) {
-				return;
-			}
+		public void onVersion(String value, Context vobjectContext) {
+			onVersion(value);
+		}
 
-			label = label.replace("\\n", StringUtils.NEWLINE);
-			adr.setLabel(label);
+		public void onVersion(String value, VCardTokenizer tokenizer) {
+			onVersion(value);
 		}
 
-		public void onVersion(String value, Context vobjectContext) {
+		private void onVersion(String value) {
 			VCardVersion version = VCardVersion.valueOfByStr(value);
 			context.setVersion(version);
 			stack.peek().vcard.setVersion(version);
@@ -432,11 +872,25 @@ public class VCardReader extends StreamReader {
 				return;
 			}
 
+			String propertyName = (property == null) ? null : property.getName();
+			onWarning(warning, propertyName, vobjectContext.getLineNumber(), vobjectContext.getUnfoldedLine());
+		}
+
+		public void onWarning(Warning warning, String propertyName, Exception thrown, VCardTokenizer tokenizer) {
+			if (!inVCardComponent(tokenizer.getParentComponents())) {
+				//ignore warnings that are not directly inside a VCARD component
+				return;
+			}
+
+			onWarning(warning, propertyName, tokenizer.getLineNumber(), tokenizer.getUnfoldedLine());
+		}
+
+		private void onWarning(Warning warning, String propertyName, int lineNumber, String unfoldedLine) {
 			//@formatter:off
 			warnings.add(new ParseWarning.Builder(context)
-				.lineNumber(vobjectContext.getLineNumber())
-				.propertyName((property == null) ? null : property.getName())
-				.message(27, warning.getMessage(), vobjectContext.getUnfoldedLine())
+				.lineNumber(lineNumber)
+				.propertyName(propertyName)
+				.message(27, warning.getMessage(), unfoldedLine)
 				.build()
 			);
 			//@formatter:on
@@ -569,6 +1023,13 @@ public class VCardReader extends StreamReader {
 			return stack.isEmpty();
 		}
 
+		/**
+		 * Removes all items from the stack.
+		 */
+		public void clear() {
+			stack.clear();
+		}
+
 		private static class Item {
 			public final VCard vcard;
 			public final List<Label> labels;
@@ -0,0 +1,369 @@
+package ezvcard.io.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ezvcard.io.ParseWarning;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Splits a plain-text vCard data stream into chunks, each of which contains
+ * exactly one top-level vCard. Each chunk can then be parsed independently of
+ * the others.
+ * </p>
+ * <p>
+ * The data stream is fed into this class one physical line at a time. The
+ * splitter follows the same rules that {@link VCardReader} uses to decide where
+ * one property ends and the next begins (folded lines, quoted-printable soft
+ * line breaks, blank lines), and keeps track of the component hierarchy so
+ * that nested vCards (such as 2.1-style AGENT properties) do not end a chunk
+ * early. Anything outside of a VCARD component is discarded, since
+ * {@link VCardReader} ignores it too.
+ * </p>
+ * @author Michael Angstadt
+ */
+class VCardSplitter {
+	private static final String NEWLINE = "\r\n";
+
+	/**
+	 * The number of characters after the first colon of a property line to
+	 * keep for inspection. BEGIN and END lines are short, so there's no need
+	 * to hold onto the entire value of large properties like PHOTO.
+	 */
+	private static final int MAX_VALUE_INSPECTION_LENGTH = 64;
+
+	private final List<String> components = new ArrayList<>();
+	private final StringBuilder chunk = new StringBuilder();
+	private final StringBuilder rawLine = new StringBuilder();
+	private final StringBuilder unfoldedLine = new StringBuilder();
+
+	private int lineNumber = 0;
+	private int rawLineNumber;
+	private int chunkLineNumber;
+	private int chunkBase = -1;
+	private int colon = -1;
+	private boolean inLine = false;
+	private boolean quotedPrintableSoftBreak = false;
+
+	/**
+	 * Feeds the next physical line of the data stream into the splitter.
+	 * @param line the line (without the newline sequence)
+	 * @return the chunk that this line completed or null if no chunk was
+	 * completed
+	 */
+	public Chunk line(String line) {
+		lineNumber++;
+
+		if (line.isEmpty()) {
+			/*
+			 * Blank lines do not end a property, so a folded line can pick back
+			 * up after one. However, they do interrupt quoted-printable soft
+			 * line breaks.
+			 */
+			if (inLine) {
+				rawLine.append(NEWLINE);
+			}
+			quotedPrintableSoftBreak = false;
+			return null;
+		}
+
+		char first = line.charAt(0);
+		boolean folded = inLine && (first == ' ' || first == '\t' || quotedPrintableSoftBreak);
+
+		Chunk completed = null;
+		if (!folded) {
+			completed = endLine();
+			inLine = true;
+			rawLineNumber = lineNumber;
+		}
+
+		rawLine.append(line).append(NEWLINE);
+		unfold(line, folded && !quotedPrintableSoftBreak);
+
+		quotedPrintableSoftBreak = colon >= 0 && line.charAt(line.length() - 1) == '=' && isQuotedPrintable();
+
+		return completed;
+	}
+
+	/**
+	 * Signals that the end of the data stream has been reached.
+	 * @return the last chunk or null if there are no more chunks. If the data
+	 * stream ended in the middle of a vCard, the chunk will contain the
+	 * incomplete vCard.
+	 */
+	public Chunk finish() {
+		Chunk completed = endLine();
+		if (completed != null || chunkBase < 0) {
+			return completed;
+		}
+
+		completed = new Chunk(chunk.toString(), chunkLineNumber);
+		reset();
+		return completed;
+	}
+
+	/**
+	 * Appends a physical line to the unfolded version of the current property
+	 * line.
+	 * @param line the physical line
+	 * @param trimLeadingWhitespace true to strip the folding whitespace off the
+	 * beginning of the line
+	 */
+	private void unfold(String line, boolean trimLeadingWhitespace) {
+		int start = 0;
+		if (trimLeadingWhitespace) {
+			while (start < line.length() && (line.charAt(start) == ' ' || line.charAt(start) == '\t')) {
+				start++;
+			}
+		}
+
+		if (colon < 0) {
+			int index = line.indexOf(':', start);
+			if (index >= 0) {
+				colon = unfoldedLine.length() + (index - start);
+			}
+		}
+
+		int max = (colon < 0) ? Integer.MAX_VALUE : colon + 1 + MAX_VALUE_INSPECTION_LENGTH;
+		int end = Math.min(line.length(), start + Math.max(0, max - unfoldedLine.length()));
+		if (start < end) {
+			unfoldedLine.append(line, start, end);
+		}
+	}
+
+	/**
+	 * Processes the current property line, now that it is known to be
+	 * complete.
+	 * @return the chunk that this property line completed or null if no chunk
+	 * was completed
+	 */
+	private Chunk endLine() {
+		if (!inLine) {
+			return null;
+		}
+
+		Chunk completed = null;
+		String name = propertyName();
+		if ("BEGIN".equals(name)) {
+			String componentName = value();
+			if (!componentName.isEmpty()) {
+				if (chunkBase < 0 && "VCARD".equals(componentName)) {
+					chunkBase = components.size();
+					chunkLineNumber = rawLineNumber;
+				}
+				components.add(componentName);
+			}
+			appendRawLine();
+		} else if ("END".equals(name)) {
+			String componentName = value();
+			int index = componentName.isEmpty() ? -1 : components.lastIndexOf(componentName);
+			if (index >= 0 && chunkBase >= 0 && index <= chunkBase) {
+				if (index < chunkBase) {
+					/*
+					 * A component that the vCard is nested inside of was closed
+					 * before the vCard was. This closes the vCard too, but only
+					 * within the context of the enclosing component, which the
+					 * chunk does not contain.
+					 */
+					chunk.append("END:VCARD").append(NEWLINE);
+				} else {
+					appendRawLine();
+				}
+				completed = new Chunk(chunk.toString(), chunkLineNumber);
+				reset();
+			} else {
+				appendRawLine();
+			}
+
+			if (index >= 0) {
+				components.subList(index, components.size()).clear();
+			}
+		} else {
+			appendRawLine();
+		}
+
+		rawLine.setLength(0);
+		unfoldedLine.setLength(0);
+		colon = -1;
+		inLine = false;
+		quotedPrintableSoftBreak = false;
+
+		return completed;
+	}
+
+	private void appendRawLine() {
+		if (chunkBase >= 0) {
+			chunk.append(rawLine);
+		}
+	}
+
+	private void reset() {
+		chunk.setLength(0);
+		chunkBase = -1;
+	}
+
+	/**
+	 * Gets the name of the current property line.
+	 * @return the property name (uppercase, without the group) or null if the
+	 * line is malformed
+	 */
+	private String propertyName() {
+		if (colon < 0) {
+			return null;
+		}
+
+		int end = colon;
+		int semicolon = unfoldedLine.indexOf(";");
+		if (semicolon >= 0 && semicolon < end) {
+			end = semicolon;
+		}
+
+		int dot = unfoldedLine.indexOf(".");
+		int start = (dot >= 0 && dot < end) ? dot + 1 : 0;
+
+		return unfoldedLine.substring(start, end).trim().toUpperCase();
+	}
+
+	/**
+	 * Gets the value of the current property line. Only the beginning of the
+	 * value is available.
+	 * @return the value (uppercase and trimmed)
+	 */
+	private String value() {
+		return unfoldedLine.substring(colon + 1).trim().toUpperCase();
+	}
+
+	/**
+	 * Determines if the current property line has a quoted-printable ENCODING
+	 * parameter.
+	 * @return true if it does, false if not
+	 */
+	private boolean isQuotedPrintable() {
+		String params = unfoldedLine.substring(0, colon);
+		int semicolon = params.indexOf(';');
+		if (semicolon < 0) {
+			return false;
+		}
+
+		for (String param : params.substring(semicolon + 1).split(";")) {
+			int equals = param.indexOf('=');
+			String name = (equals < 0) ? null : param.substring(0, equals).trim();
+			if (name != null && !"ENCODING".equalsIgnoreCase(name)) {
+				continue;
+			}
+
+			String values = (equals < 0) ? param : param.substring(equals + 1);
+			for (String value : values.split(",")) {
+				value = value.trim();
+				if (value.length() > 1 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+					value = value.substring(1, value.length() - 1);
+				}
+				if ("QUOTED-PRINTABLE".equalsIgnoreCase(value)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A portion of the data stream that contains a single top-level vCard.
+	 */
+	public static class Chunk {
+		private final String text;
+		private final int lineNumber;
+
+		public Chunk(String text, int lineNumber) {
+			this.text = text;
+			this.lineNumber = lineNumber;
+		}
+
+		/**
+		 * Gets the text of the chunk.
+		 * @return the text
+		 */
+		public String getText() {
+			return text;
+		}
+
+		/**
+		 * Gets the line number in the original data stream that the chunk
+		 * starts on.
+		 * @return the line number (the first line is "1")
+		 */
+		public int getLineNumber() {
+			return lineNumber;
+		}
+
+		/**
+		 * Counts the number of lines in the chunk.
+		 * @return the number of lines
+		 */
+		public int getLineCount() {
+			int count = 0;
+			int pos = 0;
+			while ((pos = text.indexOf(NEWLINE, pos)) >= 0) {
+				count++;
+				pos += NEWLINE.length();
+			}
+			return count;
+		}
+
+		/**
+		 * Converts the line numbers of the warnings that were generated when
+		 * parsing this chunk from being relative to the chunk to being
+		 * relative to the entire data stream.
+		 * @param warnings the warnings
+		 * @return the adjusted warnings
+		 */
+		public List<ParseWarning> shiftLineNumbers(List<ParseWarning> warnings) {
+			int offset = lineNumber - 1;
+			if (offset == 0) {
+				return warnings;
+			}
+
+			List<ParseWarning> shifted = new ArrayList<>(warnings.size());
+			for (ParseWarning warning : warnings) {
+				Integer lineNumber = warning.getLineNumber();
+				if (lineNumber != null) {
+					//@formatter:off
+					warning = new ParseWarning.Builder(warning)
+						.lineNumber(lineNumber + offset)
+						.build();
+					//@formatter:on
+				}
+				shifted.add(warning);
+			}
+			return shifted;
+		}
+	}
+}
@@ -0,0 +1,718 @@
+package ezvcard.io.text;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.mangstadt.vinnie.SyntaxStyle;
+import com.github.mangstadt.vinnie.Utils;
+import com.github.mangstadt.vinnie.codec.DecoderException;
+import com.github.mangstadt.vinnie.codec.QuotedPrintableCodec;
+import com.github.mangstadt.vinnie.io.SyntaxRules;
+import com.github.mangstadt.vinnie.io.VObjectReader;
+import com.github.mangstadt.vinnie.io.Warning;
+
+import ezvcard.parameter.VCardParameters;
+import ezvcard.util.StringUtils;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Tokenizes a plain-text vCard data stream. This class produces exactly the
+ * same results as vinnie's {@link VObjectReader}, but it does much less work:
+ * </p>
+ * <ul>
+ * <li>The input is read into a single character array (the "window"), which
+ * always contains the entire folded line that is being parsed.</li>
+ * <li>Property values that do not need to be unfolded or decoded are created
+ * directly from the window. Other values are only copied into a buffer at the
+ * points where they are unfolded or decoded.</li>
+ * <li>Parameters are added directly to a {@link VCardParameters} object.</li>
+ * <li>The unfolded line is only built when a warning is reported.</li>
+ * </ul>
+ * @author Michael Angstadt
+ * @see VCardReader#setFastTokenizerEnabled(boolean)
+ */
+final class VCardTokenizer implements Closeable {
+	private static final int INITIAL_WINDOW_SIZE = 8192;
+
+	private Reader reader;
+	private final SyntaxRules syntaxRules;
+	private boolean caretDecodingEnabled = true;
+	private Charset defaultQuotedPrintableCharset = Charset.defaultCharset();
+
+	private final List<String> componentNames = new ArrayList<>();
+	private final List<String> parentComponents = Collections.unmodifiableList(componentNames);
+	private final List<SyntaxStyle> componentSyntax = new ArrayList<>();
+
+	private char[] window = new char[INITIAL_WINDOW_SIZE];
+	private int pos;
+	private int limit;
+	private boolean eos = false;
+
+	/**
+	 * The window index of the first character of the line that is being
+	 * parsed. Everything before this index is discarded when the window is
+	 * refilled.
+	 */
+	private int lineStart;
+	private int nextLineNumber = 1;
+	private int lineNumber;
+	private boolean stop;
+
+	/*
+	 * The token that is being parsed. The token consists of the contents of
+	 * the string builder, followed by the characters in the window between
+	 * runStart (inclusive) and runEnd (exclusive).
+	 */
+	private final StringBuilder buffer = new StringBuilder();
+	private int runStart = -1;
+	private int runEnd = -1;
+
+	/*
+	 * The unfolded line, stored as [start, end) pairs of window indexes.
+	 */
+	private int[] segments = new int[16];
+	private int segmentsLength;
+
+	private String group;
+	private String name;
+	private VCardParameters parameters;
+	private String value;
+
+	/**
+	 * @param reader the reader to read from
+	 * @param syntaxRules the syntax rules
+	 */
+	public VCardTokenizer(Reader reader, SyntaxRules syntaxRules) {
+		this.reader = reader;
+		this.syntaxRules = syntaxRules;
+		componentSyntax.add(syntaxRules.getDefaultSyntaxStyle());
+	}
+
+	/**
+	 * @param enable true to use circumflex accent decoding, false not to
+	 * @see VObjectReader#setCaretDecodingEnabled(boolean)
+	 */
+	public void setCaretDecodingEnabled(boolean enable) {
+		caretDecodingEnabled = enable;
+	}
+
+	/**
+	 * @param charset the character set (cannot be null)
+	 * @see VObjectReader#setDefaultQuotedPrintableCharset
+	 */
+	public void setDefaultQuotedPrintableCharset(Charset charset) {
+		defaultQuotedPrintableCharset = charset;
+	}
+
+	/**
+	 * Prepares the tokenizer to read from a new data stream. The internal
+	 * buffers are kept so they can be reused.
+	 * @param reader the new data stream
+	 */
+	public void reset(Reader reader) {
+		this.reader = reader;
+
+		componentNames.clear();
+		componentSyntax.clear();
+		componentSyntax.add(syntaxRules.getDefaultSyntaxStyle());
+
+		pos = limit = 0;
+		eos = false;
+		lineStart = 0;
+		nextLineNumber = 1;
+		lineNumber = 0;
+		stop = false;
+
+		buffer.setLength(0);
+		runStart = runEnd = -1;
+		segmentsLength = 0;
+
+		group = name = value = null;
+		parameters = null;
+	}
+
+	/**
+	 * Gets the hierarchy of components the tokenizer is currently inside of.
+	 * @return the component names (unmodifiable)
+	 */
+	public List<String> getParentComponents() {
+		return parentComponents;
+	}
+
+	/**
+	 * Gets the line number of the line that is being parsed.
+	 * @return the line number
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Gets the unfolded version of the line that is being parsed.
+	 * @return the unfolded line
+	 */
+	public String getUnfoldedLine() {
+		int length = 0;
+		for (int i = 0; i < segmentsLength; i += 2) {
+			length += segments[i + 1] - segments[i];
+		}
+
+		char[] line = new char[length];
+		int linePos = 0;
+		for (int i = 0; i < segmentsLength; i += 2) {
+			int segmentLength = segments[i + 1] - segments[i];
+			System.arraycopy(window, segments[i], line, linePos, segmentLength);
+			linePos += segmentLength;
+		}
+		return new String(line);
+	}
+
+	/**
+	 * Stops parsing after the current line has been processed.
+	 */
+	public void stop() {
+		stop = true;
+	}
+
+	/**
+	 * Parses the data stream until the end of the stream is reached or until
+	 * {@link #stop} is called.
+	 * @param listener the listener
+	 * @throws IOException if there's a problem reading from the stream
+	 * @see VObjectReader#parse
+	 */
+	public void parse(Listener listener) throws IOException {
+		stop = false;
+		while (!eos && !stop) {
+			lineNumber = nextLineNumber;
+			boolean parsed = parseProperty(listener);
+
+			if (segmentsLength == 0) {
+				//input stream was empty or the line was blank
+				return;
+			}
+
+			if (!parsed) {
+				listener.onWarning(Warning.MALFORMED_LINE, null, null, this);
+				continue;
+			}
+
+			if ("BEGIN".equalsIgnoreCase(name.trim())) {
+				String componentName = value.trim().toUpperCase();
+				if (componentName.isEmpty()) {
+					listener.onWarning(Warning.EMPTY_BEGIN, null, null, this);
+					continue;
+				}
+
+				listener.onComponentBegin(componentName, this);
+
+				componentNames.add(componentName);
+				componentSyntax.add(peekSyntax());
+				continue;
+			}
+
+			if ("END".equalsIgnoreCase(name.trim())) {
+				String componentName = value.trim().toUpperCase();
+				if (componentName.isEmpty()) {
+					listener.onWarning(Warning.EMPTY_END, null, null, this);
+					continue;
+				}
+
+				int index = componentNames.lastIndexOf(componentName);
+				if (index < 0) {
+					listener.onWarning(Warning.UNMATCHED_END, null, null, this);
+					continue;
+				}
+
+				for (int popCount = componentNames.size() - index; popCount > 0; popCount--) {
+					componentSyntax.remove(componentSyntax.size() - 1);
+					String poppedName = componentNames.remove(componentNames.size() - 1);
+					listener.onComponentEnd(poppedName, this);
+				}
+				continue;
+			}
+
+			if ("VERSION".equalsIgnoreCase(name)) {
+				String parentComponent = componentNames.isEmpty() ? null : componentNames.get(componentNames.size() - 1);
+				if (syntaxRules.hasSyntaxRules(parentComponent)) {
+					SyntaxStyle style = syntaxRules.getSyntaxStyle(parentComponent, value);
+					if (style == null) {
+						listener.onWarning(Warning.UNKNOWN_VERSION, name, null, this);
+					} else {
+						listener.onVersion(value, this);
+						componentSyntax.set(componentSyntax.size() - 1, style);
+						continue;
+					}
+				}
+			}
+
+			listener.onProperty(group, name, parameters, value, this);
+		}
+	}
+
+	/**
+	 * Parses the next line. This method mirrors the state machine in
+	 * {@link VObjectReader}.
+	 * @param listener the listener
+	 * @return true if the line was parsed, false if the line is malformed
+	 * @throws IOException if there's a problem reading from the stream
+	 */
+	private boolean parseProperty(Listener listener) throws IOException {
+		group = null;
+		name = null;
+		parameters = new VCardParameters();
+		value = null;
+		lineStart = pos;
+		segmentsLength = 0;
+		clearToken();
+
+		SyntaxStyle syntax = peekSyntax();
+		String curParamName = null;
+		char paramValueEscapeChar = 0;
+		boolean inQuotes = false;
+		boolean inValue = false;
+		boolean quotedPrintable = false;
+		boolean foldedQuotedPrintableLine = false;
+		boolean inFoldedLineWhitespace = false;
+		char ch = 0;
+
+		while (true) {
+			char prevChar = ch;
+			if (pos == limit && !fill()) {
+				eos = true;
+				break;
+			}
+
+			int index = pos++;
+			ch = window[index];
+
+			if (prevChar == '\r' && ch == '\n') {
+				//CRLF sequence
+				continue;
+			}
+
+			if (isNewline(ch)) {
+				foldedQuotedPrintableLine = (inValue && prevChar == '=' && quotedPrintable);
+				if (foldedQuotedPrintableLine) {
+					//remove the soft line break character
+					chopToken();
+					chopLine();
+				}
+
+				nextLineNumber++;
+				continue;
+			}
+
+			if (isNewline(prevChar)) {
+				if (isWhitespace(ch)) {
+					//the line is folded
+					inFoldedLineWhitespace = true;
+					continue;
+				}
+
+				if (!foldedQuotedPrintableLine) {
+					//the line was not folded, so the current character starts the next line
+					pos--;
+					break;
+				}
+			}
+
+			if (inFoldedLineWhitespace) {
+				if (isWhitespace(ch) && syntax == SyntaxStyle.OLD) {
+					//2.1 allows multiple whitespace characters to be used for folding
+					continue;
+				}
+				inFoldedLineWhitespace = false;
+			}
+
+			if (inValue) {
+				/*
+				 * Everything up to the next newline is part of the value, so
+				 * it can all be added at once.
+				 */
+				int end = index + 1;
+				while (end < limit && !isNewline(window[end])) {
+					end++;
+				}
+
+				appendToLine(index, end);
+				appendToToken(index, end);
+				pos = end;
+				ch = window[end - 1];
+				continue;
+			}
+
+			appendToLine(index, index + 1);
+
+			if (paramValueEscapeChar != 0) {
+				char escapeChar = paramValueEscapeChar;
+				paramValueEscapeChar = 0;
+
+				switch (escapeChar) {
+				case '\\':
+					switch (ch) {
+					case '\\':
+					case ';':
+						appendToToken(index, index + 1);
+						continue;
+					}
+					break;
+				case '^':
+					switch (ch) {
+					case '^':
+						appendToToken(index, index + 1);
+						continue;
+					case 'n':
+						appendToToken(StringUtils.NEWLINE);
+						continue;
+					case '\'':
+						appendToToken("\"");
+						continue;
+					}
+					break;
+				}
+
+				//treat the escape character as a normal character
+				appendToToken(String.valueOf(escapeChar));
+				appendToToken(index, index + 1);
+				continue;
+			}
+
+			if (curParamName != null) {
+				if (syntax == SyntaxStyle.OLD && ch == '\\') {
+					paramValueEscapeChar = ch;
+					continue;
+				}
+				if (syntax == SyntaxStyle.NEW && ch == '^' && caretDecodingEnabled) {
+					paramValueEscapeChar = ch;
+					continue;
+				}
+			}
+
+			if (ch == '.' && group == null && name == null) {
+				group = getAndClearToken();
+				continue;
+			}
+
+			if ((ch == ';' || ch == ':') && !inQuotes) {
+				if (name == null) {
+					name = getAndClearToken();
+				} else {
+					String paramValue = getAndClearToken();
+					if (syntax == SyntaxStyle.OLD) {
+						paramValue = Utils.ltrim(paramValue);
+					}
+					parameters.put(curParamName, paramValue);
+					curParamName = null;
+				}
+
+				if (ch == ':') {
+					inValue = true;
+					quotedPrintable = isQuotedPrintable(parameters);
+				}
+				continue;
+			}
+
+			if (name != null) {
+				if (ch == ',' && curParamName != null && !inQuotes && syntax != SyntaxStyle.OLD) {
+					//multi-valued parameter
+					parameters.put(curParamName, getAndClearToken());
+					continue;
+				}
+
+				if (ch == '=' && curParamName == null) {
+					String paramName = getAndClearToken().toUpperCase();
+					if (syntax == SyntaxStyle.OLD) {
+						paramName = Utils.rtrim(paramName);
+					}
+					curParamName = paramName;
+					continue;
+				}
+
+				if (ch == '"' && curParamName != null && syntax != SyntaxStyle.OLD) {
+					inQuotes = !inQuotes;
+					continue;
+				}
+			}
+
+			appendToToken(index, index + 1);
+		}
+
+		if (!inValue) {
+			return false;
+		}
+
+		value = getAndClearToken();
+		if (quotedPrintable) {
+			decodeQuotedPrintable(listener);
+		}
+		return true;
+	}
+
+	private void decodeQuotedPrintable(Listener listener) {
+		Charset charset = getCharset(listener);
+		if (charset == null) {
+			charset = defaultQuotedPrintableCharset;
+		}
+
+		QuotedPrintableCodec codec = new QuotedPrintableCodec(charset.name());
+		try {
+			value = codec.decode(value);
+		} catch (DecoderException e) {
+			listener.onWarning(Warning.QUOTED_PRINTABLE_ERROR, name, e, this);
+		}
+	}
+
+	private Charset getCharset(Listener listener) {
+		String charsetStr = parameters.first(VCardParameters.CHARSET);
+		if (charsetStr == null) {
+			return null;
+		}
+
+		Exception thrown;
+		try {
+			return Charset.forName(charsetStr);
+		} catch (IllegalCharsetNameException e) {
+			thrown = e;
+		} catch (UnsupportedCharsetException e) {
+			thrown = e;
+		}
+
+		listener.onWarning(Warning.UNKNOWN_CHARSET, name, thrown, this);
+		return null;
+	}
+
+	private static boolean isQuotedPrintable(VCardParameters parameters) {
+		for (String key : new String[] { VCardParameters.ENCODING, null }) {
+			for (String value : parameters.get(key)) {
+				if ("QUOTED-PRINTABLE".equalsIgnoreCase(value)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private SyntaxStyle peekSyntax() {
+		return componentSyntax.get(componentSyntax.size() - 1);
+	}
+
+	/**
+	 * Reads more characters into the window. Characters that come before the
+	 * start of the current line are discarded, and the window is enlarged if
+	 * the current line takes up the entire window.
+	 * @return false if the end of the stream has been reached, true if not
+	 * @throws IOException if there's a problem reading from the stream
+	 */
+	private boolean fill() throws IOException {
+		if (lineStart > 0) {
+			int shift = lineStart;
+			System.arraycopy(window, shift, window, 0, limit - shift);
+			limit -= shift;
+			pos -= shift;
+			lineStart = 0;
+			if (runStart >= 0) {
+				runStart -= shift;
+				runEnd -= shift;
+			}
+			for (int i = 0; i < segmentsLength; i++) {
+				segments[i] -= shift;
+			}
+		} else if (limit == window.length) {
+			window = Arrays.copyOf(window, window.length * 2);
+		}
+
+		int read;
+		do {
+			read = reader.read(window, limit, window.length - limit);
+		} while (read == 0);
+
+		if (read < 0) {
+			return false;
+		}
+		limit += read;
+		return true;
+	}
+
+	private void appendToLine(int start, int end) {
+		if (segmentsLength > 0 && segments[segmentsLength - 1] == start) {
+			segments[segmentsLength - 1] = end;
+			return;
+		}
+
+		if (segmentsLength == segments.length) {
+			segments = Arrays.copyOf(segments, segments.length * 2);
+		}
+		segments[segmentsLength++] = start;
+		segments[segmentsLength++] = end;
+	}
+
+	private void chopLine() {
+		if (segmentsLength == 0) {
+			return;
+		}
+
+		segments[segmentsLength - 1]--;
+		if (segments[segmentsLength - 1] == segments[segmentsLength - 2]) {
+			segmentsLength -= 2;
+		}
+	}
+
+	private void appendToToken(int start, int end) {
+		if (runEnd == start) {
+			runEnd = end;
+			return;
+		}
+
+		flushRun();
+		runStart = start;
+		runEnd = end;
+	}
+
+	private void appendToToken(String str) {
+		flushRun();
+		buffer.append(str);
+	}
+
+	private void chopToken() {
+		if (runStart >= 0) {
+			runEnd--;
+			if (runEnd == runStart) {
+				runStart = runEnd = -1;
+			}
+			return;
+		}
+
+		if (buffer.length() > 0) {
+			buffer.setLength(buffer.length() - 1);
+		}
+	}
+
+	private String getAndClearToken() {
+		String token;
+		if (buffer.length() == 0) {
+			token = (runStart < 0) ? "" : new String(window, runStart, runEnd - runStart);
+		} else {
+			flushRun();
+			token = buffer.toString();
+		}
+
+		clearToken();
+		return token;
+	}
+
+	private void flushRun() {
+		if (runStart >= 0) {
+			buffer.append(window, runStart, runEnd - runStart);
+			runStart = runEnd = -1;
+		}
+	}
+
+	private void clearToken() {
+		buffer.setLength(0);
+		runStart = runEnd = -1;
+	}
+
+	private static boolean isNewline(char ch) {
+		return ch == '\n' || ch == '\r';
+	}
+
+	private static boolean isWhitespace(char ch) {
+		return ch == ' ' || ch == '\t';
+	}
+
+	/**
+	 * Closes the underlying reader.
+	 * @throws IOException if there's a problem closing the reader
+	 */
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Receives the data that the tokenizer parses.
+	 * @see com.github.mangstadt.vinnie.io.VObjectDataListener
+	 */
+	interface Listener {
+		/**
+		 * Called when a component begins (when a BEGIN property is
+		 * encountered).
+		 * @param name the component name (in uppercase)
+		 * @param tokenizer the tokenizer
+		 */
+		void onComponentBegin(String name, VCardTokenizer tokenizer);
+
+		/**
+		 * Called when a component ends (when an END property is encountered).
+		 * @param name the component name (in uppercase)
+		 * @param tokenizer the tokenizer
+		 */
+		void onComponentEnd(String name, VCardTokenizer tokenizer);
+
+		/**
+		 * Called when a property is read.
+		 * @param group the group or null if it doesn't have one
+		 * @param name the property name
+		 * @param parameters the parameters
+		 * @param value the unfolded and decoded value
+		 * @param tokenizer the tokenizer
+		 */
+		void onProperty(String group, String name, VCardParameters parameters, String value, VCardTokenizer tokenizer);
+
+		/**
+		 * Called when a VERSION property is read whose value and position
+		 * match the syntax rules.
+		 * @param value the version string
+		 * @param tokenizer the tokenizer
+		 */
+		void onVersion(String value, VCardTokenizer tokenizer);
+
+		/**
+		 * Called when a non-fatal error occurs during parsing.
+		 * @param warning the warning
+		 * @param propertyName the name of the property the warning applies to,
+		 * or null if it does not apply to a property
+		 * @param thrown the exception that caused the warning or null if not
+		 * applicable
+		 * @param tokenizer the tokenizer
+		 */
+		void onWarning(Warning warning, String propertyName, Exception thrown, VCardTokenizer tokenizer);
+	}
+}
@@ -2,6 +2,7 @@ package ezvcard.io.text;
 
 import static com.github.mangstadt.vinnie.Utils.escapeNewlines;
 
+import java.io.FilterWriter;
 import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -17,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.github.mangstadt.vinnie.VObjectParameters;
+import com.github.mangstadt.vinnie.io.FoldedLineWriter;
 import com.github.mangstadt.vinnie.io.VObjectPropertyValues;
 import com.github.mangstadt.vinnie.io.VObjectWriter;
 
@@ -24,8 +26,11 @@ import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.EmbeddedVCardException;
+import ezvcard.io.PreparedVCard;
+import ezvcard.io.PreparedVCard.PreparedProperty;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.StreamWriter;
+import ezvcard.io.scribe.BinaryPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.Encoding;
 import ezvcard.parameter.VCardParameters;
@@ -105,10 +110,13 @@ import ezvcard.property.VCardProperty;
  */
 public class VCardWriter extends StreamWriter implements Flushable {
 	private final VObjectWriter writer;
+	private final SwappableWriter output;
 	private final List<Boolean> prodIdStack = new ArrayList<>();
 	private VCardVersion targetVersion;
 	private TargetApplication targetApplication;
 	private Boolean includeTrailingSemicolons;
+	private StringWriter headerBuffer;
+	private VObjectWriter headerWriter;
 
 	/**
 	 * @param out the output stream to write to
@@ -155,10 +163,49 @@ public class VCardWriter extends StreamWriter implements Flushable {
 	 * @param targetVersion the version that the vCards should conform to
 	 */
 	public VCardWriter(Writer writer, VCardVersion targetVersion) {
-		this.writer = new VObjectWriter(writer, targetVersion.getSyntaxStyle());
+		this(new SwappableWriter(writer), targetVersion);
+	}
+
+	private VCardWriter(SwappableWriter output, VCardVersion targetVersion) {
+		this(new VObjectWriter(output, targetVersion.getSyntaxStyle()), output, targetVersion);
+	}
+
+	/**
+	 * Creates a writer that writes to its own output stream. Subclasses that
+	 * use this constructor must override {@link #reset(Writer)}.
+	 * @param writer the writer to write to
+	 * @param targetVersion the version that the vCards should conform to
+	 */
+	VCardWriter(VObjectWriter writer, VCardVersion targetVersion) {
+		this(writer, null, targetVersion);
+	}
+
+	private VCardWriter(VObjectWriter writer, SwappableWriter output, VCardVersion targetVersion) {
+		this.writer = writer;
+		this.output = output;
 		this.targetVersion = targetVersion;
 	}
 
+	/**
+	 * <p>
+	 * Prepares the writer to write to a new output stream. Any buffered data is
+	 * flushed to the previous output stream, which is not closed. All of the
+	 * writer's settings are kept.
+	 * </p>
+	 * <p>
+	 * Reusing a writer avoids the cost of creating a new one for each output
+	 * stream (for example, when serializing one vCard per request in a web
+	 * service). This method should only be called in between vCards.
+	 * </p>
+	 * @param writer the new output stream
+	 * @throws IOException if there's a problem flushing the previous output
+	 * stream
+	 */
+	public void reset(Writer writer) throws IOException {
+		flush();
+		output.setWriter(writer);
+	}
+
 	/**
 	 * Gets the writer that this object uses to write data to the output stream.
 	 * @return the writer
@@ -299,7 +346,7 @@ public class VCardWriter extends StreamWriter implements Flushable {
 
 	@Override
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	protected void _write(VCard vcard, List<VCardProperty> propertiesToAdd) throws IOException {
+	protected void _write(PreparedVCard vcard) throws IOException {
 		VCardVersion targetVersion = getTargetVersion();
 		TargetApplication targetApplication = getTargetApplication();
 
@@ -313,20 +360,29 @@ public class VCardWriter extends StreamWriter implements Flushable {
 		writer.writeBeginComponent("VCARD");
 		writer.writeVersion(targetVersion.getVersion());
 
-		for (VCardProperty property : propertiesToAdd) {
-			VCardPropertyScribe scribe = index.getPropertyScribe(property);
+		for (PreparedProperty prepared : vcard.getProperties()) {
+			VCardProperty property = prepared.getProperty();
+			VCardPropertyScribe scribe = prepared.getScribe();
+
+			/*
+			 * Stream binary data straight to the output stream instead of
+			 * building the (potentially very large) base64 string first.
+			 */
+			boolean streamData = (scribe instanceof BinaryPropertyScribe) && ((BinaryPropertyScribe) scribe).canStreamText((BinaryProperty) property);
 
 			String value = null;
 			VCard nestedVCard = null;
-			try {
-				value = scribe.writeText(property, context);
-			} catch (SkipMeException e) {
-				continue;
-			} catch (EmbeddedVCardException e) {
-				nestedVCard = e.getVCard();
+			if (!streamData) {
+				try {
+					value = writeValue(scribe, property, context);
+				} catch (SkipMeException e) {
+					continue;
+				} catch (EmbeddedVCardException e) {
+					nestedVCard = e.getVCard();
+				}
 			}
 
-			VCardParameters parameters = scribe.prepareParameters(property, targetVersion, vcard);
+			VCardParameters parameters = prepared.getParameters();
 
 			if (nestedVCard != null) {
 				writeNestedVCard(nestedVCard, property, scribe, parameters, value);
@@ -337,7 +393,20 @@ public class VCardWriter extends StreamWriter implements Flushable {
 			handleLabelParameter(property, parameters);
 			handleQuotedPrintableEncodingParameter(property, parameters);
 
-			writer.writeProperty(property.getGroup(), scribe.getPropertyName(), new VObjectParameters(parameters.getMap()), value);
+			if (streamData) {
+				if (instrumentation == null) {
+					writeBinaryProperty(property, (BinaryPropertyScribe) scribe, parameters);
+				} else {
+					long start = System.nanoTime();
+					try {
+						writeBinaryProperty(property, (BinaryPropertyScribe) scribe, parameters);
+					} finally {
+						instrumentation.propertyWritten(scribe, System.nanoTime() - start);
+					}
+				}
+			} else {
+				writer.writeProperty(property.getGroup(), scribe.getPropertyName(), new VObjectParameters(parameters.getMap()), value);
+			}
 
 			fixBinaryPropertyForOutlook(property);
 		}
@@ -345,14 +414,40 @@ public class VCardWriter extends StreamWriter implements Flushable {
 		writer.writeEndComponent("VCARD");
 	}
 
+	/**
+	 * Writes a property value, reporting how long it took to the
+	 * instrumentation if instrumentation is enabled.
+	 * @param scribe the property's scribe
+	 * @param property the property
+	 * @param context the write context
+	 * @return the property value
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private String writeValue(VCardPropertyScribe scribe, VCardProperty property, WriteContext context) {
+		if (instrumentation == null) {
+			return scribe.writeText(property, context);
+		}
+
+		long start = System.nanoTime();
+		try {
+			return scribe.writeText(property, context);
+		} finally {
+			instrumentation.propertyWritten(scribe, System.nanoTime() - start);
+		}
+	}
+
 	@SuppressWarnings("rawtypes")
 	private void writeNestedVCard(VCard nestedVCard, VCardProperty property, VCardPropertyScribe scribe, VCardParameters parameters, String value) throws IOException {
+		if (instrumentation != null) {
+			instrumentation.nestedVCardWritten();
+		}
+
 		if (targetVersion == VCardVersion.V2_1) {
 			//write a nested vCard (2.1 style)
 			writer.writeProperty(property.getGroup(), scribe.getPropertyName(), new VObjectParameters(parameters.getMap()), value);
 			prodIdStack.add(addProdId);
 			addProdId = false;
-			write(nestedVCard);
+			_write(prepare(nestedVCard));
 			addProdId = prodIdStack.remove(prodIdStack.size() - 1);
 		} else {
 			//write an embedded vCard (3.0 style)
@@ -365,6 +460,7 @@ public class VCardWriter extends StreamWriter implements Flushable {
 				agentWriter.setScribeIndex(index);
 				agentWriter.setTargetApplication(targetApplication);
 				agentWriter.setVersionStrict(versionStrict);
+				copyInstrumentationTo(agentWriter);
 				agentWriter.write(nestedVCard);
 			} catch (IOException ignore) {
 				//should never be thrown because we're writing to a string
@@ -376,6 +472,41 @@ public class VCardWriter extends StreamWriter implements Flushable {
 		}
 	}
 
+	/**
+	 * Writes a property that contains binary data. The data is base64-encoded
+	 * straight to the output stream, instead of building a string that
+	 * contains the entire (potentially very large) property value.
+	 * @param property the property
+	 * @param scribe the property scribe
+	 * @param parameters the property parameters
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void writeBinaryProperty(VCardProperty property, BinaryPropertyScribe scribe, VCardParameters parameters) throws IOException {
+		/*
+		 * Let vinnie build everything that comes before the property value
+		 * (group, name, parameters) so that it is validated and escaped the
+		 * same way as the other properties.
+		 */
+		if (headerWriter == null) {
+			headerBuffer = new StringWriter();
+			headerWriter = new VObjectWriter(headerBuffer, writer.getSyntaxStyle());
+			headerWriter.getFoldedLineWriter().setLineLength(null);
+		}
+		headerBuffer.getBuffer().setLength(0);
+		headerWriter.setSyntaxStyle(writer.getSyntaxStyle());
+		headerWriter.setCaretEncodingEnabled(writer.isCaretEncodingEnabled());
+		headerWriter.writeProperty(property.getGroup(), scribe.getPropertyName(), new VObjectParameters(parameters.getMap()), "");
+
+		StringBuffer header = headerBuffer.getBuffer();
+		header.setLength(header.length() - 2); //remove the newline
+
+		FoldedLineWriter out = writer.getFoldedLineWriter();
+		out.write(header.toString());
+		scribe.writeData((BinaryProperty) property, targetVersion, out);
+		out.writeln();
+	}
+
 	/**
 	 * <p>
 	 * Sets the property's VALUE parameter. This method only adds a VALUE
@@ -472,7 +603,7 @@ public class VCardWriter extends StreamWriter implements Flushable {
 		}
 
 		BinaryProperty<?> binaryProperty = (BinaryProperty<?>) property;
-		if (binaryProperty.getData() == null) {
+		if (!binaryProperty.hasData()) {
 			//property value is not base64-encoded
 			return;
 		}
@@ -516,4 +647,17 @@ public class VCardWriter extends StreamWriter implements Flushable {
 	public void close() throws IOException {
 		writer.close();
 	}
+
+	/**
+	 * A writer whose underlying writer can be replaced.
+	 */
+	private static class SwappableWriter extends FilterWriter {
+		public SwappableWriter(Writer out) {
+			super(out);
+		}
+
+		public void setWriter(Writer out) {
+			this.out = out;
+		}
+	}
 }
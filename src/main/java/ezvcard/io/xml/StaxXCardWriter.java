@@ -0,0 +1,570 @@
+package ezvcard.io.xml;
+
+import static ezvcard.io.xml.XCardQNames.GROUP;
+import static ezvcard.io.xml.XCardQNames.PARAMETERS;
+import static ezvcard.io.xml.XCardQNames.VCARD;
+import static ezvcard.io.xml.XCardQNames.VCARDS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.Text;
+
+import ezvcard.VCard;
+import ezvcard.VCardDataType;
+import ezvcard.io.EmbeddedVCardException;
+import ezvcard.io.PreparedVCard;
+import ezvcard.io.PreparedVCard.PreparedProperty;
+import ezvcard.io.SkipMeException;
+import ezvcard.io.scribe.BinaryPropertyScribe;
+import ezvcard.io.scribe.VCardPropertyScribe;
+import ezvcard.parameter.VCardParameters;
+import ezvcard.property.BinaryProperty;
+import ezvcard.property.VCardProperty;
+import ezvcard.property.Xml;
+import ezvcard.util.ListMultimap;
+import ezvcard.util.XmlUtils;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Writes xCards (XML-encoded vCards) to a StAX {@link XMLStreamWriter}.
+ * </p>
+ * <p>
+ * This class produces the same output as {@link XCardWriter}, but it does not
+ * use a JAXP transformer. The scribes that come with this library write each
+ * property straight to the XML stream without building a DOM element. Custom
+ * scribes and {@link Xml} properties are written using a DOM element, as they
+ * are in {@link XCardWriter}.
+ * </p>
+ * <p>
+ * The output is never pretty-printed. Use {@link XCardWriter} if
+ * pretty-printing or other JAXP output properties are needed. Unlike
+ * {@link XCardWriter}, characters outside of the Basic Multilingual Plane (such
+ * as emoji) are written as-is instead of as character references.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ *
+ * <pre class="brush:java">
+ * VCard vcard1 = ...
+ * VCard vcard2 = ...
+ * Path file = Paths.get("vcards.xml");
+ * try (StaxXCardWriter writer = new StaxXCardWriter(file)) {
+ *   writer.write(vcard1);
+ *   writer.write(vcard2);
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ * @see <a href="http://tools.ietf.org/html/rfc6351">RFC 6351</a>
+ */
+public class StaxXCardWriter extends XCardWriterBase {
+	private final Document DOC = XmlUtils.createDocument();
+	private final String NS = targetVersion.getXmlNamespace();
+
+	private final XMLStreamWriter writer;
+	private final Closeable stream;
+	private final boolean writeDocument;
+	private boolean started = false;
+
+	/*
+	 * The start tag of the most recently started element is not written until
+	 * something is added to the element. This allows elements that have no
+	 * content to be written as empty elements (e.g. "<foo/>"), like
+	 * XCardWriter does.
+	 */
+	private String pendingNamespace, pendingLocalName;
+
+	/**
+	 * The attributes of the pending start element (namespace URI, prefix,
+	 * local name, and value of each attribute).
+	 */
+	private final List<String> pendingAttributes = new ArrayList<>();
+
+	/**
+	 * @param out the output stream to write to (UTF-8 encoding will be used)
+	 */
+	public StaxXCardWriter(OutputStream out) {
+		this(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param file the file to write to (UTF-8 encoding will be used)
+	 * @throws IOException if there is a problem opening the file
+	 */
+	public StaxXCardWriter(Path file) throws IOException {
+		this(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param writer the writer to write to
+	 */
+	public StaxXCardWriter(Writer writer) {
+		this(createXMLStreamWriter(writer), writer, true);
+	}
+
+	/**
+	 * Writes the xCards to an existing XML stream. A {@code <vcards>} element
+	 * is written to the stream, but the start and end of the XML document are
+	 * not, and the stream is not closed when this writer is closed.
+	 * @param writer the XML stream to write to
+	 */
+	public StaxXCardWriter(XMLStreamWriter writer) {
+		this(writer, null, false);
+	}
+
+	private StaxXCardWriter(XMLStreamWriter writer, Closeable stream, boolean writeDocument) {
+		this.writer = writer;
+		this.stream = stream;
+		this.writeDocument = writeDocument;
+	}
+
+	private static XMLStreamWriter createXMLStreamWriter(Writer writer) {
+		try {
+			return XmlUtils.createXMLStreamWriter(writer);
+		} catch (XMLStreamException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	protected void _write(PreparedVCard vcard) throws IOException {
+		try {
+			start();
+
+			ListMultimap<String, PreparedProperty> propertiesByGroup = new ListMultimap<>(); //group the types by group name (null = no group name)
+			for (PreparedProperty property : vcard.getProperties()) {
+				propertiesByGroup.put(property.getProperty().getGroup(), property);
+			}
+
+			start(VCARD);
+
+			for (Map.Entry<String, List<PreparedProperty>> entry : propertiesByGroup) {
+				String groupName = entry.getKey();
+				if (groupName != null) {
+					start(GROUP);
+					attribute(null, null, "name", groupName);
+				}
+
+				for (PreparedProperty property : entry.getValue()) {
+					write(property);
+				}
+
+				if (groupName != null) {
+					end();
+				}
+			}
+
+			end();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Writes the start of the XML document and the {@code <vcards>} element,
+	 * if they haven't been written yet.
+	 * @throws XMLStreamException if there's a problem writing to the stream
+	 */
+	private void start() throws XMLStreamException {
+		if (started) {
+			return;
+		}
+
+		if (writeDocument) {
+			writer.writeStartDocument("UTF-8", "1.0");
+		}
+		start(VCARDS);
+		started = true;
+	}
+
+	/**
+	 * Terminates the XML document and closes the output stream.
+	 */
+	public void close() throws IOException {
+		try {
+			start();
+			end();
+
+			if (writeDocument) {
+				writer.writeEndDocument();
+				writer.close();
+			} else {
+				writer.flush();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+
+		if (stream != null) {
+			stream.close();
+		}
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void write(PreparedProperty prepared) throws XMLStreamException {
+		VCardProperty property = prepared.getProperty();
+		VCardPropertyScribe scribe = prepared.getScribe();
+		VCardParameters parameters = prepared.getParameters();
+
+		removeUnsupportedParameters(parameters);
+
+		if (scribe instanceof BinaryPropertyScribe && ((BinaryPropertyScribe) scribe).canStreamXml((BinaryProperty) property)) {
+			writeBinaryProperty(property, (BinaryPropertyScribe) scribe, parameters);
+			return;
+		}
+
+		//get the property element to write
+		XCardElement propertyElement;
+		if (property instanceof Xml) {
+			Xml xml = (Xml) property;
+			Document value = xml.getValue();
+			if (value == null) {
+				return;
+			}
+			propertyElement = new XCardElement(value.getDocumentElement());
+		} else {
+			QName qname = scribe.getQName();
+			if (canStream(scribe)) {
+				//the standard scribes do not need a DOM element
+				StreamedElement streamed = new StreamedElement(qname.getNamespaceURI(), qname.getLocalPart(), null);
+				propertyElement = new XCardElement(streamed, DOC, targetVersion);
+			} else {
+				propertyElement = new XCardElement(DOC.createElementNS(qname.getNamespaceURI(), qname.getLocalPart()));
+			}
+
+			try {
+				scribe.writeXml(property, propertyElement);
+			} catch (SkipMeException e) {
+				return;
+			} catch (EmbeddedVCardException e) {
+				return;
+			}
+		}
+
+		StreamedElement streamed = propertyElement.streamed();
+		if (streamed != null) {
+			start(streamed.getNamespace(), streamed.getLocalName());
+			write(parameters);
+			write(streamed);
+			end();
+			return;
+		}
+
+		Element element = propertyElement.element();
+		start(element);
+		write(parameters);
+		write(element);
+		end();
+	}
+
+	/**
+	 * Writes a property that contains binary data. The data is streamed
+	 * directly to the XML document, instead of building a string that contains
+	 * the entire (potentially very large) data URI.
+	 * @param property the property
+	 * @param scribe the property's scribe
+	 * @param parameters the property's parameters
+	 * @throws XMLStreamException if there's a problem writing the property
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void writeBinaryProperty(VCardProperty property, BinaryPropertyScribe scribe, VCardParameters parameters) throws XMLStreamException {
+		QName qname = scribe.getQName();
+		start(qname.getNamespaceURI(), qname.getLocalPart());
+		write(parameters);
+		start(qname.getNamespaceURI(), VCardDataType.URI.getName().toLowerCase());
+
+		Writer out = new Writer() {
+			@Override
+			public void write(char[] cbuf, int off, int len) throws IOException {
+				if (len == 0) {
+					return;
+				}
+
+				try {
+					writeStartTag(false);
+					writer.writeCharacters(cbuf, off, len);
+				} catch (XMLStreamException e) {
+					throw new IOException(e);
+				}
+			}
+
+			@Override
+			public void flush() {
+				//empty
+			}
+
+			@Override
+			public void close() {
+				//empty
+			}
+		};
+
+		try {
+			scribe.writeData((BinaryProperty) property, targetVersion, out);
+		} catch (IOException e) {
+			Throwable cause = e.getCause();
+			throw (cause instanceof XMLStreamException) ? (XMLStreamException) cause : new XMLStreamException(e);
+		}
+
+		end();
+		end();
+	}
+
+	private void write(StreamedElement parent) throws XMLStreamException {
+		for (Object child : parent.getChildren()) {
+			if (child instanceof StreamedElement) {
+				StreamedElement element = (StreamedElement) child;
+				start(element.getNamespace(), element.getLocalName());
+
+				String[] attributes = element.getAttributes();
+				for (int i = 0; i < attributes.length; i += 2) {
+					attribute(null, null, attributes[i], attributes[i + 1]);
+				}
+
+				write(element);
+				end();
+				continue;
+			}
+
+			text((String) child);
+		}
+	}
+
+	private void write(Element parent) throws XMLStreamException {
+		NodeList children = parent.getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			Node child = children.item(i);
+
+			if (child instanceof Element) {
+				Element element = (Element) child;
+				start(element);
+				write(element);
+				end();
+				continue;
+			}
+
+			if (child instanceof Text) {
+				Text text = (Text) child;
+				text(text.getTextContent());
+				continue;
+			}
+		}
+	}
+
+	private void write(VCardParameters parameters) throws XMLStreamException {
+		if (parameters.isEmpty()) {
+			return;
+		}
+
+		start(PARAMETERS);
+
+		for (Map.Entry<String, List<String>> parameter : parameters) {
+			String parameterName = parameter.getKey().toLowerCase();
+			start(NS, parameterName);
+
+			for (String parameterValue : parameter.getValue()) {
+				VCardDataType dataType = parameterDataTypes.get(parameterName);
+				String dataTypeElementName = (dataType == null) ? "unknown" : dataType.getName().toLowerCase();
+
+				start(NS, dataTypeElementName);
+				text(parameterValue);
+				end();
+			}
+
+			end();
+		}
+
+		end();
+	}
+
+	private void start(Element element) throws XMLStreamException {
+		start(element.getNamespaceURI(), element.getLocalName());
+
+		NamedNodeMap attributes = element.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Node attribute = attributes.item(i);
+
+			String namespace = attribute.getNamespaceURI();
+			if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(namespace)) {
+				//namespace declaration
+				continue;
+			}
+
+			String localName = attribute.getLocalName();
+			if (localName == null) {
+				localName = attribute.getNodeName();
+			}
+
+			attribute(namespace, attribute.getPrefix(), localName, attribute.getNodeValue());
+		}
+	}
+
+	private void start(QName qname) throws XMLStreamException {
+		start(qname.getNamespaceURI(), qname.getLocalPart());
+	}
+
+	/**
+	 * Starts a new element. Elements are always written without a namespace
+	 * prefix. A default namespace declaration is added to the element if its
+	 * namespace is different from its parent element's namespace.
+	 * @param namespace the namespace URI (null or empty string for none)
+	 * @param localName the local name
+	 * @throws XMLStreamException if there's a problem writing to the stream
+	 */
+	private void start(String namespace, String localName) throws XMLStreamException {
+		writeStartTag(false);
+		pendingNamespace = (namespace == null) ? "" : namespace;
+		pendingLocalName = localName;
+	}
+
+	/**
+	 * Adds an attribute to the element that was just started.
+	 * @param namespace the namespace URI (null or empty string for none)
+	 * @param prefix the namespace prefix (null or empty string for none)
+	 * @param localName the local name
+	 * @param value the value
+	 */
+	private void attribute(String namespace, String prefix, String localName, String value) {
+		pendingAttributes.add(namespace);
+		pendingAttributes.add(prefix);
+		pendingAttributes.add(localName);
+		pendingAttributes.add(value);
+	}
+
+	/**
+	 * Ends the current element.
+	 * @throws XMLStreamException if there's a problem writing to the stream
+	 */
+	private void end() throws XMLStreamException {
+		if (pendingLocalName == null) {
+			writer.writeEndElement();
+		} else {
+			writeStartTag(true);
+		}
+	}
+
+	/**
+	 * Writes the start tag of the pending element, if there is one.
+	 * @param empty true to write it as an empty element, false to write it as
+	 * a start tag
+	 * @throws XMLStreamException if there's a problem writing to the stream
+	 */
+	private void writeStartTag(boolean empty) throws XMLStreamException {
+		if (pendingLocalName == null) {
+			return;
+		}
+
+		String namespace = pendingNamespace;
+		String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+		if (defaultNamespace == null) {
+			defaultNamespace = "";
+		}
+
+		if (empty) {
+			writer.writeEmptyElement(XMLConstants.DEFAULT_NS_PREFIX, pendingLocalName, namespace);
+		} else {
+			writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, pendingLocalName, namespace);
+		}
+		if (!namespace.equals(defaultNamespace)) {
+			writer.setDefaultNamespace(namespace);
+			writer.writeDefaultNamespace(namespace);
+		}
+
+		for (int i = 0; i < pendingAttributes.size(); i += 4) {
+			String attributeNamespace = pendingAttributes.get(i);
+			String prefix = pendingAttributes.get(i + 1);
+			String localName = pendingAttributes.get(i + 2);
+			String value = pendingAttributes.get(i + 3);
+
+			if (attributeNamespace == null || attributeNamespace.isEmpty()) {
+				writer.writeAttribute(localName, value);
+			} else {
+				writer.writeAttribute((prefix == null) ? "" : prefix, attributeNamespace, localName, value);
+			}
+		}
+
+		pendingNamespace = pendingLocalName = null;
+		pendingAttributes.clear();
+	}
+
+	/**
+	 * Writes a text node. Carriage returns are written as character
+	 * references so that they are not normalized into newlines when the
+	 * document is parsed.
+	 * @param text the text
+	 * @throws XMLStreamException if there's a problem writing to the stream
+	 */
+	private void text(String text) throws XMLStreamException {
+		if (text.isEmpty()) {
+			return;
+		}
+
+		writeStartTag(false);
+
+		int start = 0;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) != '\r') {
+				continue;
+			}
+
+			if (i > start) {
+				writer.writeCharacters(text.substring(start, i));
+			}
+			writer.writeEntityRef("#13");
+			start = i + 1;
+		}
+
+		if (start < text.length()) {
+			writer.writeCharacters((start == 0) ? text : text.substring(start));
+		}
+	}
+}
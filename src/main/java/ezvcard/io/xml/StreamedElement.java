@@ -0,0 +1,235 @@
+package ezvcard.io.xml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.Attributes;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * A lightweight copy of an XML element that is assembled from a stream of XML
+ * events.
+ * </p>
+ * <p>
+ * {@link XCardReader} uses this class to hold each property element while it
+ * is being read, so that property values can be parsed without building a DOM.
+ * A DOM version of the element is only created when something asks for it
+ * (see {@link #toElement}), such as the {@link ezvcard.property.Xml Xml}
+ * property's scribe or a custom scribe that works with the DOM directly.
+ * </p>
+ * @author Michael Angstadt
+ */
+class StreamedElement {
+	private static final String[] NO_ATTRIBUTES = {};
+
+	private final String namespace;
+	private final String localName;
+	private final String[] attributes;
+	private final StreamedElement parent;
+
+	/**
+	 * The child text nodes (as strings) and child elements, in document order.
+	 */
+	private final List<Object> children = new ArrayList<>(2);
+	private List<StreamedElement> childElements = Collections.emptyList();
+
+	/**
+	 * Creates an element that has no attributes.
+	 * @param namespace the namespace URI (empty string for none)
+	 * @param localName the local name
+	 * @param parent the parent element or null if this is the root element
+	 */
+	public StreamedElement(String namespace, String localName, StreamedElement parent) {
+		this.namespace = namespace;
+		this.localName = localName;
+		this.attributes = NO_ATTRIBUTES;
+		this.parent = parent;
+	}
+
+	/**
+	 * @param namespace the namespace URI (empty string for none)
+	 * @param localName the local name
+	 * @param attributes the element's attributes (namespace declarations are
+	 * ignored)
+	 * @param parent the parent element or null if this is the root element
+	 */
+	public StreamedElement(String namespace, String localName, Attributes attributes, StreamedElement parent) {
+		this.namespace = namespace;
+		this.localName = localName;
+		this.attributes = copyAttributes(attributes);
+		this.parent = parent;
+	}
+
+	private static String[] copyAttributes(Attributes attributes) {
+		int length = attributes.getLength();
+		if (length == 0) {
+			return NO_ATTRIBUTES;
+		}
+
+		List<String> copy = new ArrayList<>(length * 2);
+		for (int i = 0; i < length; i++) {
+			if (attributes.getQName(i).startsWith("xmlns:")) {
+				continue;
+			}
+
+			copy.add(attributes.getLocalName(i));
+			copy.add(attributes.getValue(i));
+		}
+		return copy.isEmpty() ? NO_ATTRIBUTES : copy.toArray(new String[0]);
+	}
+
+	/**
+	 * Gets the namespace URI.
+	 * @return the namespace URI (empty string for none)
+	 */
+	public String getNamespace() {
+		return namespace;
+	}
+
+	/**
+	 * Gets the local name.
+	 * @return the local name
+	 */
+	public String getLocalName() {
+		return localName;
+	}
+
+	/**
+	 * Gets the attributes.
+	 * @return the attribute names and values, in alternating order (e.g.
+	 * "name1", "value1", "name2", "value2")
+	 */
+	public String[] getAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * Gets the parent element.
+	 * @return the parent element or null if this is the root element
+	 */
+	public StreamedElement getParent() {
+		return parent;
+	}
+
+	/**
+	 * Gets the child elements.
+	 * @return the child elements
+	 */
+	public List<StreamedElement> getChildElements() {
+		return childElements;
+	}
+
+	/**
+	 * Gets the child nodes.
+	 * @return the child nodes, in document order (each node is either a
+	 * {@link StreamedElement} or a {@link String} that contains the text of a
+	 * text node)
+	 */
+	public List<Object> getChildren() {
+		return children;
+	}
+
+	/**
+	 * Adds a child element.
+	 * @param child the child element
+	 */
+	public void appendChild(StreamedElement child) {
+		if (childElements.isEmpty()) {
+			childElements = new ArrayList<>(2);
+		}
+		childElements.add(child);
+		children.add(child);
+	}
+
+	/**
+	 * Adds a text node.
+	 * @param text the text
+	 */
+	public void appendText(String text) {
+		children.add(text);
+	}
+
+	/**
+	 * Gets the text content of this element and all of its descendants (the
+	 * same value that {@link Element#getTextContent} returns).
+	 * @return the text content
+	 */
+	public String getTextContent() {
+		if (childElements.isEmpty()) {
+			switch (children.size()) {
+			case 0:
+				return "";
+			case 1:
+				return (String) children.get(0);
+			}
+		}
+
+		StringBuilder sb = new StringBuilder();
+		appendTextContent(sb);
+		return sb.toString();
+	}
+
+	private void appendTextContent(StringBuilder sb) {
+		for (Object child : children) {
+			if (child instanceof StreamedElement) {
+				((StreamedElement) child).appendTextContent(sb);
+			} else {
+				sb.append((String) child);
+			}
+		}
+	}
+
+	/**
+	 * Builds the DOM version of this element.
+	 * @param document the document to use to create the DOM nodes
+	 * @return the DOM element (it is not added to the document)
+	 */
+	public Element toElement(Document document) {
+		Element element = document.createElementNS(namespace, localName);
+		for (int i = 0; i < attributes.length; i += 2) {
+			element.setAttribute(attributes[i], attributes[i + 1]);
+		}
+
+		for (Object child : children) {
+			if (child instanceof StreamedElement) {
+				element.appendChild(((StreamedElement) child).toElement(document));
+			} else {
+				element.appendChild(document.createTextNode((String) child));
+			}
+		}
+
+		return element;
+	}
+}
@@ -1,6 +1,7 @@
 package ezvcard.io.xml;
 
 import static ezvcard.io.xml.XCardQNames.GROUP;
+import static ezvcard.io.xml.XCardQNames.NAMESPACE;
 import static ezvcard.io.xml.XCardQNames.PARAMETERS;
 import static ezvcard.io.xml.XCardQNames.VCARD;
 import static ezvcard.io.xml.XCardQNames.VCARDS;
@@ -18,34 +19,37 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import javax.xml.namespace.QName;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
+import org.w3c.dom.Text;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
 
+import ezvcard.Messages;
 import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.CannotParseException;
 import ezvcard.io.EmbeddedVCardException;
 import ezvcard.io.ParseWarning;
+import ezvcard.io.PreparedVCard;
+import ezvcard.io.PreparedVCard.PreparedProperty;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.StreamReader;
 import ezvcard.io.StreamWriter;
@@ -130,20 +134,38 @@ import ezvcard.util.XmlUtils;
 * //call one of the "write()" methods to output the xCard document
 * File file = new File("johndoe.xml");
 * xcard.write(file);
+* 
+* //writing a very large xCard document without holding it in memory
+* XCardDocument xcard = XCardDocument.streamTo(file);
+* for (VCard vcard : vcards) {
+*   xcard.addVCard(vcard); //the vCard is written to the file immediately
+* }
+* xcard.finish();
 * </pre>
 * @author Michael Angstadt
 * @see <a href="http://tools.ietf.org/html/rfc6351">RFC 6351</a>
 */
 //@formatter:on
 public class XCardDocument {
+	private static final QName UID = new QName(NAMESPACE, "uid");
+
 	private final VCardVersion version4 = VCardVersion.V4_0; //xCard only supports 4.0
 	private final Document document;
 	private Element vcardsRootElement;
+	private final StreamOutput streamOutput;
+	private final boolean ownsDocument;
+	private VCardIndex vcardIndex;
 
 	/**
 	 * Creates an empty xCard document.
 	 */
 	public XCardDocument() {
+		this((StreamOutput) null);
+	}
+
+	private XCardDocument(StreamOutput streamOutput) {
+		this.streamOutput = streamOutput;
+		ownsDocument = true;
 		document = XmlUtils.createDocument();
 		vcardsRootElement = document.createElementNS(VCARDS.getNamespaceURI(), VCARDS.getLocalPart());
 		document.appendChild(vcardsRootElement);
@@ -155,7 +177,7 @@ public class XCardDocument {
 	 * @throws SAXException if there's a problem parsing the XML
 	 */
 	public XCardDocument(String xml) throws SAXException {
-		this(XmlUtils.toDocument(xml));
+		this(XmlUtils.toDocument(xml), true);
 	}
 
 	/**
@@ -165,7 +187,7 @@ public class XCardDocument {
 	 * @throws SAXException if there's a problem parsing the XML
 	 */
 	public XCardDocument(InputStream in) throws SAXException, IOException {
-		this(XmlUtils.toDocument(in));
+		this(XmlUtils.toDocument(in), true);
 	}
 
 	/**
@@ -175,7 +197,7 @@ public class XCardDocument {
 	 * @throws SAXException if there's a problem parsing the XML
 	 */
 	public XCardDocument(Path file) throws SAXException, IOException {
-		this(XmlUtils.toDocument(file));
+		this(XmlUtils.toDocument(file), true);
 	}
 
 	/**
@@ -195,27 +217,134 @@ public class XCardDocument {
 	 * @throws SAXException if there's a problem parsing the XML
 	 */
 	public XCardDocument(Reader reader) throws SAXException, IOException {
-		this(XmlUtils.toDocument(reader));
+		this(XmlUtils.toDocument(reader), true);
 	}
 
 	/**
-	 * Wraps an existing XML DOM object.
+	 * Wraps an existing XML DOM object. Because the DOM may be modified
+	 * outside of this class, the vCards returned by {@link #getVCard(int)} are
+	 * not cached.
 	 * @param document the XML DOM that contains the xCard document
 	 */
 	public XCardDocument(Document document) {
+		this(document, false);
+	}
+
+	private XCardDocument(Document document, boolean ownsDocument) {
 		this.document = document;
+		this.streamOutput = null;
+		this.ownsDocument = ownsDocument;
+		vcardsRootElement = findVCardsElement(document);
+	}
 
-		XCardNamespaceContext nsContext = new XCardNamespaceContext(version4, "v");
-		XPath xpath = XPathFactory.newInstance().newXPath();
-		xpath.setNamespaceContext(nsContext);
+	/**
+	 * Finds the first {@code <vcards>} element in the document.
+	 * @param document the document
+	 * @return the element or null if not found
+	 */
+	private static Element findVCardsElement(Document document) {
+		Node root = document.getDocumentElement();
+		Node node = root;
+		while (node != null) {
+			if (node instanceof Element && XmlUtils.hasQName(node, VCARDS)) {
+				return (Element) node;
+			}
 
-		try {
-			//find the <vcards> element
-			vcardsRootElement = (Element) xpath.evaluate("//" + nsContext.getPrefix() + ":" + VCARDS.getLocalPart(), document, XPathConstants.NODE);
-		} catch (XPathExpressionException e) {
-			//should never thrown because the xpath expression is hard coded
-			throw new RuntimeException(e);
+			//visit the nodes in document order
+			Node next = node.getFirstChild();
+			while (next == null && node != root) {
+				next = node.getNextSibling();
+				if (next == null) {
+					node = node.getParentNode();
+				}
+			}
+			node = next;
 		}
+		return null;
+	}
+
+	/**
+	 * Creates an xCard document that writes each vCard to an output stream as
+	 * soon as it is added. See {@link #streamTo(Writer, Map)} for details.
+	 * @param out the output stream (UTF-8 encoding will be used)
+	 * @return the xCard document
+	 */
+	public static XCardDocument streamTo(OutputStream out) {
+		return streamTo(out, new XCardOutputProperties());
+	}
+
+	/**
+	 * Creates an xCard document that writes each vCard to an output stream as
+	 * soon as it is added. See {@link #streamTo(Writer, Map)} for details.
+	 * @param out the output stream (UTF-8 encoding will be used)
+	 * @param outputProperties properties to assign to the JAXP transformer (see
+	 * {@link Transformer#setOutputProperty})
+	 * @return the xCard document
+	 */
+	public static XCardDocument streamTo(OutputStream out, Map<String, String> outputProperties) {
+		return streamTo(new OutputStreamWriter(out, StandardCharsets.UTF_8), outputProperties);
+	}
+
+	/**
+	 * Creates an xCard document that writes each vCard to a file as soon as it
+	 * is added. See {@link #streamTo(Writer, Map)} for details.
+	 * @param file the file to write to (UTF-8 encoding will be used)
+	 * @return the xCard document
+	 * @throws IOException if there's a problem opening the file
+	 */
+	public static XCardDocument streamTo(Path file) throws IOException {
+		return streamTo(file, new XCardOutputProperties());
+	}
+
+	/**
+	 * Creates an xCard document that writes each vCard to a file as soon as it
+	 * is added. See {@link #streamTo(Writer, Map)} for details.
+	 * @param file the file to write to (UTF-8 encoding will be used)
+	 * @param outputProperties properties to assign to the JAXP transformer (see
+	 * {@link Transformer#setOutputProperty})
+	 * @return the xCard document
+	 * @throws IOException if there's a problem opening the file
+	 */
+	public static XCardDocument streamTo(Path file, Map<String, String> outputProperties) throws IOException {
+		return streamTo(Files.newBufferedWriter(file, StandardCharsets.UTF_8), outputProperties);
+	}
+
+	/**
+	 * Creates an xCard document that writes each vCard to a writer as soon as
+	 * it is added. See {@link #streamTo(Writer, Map)} for details.
+	 * @param writer the writer
+	 * @return the xCard document
+	 */
+	public static XCardDocument streamTo(Writer writer) {
+		return streamTo(writer, new XCardOutputProperties());
+	}
+
+	/**
+	 * <p>
+	 * Creates an xCard document that writes each vCard to a writer as soon as
+	 * it is added.
+	 * </p>
+	 * <p>
+	 * The vCards are added the same way as with any other xCard document
+	 * (using {@link #addVCard} or {@link #writer()}). Each {@code <vcard>}
+	 * element is written to the writer and then discarded, so only one vCard
+	 * is held in memory at a time. This means that the document returned by
+	 * {@link #getDocument} never contains any vCards, and the document cannot
+	 * be written out again with the {@code write()} methods.
+	 * </p>
+	 * <p>
+	 * When all of the vCards have been added, the {@link #finish} method must
+	 * be called to terminate the XML document and close the writer. Closing
+	 * an {@link XCardDocumentStreamWriter} object that was created by this
+	 * document does the same thing.
+	 * </p>
+	 * @param writer the writer
+	 * @param outputProperties properties to assign to the JAXP transformer (see
+	 * {@link Transformer#setOutputProperty})
+	 * @return the xCard document
+	 */
+	public static XCardDocument streamTo(Writer writer, Map<String, String> outputProperties) {
+		return new XCardDocument(new StreamOutput(writer, outputProperties));
 	}
 
 	/**
@@ -248,6 +377,7 @@ public class XCardDocument {
 	 * Parses all of the vCards from this XML document. Modifications made to
 	 * these {@link VCard} objects will NOT be applied to the XML document.
 	 * @return the parsed vCards
+	 * @see #getVCard(int)
 	 */
 	public List<VCard> getVCards() {
 		try {
@@ -258,6 +388,81 @@ public class XCardDocument {
 		}
 	}
 
+	/**
+	 * Gets the number of vCards in this XML document.
+	 * @return the number of vCards
+	 */
+	public int size() {
+		return vcardIndex().size();
+	}
+
+	/**
+	 * <p>
+	 * Gets a vCard from this XML document.
+	 * </p>
+	 * <p>
+	 * If this object created the XML document (or parsed it from a string,
+	 * stream, or file), the vCard is only parsed the first time it is
+	 * requested, and the same {@link VCard} object is returned on later calls.
+	 * Because the object is shared between calls, it must not be modified. Use
+	 * the {@link VCard#VCard(VCard) copy constructor} to get a copy that can be
+	 * modified. Modifications made to the {@link VCard} object will NOT be
+	 * applied to the XML document.
+	 * </p>
+	 * <p>
+	 * Adding or removing {@code <vcard>} elements through the DOM is taken
+	 * into account, but changes made inside of a {@code <vcard>} element
+	 * after it was parsed are not. To see such changes, replace the
+	 * {@code <vcard>} element instead of modifying it, or wrap the DOM in a
+	 * new {@link #XCardDocument(Document)} object, which does not cache.
+	 * </p>
+	 * @param index the index of the vCard (the vCards are in the same order as
+	 * their {@code <vcard>} elements)
+	 * @return the vCard
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public VCard getVCard(int index) {
+		return vcardIndex().get(index);
+	}
+
+	/**
+	 * <p>
+	 * Gets the vCard with the given UID.
+	 * </p>
+	 * <p>
+	 * The UIDs are read directly from the XML document, so only the vCard that
+	 * is returned is parsed. Caching works the same way as with
+	 * {@link #getVCard(int)}, so the returned object must not be modified.
+	 * </p>
+	 * @param uid the UID (see {@link VCard#getUid})
+	 * @return the vCard or null if not found (if more than one vCard has the
+	 * UID, the first one is returned)
+	 */
+	public VCard getVCardByUid(String uid) {
+		return vcardIndex().getByUid(uid);
+	}
+
+	private List<Element> getVCardElements() {
+		if (vcardsRootElement == null) {
+			return Collections.emptyList();
+		}
+
+		List<Element> elements = new ArrayList<>();
+		for (Node child = vcardsRootElement.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child instanceof Element && XmlUtils.hasQName(child, VCARD)) {
+				elements.add((Element) child);
+			}
+		}
+		return elements;
+	}
+
+	private VCardIndex vcardIndex() {
+		if (vcardIndex == null) {
+			vcardIndex = new VCardIndex();
+		}
+		return vcardIndex;
+	}
+
 	/**
 	 * Adds a vCard to the XML document.
 	 * @param vcard the vCard to add
@@ -268,6 +473,18 @@ public class XCardDocument {
 		writer().write(vcard);
 	}
 
+	/**
+	 * Terminates the XML document and closes the output stream. This method
+	 * only applies to documents that were created with one of the
+	 * {@code streamTo()} methods. It does nothing otherwise.
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	public void finish() throws IOException {
+		if (streamOutput != null) {
+			streamOutput.finish();
+		}
+	}
+
 	/**
 	 * Writes the XML document to a string.
 	 * @return the XML string
@@ -466,17 +683,12 @@ public class XCardDocument {
 	 * @throws TransformerException if there's a problem writing to the writer
 	 */
 	public void write(Writer writer, Map<String, String> outputProperties) throws TransformerException {
-		Transformer transformer;
-		try {
-			transformer = TransformerFactory.newInstance().newTransformer();
-		} catch (TransformerConfigurationException e) {
-			//should never be thrown because we're not doing anything fancy with the configuration
-			throw new RuntimeException(e);
-		} catch (TransformerFactoryConfigurationError e) {
-			//should never be thrown because we're not doing anything fancy with the configuration
-			throw new RuntimeException(e);
+		if (streamOutput != null) {
+			throw new IllegalStateException(Messages.INSTANCE.getExceptionMessage(47));
 		}
 
+		Transformer transformer = XmlUtils.newTransformer();
+
 		/*
 		 * Using Transformer#setOutputProperties(Properties) doesn't work for
 		 * some reason for setting the number of indentation spaces.
@@ -493,14 +705,19 @@ public class XCardDocument {
 	}
 
 	private class XCardDocumentStreamReader extends StreamReader {
-		private final Iterator<Element> vcardElements;
-		{
-			List<Element> list = (vcardsRootElement == null) ? Collections.<Element> emptyList() : getChildElements(vcardsRootElement, VCARD);
-			vcardElements = list.iterator();
-		}
-
+		private Iterator<Element> vcardElements = getVCardElements().iterator();
 		private VCard vcard;
 
+		/**
+		 * Parses a single {@code <vcard>} element.
+		 * @param vcardElement the element
+		 * @return the parsed vCard
+		 */
+		public VCard read(Element vcardElement) {
+			vcardElements = Collections.singletonList(vcardElement).iterator();
+			return readNext();
+		}
+
 		@Override
 		public VCard readNext() {
 			try {
@@ -624,16 +841,6 @@ public class XCardDocument {
 
 			return parameters;
 		}
-
-		private List<Element> getChildElements(Element parent, QName qname) {
-			List<Element> elements = new ArrayList<>();
-			for (Element child : XmlUtils.toElementList(parent.getChildNodes())) {
-				if (XmlUtils.hasQName(child, qname)) {
-					elements.add(child);
-				}
-			}
-			return elements;
-		}
 	}
 
 	public class XCardDocumentStreamWriter extends XCardWriterBase {
@@ -641,22 +848,33 @@ public class XCardDocument {
 		public void write(VCard vcard) {
 			try {
 				super.write(vcard);
-			} catch (IOException ignore) {
-				//won't be thrown because we're writing to a DOM
+			} catch (IOException e) {
+				//only thrown if the document is streaming to an output stream
+				throw new UncheckedIOException(e);
 			}
 		}
 
 		@Override
-		protected void _write(VCard vcard, List<VCardProperty> properties) throws IOException {
+		public void write(PreparedVCard vcard) {
+			try {
+				super.write(vcard);
+			} catch (IOException e) {
+				//only thrown if the document is streaming to an output stream
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		protected void _write(PreparedVCard vcard) throws IOException {
 			//group properties by group name (null = no group name)
-			ListMultimap<String, VCardProperty> propertiesByGroup = new ListMultimap<>();
-			for (VCardProperty property : properties) {
-				propertiesByGroup.put(property.getGroup(), property);
+			ListMultimap<String, PreparedProperty> propertiesByGroup = new ListMultimap<>();
+			for (PreparedProperty property : vcard.getProperties()) {
+				propertiesByGroup.put(property.getProperty().getGroup(), property);
 			}
 
 			//marshal each property object
 			Element vcardElement = createElement(VCARD);
-			for (Map.Entry<String, List<VCardProperty>> entry : propertiesByGroup) {
+			for (Map.Entry<String, List<PreparedProperty>> entry : propertiesByGroup) {
 				String groupName = entry.getKey();
 				Element parent;
 				if (groupName != null) {
@@ -668,9 +886,9 @@ public class XCardDocument {
 					parent = vcardElement;
 				}
 
-				for (VCardProperty property : entry.getValue()) {
+				for (PreparedProperty property : entry.getValue()) {
 					try {
-						Element propertyElement = marshalProperty(property, vcard);
+						Element propertyElement = marshalProperty(property);
 						parent.appendChild(propertyElement);
 					} catch (SkipMeException e) {
 						//skip property
@@ -680,7 +898,13 @@ public class XCardDocument {
 				}
 			}
 
+			if (streamOutput != null) {
+				streamOutput.write(vcardElement);
+				return;
+			}
+
 			if (vcardsRootElement == null) {
+				vcardIndex = null;
 				vcardsRootElement = createElement(VCARDS);
 				Element documentRoot = document.getDocumentElement();
 				if (documentRoot == null) {
@@ -690,21 +914,33 @@ public class XCardDocument {
 				}
 			}
 			vcardsRootElement.appendChild(vcardElement);
+			if (vcardIndex != null) {
+				vcardIndex.invalidate();
+			}
 		}
 
+		/**
+		 * Terminates the XML document and closes the output stream if the
+		 * document was created with one of the {@code streamTo()} methods. Does
+		 * nothing otherwise.
+		 */
 		public void close() {
-			//empty
+			try {
+				finish();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
 		}
 
 		/**
 		 * Marshals a type object to an XML element.
-		 * @param property the property to marshal
-		 * @param vcard the vcard the type belongs to
+		 * @param prepared the property to marshal
 		 * @return the XML element
 		 */
 		@SuppressWarnings({ "rawtypes", "unchecked" })
-		private Element marshalProperty(VCardProperty property, VCard vcard) {
-			VCardPropertyScribe scribe = index.getPropertyScribe(property);
+		private Element marshalProperty(PreparedProperty prepared) {
+			VCardProperty property = prepared.getProperty();
+			VCardPropertyScribe scribe = prepared.getScribe();
 
 			Element propertyElement;
 			if (property instanceof Xml) {
@@ -722,7 +958,7 @@ public class XCardDocument {
 			}
 
 			//marshal the parameters
-			VCardParameters parameters = scribe.prepareParameters(property, targetVersion, vcard);
+			VCardParameters parameters = prepared.getParameters();
 			removeUnsupportedParameters(parameters);
 			if (!parameters.isEmpty()) {
 				Element parametersElement = marshalParameters(parameters);
@@ -782,4 +1018,264 @@ public class XCardDocument {
 			return createElement(qname.getLocalPart(), qname.getNamespaceURI());
 		}
 	}
+
+	/**
+	 * <p>
+	 * Provides indexed access to the {@code <vcard>} elements and caches the
+	 * vCards that are parsed from them.
+	 * </p>
+	 * <p>
+	 * Nothing is cached if the DOM was passed in by the caller. Otherwise, the
+	 * index is checked each time it is used: it is rebuilt if the number of
+	 * child nodes of the {@code <vcards>} element changed or if the element
+	 * that was looked up is no longer a child of the {@code <vcards>}
+	 * element.
+	 * </p>
+	 */
+	private class VCardIndex {
+		private final boolean cache = ownsDocument;
+		private final Map<Element, VCard> vcards = new IdentityHashMap<>();
+		private final XCardDocumentStreamReader reader = new XCardDocumentStreamReader();
+		private List<Element> elements;
+		private Map<String, Element> elementsByUid;
+		private int childCount;
+
+		public int size() {
+			return elements().size();
+		}
+
+		public VCard get(int index) {
+			Element element = elements().get(index);
+			if (!isCurrent(element)) {
+				invalidate();
+				element = elements().get(index);
+			}
+			return parse(element);
+		}
+
+		public VCard getByUid(String uid) {
+			Element element = elementsByUid().get(uid);
+			if (element != null && !isCurrent(element)) {
+				invalidate();
+				element = elementsByUid().get(uid);
+			}
+			return (element == null) ? null : parse(element);
+		}
+
+		/**
+		 * Discards the index, but not the parsed vCards. Called when a
+		 * {@code <vcard>} element is added to the document.
+		 */
+		public void invalidate() {
+			elements = null;
+			elementsByUid = null;
+		}
+
+		private boolean isCurrent(Element element) {
+			return !cache || element.getParentNode() == vcardsRootElement;
+		}
+
+		private List<Element> elements() {
+			int childCount = (vcardsRootElement == null) ? 0 : vcardsRootElement.getChildNodes().getLength();
+			if (elements == null || !cache || childCount != this.childCount) {
+				elements = getVCardElements();
+				elementsByUid = null;
+				this.childCount = childCount;
+				vcards.keySet().retainAll(new HashSet<>(elements));
+			}
+			return elements;
+		}
+
+		private Map<String, Element> elementsByUid() {
+			List<Element> elements = elements();
+			if (elementsByUid == null || !cache) {
+				elementsByUid = new HashMap<>();
+				for (Element element : elements) {
+					String value = findUid(element);
+					if (value != null) {
+						elementsByUid.putIfAbsent(value, element);
+					}
+				}
+			}
+			return elementsByUid;
+		}
+
+		private VCard parse(Element element) {
+			if (!cache) {
+				return reader.read(element);
+			}
+			return vcards.computeIfAbsent(element, reader::read);
+		}
+
+		/**
+		 * Gets the value of a {@code <vcard>} element's first UID property
+		 * without parsing the vCard.
+		 * @param vcardElement the {@code <vcard>} element
+		 * @return the UID or null if not found
+		 */
+		private String findUid(Element vcardElement) {
+			for (Node child = vcardElement.getFirstChild(); child != null; child = child.getNextSibling()) {
+				if (XmlUtils.hasQName(child, UID)) {
+					return uidValue((Element) child);
+				}
+
+				if (XmlUtils.hasQName(child, GROUP)) {
+					for (Node grandChild = child.getFirstChild(); grandChild != null; grandChild = grandChild.getNextSibling()) {
+						if (XmlUtils.hasQName(grandChild, UID)) {
+							return uidValue((Element) grandChild);
+						}
+					}
+				}
+			}
+			return null;
+		}
+
+		private String uidValue(Element uidElement) {
+			String valueElementName = VCardDataType.URI.getName().toLowerCase();
+			for (Node child = uidElement.getFirstChild(); child != null; child = child.getNextSibling()) {
+				if (child instanceof Element && valueElementName.equals(child.getLocalName()) && UID.getNamespaceURI().equals(child.getNamespaceURI())) {
+					return child.getTextContent();
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Writes {@code <vcard>} elements to an output stream as they are created,
+	 * so that they don't have to be added to the DOM.
+	 */
+	private static class StreamOutput {
+		private final Writer writer;
+		private final TransformerHandler handler;
+		private boolean started = false, finished = false;
+
+		public StreamOutput(Writer writer, Map<String, String> outputProperties) {
+			this.writer = writer;
+
+			handler = XmlUtils.newTransformerHandler();
+
+			/*
+			 * Using Transformer#setOutputProperties(Properties) doesn't work for
+			 * some reason for setting the number of indentation spaces.
+			 */
+			Transformer transformer = handler.getTransformer();
+			for (Map.Entry<String, String> entry : outputProperties.entrySet()) {
+				String key = entry.getKey();
+				String value = entry.getValue();
+				transformer.setOutputProperty(key, value);
+			}
+
+			handler.setResult(new StreamResult(writer));
+		}
+
+		/**
+		 * Writes a {@code <vcard>} element to the output stream.
+		 * @param vcardElement the element
+		 * @throws IOException if there's a problem writing to the output stream
+		 * @throws IllegalStateException if the document has been finished
+		 */
+		public void write(Element vcardElement) throws IOException {
+			if (finished) {
+				throw new IllegalStateException(Messages.INSTANCE.getExceptionMessage(48));
+			}
+
+			try {
+				start();
+				write((Node) vcardElement);
+			} catch (SAXException e) {
+				throw new IOException(e);
+			}
+		}
+
+		/**
+		 * Terminates the XML document and closes the output stream.
+		 * @throws IOException if there's a problem writing to the output stream
+		 */
+		public void finish() throws IOException {
+			if (finished) {
+				return;
+			}
+
+			try {
+				start();
+				handler.endElement(VCARDS.getNamespaceURI(), VCARDS.getLocalPart(), VCARDS.getLocalPart());
+				handler.endPrefixMapping("");
+				handler.endDocument();
+			} catch (SAXException e) {
+				throw new IOException(e);
+			} finally {
+				finished = true;
+			}
+
+			writer.close();
+		}
+
+		private void start() throws SAXException {
+			if (started) {
+				return;
+			}
+
+			handler.startDocument();
+			handler.startPrefixMapping("", VCARDS.getNamespaceURI());
+			handler.startElement(VCARDS.getNamespaceURI(), VCARDS.getLocalPart(), VCARDS.getLocalPart(), new AttributesImpl());
+			started = true;
+		}
+
+		private void write(Node node) throws SAXException {
+			if (node instanceof Text) {
+				String text = node.getNodeValue();
+				handler.characters(text.toCharArray(), 0, text.length());
+				return;
+			}
+
+			if (!(node instanceof Element)) {
+				return;
+			}
+
+			List<String> prefixes = Collections.emptyList();
+			AttributesImpl attributes = new AttributesImpl();
+			NamedNodeMap attributeNodes = node.getAttributes();
+			for (int i = 0; i < attributeNodes.getLength(); i++) {
+				Node attribute = attributeNodes.item(i);
+				String qname = attribute.getNodeName();
+
+				if (qname.equals("xmlns") || qname.startsWith("xmlns:")) {
+					String prefix = qname.equals("xmlns") ? "" : qname.substring("xmlns:".length());
+					handler.startPrefixMapping(prefix, attribute.getNodeValue());
+					if (prefixes.isEmpty()) {
+						prefixes = new ArrayList<>(1);
+					}
+					prefixes.add(prefix);
+					continue;
+				}
+
+				attributes.addAttribute(namespace(attribute), localName(attribute), qname, "CDATA", attribute.getNodeValue());
+			}
+
+			String namespace = namespace(node);
+			String localName = localName(node);
+			String qname = node.getNodeName();
+			handler.startElement(namespace, localName, qname, attributes);
+
+			for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+				write(child);
+			}
+
+			handler.endElement(namespace, localName, qname);
+			for (String prefix : prefixes) {
+				handler.endPrefixMapping(prefix);
+			}
+		}
+
+		private static String namespace(Node node) {
+			String namespace = node.getNamespaceURI();
+			return (namespace == null) ? "" : namespace;
+		}
+
+		private static String localName(Node node) {
+			String localName = node.getLocalName();
+			return (localName == null) ? node.getNodeName() : localName;
+		}
+	}
 }
@@ -48,10 +48,16 @@ import ezvcard.util.XmlUtils;
  */
 public class XCardElement {
 	private final Document document;
-	private final Element element;
+	private Element element;
 	private final VCardVersion version;
 	private final String namespace;
 
+	/**
+	 * The streamed copy of the element, or null if this object wraps a DOM
+	 * element. The DOM element is only built if it is requested.
+	 */
+	private StreamedElement streamed;
+
 	/**
 	 * Wraps an existing XML element.
 	 * @param element the XML element
@@ -72,6 +78,20 @@ public class XCardElement {
 		namespace = version.getXmlNamespace();
 	}
 
+	/**
+	 * Wraps an element that was read from a stream of XML events.
+	 * @param streamed the element
+	 * @param document the document to use if a DOM version of the element
+	 * needs to be built
+	 * @param version the vCard version
+	 */
+	XCardElement(StreamedElement streamed, Document document, VCardVersion version) {
+		this.document = document;
+		this.streamed = streamed;
+		this.version = version;
+		namespace = version.getXmlNamespace();
+	}
+
 	/**
 	 * Gets the first value with one of the given data types.
 	 * @param dataTypes the data type(s) to look for (null signifies the
@@ -94,6 +114,15 @@ public class XCardElement {
 	 */
 	public String first(String... names) {
 		List<String> localNamesList = Arrays.asList(names);
+		if (streamed != null) {
+			for (StreamedElement child : streamed.getChildElements()) {
+				if (localNamesList.contains(child.getLocalName()) && namespace.equals(child.getNamespace())) {
+					return child.getTextContent();
+				}
+			}
+			return null;
+		}
+
 		for (Element child : children()) {
 			if (localNamesList.contains(child.getLocalName()) && namespace.equals(child.getNamespaceURI())) {
 				return child.getTextContent();
@@ -119,6 +148,18 @@ public class XCardElement {
 	 */
 	public List<String> all(String localName) {
 		List<String> childrenText = new ArrayList<>();
+		if (streamed != null) {
+			for (StreamedElement child : streamed.getChildElements()) {
+				if (localName.equals(child.getLocalName()) && namespace.equals(child.getNamespace())) {
+					String text = child.getTextContent();
+					if (text.length() > 0) {
+						childrenText.add(text);
+					}
+				}
+			}
+			return childrenText;
+		}
+
 		for (Element child : children()) {
 			if (localName.equals(child.getLocalName()) && namespace.equals(child.getNamespaceURI())) {
 				String text = child.getTextContent();
@@ -134,7 +175,8 @@ public class XCardElement {
 	 * Adds a value.
 	 * @param dataType the data type or null for the "unknown" data type
 	 * @param value the value
-	 * @return the created element
+	 * @return the created element or null if this object is not backed by a
+	 * DOM element (see {@link #element()})
 	 */
 	public Element append(VCardDataType dataType, String value) {
 		String dataTypeStr = toLocalName(dataType);
@@ -145,9 +187,19 @@ public class XCardElement {
 	 * Adds a child element.
 	 * @param name the name of the child element
 	 * @param value the value of the child element.
-	 * @return the created element
+	 * @return the created element or null if this object is not backed by a
+	 * DOM element (see {@link #element()})
 	 */
 	public Element append(String name, String value) {
+		if (streamed != null) {
+			StreamedElement child = new StreamedElement(namespace, name, streamed);
+			if (value != null && !value.isEmpty()) {
+				child.appendText(value);
+			}
+			streamed.appendChild(child);
+			return null;
+		}
+
 		Element child = document.createElementNS(namespace, name);
 		child.setTextContent(value);
 		element.appendChild(child);
@@ -158,9 +210,20 @@ public class XCardElement {
 	 * Adds multiple child elements, each with the same name.
 	 * @param name the name for all the child elements
 	 * @param values the values of each child element
-	 * @return the created elements
+	 * @return the created elements or an empty list if this object is not
+	 * backed by a DOM element (see {@link #element()})
 	 */
 	public List<Element> append(String name, Collection<String> values) {
+		if (streamed != null) {
+			if (values.isEmpty()) {
+				append(name, (String) null);
+			}
+			for (String value : values) {
+				append(name, value);
+			}
+			return Collections.emptyList();
+		}
+
 		if (values.isEmpty()) {
 			Element element = append(name, (String) null);
 			return Collections.singletonList(element);
@@ -182,13 +245,28 @@ public class XCardElement {
 	}
 
 	/**
-	 * Gets the wrapped XML element.
+	 * Gets the wrapped XML element. If this object wraps a streamed element,
+	 * the DOM version of the element is built the first time this method is
+	 * called.
 	 * @return the wrapped XML element
 	 */
 	public Element element() {
+		if (streamed != null) {
+			element = streamed.toElement(document);
+			streamed = null;
+		}
 		return element;
 	}
 
+	/**
+	 * Gets the streamed element that this object wraps.
+	 * @return the streamed element or null if this object is backed by a DOM
+	 * element
+	 */
+	StreamedElement streamed() {
+		return streamed;
+	}
+
 	/**
 	 * Gets the vCard version.
 	 * @return the vCard version
@@ -214,6 +292,18 @@ public class XCardElement {
 	 */
 	public XCardValue firstValue() {
 		String elementNamespace = version.getXmlNamespace();
+		if (streamed != null) {
+			for (StreamedElement child : streamed.getChildElements()) {
+				if (elementNamespace.equals(child.getNamespace())) {
+					VCardDataType dataType = toDataType(child.getLocalName());
+					String value = child.getTextContent();
+					return new XCardValue(dataType, value);
+				}
+			}
+
+			return new XCardValue(null, streamed.getTextContent());
+		}
+
 		for (Element child : children()) {
 			String childNamespace = child.getNamespaceURI();
 			if (elementNamespace.equals(childNamespace)) {
@@ -15,26 +15,18 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 
+import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
-import javax.xml.transform.ErrorListener;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.sax.SAXResult;
-import javax.xml.transform.stream.StreamSource;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
+import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.xml.sax.Attributes;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.AttributesImpl;
 
 import ezvcard.VCard;
 import ezvcard.VCardVersion;
@@ -104,16 +96,14 @@ public class XCardReader extends StreamReader {
 	private final VCardVersion version = VCardVersion.V4_0;
 	private final String NS = version.getXmlNamespace();
 
-	private final Source source;
+	private final InputStream in;
+	private final Reader reader;
+	private final Node node;
 	private final Closeable stream;
 
-	private volatile VCard readVCard;
-	private volatile TransformerException thrown;
-
-	private final ReadThread thread = new ReadThread();
-	private final Object lock = new Object();
-	private final BlockingQueue<Object> readerBlock = new ArrayBlockingQueue<>(1);
-	private final BlockingQueue<Object> threadBlock = new ArrayBlockingQueue<>(1);
+	private final ElementHandler handler = new ElementHandler();
+	private EventReader eventReader;
+	private boolean finished = false;
 
 	/**
 	 * @param xml the XML to read from
@@ -126,8 +116,7 @@ public class XCardReader extends StreamReader {
 	 * @param in the input stream to read from
 	 */
 	public XCardReader(InputStream in) {
-		source = new StreamSource(in);
-		stream = in;
+		this(in, null, null);
 	}
 
 	/**
@@ -142,110 +131,227 @@ public class XCardReader extends StreamReader {
 	 * @param reader the reader to read from
 	 */
 	public XCardReader(Reader reader) {
-		source = new StreamSource(reader);
-		stream = reader;
+		this(null, reader, null);
 	}
 
 	/**
 	 * @param node the DOM node to read from
 	 */
 	public XCardReader(Node node) {
-		source = new DOMSource(node);
-		stream = null;
+		this(null, null, node);
+	}
+
+	private XCardReader(InputStream in, Reader reader, Node node) {
+		this.in = in;
+		this.reader = reader;
+		this.node = node;
+		stream = (in == null) ? reader : in;
 	}
 
 	@Override
 	protected VCard _readNext() throws IOException {
-		readVCard = null;
-		thrown = null;
+		if (finished) {
+			return null;
+		}
+
 		context.setVersion(version);
+		handler.readVCard = null;
+		handler.vcardComplete = false;
 
-		if (!thread.started) {
-			thread.start();
-		} else {
-			if (thread.finished || thread.closed) {
-				return null;
+		try {
+			if (eventReader == null) {
+				eventReader = createEventReader();
 			}
 
-			try {
-				threadBlock.put(lock);
-			} catch (InterruptedException e) {
-				return null;
+			while (!handler.vcardComplete) {
+				if (!eventReader.next()) {
+					finished = true;
+					return null;
+				}
 			}
+		} catch (XMLStreamException e) {
+			finished = true;
+			throw new IOException(e);
 		}
 
-		//wait until thread reads xCard
-		try {
-			readerBlock.take();
-		} catch (InterruptedException e) {
-			return null;
-		}
+		return handler.readVCard;
+	}
 
-		if (thrown != null) {
-			throw new IOException(thrown);
+	private EventReader createEventReader() throws XMLStreamException {
+		if (node != null) {
+			return new DomEventReader(node);
 		}
 
-		return readVCard;
+		XMLStreamReader xmlReader = (in == null) ? XmlUtils.createXMLStreamReader(reader) : XmlUtils.createXMLStreamReader(in);
+		return new StaxEventReader(xmlReader);
 	}
 
-	private class ReadThread extends Thread {
-		private final SAXResult result;
-		private final Transformer transformer;
-		private volatile boolean finished = false, started = false, closed = false;
+	/**
+	 * Feeds XML events into the {@link ElementHandler}, one at a time.
+	 */
+	private interface EventReader {
+		/**
+		 * Reads the next XML event and passes it to the handler.
+		 * @return false if the end of the document has been reached, true if
+		 * not
+		 * @throws XMLStreamException if there's a problem reading the XML
+		 */
+		boolean next() throws XMLStreamException;
+	}
 
-		public ReadThread() {
-			setName(getClass().getSimpleName());
+	/**
+	 * Pulls XML events from a StAX stream reader.
+	 */
+	private class StaxEventReader implements EventReader {
+		private final XMLStreamReader xmlReader;
+		private final AttributesImpl attributes = new AttributesImpl();
 
-			//create the transformer
-			try {
-				TransformerFactory factory = TransformerFactory.newInstance();
-				XmlUtils.applyXXEProtection(factory);
+		public StaxEventReader(XMLStreamReader xmlReader) {
+			this.xmlReader = xmlReader;
+		}
 
-				transformer = factory.newTransformer();
-			} catch (TransformerConfigurationException e) {
-				//shouldn't be thrown because it's a simple configuration
-				throw new RuntimeException(e);
+		public boolean next() throws XMLStreamException {
+			if (!xmlReader.hasNext()) {
+				xmlReader.close();
+				return false;
 			}
 
-			//prevent error messages from being printed to stderr
-			transformer.setErrorListener(new NoOpErrorListener());
+			switch (xmlReader.next()) {
+			case XMLStreamReader.START_ELEMENT:
+				attributes.clear();
+				for (int i = 0; i < xmlReader.getAttributeCount(); i++) {
+					String prefix = xmlReader.getAttributePrefix(i);
+					String localName = xmlReader.getAttributeLocalName(i);
+					String qname = (prefix == null || prefix.isEmpty()) ? localName : prefix + ":" + localName;
+					attributes.addAttribute(nullToEmpty(xmlReader.getAttributeNamespace(i)), localName, qname, "CDATA", xmlReader.getAttributeValue(i));
+				}
+				handler.startElement(nullToEmpty(xmlReader.getNamespaceURI()), xmlReader.getLocalName(), attributes);
+				break;
+
+			case XMLStreamReader.END_ELEMENT:
+				handler.endElement(nullToEmpty(xmlReader.getNamespaceURI()), xmlReader.getLocalName());
+				break;
+
+			case XMLStreamReader.CHARACTERS:
+			case XMLStreamReader.CDATA:
+			case XMLStreamReader.SPACE:
+				handler.characters(xmlReader.getTextCharacters(), xmlReader.getTextStart(), xmlReader.getTextLength());
+				break;
+			}
+
+			return true;
+		}
+	}
 
-			result = new SAXResult(new ContentHandlerImpl());
+	/**
+	 * Walks a DOM tree in document order, one node at a time.
+	 */
+	private class DomEventReader implements EventReader {
+		private final Node root;
+		private final AttributesImpl attributes = new AttributesImpl();
+		private Node next;
+		private boolean entering = true;
+
+		public DomEventReader(Node root) {
+			this.root = root;
+			next = root;
 		}
 
-		@Override
-		public void run() {
-			started = true;
+		public boolean next() {
+			if (next == null) {
+				return false;
+			}
 
-			try {
-				transformer.transform(source, result);
-			} catch (TransformerException e) {
-				if (!thread.closed) {
-					thrown = e;
+			Node cur = next;
+			if (entering) {
+				enter(cur);
+
+				Node child = cur.getFirstChild();
+				if (child == null) {
+					entering = false;
+				} else {
+					next = child;
 				}
-			} finally {
-				finished = true;
-				try {
-					readerBlock.put(lock);
-				} catch (InterruptedException e) {
-					//ignore
+				return true;
+			}
+
+			exit(cur);
+
+			if (cur == root) {
+				next = null;
+				return true;
+			}
+
+			Node sibling = cur.getNextSibling();
+			if (sibling == null) {
+				next = cur.getParentNode();
+			} else {
+				next = sibling;
+				entering = true;
+			}
+			return true;
+		}
+
+		private void enter(Node node) {
+			switch (node.getNodeType()) {
+			case Node.ELEMENT_NODE:
+				attributes.clear();
+				NamedNodeMap attrs = node.getAttributes();
+				for (int i = 0; i < attrs.getLength(); i++) {
+					Attr attr = (Attr) attrs.item(i);
+					if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI())) {
+						//namespace declaration
+						continue;
+					}
+					attributes.addAttribute(nullToEmpty(attr.getNamespaceURI()), localName(attr), attr.getName(), "CDATA", attr.getValue());
 				}
+				handler.startElement(nullToEmpty(node.getNamespaceURI()), localName(node), attributes);
+				break;
+
+			case Node.TEXT_NODE:
+			case Node.CDATA_SECTION_NODE:
+				char[] text = node.getNodeValue().toCharArray();
+				handler.characters(text, 0, text.length);
+				break;
+			}
+		}
+
+		private void exit(Node node) {
+			if (node.getNodeType() == Node.ELEMENT_NODE) {
+				handler.endElement(nullToEmpty(node.getNamespaceURI()), localName(node));
 			}
 		}
+
+		private String localName(Node node) {
+			String localName = node.getLocalName();
+			return (localName == null) ? node.getNodeName() : localName;
+		}
+	}
+
+	private static String nullToEmpty(String s) {
+		return (s == null) ? "" : s;
 	}
 
-	private class ContentHandlerImpl extends DefaultHandler {
+	private class ElementHandler {
 		private final Document DOC = XmlUtils.createDocument();
 		private final XCardStructure structure = new XCardStructure();
 		private final ClearableStringBuilder characterBuffer = new ClearableStringBuilder();
 
+		private VCard readVCard;
+		private boolean vcardComplete;
+
+		/**
+		 * The depth of the element that is being skipped over because of the
+		 * property filter, or zero if no element is being skipped.
+		 */
+		private int skipDepth;
+
 		private String group;
-		private Element propertyElement, parent;
+		private StreamedElement propertyElement, parent;
 		private QName paramName;
 		private VCardParameters parameters;
 
-		@Override
-		public void characters(char[] buffer, int start, int length) throws SAXException {
+		public void characters(char[] buffer, int start, int length) {
 			/*
 			 * Ignore all text nodes that are outside of a property element. All
 			 * valid text nodes will be inside of property elements (parameter
@@ -258,8 +364,12 @@ public class XCardReader extends StreamReader {
 			characterBuffer.append(buffer, start, length);
 		}
 
-		@Override
-		public void startElement(String namespace, String localName, String qName, Attributes attributes) throws SAXException {
+		public void startElement(String namespace, String localName, Attributes attributes) {
+			if (skipDepth > 0) {
+				skipDepth++;
+				return;
+			}
+
 			QName qname = new QName(namespace, localName);
 			String textContent = characterBuffer.getAndClear();
 
@@ -290,8 +400,11 @@ public class XCardReader extends StreamReader {
 					if (GROUP.equals(qname)) {
 						group = attributes.getValue("name");
 						typeToPush = ElementType.group;
+					} else if (isFilteredOut(qname)) {
+						skipDepth = 1;
+						return;
 					} else {
-						propertyElement = createElement(namespace, localName, attributes);
+						propertyElement = new StreamedElement(namespace, localName, attributes, null);
 						parameters = new VCardParameters();
 						parent = propertyElement;
 						typeToPush = ElementType.property;
@@ -299,7 +412,12 @@ public class XCardReader extends StreamReader {
 					break;
 
 				case group:
-					propertyElement = createElement(namespace, localName, attributes);
+					if (isFilteredOut(qname)) {
+						skipDepth = 1;
+						return;
+					}
+
+					propertyElement = new StreamedElement(namespace, localName, attributes, null);
 					parameters = new VCardParameters();
 					parent = propertyElement;
 					typeToPush = ElementType.property;
@@ -335,9 +453,9 @@ public class XCardReader extends StreamReader {
 			//append to property element
 			if (propertyElement != null && typeToPush != ElementType.property && typeToPush != ElementType.parameters && !structure.isUnderParameters()) {
 				if (textContent.length() > 0) {
-					parent.appendChild(DOC.createTextNode(textContent));
+					parent.appendText(textContent);
 				}
-				Element element = createElement(namespace, localName, attributes);
+				StreamedElement element = new StreamedElement(namespace, localName, attributes, parent);
 				parent.appendChild(element);
 				parent = element;
 			}
@@ -345,8 +463,12 @@ public class XCardReader extends StreamReader {
 			structure.push(typeToPush);
 		}
 
-		@Override
-		public void endElement(String namespace, String localName, String qName) throws SAXException {
+		public void endElement(String namespace, String localName) {
+			if (skipDepth > 0) {
+				skipDepth--;
+				return;
+			}
+
 			String textContent = characterBuffer.getAndClear();
 
 			if (structure.isEmpty()) {
@@ -375,17 +497,26 @@ public class XCardReader extends StreamReader {
 					break;
 
 				case property:
-					propertyElement.appendChild(DOC.createTextNode(textContent));
+					if (textContent.length() > 0) {
+						propertyElement.appendText(textContent);
+					}
 
 					String propertyName = localName;
 					VCardProperty property;
-					QName propertyQName = new QName(propertyElement.getNamespaceURI(), propertyElement.getLocalName());
+					QName propertyQName = new QName(propertyElement.getNamespace(), propertyElement.getLocalName());
 					VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(propertyQName);
 
+					/*
+					 * The standard scribes parse the value straight from the
+					 * streamed element. A DOM element is only built if the
+					 * scribe asks for one (e.g. the Xml scribe).
+					 */
+					XCardElement element = new XCardElement(propertyElement, DOC, version);
+
 					context.getWarnings().clear();
 					context.setPropertyName(propertyName);
 					try {
-						property = scribe.parseXml(propertyElement, parameters, context);
+						property = scribe.parseXml(element, parameters, context);
 						property.setGroup(group);
 						readVCard.addProperty(property);
 						warnings.addAll(context.getWarnings());
@@ -405,7 +536,7 @@ public class XCardReader extends StreamReader {
 						//@formatter:on
 
 						scribe = index.getPropertyScribe(Xml.class);
-						property = scribe.parseXml(propertyElement, parameters, context);
+						property = scribe.parseXml(element, parameters, context);
 						property.setGroup(group);
 						readVCard.addProperty(property);
 					} catch (EmbeddedVCardException e) {
@@ -425,13 +556,8 @@ public class XCardReader extends StreamReader {
 					break;
 
 				case vcard:
-					//wait for readNext() to be called again
-					try {
-						readerBlock.put(lock);
-						threadBlock.take();
-					} catch (InterruptedException e) {
-						throw new SAXException(e);
-					}
+					//hand the vCard back to readNext()
+					vcardComplete = true;
 					break;
 
 				case vcards:
@@ -443,28 +569,9 @@ public class XCardReader extends StreamReader {
 			//append element to property element
 			if (propertyElement != null && type != ElementType.property && type != ElementType.parameters && !structure.isUnderParameters()) {
 				if (textContent.length() > 0) {
-					parent.appendChild(DOC.createTextNode(textContent));
-				}
-				parent = (Element) parent.getParentNode();
-			}
-		}
-
-		private Element createElement(String namespace, String localName, Attributes attributes) {
-			Element element = DOC.createElementNS(namespace, localName);
-			applyAttributesTo(element, attributes);
-			return element;
-		}
-
-		private void applyAttributesTo(Element element, Attributes attributes) {
-			for (int i = 0; i < attributes.getLength(); i++) {
-				String qname = attributes.getQName(i);
-				if (qname.startsWith("xmlns:")) {
-					continue;
+					parent.appendText(textContent);
 				}
-
-				String name = attributes.getLocalName(i);
-				String value = attributes.getValue(i);
-				element.setAttribute(name, value);
+				parent = parent.getParent();
 			}
 		}
 	}
@@ -547,31 +654,11 @@ public class XCardReader extends StreamReader {
 		}
 	}
 
-	/**
-	 * An implementation of {@link ErrorListener} that doesn't do anything.
-	 */
-	private static class NoOpErrorListener implements ErrorListener {
-		public void error(TransformerException e) {
-			//do nothing
-		}
-
-		public void fatalError(TransformerException e) {
-			//do nothing
-		}
-
-		public void warning(TransformerException e) {
-			//do nothing
-		}
-	}
-
 	/**
 	 * Closes the underlying input stream.
 	 */
 	public void close() throws IOException {
-		if (thread.isAlive()) {
-			thread.closed = true;
-			thread.interrupt();
-		}
+		finished = true;
 
 		if (stream != null) {
 			stream.close();
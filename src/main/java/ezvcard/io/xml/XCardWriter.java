@@ -19,10 +19,7 @@ import java.util.Map;
 import javax.xml.namespace.QName;
 import javax.xml.transform.Result;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMResult;
-import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 
@@ -39,9 +36,13 @@ import org.xml.sax.helpers.AttributesImpl;
 import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.io.EmbeddedVCardException;
+import ezvcard.io.PreparedVCard;
+import ezvcard.io.PreparedVCard.PreparedProperty;
 import ezvcard.io.SkipMeException;
+import ezvcard.io.scribe.BinaryPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.VCardParameters;
+import ezvcard.property.BinaryProperty;
 import ezvcard.property.VCardProperty;
 import ezvcard.property.Xml;
 import ezvcard.util.ListMultimap;
@@ -245,12 +246,7 @@ public class XCardWriter extends XCardWriterBase {
 		}
 		this.vcardsElementExists = isVCardsElement(parent);
 
-		try {
-			SAXTransformerFactory factory = (SAXTransformerFactory) TransformerFactory.newInstance();
-			handler = factory.newTransformerHandler();
-		} catch (TransformerConfigurationException e) {
-			throw new RuntimeException(e);
-		}
+		handler = XmlUtils.newTransformerHandler();
 
 		Transformer transformer = handler.getTransformer();
 
@@ -281,7 +277,7 @@ public class XCardWriter extends XCardWriterBase {
 	}
 
 	@Override
-	protected void _write(VCard vcard, List<VCardProperty> properties) throws IOException {
+	protected void _write(PreparedVCard vcard) throws IOException {
 		try {
 			if (!started) {
 				handler.startDocument();
@@ -294,14 +290,14 @@ public class XCardWriter extends XCardWriterBase {
 				started = true;
 			}
 
-			ListMultimap<String, VCardProperty> propertiesByGroup = new ListMultimap<>(); //group the types by group name (null = no group name)
-			for (VCardProperty property : properties) {
-				propertiesByGroup.put(property.getGroup(), property);
+			ListMultimap<String, PreparedProperty> propertiesByGroup = new ListMultimap<>(); //group the types by group name (null = no group name)
+			for (PreparedProperty property : vcard.getProperties()) {
+				propertiesByGroup.put(property.getProperty().getGroup(), property);
 			}
 
 			start(VCARD);
 
-			for (Map.Entry<String, List<VCardProperty>> entry : propertiesByGroup) {
+			for (Map.Entry<String, List<PreparedProperty>> entry : propertiesByGroup) {
 				String groupName = entry.getKey();
 				if (groupName != null) {
 					AttributesImpl attr = new AttributesImpl();
@@ -310,8 +306,8 @@ public class XCardWriter extends XCardWriterBase {
 					start(GROUP, attr);
 				}
 
-				for (VCardProperty property : entry.getValue()) {
-					write(property, vcard);
+				for (PreparedProperty property : entry.getValue()) {
+					write(property);
 				}
 
 				if (groupName != null) {
@@ -353,12 +349,18 @@ public class XCardWriter extends XCardWriterBase {
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private void write(VCardProperty property, VCard vcard) throws SAXException {
-		VCardPropertyScribe scribe = index.getPropertyScribe(property);
-		VCardParameters parameters = scribe.prepareParameters(property, targetVersion, vcard);
+	private void write(PreparedProperty prepared) throws SAXException {
+		VCardProperty property = prepared.getProperty();
+		VCardPropertyScribe scribe = prepared.getScribe();
+		VCardParameters parameters = prepared.getParameters();
 
 		removeUnsupportedParameters(parameters);
 
+		if (scribe instanceof BinaryPropertyScribe && ((BinaryPropertyScribe) scribe).canStreamXml((BinaryProperty) property)) {
+			writeBinaryProperty(property, (BinaryPropertyScribe) scribe, parameters);
+			return;
+		}
+
 		//get the property element to write
 		Element propertyElement;
 		if (property instanceof Xml) {
@@ -388,6 +390,57 @@ public class XCardWriter extends XCardWriterBase {
 		end(propertyElement);
 	}
 
+	/**
+	 * Writes a property that contains binary data. The data is streamed
+	 * directly to the XML document, instead of building a DOM element that
+	 * contains the entire (potentially very large) data URI.
+	 * @param property the property
+	 * @param scribe the property's scribe
+	 * @param parameters the property's parameters
+	 * @throws SAXException if there's a problem writing the property
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void writeBinaryProperty(VCardProperty property, BinaryPropertyScribe scribe, VCardParameters parameters) throws SAXException {
+		QName qname = scribe.getQName();
+		String namespace = qname.getNamespaceURI();
+		String valueElement = VCardDataType.URI.getName().toLowerCase();
+
+		start(qname);
+		write(parameters);
+		start(namespace, valueElement, new AttributesImpl());
+
+		Writer out = new Writer() {
+			@Override
+			public void write(char[] cbuf, int off, int len) throws IOException {
+				try {
+					handler.characters(cbuf, off, len);
+				} catch (SAXException e) {
+					throw new IOException(e);
+				}
+			}
+
+			@Override
+			public void flush() {
+				//empty
+			}
+
+			@Override
+			public void close() {
+				//empty
+			}
+		};
+
+		try {
+			scribe.writeData((BinaryProperty) property, targetVersion, out);
+		} catch (IOException e) {
+			Throwable cause = e.getCause();
+			throw (cause instanceof SAXException) ? (SAXException) cause : new SAXException(e);
+		}
+
+		end(namespace, valueElement);
+		end(qname);
+	}
+
 	private void write(Element propertyElement) throws SAXException {
 		NodeList children = propertyElement.getChildNodes();
 		for (int i = 0; i < children.getLength(); i++) {
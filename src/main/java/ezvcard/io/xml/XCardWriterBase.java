@@ -6,6 +6,7 @@ import java.util.Map;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.StreamWriter;
+import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.VCardParameters;
 
 /*
@@ -83,6 +84,20 @@ abstract class XCardWriterBase extends StreamWriter {
 		parameters.setValue(null);
 	}
 
+	/**
+	 * Determines if a scribe can write its property to a
+	 * {@link StreamedElement} instead of a DOM element. This is only true of
+	 * the scribes that come with this library, which are known to only use
+	 * {@link XCardElement#append} without looking at the DOM elements it
+	 * returns.
+	 * @param scribe the scribe
+	 * @return true if the scribe can write to a streamed element, false if it
+	 * needs a DOM element
+	 */
+	protected static boolean canStream(VCardPropertyScribe<?> scribe) {
+		return scribe.getClass().getPackage() == VCardPropertyScribe.class.getPackage();
+	}
+
 	/**
 	 * Registers the data type of an experimental parameter. Experimental
 	 * parameters use the "unknown" data type by default.
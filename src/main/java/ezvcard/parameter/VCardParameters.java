@@ -383,6 +383,20 @@ public class VCardParameters extends ListMultimap<String, String> {
 		super(orig);
 	}
 
+	/**
+	 * Creates a copy of an existing parameter list, optionally deferring the
+	 * copy until the new parameter list is modified. Deferred copies are cheap
+	 * to create, but will see any changes that are made to the original
+	 * parameter list before the copy is modified.
+	 * @param orig the object to copy
+	 * @param copyOnWrite true to defer the copy until the new parameter list
+	 * is modified, false to copy the parameters immediately
+	 * @see ListMultimap#ListMultimap(ListMultimap, boolean)
+	 */
+	public VCardParameters(VCardParameters orig, boolean copyOnWrite) {
+		super(orig, copyOnWrite);
+	}
+
 	/**
 	 * <p>
 	 * Creates a parameter list that is backed by the given map. Any changes
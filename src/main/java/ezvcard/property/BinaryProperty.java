@@ -3,6 +3,7 @@ package ezvcard.property;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -57,6 +58,13 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	 */
 	protected byte[] data;
 
+	/**
+	 * The decoded data, if it was assigned using a {@link ByteBuffer} that is
+	 * not backed by an entire byte array (for example, a direct or
+	 * memory-mapped buffer).
+	 */
+	protected ByteBuffer dataBuffer;
+
 	/**
 	 * The URL to the resource.
 	 */
@@ -89,6 +97,16 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 		setData(data, type);
 	}
 
+	/**
+	 * Creates a binary property.
+	 * @param data the binary data (the data between the buffer's position and
+	 * limit is used)
+	 * @param type the content type
+	 */
+	public BinaryProperty(ByteBuffer data, T type) {
+		setData(data, type);
+	}
+
 	/**
 	 * Creates a binary property.
 	 * @param in an input stream to the binary data (will be closed)
@@ -116,16 +134,75 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	public BinaryProperty(BinaryProperty<T> original) {
 		super(original);
 		data = (original.data == null) ? null : original.data.clone();
+		if (original.dataBuffer != null) {
+			//read-only buffers (such as memory-mapped temp files) can be shared
+			dataBuffer = original.dataBuffer.isReadOnly() ? original.dataBuffer : copy(original.dataBuffer);
+		}
 		url = original.url;
 		contentType = original.contentType;
 	}
 
 	/**
+	 * <p>
 	 * Gets the binary data of the resource.
+	 * </p>
+	 * <p>
+	 * If the data was assigned using a {@link ByteBuffer}, then a copy of the
+	 * buffer's contents is returned. Use {@link #getDataBuffer} to avoid the
+	 * copy.
+	 * </p>
 	 * @return the binary data or null if there is none
 	 */
 	public byte[] getData() {
-		return data;
+		if (data != null || dataBuffer == null) {
+			return data;
+		}
+
+		ByteBuffer buffer = dataBuffer.duplicate();
+		byte[] copy = new byte[buffer.remaining()];
+		buffer.get(copy);
+		return copy;
+	}
+
+	/**
+	 * Gets the binary data of the resource as a read-only buffer. The buffer
+	 * wraps the property's data and does not copy it.
+	 * @return the binary data or null if there is none
+	 */
+	public ByteBuffer getDataBuffer() {
+		if (data != null) {
+			return ByteBuffer.wrap(data).asReadOnlyBuffer();
+		}
+		return (dataBuffer == null) ? null : dataBuffer.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Gets an input stream to the binary data of the resource. The stream
+	 * reads directly from the property's data and does not copy it.
+	 * @return the input stream or null if there is no binary data
+	 */
+	public InputStream getDataStream() {
+		ByteBuffer buffer = getDataBuffer();
+		return (buffer == null) ? null : new ByteBufferInputStream(buffer);
+	}
+
+	/**
+	 * Determines if the property has binary data.
+	 * @return true if it has binary data, false if not
+	 */
+	public boolean hasData() {
+		return data != null || dataBuffer != null;
+	}
+
+	/**
+	 * Gets the length of the binary data.
+	 * @return the length in bytes or -1 if there is no binary data
+	 */
+	public int getDataLength() {
+		if (data != null) {
+			return data.length;
+		}
+		return (dataBuffer == null) ? -1 : dataBuffer.remaining();
 	}
 
 	/**
@@ -136,6 +213,35 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	public void setData(byte[] data, T type) {
 		this.url = null;
 		this.data = data;
+		this.dataBuffer = null;
+		setContentType(type);
+	}
+
+	/**
+	 * <p>
+	 * Sets the binary data of the resource. The data between the buffer's
+	 * position and limit is used.
+	 * </p>
+	 * <p>
+	 * The buffer's contents are not copied, so it should not be modified
+	 * afterwards. If the buffer is backed by an entire byte array, then that
+	 * array is used as the property's data.
+	 * </p>
+	 * @param data the binary data
+	 * @param type the content type (e.g. "JPEG image")
+	 */
+	public void setData(ByteBuffer data, T type) {
+		this.url = null;
+		if (data == null) {
+			this.data = null;
+			this.dataBuffer = null;
+		} else if (data.hasArray() && data.arrayOffset() == 0 && data.position() == 0 && data.remaining() == data.array().length) {
+			this.data = data.array();
+			this.dataBuffer = null;
+		} else {
+			this.data = null;
+			this.dataBuffer = data.slice();
+		}
 		setContentType(type);
 	}
 
@@ -155,6 +261,7 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	public void setUrl(String url, T type) {
 		this.url = url;
 		this.data = null;
+		this.dataBuffer = null;
 		setContentType(type);
 	}
 
@@ -227,7 +334,7 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 
 	@Override
 	protected void _validate(List<ValidationWarning> warnings, VCardVersion version, VCard vcard) {
-		if (url == null && data == null) {
+		if (url == null && !hasData()) {
 			warnings.add(new ValidationWarning(8));
 		}
 	}
@@ -235,7 +342,7 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	@Override
 	protected Map<String, Object> toStringValues() {
 		Map<String, Object> values = new LinkedHashMap<>();
-		values.put("data", (data == null) ? "null" : "length: " + data.length);
+		values.put("data", hasData() ? "length: " + getDataLength() : "null");
 		values.put("url", url);
 		values.put("contentType", contentType);
 		return values;
@@ -246,7 +353,7 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((contentType == null) ? 0 : contentType.hashCode());
-		result = prime * result + Arrays.hashCode(data);
+		result = prime * result + hashCode(getDataBuffer());
 		result = prime * result + ((url == null) ? 0 : url.hashCode());
 		return result;
 	}
@@ -259,10 +366,89 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 		if (contentType == null) {
 			if (other.contentType != null) return false;
 		} else if (!contentType.equals(other.contentType)) return false;
-		if (!Arrays.equals(data, other.data)) return false;
+		if (data != null && other.data != null) {
+			if (!Arrays.equals(data, other.data)) return false;
+		} else {
+			ByteBuffer buffer = getDataBuffer();
+			if (buffer == null) {
+				if (other.hasData()) return false;
+			} else if (!buffer.equals(other.getDataBuffer())) return false;
+		}
 		if (url == null) {
 			if (other.url != null) return false;
 		} else if (!url.equals(other.url)) return false;
 		return true;
 	}
+
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		public ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+
+			len = Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			return len;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.min(Math.max(n, 0), buffer.remaining());
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+	}
+
+	/**
+	 * Copies the contents of a buffer to a new buffer of the same kind (heap
+	 * or direct).
+	 * @param buffer the buffer to copy
+	 * @return the copy
+	 */
+	private static ByteBuffer copy(ByteBuffer buffer) {
+		ByteBuffer source = buffer.duplicate();
+		ByteBuffer copy = source.isDirect() ? ByteBuffer.allocateDirect(source.remaining()) : ByteBuffer.allocate(source.remaining());
+		copy.put(source);
+		copy.flip();
+		return copy;
+	}
+
+	/**
+	 * Generates a hash code for the contents of a buffer. The hash code is
+	 * the same as what {@link Arrays#hashCode(byte[])} would generate for the
+	 * buffer's contents.
+	 * @param buffer the buffer (can be null)
+	 * @return the hash code
+	 */
+	private static int hashCode(ByteBuffer buffer) {
+		if (buffer == null) {
+			return 0;
+		}
+
+		int result = 1;
+		for (int i = buffer.position(); i < buffer.limit(); i++) {
+			result = 31 * result + buffer.get(i);
+		}
+		return result;
+	}
 }
@@ -2,6 +2,7 @@ package ezvcard.property;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 
 import ezvcard.parameter.ImageType;
@@ -58,6 +59,16 @@ public class ImageProperty extends BinaryProperty<ImageType> {
 		super(data, type);
 	}
 
+	/**
+	 * Creates an image property.
+	 * @param data the binary data of the image (the data between the buffer's
+	 * position and limit is used)
+	 * @param type the content type (e.g. JPEG)
+	 */
+	public ImageProperty(ByteBuffer data, ImageType type) {
+		super(data, type);
+	}
+
 	/**
 	 * Creates an image property.
 	 * @param in an input stream to the binary data (will be closed)
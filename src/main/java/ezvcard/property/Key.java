@@ -2,6 +2,7 @@ package ezvcard.property;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
@@ -130,6 +131,16 @@ public class Key extends BinaryProperty<KeyType> {
 		super(data, type);
 	}
 
+	/**
+	 * Creates a key property.
+	 * @param data the binary data (the data between the buffer's position and
+	 * limit is used)
+	 * @param type the type of key (e.g. PGP)
+	 */
+	public Key(ByteBuffer data, KeyType type) {
+		super(data, type);
+	}
+
 	/**
 	 * Creates a key property.
 	 * @param url the URI or URL to the key
@@ -177,6 +188,7 @@ public class Key extends BinaryProperty<KeyType> {
 	public void setText(String text, KeyType type) {
 		this.text = text;
 		data = null;
+		dataBuffer = null;
 		url = null;
 		setContentType(type);
 	}
@@ -216,9 +228,15 @@ public class Key extends BinaryProperty<KeyType> {
 		text = null;
 	}
 
+	@Override
+	public void setData(ByteBuffer data, KeyType type) {
+		super.setData(data, type);
+		text = null;
+	}
+
 	@Override
 	protected void _validate(List<ValidationWarning> warnings, VCardVersion version, VCard vcard) {
-		if (url == null && data == null && text == null) {
+		if (url == null && !hasData() && text == null) {
 			warnings.add(new ValidationWarning(8));
 		}
 
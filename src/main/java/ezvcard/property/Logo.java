@@ -2,6 +2,7 @@ package ezvcard.property;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 
 import ezvcard.parameter.ImageType;
@@ -110,6 +111,16 @@ public class Logo extends ImageProperty {
 		super(data, type);
 	}
 
+	/**
+	 * Creates a logo property.
+	 * @param data the binary data of the logo (the data between the buffer's
+	 * position and limit is used)
+	 * @param type the content type (e.g. PNG)
+	 */
+	public Logo(ByteBuffer data, ImageType type) {
+		super(data, type);
+	}
+
 	/**
 	 * Creates a logo property.
 	 * @param in an input stream to the binary data (will be closed)
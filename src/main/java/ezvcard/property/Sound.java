@@ -2,6 +2,7 @@ package ezvcard.property;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 
 import ezvcard.parameter.SoundType;
@@ -110,6 +111,16 @@ public class Sound extends BinaryProperty<SoundType> {
 		super(data, type);
 	}
 
+	/**
+	 * Creates a sound property.
+	 * @param data the binary data of the sound file (the data between the buffer's
+	 * position and limit is used)
+	 * @param type the content type (e.g. OGG)
+	 */
+	public Sound(ByteBuffer data, SoundType type) {
+		super(data, type);
+	}
+
 	/**
 	 * Creates a sound property.
 	 * @param in an input stream to the binary data (will be closed)
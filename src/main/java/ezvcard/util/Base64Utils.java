@@ -0,0 +1,323 @@
+package ezvcard.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Base64 helper methods that work directly with character and byte buffers.
+ * </p>
+ * <p>
+ * Unlike the methods in the commons-codec Base64 class, these methods do not
+ * convert the entire value into an intermediate byte array or string first,
+ * which matters when the value is several megabytes in size (for example, a
+ * high-resolution photo).
+ * </p>
+ * @author Michael Angstadt
+ */
+public final class Base64Utils {
+	private static final char[] ENCODE_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+	private static final byte[] DECODE_TABLE = new byte[128];
+	static {
+		for (int i = 0; i < DECODE_TABLE.length; i++) {
+			DECODE_TABLE[i] = -1;
+		}
+		for (int i = 0; i < ENCODE_TABLE.length; i++) {
+			DECODE_TABLE[ENCODE_TABLE[i]] = (byte) i;
+		}
+
+		//URL-safe alphabet
+		DECODE_TABLE['-'] = 62;
+		DECODE_TABLE['_'] = 63;
+	}
+
+	/**
+	 * The number of bytes that are encoded at a time when streaming (must be a
+	 * multiple of 3).
+	 */
+	private static final int CHUNK_SIZE = 3 * 1024;
+
+	/**
+	 * Decodes a base64 string. The decoding is lenient: characters that are not
+	 * part of the base64 alphabet (such as whitespace) are ignored, the
+	 * URL-safe alphabet is accepted, and decoding stops at the first padding
+	 * character.
+	 * @param value the base64 string
+	 * @return the decoded data
+	 */
+	public static byte[] decode(CharSequence value) {
+		/*
+		 * Count the characters first so that the decoded data can be written
+		 * to an array of the exact size.
+		 */
+		int chars = 0;
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == '=') {
+				break;
+			}
+			if (isBase64(c)) {
+				chars++;
+			}
+		}
+
+		int remainder = chars % 4;
+		byte[] data = new byte[(chars / 4) * 3 + ((remainder == 0) ? 0 : remainder - 1)];
+
+		int pos = 0;
+		int bits = 0;
+		int modulus = 0;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == '=') {
+				break;
+			}
+			if (!isBase64(c)) {
+				continue;
+			}
+
+			bits = (bits << 6) | DECODE_TABLE[c];
+			modulus++;
+			if (modulus == 4) {
+				data[pos++] = (byte) (bits >> 16);
+				data[pos++] = (byte) (bits >> 8);
+				data[pos++] = (byte) bits;
+				bits = 0;
+				modulus = 0;
+			}
+		}
+
+		switch (modulus) {
+		case 2:
+			data[pos] = (byte) (bits >> 4);
+			break;
+		case 3:
+			data[pos++] = (byte) (bits >> 10);
+			data[pos] = (byte) (bits >> 2);
+			break;
+		}
+
+		return data;
+	}
+
+	/**
+	 * Decodes a base64 string, writing the decoded data to an output stream in
+	 * small chunks. The decoding is lenient (see {@link #decode(CharSequence)}).
+	 * @param value the base64 string
+	 * @param start the index of the first character to decode
+	 * @param out the output stream to write the decoded data to
+	 * @return the number of bytes written
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	public static long decode(CharSequence value, int start, OutputStream out) throws IOException {
+		byte[] buffer = new byte[CHUNK_SIZE];
+		long written = 0;
+		int pos = 0;
+		int bits = 0;
+		int modulus = 0;
+		int length = value.length();
+		for (int i = start; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == '=') {
+				break;
+			}
+			if (!isBase64(c)) {
+				continue;
+			}
+
+			bits = (bits << 6) | DECODE_TABLE[c];
+			modulus++;
+			if (modulus == 4) {
+				buffer[pos++] = (byte) (bits >> 16);
+				buffer[pos++] = (byte) (bits >> 8);
+				buffer[pos++] = (byte) bits;
+				bits = 0;
+				modulus = 0;
+
+				if (pos == buffer.length) {
+					out.write(buffer, 0, pos);
+					written += pos;
+					pos = 0;
+				}
+			}
+		}
+
+		switch (modulus) {
+		case 2:
+			buffer[pos++] = (byte) (bits >> 4);
+			break;
+		case 3:
+			buffer[pos++] = (byte) (bits >> 10);
+			buffer[pos++] = (byte) (bits >> 2);
+			break;
+		}
+
+		out.write(buffer, 0, pos);
+		return written + pos;
+	}
+
+	/**
+	 * Base64-encodes binary data, writing the encoded characters to the given
+	 * writer in small chunks. The encoded data is not split into lines.
+	 * @param data the data to encode (the buffer's position is not modified)
+	 * @param writer the writer to write the encoded data to
+	 * @throws IOException if there's a problem writing to the writer
+	 */
+	public static void encode(ByteBuffer data, Writer writer) throws IOException {
+		ByteBuffer buffer = data.duplicate();
+		byte[] in = new byte[Math.min(CHUNK_SIZE, buffer.remaining())];
+		char[] out = new char[encodedLength(in.length)];
+
+		while (buffer.hasRemaining()) {
+			int read = Math.min(in.length, buffer.remaining());
+			buffer.get(in, 0, read);
+			int encoded = encode(in, read, out);
+			writer.write(out, 0, encoded);
+		}
+	}
+
+	/**
+	 * Creates a reader that base64-encodes binary data as it is read. This is
+	 * useful for APIs that pull string values from a {@link Reader}. The data
+	 * is encoded in small chunks, so the entire encoded string is never held
+	 * in memory.
+	 * @param prefix text to return before the encoded data (e.g. the header of
+	 * a data URI) or null for none
+	 * @param data the data to encode (the buffer's position is not modified)
+	 * @return the reader
+	 */
+	public static Reader encodingReader(String prefix, ByteBuffer data) {
+		return new EncodingReader(prefix, data);
+	}
+
+	/**
+	 * Base64-encodes a chunk of data.
+	 * @param in the data
+	 * @param length the number of bytes to encode
+	 * @param out the array to write the encoded characters to
+	 * @return the number of characters written
+	 */
+	private static int encode(byte[] in, int length, char[] out) {
+		int pos = 0;
+		int i = 0;
+		for (; i + 2 < length; i += 3) {
+			int bits = ((in[i] & 0xff) << 16) | ((in[i + 1] & 0xff) << 8) | (in[i + 2] & 0xff);
+			out[pos++] = ENCODE_TABLE[(bits >> 18) & 0x3f];
+			out[pos++] = ENCODE_TABLE[(bits >> 12) & 0x3f];
+			out[pos++] = ENCODE_TABLE[(bits >> 6) & 0x3f];
+			out[pos++] = ENCODE_TABLE[bits & 0x3f];
+		}
+
+		switch (length - i) {
+		case 1: {
+			int bits = (in[i] & 0xff) << 16;
+			out[pos++] = ENCODE_TABLE[(bits >> 18) & 0x3f];
+			out[pos++] = ENCODE_TABLE[(bits >> 12) & 0x3f];
+			out[pos++] = '=';
+			out[pos++] = '=';
+			break;
+		}
+		case 2: {
+			int bits = ((in[i] & 0xff) << 16) | ((in[i + 1] & 0xff) << 8);
+			out[pos++] = ENCODE_TABLE[(bits >> 18) & 0x3f];
+			out[pos++] = ENCODE_TABLE[(bits >> 12) & 0x3f];
+			out[pos++] = ENCODE_TABLE[(bits >> 6) & 0x3f];
+			out[pos++] = '=';
+			break;
+		}
+		}
+
+		return pos;
+	}
+
+	private static int encodedLength(int length) {
+		return (length + 2) / 3 * 4;
+	}
+
+	private static boolean isBase64(char c) {
+		return c < DECODE_TABLE.length && DECODE_TABLE[c] >= 0;
+	}
+
+	private static class EncodingReader extends Reader {
+		private final ByteBuffer data;
+		private final byte[] in;
+		private char[] chunk;
+		private int chunkPos;
+		private int chunkLength;
+
+		public EncodingReader(String prefix, ByteBuffer data) {
+			this.data = data.duplicate();
+			in = new byte[Math.min(CHUNK_SIZE, this.data.remaining())];
+			chunk = (prefix == null) ? new char[0] : prefix.toCharArray();
+			chunkLength = chunk.length;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+
+			if (chunkPos == chunkLength) {
+				if (!data.hasRemaining()) {
+					return -1;
+				}
+
+				int read = Math.min(in.length, data.remaining());
+				data.get(in, 0, read);
+				if (chunk.length < encodedLength(in.length)) {
+					chunk = new char[encodedLength(in.length)];
+				}
+				chunkLength = encode(in, read, chunk);
+				chunkPos = 0;
+			}
+
+			int count = Math.min(len, chunkLength - chunkPos);
+			System.arraycopy(chunk, chunkPos, cbuf, off, count);
+			chunkPos += count;
+			return count;
+		}
+
+		@Override
+		public void close() {
+			//empty
+		}
+	}
+
+	private Base64Utils() {
+		//hide
+	}
+}
@@ -154,8 +154,7 @@ public final class DataUri {
 		String text = null;
 		byte[] data = null;
 		if (base64) {
-			dataStr = dataStr.replaceAll("\\s", "");
-			data = Base64.decodeBase64(dataStr);
+			data = Base64Utils.decode(dataStr);
 			if (charset != null) {
 				try {
 					text = new String(data, charset);
@@ -66,7 +66,13 @@ import java.util.Set;
  * @param <V> the value
  */
 public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
-	private final Map<K, List<V>> map;
+	private Map<K, List<V>> map;
+
+	/**
+	 * True if {@link #map} belongs to another multimap and must be copied
+	 * before it is modified.
+	 */
+	private boolean shared;
 
 	/**
 	 * Creates an empty multimap.
@@ -91,6 +97,43 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 		this(copy(orig.map));
 	}
 
+	/**
+	 * <p>
+	 * Creates a copy of an existing multimap, optionally deferring the copy
+	 * until the new multimap is modified.
+	 * </p>
+	 * <p>
+	 * When deferred, the new multimap reads directly from the original
+	 * multimap's data until a value is added to or removed from it (including
+	 * through a list returned by {@link #get}). This makes copies that are
+	 * only read from very cheap. However, changes made to the original
+	 * multimap while the data is still being shared will be visible in the
+	 * copy, so the original should not be modified while the copy is in use.
+	 * </p>
+	 * @param orig the multimap to copy from
+	 * @param copyOnWrite true to defer the copy until the new multimap is
+	 * modified, false to copy the data immediately
+	 */
+	protected ListMultimap(ListMultimap<K, V> orig, boolean copyOnWrite) {
+		if (copyOnWrite) {
+			map = orig.map;
+			shared = true;
+		} else {
+			map = copy(orig.map);
+		}
+	}
+
+	/**
+	 * Copies the shared data if this multimap was created as a copy-on-write
+	 * copy and has not been modified yet.
+	 */
+	private void unshare() {
+		if (shared) {
+			map = copy(map);
+			shared = false;
+		}
+	}
+
 	private static <K, V> Map<K, List<V>> copy(Map<K, List<V>> orig) {
 		Map<K, List<V>> map = new LinkedHashMap<>(orig.size());
 		for (Map.Entry<K, List<V>> entry : orig.entrySet()) {
@@ -122,6 +165,7 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 	 * @param value the value to add
 	 */
 	public void put(K key, V value) {
+		unshare();
 		key = sanitizeKey(key);
 		List<V> list = map.get(key);
 		if (list == null) {
@@ -141,6 +185,7 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 			return;
 		}
 
+		unshare();
 		key = sanitizeKey(key);
 		List<V> list = map.get(key);
 		if (list == null) {
@@ -200,10 +245,12 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 	public boolean remove(K key, V value) {
 		key = sanitizeKey(key);
 		List<V> values = map.get(key);
-		if (values == null) {
+		if (values == null || !values.contains(value)) {
 			return false;
 		}
 
+		unshare();
+		values = map.get(key);
 		boolean success = values.remove(value);
 		if (values.isEmpty()) {
 			map.remove(key);
@@ -219,11 +266,13 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 	 */
 	public List<V> removeAll(K key) {
 		key = sanitizeKey(key);
-		List<V> removed = map.remove(key);
-		if (removed == null) {
+		if (!map.containsKey(key)) {
 			return Collections.emptyList();
 		}
 
+		unshare();
+		List<V> removed = map.remove(key);
+
 		List<V> unmodifiableCopy = Collections.unmodifiableList(new ArrayList<>(removed));
 		removed.clear();
 		return unmodifiableCopy;
@@ -260,6 +309,12 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 	 * Clears all entries from the multimap.
 	 */
 	public void clear() {
+		if (map.isEmpty()) {
+			return;
+		}
+
+		unshare();
+
 		//clear each collection to make previously returned lists empty
 		for (List<V> value : map.values()) {
 			value.clear();
@@ -324,7 +379,9 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 	/**
 	 * Gets the {@link Map} that backs this multimap. This method is here for
 	 * performances reasons. The returned map should NOT be modified by anything
-	 * other than the {@link ListMultimap} object that owns it.
+	 * other than the {@link ListMultimap} object that owns it. If this
+	 * multimap is a copy-on-write copy that has not been modified yet, the
+	 * returned map belongs to the original multimap.
 	 * @return the map
 	 */
 	public Map<K, List<V>> getMap() {
@@ -426,6 +483,7 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 		List<V> delegate;
 		final WrappedList ancestor;
 		final List<V> ancestorDelegate;
+		Map<K, List<V>> owner = map;
 
 		WrappedList(K key, List<V> delegate, WrappedList ancestor) {
 			this.key = key;
@@ -434,11 +492,20 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 			this.ancestorDelegate = (ancestor == null) ? null : ancestor.getDelegate();
 		}
 
+		/**
+		 * Must be called before the list is modified.
+		 */
+		void prepareWrite() {
+			unshare();
+			refreshIfEmpty();
+		}
+
 		public boolean addAll(int index, Collection<? extends V> collection) {
 			if (collection.isEmpty()) {
 				return false;
 			}
-			int oldSize = size(); // calls refreshIfEmpty
+			prepareWrite();
+			int oldSize = getDelegate().size();
 			boolean changed = getDelegate().addAll(index, collection);
 			if (changed && oldSize == 0) {
 				addToMap();
@@ -452,12 +519,12 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 		}
 
 		public V set(int index, V element) {
-			refreshIfEmpty();
+			prepareWrite();
 			return getDelegate().set(index, element);
 		}
 
 		public void add(int index, V element) {
-			refreshIfEmpty();
+			prepareWrite();
 			boolean wasEmpty = getDelegate().isEmpty();
 			getDelegate().add(index, element);
 			if (wasEmpty) {
@@ -466,7 +533,7 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 		}
 
 		public V remove(int index) {
-			refreshIfEmpty();
+			prepareWrite();
 			V value = getDelegate().remove(index);
 			removeIfEmpty();
 			return value;
@@ -493,7 +560,11 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 		}
 
 		public List<V> subList(int fromIndex, int toIndex) {
-			refreshIfEmpty();
+			/*
+			 * Sub lists cannot follow the data when it is copied, so copy it
+			 * before creating one.
+			 */
+			prepareWrite();
 			return new WrappedList(getKey(), getDelegate().subList(fromIndex, toIndex), (getAncestor() == null) ? this : getAncestor());
 		}
 
@@ -511,6 +582,11 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 				if (ancestor.getDelegate() != ancestorDelegate) {
 					throw new ConcurrentModificationException();
 				}
+			} else if (owner != map) {
+				//the multimap's shared data was copied
+				owner = map;
+				List<V> newDelegate = map.get(key);
+				delegate = (newDelegate == null) ? new ArrayList<>(0) : newDelegate;
 			} else if (delegate.isEmpty()) {
 				List<V> newDelegate = map.get(key);
 				if (newDelegate != null) {
@@ -591,7 +667,7 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 
 		@Override
 		public boolean add(V value) {
-			refreshIfEmpty();
+			prepareWrite();
 			boolean wasEmpty = delegate.isEmpty();
 			boolean changed = delegate.add(value);
 			if (changed && wasEmpty) {
@@ -611,7 +687,8 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 			if (collection.isEmpty()) {
 				return false;
 			}
-			int oldSize = size(); // calls refreshIfEmpty
+			prepareWrite();
+			int oldSize = delegate.size();
 			boolean changed = delegate.addAll(collection);
 			if (changed && oldSize == 0) {
 				addToMap();
@@ -637,6 +714,7 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 			if (oldSize == 0) {
 				return;
 			}
+			prepareWrite();
 			delegate.clear();
 			removeIfEmpty(); // maybe shouldn't be removed if this is a sublist
 		}
@@ -644,6 +722,10 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 		@Override
 		public boolean remove(Object o) {
 			refreshIfEmpty();
+			if (!delegate.contains(o)) {
+				return false;
+			}
+			prepareWrite();
 			boolean changed = delegate.remove(o);
 			if (changed) {
 				removeIfEmpty();
@@ -656,7 +738,7 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 			if (collection.isEmpty()) {
 				return false;
 			}
-			refreshIfEmpty();
+			prepareWrite();
 			boolean changed = delegate.removeAll(collection);
 			if (changed) {
 				removeIfEmpty();
@@ -666,7 +748,7 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 
 		@Override
 		public boolean retainAll(Collection<?> c) {
-			refreshIfEmpty();
+			prepareWrite();
 			boolean changed = delegate.retainAll(c);
 			if (changed) {
 				removeIfEmpty();
@@ -676,8 +758,16 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 
 		/** ListIterator decorator. */
 		private class WrappedListIterator implements ListIterator<V> {
-			final ListIterator<V> delegateIterator;
-			final List<V> originalDelegate = delegate;
+			ListIterator<V> delegateIterator;
+			List<V> originalDelegate = delegate;
+			Map<K, List<V>> iteratorOwner = map;
+
+			/**
+			 * The index of the element that was last returned by
+			 * {@link #next} or {@link #previous}, or -1 if there is no such
+			 * element.
+			 */
+			int lastReturned = -1;
 
 			WrappedListIterator() {
 				delegateIterator = delegate.listIterator();
@@ -692,7 +782,9 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 			}
 
 			public V previous() {
-				return getDelegateIterator().previous();
+				ListIterator<V> it = getDelegateIterator();
+				lastReturned = it.previousIndex();
+				return it.previous();
 			}
 
 			public int nextIndex() {
@@ -704,12 +796,15 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 			}
 
 			public void set(V value) {
+				unshare();
 				getDelegateIterator().set(value);
 			}
 
 			public void add(V value) {
+				unshare();
 				boolean wasEmpty = isEmpty();
 				getDelegateIterator().add(value);
+				lastReturned = -1;
 				if (wasEmpty) {
 					addToMap();
 				}
@@ -720,6 +815,9 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 			 * iterator is no longer valid.
 			 */
 			void validateIterator() {
+				if (iteratorOwner != map) {
+					followCopiedData();
+				}
 				refreshIfEmpty();
 				if (delegate != originalDelegate) {
 					throw new ConcurrentModificationException();
@@ -731,13 +829,40 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 				return delegateIterator.hasNext();
 			}
 
+			/**
+			 * Moves the iterator over to the copy of the multimap's data after
+			 * the data stopped being shared, keeping its position.
+			 */
+			void followCopiedData() {
+				iteratorOwner = map;
+				int nextIndex = delegateIterator.nextIndex();
+				refreshIfEmpty();
+				originalDelegate = delegate;
+
+				if (lastReturned < 0) {
+					delegateIterator = delegate.listIterator(nextIndex);
+				} else if (lastReturned < nextIndex) {
+					//"next()" was called last
+					delegateIterator = delegate.listIterator(lastReturned);
+					delegateIterator.next();
+				} else {
+					//"previous()" was called last
+					delegateIterator = delegate.listIterator(lastReturned + 1);
+					delegateIterator.previous();
+				}
+			}
+
 			public V next() {
 				validateIterator();
+				lastReturned = delegateIterator.nextIndex();
 				return delegateIterator.next();
 			}
 
 			public void remove() {
+				unshare();
+				validateIterator();
 				delegateIterator.remove();
+				lastReturned = -1;
 				removeIfEmpty();
 			}
 
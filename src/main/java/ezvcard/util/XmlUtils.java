@@ -14,17 +14,24 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 
 import org.w3c.dom.Document;
@@ -68,18 +75,31 @@ import org.xml.sax.SAXException;
  * @author Michael Angstadt
  */
 public final class XmlUtils {
+	/*
+	 * The JAXP factories search the classpath for an implementation every time
+	 * "newInstance()" is called, which makes creating them expensive. JAXP does
+	 * not guarantee that factories, builders, or transformers are thread-safe,
+	 * so each thread gets its own instances, which are configured once and then
+	 * reused.
+	 */
+	private static final ThreadLocal<DocumentBuilderFactory> documentBuilderFactory = ThreadLocal.withInitial(XmlUtils::newDocumentBuilderFactory);
+	private static final ThreadLocal<SAXTransformerFactory> transformerFactory = ThreadLocal.withInitial(XmlUtils::newTransformerFactory);
+	private static final ThreadLocal<XMLInputFactory> xmlInputFactory = ThreadLocal.withInitial(XmlUtils::newXMLInputFactory);
+	private static final ThreadLocal<XMLOutputFactory> xmlOutputFactory = ThreadLocal.withInitial(XMLOutputFactory::newInstance);
+
+	private static final Pool<DocumentBuilder> documentBuilders = new Pool<>(XmlUtils::newDocumentBuilder);
+	private static final Pool<Transformer> transformers = new Pool<>(XmlUtils::newTransformer);
+
 	/**
 	 * Creates a new XML document.
 	 * @return the XML document
 	 */
 	public static Document createDocument() {
+		DocumentBuilder builder = documentBuilders.take();
 		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder builder = factory.newDocumentBuilder();
 			return builder.newDocument();
-		} catch (ParserConfigurationException e) {
-			//should never be thrown because we're not doing anything fancy with the configuration
-			throw new RuntimeException(e);
+		} finally {
+			documentBuilders.release(builder);
 		}
 	}
 
@@ -146,20 +166,107 @@ public final class XmlUtils {
 	}
 
 	private static Document toDocument(InputSource in) throws SAXException, IOException {
+		DocumentBuilder builder = documentBuilders.take();
+		try {
+			return builder.parse(in);
+		} finally {
+			builder.reset();
+			documentBuilders.release(builder);
+		}
+	}
+
+	/**
+	 * Creates a new {@link Transformer}. The transformer comes from a factory
+	 * that has XXE protection applied to it (see
+	 * {@link #applyXXEProtection(TransformerFactory)}).
+	 * @return the transformer
+	 */
+	public static Transformer newTransformer() {
+		try {
+			return transformerFactory.get().newTransformer();
+		} catch (TransformerConfigurationException e) {
+			//should never be thrown because we're not doing anything fancy with the configuration
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Creates a new {@link TransformerHandler}, which serializes SAX events.
+	 * The handler comes from a factory that has XXE protection applied to it
+	 * (see {@link #applyXXEProtection(TransformerFactory)}).
+	 * @return the transformer handler
+	 */
+	public static TransformerHandler newTransformerHandler() {
+		try {
+			return transformerFactory.get().newTransformerHandler();
+		} catch (TransformerConfigurationException e) {
+			//should never be thrown because we're not doing anything fancy with the configuration
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Creates a namespace-aware StAX reader. The reader comes from a factory
+	 * that has XXE protection applied to it (see
+	 * {@link #applyXXEProtection(XMLInputFactory)}).
+	 * @param reader the XML data
+	 * @return the StAX reader
+	 * @throws XMLStreamException if the reader could not be created
+	 */
+	public static XMLStreamReader createXMLStreamReader(Reader reader) throws XMLStreamException {
+		return xmlInputFactory.get().createXMLStreamReader(reader);
+	}
+
+	/**
+	 * Creates a namespace-aware StAX reader. The reader comes from a factory
+	 * that has XXE protection applied to it (see
+	 * {@link #applyXXEProtection(XMLInputFactory)}).
+	 * @param in the XML data
+	 * @return the StAX reader
+	 * @throws XMLStreamException if the reader could not be created
+	 */
+	public static XMLStreamReader createXMLStreamReader(InputStream in) throws XMLStreamException {
+		return xmlInputFactory.get().createXMLStreamReader(in);
+	}
+
+	/**
+	 * Creates a StAX writer.
+	 * @param writer the writer to send the XML data to
+	 * @return the StAX writer
+	 * @throws XMLStreamException if the writer could not be created
+	 */
+	public static XMLStreamWriter createXMLStreamWriter(Writer writer) throws XMLStreamException {
+		return xmlOutputFactory.get().createXMLStreamWriter(writer);
+	}
+
+	private static DocumentBuilderFactory newDocumentBuilderFactory() {
 		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 		factory.setNamespaceAware(true);
 		factory.setIgnoringComments(true);
 		applyXXEProtection(factory);
+		return factory;
+	}
 
-		DocumentBuilder builder;
+	private static DocumentBuilder newDocumentBuilder() {
 		try {
-			builder = factory.newDocumentBuilder();
+			return documentBuilderFactory.get().newDocumentBuilder();
 		} catch (ParserConfigurationException e) {
 			//should never be thrown because we're not doing anything fancy with the configuration
 			throw new RuntimeException(e);
 		}
+	}
+
+	private static SAXTransformerFactory newTransformerFactory() {
+		SAXTransformerFactory factory = (SAXTransformerFactory) TransformerFactory.newInstance();
+		applyXXEProtection(factory);
+		return factory;
+	}
 
-		return builder.parse(in);
+	private static XMLInputFactory newXMLInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		applyXXEProtection(factory);
+		return factory;
 	}
 
 	/**
@@ -219,6 +326,30 @@ public final class XmlUtils {
 		}
 	}
 
+	/**
+	 * Configures a {@link XMLInputFactory} to protect it against XML External
+	 * Entity attacks.
+	 * @param factory the factory
+	 * @see <a href=
+	 * "https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Prevention_Cheat_Sheet#Java">
+	 * XXE Cheat Sheet</a>
+	 */
+	public static void applyXXEProtection(XMLInputFactory factory) {
+		Map<String, Boolean> properties = new HashMap<>();
+		properties.put(XMLInputFactory.SUPPORT_DTD, false);
+		properties.put(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+		for (Map.Entry<String, Boolean> entry : properties.entrySet()) {
+			String property = entry.getKey();
+			Boolean value = entry.getValue();
+			try {
+				factory.setProperty(property, value);
+			} catch (IllegalArgumentException e) {
+				//property is not supported by the local XML engine, skip it
+			}
+		}
+	}
+
 	/**
 	 * Converts an XML node to a string.
 	 * @param node the XML node
@@ -263,22 +394,17 @@ public final class XmlUtils {
 	 * @throws TransformerException if there's a problem writing to the writer
 	 */
 	public static void toWriter(Node node, Writer writer, Map<String, String> outputProperties) throws TransformerException {
-		Transformer transformer;
+		Transformer transformer = transformers.take();
 		try {
-			transformer = TransformerFactory.newInstance().newTransformer();
-		} catch (TransformerConfigurationException e) {
-			//should never be thrown because we're not doing anything fancy with the configuration
-			throw new RuntimeException(e);
-		} catch (TransformerFactoryConfigurationError e) {
-			//should never be thrown because we're not doing anything fancy with the configuration
-			throw new RuntimeException(e);
+			assignOutputProperties(transformer, outputProperties);
+
+			DOMSource source = new DOMSource(node);
+			StreamResult result = new StreamResult(writer);
+			transformer.transform(source, result);
+		} finally {
+			transformer.reset();
+			transformers.release(transformer);
 		}
-
-		assignOutputProperties(transformer, outputProperties);
-
-		DOMSource source = new DOMSource(node);
-		StreamResult result = new StreamResult(writer);
-		transformer.transform(source, result);
 	}
 
 	/**
@@ -348,6 +474,36 @@ public final class XmlUtils {
 		return qname.getNamespaceURI().equals(node.getNamespaceURI()) && qname.getLocalPart().equals(node.getLocalName());
 	}
 
+	/**
+	 * Holds one idle object per thread. An object is removed from the pool
+	 * while it is in use, so a nested call on the same thread (for example,
+	 * from a {@link Writer} that is being written to by a transformer) gets its
+	 * own object instead of one that is already in use.
+	 * @param <T> the object type
+	 */
+	private static class Pool<T> {
+		private final ThreadLocal<T> idle = new ThreadLocal<>();
+		private final Supplier<T> supplier;
+
+		public Pool(Supplier<T> supplier) {
+			this.supplier = supplier;
+		}
+
+		public T take() {
+			T object = idle.get();
+			if (object == null) {
+				return supplier.get();
+			}
+
+			idle.set(null);
+			return object;
+		}
+
+		public void release(T object) {
+			idle.set(object);
+		}
+	}
+
 	private XmlUtils() {
 		//hide
 	}
@@ -13,8 +13,12 @@ import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
@@ -131,6 +135,56 @@ public class EzvcardTest {
 		assertFalse(it.hasNext());
 	}
 
+	@Test
+	public void parse_warningListener() throws Exception {
+		//@formatter:off
+		String str = 
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"FN:John Doe\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"invalid line\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<String> received = new ArrayList<>();
+		List<VCard> vcards = Ezvcard.parse(str).warningListener((vcardIndex, warning) -> {
+			received.add(vcardIndex + ":" + warning.getLineNumber());
+		}).all();
+
+		assertEquals(2, vcards.size());
+		assertEquals(Arrays.asList("1:7"), received);
+	}
+
+	@Test
+	public void parse_stream() throws Exception {
+		//@formatter:off
+		String str = 
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"FN:John Doe\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:Jane Doe\r\n" +
+		"invalid line\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<List<ParseWarning>> warnings = new ArrayList<>();
+		List<String> names;
+		try (Stream<VCard> stream = Ezvcard.parse(str).warnings(warnings).stream()) {
+			names = stream.map(vcard -> vcard.getFormattedName().getValue()).collect(Collectors.toList());
+		}
+		assertEquals(Arrays.asList("John Doe", "Jane Doe"), names);
+
+		assertEquals(2, warnings.size());
+		assertParseWarnings(warnings.get(0));
+		assertParseWarnings(warnings.get(1), 27);
+	}
+
 	@Test
 	public void parse_register() throws Exception {
 		//@formatter:off
@@ -169,6 +223,49 @@ public class EzvcardTest {
 		assertEquals("George Herman ^'Babe^' Ruth", vcard.getFormattedName().getParameter("X-TEST"));
 	}
 
+	@Test
+	public void parse_filter() throws Exception {
+		//@formatter:off
+		String str = 
+		"BEGIN:VCARD\r\n" +
+		"VERSION:4.0\r\n" +
+		"FN:John Doe\r\n" +
+		"NOTE:note\r\n" +
+		"X-FOO:bar\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCard vcard = Ezvcard.parse(str).filter(FormattedName.class).first();
+		assertEquals(1, vcard.getProperties().size());
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+
+		vcard = Ezvcard.parse(str).filter(Collections.emptyList(), Arrays.asList("x-foo")).first();
+		assertEquals(1, vcard.getProperties().size());
+		assertEquals("bar", vcard.getExtendedProperty("X-FOO").getValue());
+	}
+
+	@Test
+	public void parse_lazy() throws Exception {
+		//@formatter:off
+		String str = 
+		"BEGIN:VCARD\r\n" +
+		"VERSION:4.0\r\n" +
+		"FN:John Doe\r\n" +
+		"BDAY:invalid\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<List<ParseWarning>> warnings = new ArrayList<>();
+		VCard vcard = Ezvcard.parse(str).lazy(true).warnings(warnings).first();
+		assertTrue(vcard.hasDeferredProperties());
+		assertParseWarnings(warnings.get(0));
+
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+		assertEquals("invalid", vcard.getBirthday().getText());
+		assertFalse(vcard.hasDeferredProperties());
+		assertParseWarnings(warnings.get(0), 6);
+	}
+
 	@Test
 	public void parseXml_first() throws Exception {
 		XCardBuilder xb = new XCardBuilder();
@@ -209,6 +306,25 @@ public class EzvcardTest {
 		assertFalse(it.hasNext());
 	}
 
+	@Test
+	public void parseXml_stream() throws Exception {
+		XCardBuilder xb = new XCardBuilder();
+		xb.prop("fn", "<text>John Doe</text>");
+		xb.begin();
+		xb.prop("fn", "<text>Jane Doe</text>");
+		List<List<ParseWarning>> warnings = new ArrayList<>();
+
+		List<String> names;
+		try (Stream<VCard> stream = Ezvcard.parseXml(xb.toString()).warnings(warnings).stream()) {
+			names = stream.map(vcard -> vcard.getFormattedName().getValue()).collect(Collectors.toList());
+		}
+		assertEquals(Arrays.asList("John Doe", "Jane Doe"), names);
+
+		assertEquals(2, warnings.size());
+		assertParseWarnings(warnings.get(0));
+		assertParseWarnings(warnings.get(1));
+	}
+
 	@Test
 	public void parseXml_register() throws Exception {
 		XCardBuilder xb = new XCardBuilder();
@@ -375,6 +491,39 @@ public class EzvcardTest {
 		assertFalse(it.hasNext());
 	}
 
+	@Test
+	public void parseJson_stream() {
+		//@formatter:off
+		String json =
+		"[\"vcardstream\"," +
+		  "[\"vcard\"," +
+		    "[" +
+		      "[\"version\", {}, \"text\", \"4.0\"]," +
+		      "[\"fn\", {}, \"text\", \"John Doe\"]" +
+		    "]" +
+		  "]," +
+		  "[\"vcard\"," +
+		    "[" +
+		      "[\"version\", {}, \"text\", \"4.0\"]," +
+		      "[\"fn\", {}, \"text\", \"Jane Doe\"]" +
+		    "]" +
+		  "]" +
+		"]";
+		//@formatter:on
+
+		List<List<ParseWarning>> warnings = new ArrayList<>();
+
+		List<String> names;
+		try (Stream<VCard> stream = Ezvcard.parseJson(json).warnings(warnings).stream()) {
+			names = stream.map(vcard -> vcard.getFormattedName().getValue()).collect(Collectors.toList());
+		}
+		assertEquals(Arrays.asList("John Doe", "Jane Doe"), names);
+
+		assertEquals(2, warnings.size());
+		assertParseWarnings(warnings.get(0));
+		assertParseWarnings(warnings.get(1));
+	}
+
 	@Test
 	public void parseJson_register() {
 		//@formatter:off
@@ -545,6 +694,26 @@ public class EzvcardTest {
 		}
 	}
 
+	@Test
+	public void write_parallel() throws Exception {
+		List<VCard> vcards = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			VCard vcard = new VCard();
+			vcard.setVersion(VCardVersion.values()[i % 3]);
+			vcard.setFormattedName("John Doe " + i);
+			vcard.addNote("In the beginning God created the heavens and the earth. Now the earth was formless and empty.");
+			vcards.add(vcard);
+		}
+
+		String expected = Ezvcard.write(vcards).go();
+		String actual = Ezvcard.write(vcards).parallel(4).go();
+		assertEquals(expected, actual);
+
+		expected = Ezvcard.write(vcards).version(VCardVersion.V4_0).prodId(false).foldLines(false).go();
+		actual = Ezvcard.write(vcards).version(VCardVersion.V4_0).prodId(false).foldLines(false).parallel(4).go();
+		assertEquals(expected, actual);
+	}
+
 	@Test
 	public void write_file() throws Exception {
 		VCard vcard = new VCard();
@@ -0,0 +1,106 @@
+package ezvcard.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import ezvcard.io.scribe.FormattedNameScribe;
+import ezvcard.io.scribe.NoteScribe;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class AggregatingInstrumentationTest {
+	@Test
+	public void aggregate() {
+		AggregatingInstrumentation instrumentation = new AggregatingInstrumentation();
+
+		instrumentation.propertyParsed(new FormattedNameScribe(), 10);
+		instrumentation.propertyParsed(new FormattedNameScribe(), 20);
+		instrumentation.propertyParsed(new NoteScribe(), 5);
+		instrumentation.binaryDataDecoded(100);
+		instrumentation.nestedVCardRead();
+		instrumentation.linesRead(8);
+		instrumentation.warningGenerated(new ParseWarning.Builder().message(27).build());
+		instrumentation.warningGenerated(new ParseWarning.Builder().message("message").build());
+		instrumentation.vcardRead();
+
+		AggregatingInstrumentation.Metrics first = instrumentation.getLastVCard();
+
+		instrumentation.propertyParsed(new FormattedNameScribe(), 30);
+		instrumentation.linesRead(4);
+		instrumentation.vcardRead();
+
+		AggregatingInstrumentation.Metrics metrics = instrumentation.getLastVCard();
+		assertEquals(1, metrics.getVCards());
+		assertEquals(4, metrics.getLines());
+		assertEquals(0, metrics.getNestedVCards());
+		assertEquals(0, metrics.getBinaryBytesDecoded());
+		assertEquals(1, metrics.getParsedProperties().size());
+		assertEquals(1, metrics.getParsedProperties().get("FN").getCount());
+		assertEquals(30, metrics.getParsedProperties().get("FN").getNanos());
+		assertTrue(metrics.getWarningCounts().isEmpty());
+
+		//snapshots are not affected by later measurements
+		assertEquals(1, first.getVCards());
+		assertEquals(8, first.getLines());
+		assertEquals(2, first.getParsedProperties().get("FN").getCount());
+		assertEquals(30, first.getParsedProperties().get("FN").getNanos());
+
+		metrics = instrumentation.getTotal();
+		assertEquals(2, metrics.getVCards());
+		assertEquals(12, metrics.getLines());
+		assertEquals(1, metrics.getNestedVCards());
+		assertEquals(100, metrics.getBinaryBytesDecoded());
+		assertEquals(3, metrics.getParsedProperties().get("FN").getCount());
+		assertEquals(60, metrics.getParsedProperties().get("FN").getNanos());
+		assertEquals(1, metrics.getParsedProperties().get("NOTE").getCount());
+		assertEquals(5, metrics.getParsedProperties().get("NOTE").getNanos());
+		assertEquals(Integer.valueOf(1), metrics.getWarningCounts().get(27));
+		assertEquals(Integer.valueOf(1), metrics.getWarningCounts().get(null));
+
+		instrumentation.propertyWritten(new NoteScribe(), 7);
+		instrumentation.nestedVCardWritten();
+		instrumentation.vcardWritten();
+		metrics = instrumentation.getLastVCard();
+		assertEquals(1, metrics.getVCards());
+		assertEquals(1, metrics.getNestedVCards());
+		assertEquals(7, metrics.getWrittenProperties().get("NOTE").getNanos());
+		assertEquals(3, instrumentation.getTotal().getVCards());
+
+		instrumentation.reset();
+		assertEquals(0, instrumentation.getTotal().getVCards());
+		assertTrue(instrumentation.getTotal().getParsedProperties().isEmpty());
+		assertEquals(0, instrumentation.getLastVCard().getVCards());
+	}
+}
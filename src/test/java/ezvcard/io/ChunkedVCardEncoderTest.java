@@ -0,0 +1,186 @@
+package ezvcard.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.json.JCardWriter;
+import ezvcard.io.text.Utf8VCardWriter;
+import ezvcard.io.text.VCardWriter;
+import ezvcard.io.xml.XCardWriter;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class ChunkedVCardEncoderTest {
+	@Test
+	public void text() throws Exception {
+		assertEncoded(out -> new VCardWriter(out, VCardVersion.V3_0), 10);
+		assertEncoded(out -> new Utf8VCardWriter(out, VCardVersion.V4_0), 1);
+		assertEncoded(out -> new Utf8VCardWriter(out, VCardVersion.V4_0), 100000);
+	}
+
+	@Test
+	public void jcard() throws Exception {
+		assertEncoded(out -> new JCardWriter(out, true), 7);
+	}
+
+	@Test
+	public void xcard() throws Exception {
+		assertEncoded(XCardWriter::new, 50);
+	}
+
+	@Test
+	public void no_vcards() throws Exception {
+		ChunkedVCardEncoder encoder = new ChunkedVCardEncoder(new ArrayList<VCard>().iterator(), out -> new VCardWriter(out, VCardVersion.V4_0), 10);
+		assertNull(encoder.nextChunk());
+		assertTrue(encoder.isDone());
+		assertNull(encoder.nextChunk());
+	}
+
+	@Test
+	public void encodes_on_demand() throws Exception {
+		CountingIterator it = new CountingIterator(vcards(3));
+		ChunkedVCardEncoder encoder = new ChunkedVCardEncoder(it, out -> new VCardWriter(out, VCardVersion.V4_0), 10);
+		assertEquals(0, it.count);
+		assertFalse(encoder.isDone());
+
+		encoder.nextChunk();
+		assertEquals(1, it.count);
+		assertTrue(encoder.available() > 0);
+
+		//the next vCard is not pulled until all of the previous vCard's data has been handed out
+		while (encoder.available() > 0) {
+			encoder.nextChunk();
+			assertEquals(1, it.count);
+		}
+
+		encoder.nextChunk();
+		assertEquals(2, it.count);
+	}
+
+	@Test
+	public void close() throws Exception {
+		ChunkedVCardEncoder encoder = new ChunkedVCardEncoder(vcards(3).iterator(), out -> new VCardWriter(out, VCardVersion.V4_0), 10);
+		encoder.nextChunk();
+		encoder.close();
+
+		assertEquals(0, encoder.available());
+		assertTrue(encoder.isDone());
+		assertNull(encoder.nextChunk());
+
+		//should not fail if called again
+		encoder.close();
+	}
+
+	@Test
+	public void invalid_chunk_size() {
+		try {
+			new ChunkedVCardEncoder(vcards(1).iterator(), out -> new VCardWriter(out, VCardVersion.V4_0), 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	private static void assertEncoded(Function<OutputStream, StreamWriter> writerFactory, int chunkSize) throws IOException {
+		List<VCard> vcards = vcards(5);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (StreamWriter writer = writerFactory.apply(expected)) {
+			for (VCard vcard : vcards) {
+				writer.write(vcard);
+			}
+		}
+
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		try (ChunkedVCardEncoder encoder = new ChunkedVCardEncoder(vcards.iterator(), writerFactory, chunkSize)) {
+			ByteBuffer chunk;
+			while ((chunk = encoder.nextChunk()) != null) {
+				assertTrue(chunk.remaining() > 0);
+				assertTrue(chunk.remaining() <= chunkSize);
+				actual.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+			}
+			assertTrue(encoder.isDone());
+		}
+
+		assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+	}
+
+	private static List<VCard> vcards(int count) {
+		List<VCard> vcards = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			VCard vcard = new VCard();
+			vcard.setFormattedName("John Doe " + i);
+			vcard.addNote("Ɲote " + i);
+			vcard.addEmail("johndoe" + i + "@example.com");
+			vcards.add(vcard);
+		}
+		return vcards;
+	}
+
+	private static class CountingIterator implements Iterator<VCard> {
+		private final Iterator<VCard> it;
+		private int count = 0;
+
+		public CountingIterator(List<VCard> vcards) {
+			it = vcards.iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return it.hasNext();
+		}
+
+		@Override
+		public VCard next() {
+			count++;
+			return it.next();
+		}
+	}
+}
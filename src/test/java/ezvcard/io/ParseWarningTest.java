@@ -3,6 +3,7 @@ package ezvcard.io;
 import static ezvcard.util.TestUtils.assertIntEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -67,6 +68,31 @@ public class ParseWarningTest {
 		assertEquals(Messages.INSTANCE.getParseMessage(2, "arg"), warning.getMessage());
 	}
 
+	@Test
+	public void builder_copy() {
+		ParseWarning original = new ParseWarning.Builder().lineNumber(1).propertyName("PROP").message(2, "arg").build();
+		ParseWarning warning = new ParseWarning.Builder(original).lineNumber(5).build();
+		assertIntEquals(5, warning.getLineNumber());
+		assertEquals("PROP", warning.getPropertyName());
+		assertIntEquals(2, warning.getCode());
+		assertEquals(Messages.INSTANCE.getParseMessage(2, "arg"), warning.getMessage());
+
+		//message has already been built
+		warning = new ParseWarning.Builder(original).build();
+		assertEquals(Messages.INSTANCE.getParseMessage(2, "arg"), warning.getMessage());
+
+		//replacing a code message with a string message
+		warning = new ParseWarning.Builder(original).message("message").build();
+		assertNull(warning.getCode());
+		assertEquals("message", warning.getMessage());
+	}
+
+	@Test
+	public void message_built_once() {
+		ParseWarning warning = new ParseWarning.Builder().message(2, "arg").build();
+		assertSame(warning.getMessage(), warning.getMessage());
+	}
+
 	@Test
 	public void builder_CannotParseException_reason() {
 		CannotParseException e = new CannotParseException("reason");
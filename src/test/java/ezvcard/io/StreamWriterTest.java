@@ -8,10 +8,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -22,14 +24,25 @@ import org.junit.Test;
 
 import ezvcard.VCard;
 import ezvcard.VCardVersion;
+import ezvcard.io.PreparedVCard.PreparedProperty;
+import ezvcard.io.json.JCardWriter;
+import ezvcard.io.scribe.TelephoneScribe;
+import ezvcard.io.text.VCardWriter;
+import ezvcard.io.xml.XCardDocument;
+import ezvcard.io.xml.XCardWriter;
 import ezvcard.parameter.AddressType;
+import ezvcard.parameter.ImageType;
+import ezvcard.parameter.TelephoneType;
+import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Address;
 import ezvcard.property.FormattedName;
 import ezvcard.property.Gender;
 import ezvcard.property.Label;
 import ezvcard.property.Mailer;
+import ezvcard.property.Photo;
 import ezvcard.property.ProductId;
 import ezvcard.property.RawProperty;
+import ezvcard.property.Telephone;
 import ezvcard.property.VCardProperty;
 import ezvcard.util.ListMultimap;
 
@@ -308,6 +321,111 @@ public class StreamWriterTest {
 		assertEquals(3, writer.count(Address.class));
 	}
 
+	@Test
+	public void prepare() throws IOException {
+		writer.setAddProdId(false);
+		Telephone tel = new Telephone("555-555-5555");
+		tel.setPref(1);
+		vcard.addTelephoneNumber(tel);
+
+		PreparedVCard prepared = writer.prepare(vcard);
+		assertSame(vcard, prepared.getVCard());
+		assertEquals(V4_0, prepared.getVersion());
+		assertEquals(1, prepared.getProperties().size());
+
+		PreparedProperty property = prepared.getProperties().get(0);
+		assertSame(tel, property.getProperty());
+		assertTrue(property.getScribe() instanceof TelephoneScribe);
+
+		//each call returns a separate copy
+		VCardParameters parameters = property.getParameters();
+		assertEquals(Integer.valueOf(1), parameters.getPref());
+		parameters.clear();
+		assertEquals(Integer.valueOf(1), property.getParameters().getPref());
+		assertEquals(Integer.valueOf(1), tel.getPref());
+
+		writer.write(prepared);
+		assertEquals(1, writer.count(Telephone.class));
+	}
+
+	@Test
+	public void prepare_wrong_version() throws IOException {
+		PreparedVCard prepared = writer.prepare(vcard);
+
+		writer.targetVersion = V3_0;
+		try {
+			writer.write(prepared);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+
+		assertNull(writer.properties); //vCard was not written
+	}
+
+	@Test
+	public void prepare_multiple_writers() throws IOException {
+		vcard.setFormattedName("John Doe");
+		vcard.getFormattedName().setGroup("group");
+		vcard.getFormattedName().getParameters().setCharset("UTF-8");
+
+		Telephone tel = new Telephone("555-555-5555");
+		tel.setPref(1);
+		tel.getTypes().add(TelephoneType.CELL);
+		vcard.addTelephoneNumber(tel);
+
+		Address adr = new Address();
+		adr.setStreetAddress("123 Main St");
+		adr.setLabel("123 Main St");
+		vcard.addAddress(adr);
+
+		vcard.addPhoto(new Photo(new byte[] { 1, 2, 3 }, ImageType.JPEG));
+
+		VCardParameters originalTelParameters = new VCardParameters(tel.getParameters());
+
+		for (VCardVersion version : VCardVersion.values()) {
+			StringWriter expected = new StringWriter();
+			try (VCardWriter writer = new VCardWriter(expected, version)) {
+				writer.write(vcard);
+			}
+
+			StringWriter actual = new StringWriter();
+			try (VCardWriter writer = new VCardWriter(actual, version)) {
+				writer.write(writer.prepare(vcard));
+			}
+
+			assertEquals(expected.toString(), actual.toString());
+		}
+
+		StringWriter expectedJson = new StringWriter();
+		try (JCardWriter writer = new JCardWriter(expectedJson)) {
+			writer.write(vcard);
+		}
+		StringWriter expectedXml = new StringWriter();
+		try (XCardWriter writer = new XCardWriter(expectedXml)) {
+			writer.write(vcard);
+		}
+		XCardDocument expectedDocument = new XCardDocument();
+		expectedDocument.writer().write(vcard);
+
+		StringWriter actualJson = new StringWriter();
+		StringWriter actualXml = new StringWriter();
+		XCardDocument actualDocument = new XCardDocument();
+		try (JCardWriter jcardWriter = new JCardWriter(actualJson); XCardWriter xcardWriter = new XCardWriter(actualXml)) {
+			PreparedVCard prepared = jcardWriter.prepare(vcard);
+			jcardWriter.write(prepared);
+			xcardWriter.write(prepared);
+			actualDocument.writer().write(prepared);
+		}
+
+		assertEquals(expectedJson.toString(), actualJson.toString());
+		assertEquals(expectedXml.toString(), actualXml.toString());
+		assertEquals(expectedDocument.write(), actualDocument.write());
+
+		//the property objects were not modified
+		assertEquals(originalTelParameters, tel.getParameters());
+	}
+
 	private class StreamWriterStub extends StreamWriter {
 		private VCardVersion targetVersion;
 		private List<VCardProperty> propertiesList;
@@ -332,10 +450,12 @@ public class StreamWriterTest {
 		}
 
 		@Override
-		protected void _write(VCard vcard, List<VCardProperty> properties) throws IOException {
-			propertiesList = properties;
+		protected void _write(PreparedVCard vcard) throws IOException {
+			propertiesList = new ArrayList<>();
 			this.properties = new ListMultimap<>();
-			for (VCardProperty property : properties) {
+			for (PreparedProperty prepared : vcard.getProperties()) {
+				VCardProperty property = prepared.getProperty();
+				propertiesList.add(property);
 				this.properties.put(property.getClass(), property);
 			}
 		}
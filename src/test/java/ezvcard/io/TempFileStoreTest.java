@@ -0,0 +1,91 @@
+package ezvcard.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ezvcard.util.org.apache.commons.codec.binary.Base64;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class TempFileStoreTest {
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void accepts() {
+		TempFileStore store = new TempFileStore(3);
+		assertFalse(store.accepts("", 0));
+		assertFalse(store.accepts("ZGF", 0));
+		assertTrue(store.accepts("ZGF0", 0));
+		assertFalse(store.accepts("xxZGF0", 3));
+		assertTrue(store.accepts("xxZGF0", 2));
+	}
+
+	@Test
+	public void decode() throws Exception {
+		File dir = tempFolder.newFolder();
+		TempFileStore store = new TempFileStore(0, dir.toPath());
+
+		byte[] data = new byte[10000];
+		new Random(1).nextBytes(data);
+		String value = "prefix," + Base64.encodeBase64String(data);
+
+		ByteBuffer buffer = store.decode(value, 7);
+		assertTrue(buffer.isReadOnly());
+		assertEquals(data.length, buffer.remaining());
+
+		byte[] actual = new byte[buffer.remaining()];
+		buffer.get(actual);
+		assertArrayEquals(data, actual);
+
+		//the file is deleted after it is mapped
+		assertEquals(0, dir.list().length);
+	}
+
+	@Test
+	public void decode_empty() throws Exception {
+		TempFileStore store = new TempFileStore(0, tempFolder.getRoot().toPath());
+		ByteBuffer buffer = store.decode("", 0);
+		assertEquals(0, buffer.remaining());
+	}
+}
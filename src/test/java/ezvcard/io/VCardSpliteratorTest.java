@@ -0,0 +1,180 @@
+package ezvcard.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import ezvcard.VCard;
+import ezvcard.io.text.VCardReader;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class VCardSpliteratorTest {
+	@Test
+	public void lazy() throws Exception {
+		CountingReader reader = new CountingReader(vcards(10));
+		try (Stream<VCard> stream = reader.stream()) {
+			VCard vcard = stream.findFirst().orElse(null);
+			assertNotNull(vcard);
+			assertEquals("0", vcard.getFormattedName().getValue());
+		}
+		assertEquals(1, reader.reads);
+	}
+
+	@Test
+	public void closes_reader() throws Exception {
+		CountingReader reader = new CountingReader(vcards(1));
+		try (Stream<VCard> stream = reader.stream()) {
+			assertEquals(1, stream.count());
+			assertFalse(reader.closed);
+		}
+		assertTrue(reader.closed);
+	}
+
+	@Test
+	public void warnings() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John Doe\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"invalid line\r\n" +
+		"invalid line\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<List<ParseWarning>> warnings = new ArrayList<>();
+		try (Stream<VCard> stream = new VCardReader(str).stream(warnings)) {
+			assertEquals(2, stream.count());
+		}
+
+		assertEquals(2, warnings.size());
+		assertEquals(0, warnings.get(0).size());
+		assertEquals(2, warnings.get(1).size());
+	}
+
+	@Test
+	public void parallel() throws Exception {
+		int count = 5000;
+		List<List<ParseWarning>> warnings = new ArrayList<>();
+		List<String> names;
+		try (Stream<VCard> stream = new VCardReader(vcards(count)).stream(warnings)) {
+			//@formatter:off
+			names = stream.parallel()
+				.map(vcard -> vcard.getFormattedName().getValue())
+				.collect(Collectors.toList());
+			//@formatter:on
+		}
+
+		assertEquals(count, names.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(Integer.toString(i), names.get(i));
+		}
+		assertEquals(count, warnings.size());
+	}
+
+	@Test
+	public void trySplit() throws Exception {
+		Spliterator<VCard> spliterator = new VCardSpliterator(new VCardReader(vcards(10)));
+		assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+		assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+
+		Spliterator<VCard> prefix = spliterator.trySplit();
+		assertNotNull(prefix);
+		assertEquals(10, prefix.estimateSize());
+		assertFalse(spliterator.tryAdvance(vcard -> fail()));
+	}
+
+	@Test(expected = UncheckedIOException.class)
+	public void ioexception() {
+		StreamReader reader = new StreamReader() {
+			@Override
+			protected VCard _readNext() throws IOException {
+				throw new IOException();
+			}
+
+			public void close() {
+				//empty
+			}
+		};
+		reader.stream().count();
+	}
+
+	private static String vcards(int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			sb.append("BEGIN:VCARD\r\nVERSION:3.0\r\nFN:").append(i).append("\r\nEND:VCARD\r\n");
+		}
+		return sb.toString();
+	}
+
+	private static class CountingReader extends VCardReader {
+		private int reads = 0;
+		private boolean closed = false;
+
+		public CountingReader(String str) {
+			super(new StringReader(str));
+		}
+
+		@Override
+		protected VCard _readNext() throws IOException {
+			VCard vcard = super._readNext();
+			if (vcard != null) {
+				reads++;
+			}
+			return vcard;
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+}
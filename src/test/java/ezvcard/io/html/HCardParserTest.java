@@ -834,6 +834,36 @@ public class HCardParserTest {
 		//@formatter:on
 	}
 
+
+	@Test
+	public void propertyFilter() throws Exception {
+		//@formatter:off
+		String html =
+		"<html>" +
+			"<body>" +
+				"<div class=\"vcard\">" +
+					"<span class=\"fn\">John Doe</span>" +
+					"<span class=\"note\">note</span>" +
+					"<a class=\"url\" href=\"aim:goim?screenname=johndoe\">IM</a>" +
+					"<div class=\"agent vcard\">" +
+						"<span class=\"fn\">Agent 007</span>" +
+					"</div>" +
+				"</div>" +
+			"</body>" +
+		"</html>";
+		//@formatter:on
+
+		HCardParser parser = new HCardParser(html, "http://johndoe.com/vcard.html");
+		parser.setPropertyFilter(FormattedName.class, Url.class);
+		VCard vcard = parser.readNext();
+
+		assertEquals(2, vcard.getProperties().size());
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+		assertEquals("aim:goim?screenname=johndoe", vcard.getUrls().get(0).getValue());
+		assertParseWarnings(parser);
+		assertNoMoreVCards(parser);
+	}
+
 	private static VCardAsserter readHtml(String html) {
 		HCardParser parser = new HCardParser(html);
 		return new VCardAsserter(parser);
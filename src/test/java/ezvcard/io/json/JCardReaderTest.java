@@ -5,7 +5,10 @@ import static ezvcard.util.TestUtils.assertNoMoreVCards;
 import static ezvcard.util.TestUtils.assertParseWarnings;
 import static ezvcard.util.TestUtils.assertPropertyCount;
 import static ezvcard.util.TestUtils.assertVersion;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
@@ -13,6 +16,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -24,12 +29,14 @@ import ezvcard.VCardVersion;
 import ezvcard.io.MyFormattedNameProperty;
 import ezvcard.io.MyFormattedNameProperty.MyFormattedNameScribe;
 import ezvcard.io.ParseContext;
+import ezvcard.io.TempFileStore;
 import ezvcard.io.scribe.CannotParseScribe;
 import ezvcard.io.scribe.SkipMeScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.io.text.WriteContext;
 import ezvcard.parameter.AddressType;
 import ezvcard.parameter.EmailType;
+import ezvcard.parameter.ImageType;
 import ezvcard.parameter.TelephoneType;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Anniversary;
@@ -38,13 +45,16 @@ import ezvcard.property.FormattedName;
 import ezvcard.property.Gender;
 import ezvcard.property.Key;
 import ezvcard.property.Language;
+import ezvcard.property.Logo;
 import ezvcard.property.Note;
 import ezvcard.property.Organization;
+import ezvcard.property.Photo;
 import ezvcard.property.Url;
 import ezvcard.property.VCardProperty;
 import ezvcard.property.asserter.VCardAsserter;
 import ezvcard.util.PartialDate;
 import ezvcard.util.TelUri;
+import ezvcard.util.org.apache.commons.codec.binary.Base64;
 
 /*
  Copyright (c) 2012-2023, Michael Angstadt
@@ -515,6 +525,67 @@ public class JCardReaderTest {
 		asserter.done();
 	}
 
+
+	@Test
+	public void propertyFilter() throws Exception {
+		//@formatter:off
+		String json =
+		"[\"vcard\"," +
+			"[" +
+				"[\"version\", {}, \"text\", \"4.0\"]," +
+				"[\"fn\", {}, \"text\", \"John Doe\"]," +
+				"[\"note\", {\"x-param\": [\"one\", \"two\"]}, \"text\", [\"one\", {\"two\": [3]}]]," +
+				"[\"x-foo\", {}, \"text\", \"bar\"]," +
+				"[\"x-baz\", {}, \"text\", \"bar\"]" +
+			"]" +
+		"]";
+		//@formatter:on
+
+		JCardReader reader = new JCardReader(json);
+		reader.setPropertyFilter(Arrays.<Class<? extends VCardProperty>> asList(FormattedName.class), Arrays.asList("X-FOO"));
+		VCard vcard = reader.readNext();
+
+		assertVersion(V4_0, vcard);
+		assertEquals(2, vcard.getProperties().size());
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+		assertEquals("bar", vcard.getExtendedProperty("x-foo").getValue());
+		assertParseWarnings(reader);
+		assertNoMoreVCards(reader);
+	}
+
+	@Test
+	public void tempFileStore() throws Exception {
+		byte[] data = new byte[2000];
+		new Random(1).nextBytes(data);
+
+		//@formatter:off
+		String json =
+		"[\"vcard\"," +
+			"[" +
+				"[\"version\", {}, \"text\", \"4.0\"]," +
+				"[\"photo\", {}, \"uri\", \"data:image/png;base64," + Base64.encodeBase64String(data) + "\"]," +
+				"[\"logo\", {}, \"uri\", \"data:image/png;base64,ZGF0YQ==\"]" +
+			"]" +
+		"]";
+		//@formatter:on
+
+		JCardReader reader = new JCardReader(json);
+		reader.setTempFileStore(new TempFileStore(1000, tempFolder.getRoot().toPath()));
+		VCard vcard = reader.readNext();
+
+		Photo photo = vcard.getPhotos().get(0);
+		assertEquals(ImageType.PNG, photo.getContentType());
+		assertTrue(photo.getDataBuffer().isDirect());
+		assertArrayEquals(data, photo.getData());
+
+		Logo logo = vcard.getLogos().get(0);
+		assertFalse(logo.getDataBuffer().isDirect());
+		assertArrayEquals("data".getBytes(), logo.getData());
+
+		assertParseWarnings(reader);
+		assertNoMoreVCards(reader);
+	}
+
 	private static VCardAsserter readJson(String json) {
 		JCardReader reader = new JCardReader(json);
 		return new VCardAsserter(reader);
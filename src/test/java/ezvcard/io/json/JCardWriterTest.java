@@ -6,10 +6,12 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.Random;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -19,12 +21,17 @@ import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.ParseContext;
+import ezvcard.io.SkipMeException;
+import ezvcard.io.scribe.KeyScribe;
+import ezvcard.io.scribe.PhotoScribe;
 import ezvcard.io.scribe.SkipMeScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.io.text.WriteContext;
 import ezvcard.parameter.AddressType;
 import ezvcard.parameter.EmailType;
 import ezvcard.parameter.Encoding;
+import ezvcard.parameter.ImageType;
+import ezvcard.parameter.KeyType;
 import ezvcard.parameter.TelephoneType;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Address;
@@ -34,6 +41,7 @@ import ezvcard.property.FormattedName;
 import ezvcard.property.Gender;
 import ezvcard.property.Geo;
 import ezvcard.property.Key;
+import ezvcard.property.Photo;
 import ezvcard.property.SkipMeProperty;
 import ezvcard.property.StructuredName;
 import ezvcard.property.Telephone;
@@ -42,6 +50,7 @@ import ezvcard.property.VCardProperty;
 import ezvcard.util.Gobble;
 import ezvcard.util.PartialDate;
 import ezvcard.util.TelUri;
+import ezvcard.util.org.apache.commons.codec.binary.Base64;
 
 /*
  Copyright (c) 2012-2023, Michael Angstadt
@@ -102,6 +111,75 @@ public class JCardWriterTest {
 		assertEquals(expected, sw.toString());
 	}
 
+	@Test
+	public void binary_data() throws Throwable {
+		byte[] data = new byte[10000];
+		new Random(1).nextBytes(data);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+		buffer.put(data).flip();
+
+		StringWriter sw = new StringWriter();
+		try (JCardWriter writer = new JCardWriter(sw)) {
+			writer.setAddProdId(false);
+
+			VCard vcard = new VCard();
+			vcard.addPhoto(new Photo(buffer, ImageType.JPEG));
+			vcard.addKey(new Key(data, KeyType.PGP));
+			writer.write(vcard);
+		}
+
+		//@formatter:off
+		String expected =
+		"[\"vcard\"," +
+			"[" +
+				"[\"version\",{},\"text\",\"4.0\"]," +
+				"[\"photo\",{},\"uri\",\"data:image/jpeg;base64," + Base64.encodeBase64String(data) + "\"]," +
+				"[\"key\",{},\"uri\",\"data:application/pgp-keys;base64," + Base64.encodeBase64String(data) + "\"]" +
+			"]" +
+		"]";
+		//@formatter:on
+		assertEquals(expected, sw.toString());
+	}
+
+	@Test
+	public void binary_data_scribe_overrides_writeJson() throws Throwable {
+		byte[] data = new byte[100];
+		new Random(1).nextBytes(data);
+
+		StringWriter sw = new StringWriter();
+		try (JCardWriter writer = new JCardWriter(sw)) {
+			writer.setAddProdId(false);
+			writer.registerScribe(new PhotoScribe() {
+				@Override
+				protected JCardValue _writeJson(Photo property) {
+					throw new SkipMeException();
+				}
+			});
+			writer.registerScribe(new KeyScribe() {
+				@Override
+				protected JCardValue _writeJson(Key property) {
+					return JCardValue.single("custom");
+				}
+			});
+
+			VCard vcard = new VCard();
+			vcard.addPhoto(new Photo(data, ImageType.JPEG));
+			vcard.addKey(new Key(data, KeyType.PGP));
+			writer.write(vcard);
+		}
+
+		//@formatter:off
+		String expected =
+		"[\"vcard\"," +
+			"[" +
+				"[\"version\",{},\"text\",\"4.0\"]," +
+				"[\"key\",{},\"uri\",\"custom\"]" +
+			"]" +
+		"]";
+		//@formatter:on
+		assertEquals(expected, sw.toString());
+	}
+
 	@Test
 	public void write_multiple_vcards() throws Throwable {
 		StringWriter sw = new StringWriter();
@@ -7,15 +7,21 @@ import static ezvcard.VCardVersion.V3_0;
 import static ezvcard.VCardVersion.V4_0;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
 import ezvcard.VCardVersion;
+import ezvcard.io.json.JCardValue;
 import ezvcard.io.scribe.Sensei.Check;
+import ezvcard.io.text.WriteContext;
 import ezvcard.parameter.Encoding;
 import ezvcard.parameter.ImageType;
+import ezvcard.parameter.KeyType;
 import ezvcard.property.BinaryProperty;
+import ezvcard.property.Key;
 import ezvcard.util.DataUri;
 import ezvcard.util.org.apache.commons.codec.binary.Base64;
 
@@ -139,6 +145,55 @@ public class BinaryPropertyScribeTest {
 		sensei.assertWriteJson(empty).run("");
 	}
 
+	@Test
+	public void canStream() {
+		assertTrue(scribe.canStreamText(withData));
+		assertTrue(scribe.canStreamXml(withData));
+		assertTrue(scribe.canStreamJson(withData));
+
+		assertFalse(scribe.canStreamText(withUrl));
+		assertFalse(scribe.canStreamXml(withUrl));
+		assertFalse(scribe.canStreamJson(withUrl));
+
+		assertFalse(scribe.canStreamText(empty));
+		assertFalse(scribe.canStreamXml(empty));
+		assertFalse(scribe.canStreamJson(empty));
+	}
+
+	@Test
+	public void canStream_overridden() {
+		BinaryPropertyScribeImpl scribe = new BinaryPropertyScribeImpl() {
+			@Override
+			protected JCardValue _writeJson(BinaryPropertyImpl property) {
+				return JCardValue.single("custom");
+			}
+		};
+
+		assertTrue(scribe.canStreamText(withData));
+		assertTrue(scribe.canStreamXml(withData));
+		assertFalse(scribe.canStreamJson(withData));
+	}
+
+	@Test
+	public void canStream_key() {
+		Key key = new Key("data".getBytes(), KeyType.PGP);
+
+		KeyScribe scribe = new KeyScribe();
+		assertTrue(scribe.canStreamText(key));
+		assertTrue(scribe.canStreamXml(key));
+		assertTrue(scribe.canStreamJson(key));
+
+		scribe = new KeyScribe() {
+			@Override
+			protected String _writeText(Key property, WriteContext context) {
+				return "custom";
+			}
+		};
+		assertFalse(scribe.canStreamText(key));
+		assertTrue(scribe.canStreamXml(key));
+		assertTrue(scribe.canStreamJson(key));
+	}
+
 	@Test
 	public void parseText_url() {
 		{
@@ -0,0 +1,111 @@
+package ezvcard.io.scribe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class PropertyNameTableTest {
+	@Test
+	public void case_insensitive() {
+		PropertyNameTable<String> table = new PropertyNameTable<>();
+		table.put("X-Foo", "one");
+		assertEquals("one", table.get("X-FOO"));
+		assertEquals("one", table.get("x-foo"));
+
+		table.put("x-FOO", "two");
+		assertEquals(1, table.size());
+		assertEquals("two", table.get("X-Foo"));
+
+		table.remove("X-FOO");
+		assertEquals(0, table.size());
+		assertNull(table.get("X-Foo"));
+	}
+
+	@Test
+	public void ascii_only() {
+		assertTrue(PropertyNameTable.equalsIgnoreAsciiCase("x-foo", "X-FOO"));
+		assertFalse(PropertyNameTable.equalsIgnoreAsciiCase("x-foo", "X-FO"));
+		assertFalse(PropertyNameTable.equalsIgnoreAsciiCase("\u00e9", "\u00c9"));
+		assertEquals(PropertyNameTable.hash("x-foo"), PropertyNameTable.hash("X-FOO"));
+	}
+
+	@Test
+	public void perfect() {
+		PropertyNameTable<String> table = new PropertyNameTable<>();
+		for (int i = 0; i < 50; i++) {
+			table.put("X-" + i, "value" + i);
+		}
+
+		PropertyNameTable<String> perfect = PropertyNameTable.perfect(table);
+		assertEquals(50, perfect.size());
+		for (int i = 0; i < 50; i++) {
+			assertEquals("value" + i, perfect.get("x-" + i));
+		}
+		assertNull(perfect.get("X-50"));
+	}
+
+	@Test
+	public void random_operations() {
+		PropertyNameTable<Integer> table = new PropertyNameTable<>();
+		Map<String, Integer> expected = new HashMap<>();
+		Random random = new Random(0);
+
+		for (int i = 0; i < 10000; i++) {
+			String name = "X-" + random.nextInt(200);
+			if (random.nextBoolean()) {
+				table.put(name, i);
+				expected.put(name, i);
+			} else {
+				table.remove(name.toLowerCase());
+				expected.remove(name);
+			}
+
+			if (i % 100 == 0) {
+				assertEquals(expected.size(), table.size());
+				for (int j = 0; j < 200; j++) {
+					String n = "X-" + j;
+					assertEquals(expected.get(n), table.get(n));
+				}
+			}
+		}
+	}
+}
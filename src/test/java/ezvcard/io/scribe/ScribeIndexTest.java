@@ -0,0 +1,181 @@
+package ezvcard.io.scribe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import javax.xml.namespace.QName;
+
+import org.junit.Test;
+
+import ezvcard.VCardVersion;
+import ezvcard.io.LuckyNumProperty;
+import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
+import ezvcard.property.FormattedName;
+import ezvcard.property.Kind;
+import ezvcard.property.RawProperty;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class ScribeIndexTest {
+	@Test
+	public void getPropertyScribe_name() {
+		ScribeIndex index = new ScribeIndex();
+		assertTrue(index.getPropertyScribe("FN") instanceof FormattedNameScribe);
+		assertTrue(index.getPropertyScribe("fn") instanceof FormattedNameScribe);
+		assertTrue(index.getPropertyScribe("Fn") instanceof FormattedNameScribe);
+		assertTrue(index.getPropertyScribe("name") instanceof SourceDisplayTextScribe);
+		assertTrue(index.getPropertyScribe("sort-string") instanceof SortStringScribe);
+		assertNull(index.getPropertyScribe("X-FOO"));
+		assertNull(index.getPropertyScribe(""));
+	}
+
+	@Test
+	public void register() {
+		ScribeIndex index = new ScribeIndex();
+		LuckyNumScribe scribe = new LuckyNumScribe();
+		index.register(scribe);
+
+		assertSame(scribe, index.getPropertyScribe("x-lucky-num"));
+		assertSame(scribe, index.getPropertyScribe(LuckyNumProperty.class));
+		assertSame(scribe, index.getPropertyScribe(scribe.getQName()));
+
+		index.unregister(scribe);
+		assertNull(index.getPropertyScribe("X-LUCKY-NUM"));
+		assertNull(index.getPropertyScribe(LuckyNumProperty.class));
+	}
+
+	@Test
+	public void register_override_standard() {
+		ScribeIndex index = new ScribeIndex();
+		FormattedNameScribe scribe = new FormattedNameScribe();
+		index.register(scribe);
+		assertSame(scribe, index.getPropertyScribe("fn"));
+
+		index.unregister(scribe);
+		assertTrue(index.getPropertyScribe("fn") instanceof FormattedNameScribe);
+		assertTrue(index.getPropertyScribe("fn") != scribe);
+	}
+
+	@Test
+	public void getRawPropertyScribe() {
+		ScribeIndex index = new ScribeIndex();
+		RawPropertyScribe scribe = index.getRawPropertyScribe("X-FOO");
+		assertEquals("X-FOO", scribe.getPropertyName());
+		assertSame(scribe, index.getRawPropertyScribe("X-FOO"));
+		assertSame(scribe, new ScribeIndex().getRawPropertyScribe("X-FOO"));
+		assertSame(scribe, index.getPropertyScribe(new RawProperty("X-FOO", "value")));
+
+		//case-sensitive
+		assertEquals("x-foo", index.getRawPropertyScribe("x-foo").getPropertyName());
+
+		QName qname = new QName(VCardVersion.V4_0.getXmlNamespace(), "x-foo");
+		assertSame(scribe, index.getPropertyScribe(qname));
+	}
+
+	@Test
+	public void freeze() {
+		ScribeIndex index = new ScribeIndex();
+		LuckyNumScribe scribe = new LuckyNumScribe();
+		index.register(scribe);
+		assertFalse(index.isFrozen());
+
+		ScribeIndex frozen = index.freeze();
+		assertTrue(frozen.isFrozen());
+		assertSame(frozen, frozen.freeze());
+		assertSame(scribe, frozen.getPropertyScribe("X-LUCKY-NUM"));
+		assertSame(scribe, frozen.getPropertyScribe(LuckyNumProperty.class));
+		assertSame(scribe, frozen.getPropertyScribe(scribe.getQName()));
+		assertTrue(frozen.getPropertyScribe(new FormattedName("John Doe")) instanceof FormattedNameScribe);
+
+		//changes to the original are not visible to the frozen copy
+		index.unregister(scribe);
+		assertSame(scribe, frozen.getPropertyScribe("X-LUCKY-NUM"));
+	}
+
+	@Test
+	public void getWritePlan() {
+		ScribeIndex index = new ScribeIndex();
+
+		WritePlan plan = index.getWritePlan(Kind.class);
+		assertTrue(plan.getScribe() instanceof KindScribe);
+		assertFalse(plan.isSupportedBy(VCardVersion.V2_1));
+		assertFalse(plan.isSupportedBy(VCardVersion.V3_0));
+		assertTrue(plan.isSupportedBy(VCardVersion.V4_0));
+
+		plan = index.getWritePlan(FormattedName.class);
+		for (VCardVersion version : VCardVersion.values()) {
+			assertTrue(plan.isSupportedBy(version));
+		}
+
+		assertNull(index.getWritePlan(LuckyNumProperty.class).getScribe());
+		assertNull(index.getWritePlan(RawProperty.class).getScribe());
+
+		//cached and shared by indexes without extended scribes
+		assertSame(plan, index.getWritePlan(FormattedName.class));
+		assertSame(plan, new ScribeIndex().getWritePlan(FormattedName.class));
+	}
+
+	@Test
+	public void getWritePlan_register() {
+		ScribeIndex index = new ScribeIndex();
+		assertNull(index.getWritePlan(LuckyNumProperty.class).getScribe());
+
+		LuckyNumScribe scribe = new LuckyNumScribe();
+		index.register(scribe);
+		assertSame(scribe, index.getWritePlan(LuckyNumProperty.class).getScribe());
+
+		FormattedNameScribe fnScribe = new FormattedNameScribe();
+		index.register(fnScribe);
+		assertSame(fnScribe, index.getWritePlan(FormattedName.class).getScribe());
+
+		index.unregister(fnScribe);
+		assertTrue(index.getWritePlan(FormattedName.class).getScribe() instanceof FormattedNameScribe);
+		assertTrue(index.getWritePlan(FormattedName.class).getScribe() != fnScribe);
+
+		index.unregister(scribe);
+		assertNull(index.getWritePlan(LuckyNumProperty.class).getScribe());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void freeze_register() {
+		new ScribeIndex().freeze().register(new LuckyNumScribe());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void freeze_unregister() {
+		new ScribeIndex().freeze().unregister(new LuckyNumScribe());
+	}
+}
@@ -0,0 +1,299 @@
+package ezvcard.io.text;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.ParseWarning;
+import ezvcard.io.StreamReader;
+import ezvcard.property.FormattedName;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class IncrementalVCardReaderTest {
+	@Test
+	public void sample_files() throws Exception {
+		//@formatter:off
+		String[] files = {
+			"John_Doe_ANDROID.vcf", "John_Doe_BLACK_BERRY.vcf", "John_Doe_EVOLUTION.vcf",
+			"John_Doe_GMAIL.vcf", "John_Doe_IPHONE.vcf", "John_Doe_LOTUS_NOTES.vcf",
+			"John_Doe_MAC_ADDRESS_BOOK.vcf", "John_Doe_MS_OUTLOOK.vcf", "fullcontact.vcf",
+			"gmail-list.vcf", "gmail-single.vcf", "gmail-single2.vcf", "outlook-2003.vcf",
+			"outlook-2007.vcf", "rfc2426-example.vcf", "rfc6350-example.vcf",
+			"thunderbird-MoreFunctionsForAddressBook-extension.vcf"
+		};
+		//@formatter:on
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (String file : files) {
+			out.write(load(file));
+			out.write(new byte[] { '\r', '\n' });
+		}
+		byte[] data = out.toByteArray();
+
+		for (int chunkSize : new int[] { 1, 2, 3, 7, 100, 4096, data.length }) {
+			assertSameAsSequential(data, StandardCharsets.UTF_8, chunkSize);
+		}
+	}
+
+	@Test
+	public void chunk_boundaries() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=UTF-8:one =C3=A9=\r\n" +
+		"END:VCARD=\r\n" +
+		"two\r\n" +
+		"FN:Jöhn 中😀\r\n" +
+		" Doe\r\n" +
+		"END:VC\r\n" +
+		" ARD\r" +
+		"BEGIN:VCARD\n" +
+		"VERSION:3.0\n" +
+		"NOTE:three\r\n" +
+		"\r\n" +
+		" four\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		byte[] data = str.getBytes(StandardCharsets.UTF_8);
+		for (int chunkSize = 1; chunkSize < 20; chunkSize++) {
+			List<VCard> vcards = assertSameAsSequential(data, StandardCharsets.UTF_8, chunkSize);
+			assertEquals(2, vcards.size());
+			assertEquals("one éEND:VCARDtwo", vcards.get(0).getNotes().get(0).getValue());
+			assertEquals("Jöhn 中😀Doe", vcards.get(0).getFormattedName().getValue());
+			assertEquals("threefour", vcards.get(1).getNotes().get(0).getValue());
+		}
+	}
+
+	@Test
+	public void other_charset() throws Exception {
+		String str = "BEGIN:VCARD\r\nVERSION:2.1\r\nFN:Jöhn\r\nNOTE;ENCODING=QUOTED-PRINTABLE:=F6\r\nEND:VCARD\r\n";
+		byte[] data = str.getBytes(StandardCharsets.ISO_8859_1);
+
+		List<VCard> vcards = assertSameAsSequential(data, StandardCharsets.ISO_8859_1, 5);
+		assertEquals("Jöhn", vcards.get(0).getFormattedName().getValue());
+		assertEquals("ö", vcards.get(0).getNotes().get(0).getValue());
+	}
+
+	@Test
+	public void malformed_bytes() throws Exception {
+		byte[] data = { 'B', 'E', 'G', 'I', 'N', ':', 'V', 'C', 'A', 'R', 'D', '\r', '\n', 'F', 'N', ':', (byte) 0xc3, '\r', '\n', 'E', 'N', 'D', ':', 'V', 'C', 'A', 'R', 'D', '\r', '\n' };
+		for (int chunkSize = 1; chunkSize < 5; chunkSize++) {
+			List<VCard> vcards = assertSameAsSequential(data, StandardCharsets.UTF_8, chunkSize);
+			assertEquals("�", vcards.get(0).getFormattedName().getValue());
+		}
+
+		//ends in the middle of a character
+		data = new byte[] { 'B', 'E', 'G', 'I', 'N', ':', 'V', 'C', 'A', 'R', 'D', '\r', '\n', 'F', 'N', ':', (byte) 0xe4, (byte) 0xb8 };
+		assertSameAsSequential(data, StandardCharsets.UTF_8, 1);
+	}
+
+	@Test
+	public void warning_line_numbers() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"invalid line\r\n" +
+		"END:VCARD\r\n" +
+		"junk between vCards\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John Doe\r\n" +
+		"invalid line\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		IncrementalVCardReader reader = new IncrementalVCardReader(StandardCharsets.UTF_8);
+		reader.feed(ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8)));
+		reader.endOfInput();
+
+		assertNotNull(reader.readNext());
+		assertEquals(1, reader.getWarnings().size());
+		assertEquals(Integer.valueOf(3), reader.getWarnings().get(0).getLineNumber());
+
+		assertNotNull(reader.readNext());
+		assertEquals(1, reader.getWarnings().size());
+		assertEquals(Integer.valueOf(9), reader.getWarnings().get(0).getLineNumber());
+
+		assertNull(reader.readNext());
+		assertTrue(reader.isDone());
+	}
+
+	@Test
+	public void vcards_available_as_they_are_completed() throws Exception {
+		IncrementalVCardReader reader = new IncrementalVCardReader(StandardCharsets.UTF_8);
+
+		feed(reader, "BEGIN:VCARD\r\nVERSION:3.0\r\nFN:John Doe\r\nEND:VCARD\r\nBEGIN:VCARD\r\nVERSION:3.0\r\n");
+		assertEquals("John Doe", reader.readNext().getFormattedName().getValue());
+		assertNull(reader.readNext());
+		assertFalse(reader.isDone());
+
+		feed(reader, "FN:Jane Doe\r\nEND:VC");
+		assertNull(reader.readNext());
+
+		//the END property could be folded
+		feed(reader, "ARD\r\n");
+		assertNull(reader.readNext());
+
+		reader.endOfInput();
+		assertFalse(reader.isDone());
+		assertEquals("Jane Doe", reader.readNext().getFormattedName().getValue());
+		assertNull(reader.readNext());
+		assertTrue(reader.isDone());
+	}
+
+	@Test
+	public void unterminated_vcard() throws Exception {
+		String str = "BEGIN:VCARD\r\nVERSION:3.0\r\nFN:John Doe";
+		List<VCard> vcards = assertSameAsSequential(str.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, 3);
+		assertEquals(1, vcards.size());
+		assertEquals("John Doe", vcards.get(0).getFormattedName().getValue());
+	}
+
+	@Test
+	public void no_vcards() throws Exception {
+		IncrementalVCardReader reader = new IncrementalVCardReader(StandardCharsets.UTF_8);
+		reader.endOfInput();
+		assertNull(reader.readNext());
+		assertTrue(reader.isDone());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void feed_after_endOfInput() {
+		IncrementalVCardReader reader = new IncrementalVCardReader(StandardCharsets.UTF_8);
+		reader.endOfInput();
+		feed(reader, "BEGIN:VCARD\r\n");
+	}
+
+	@Test
+	public void settings() throws Exception {
+		String str = "BEGIN:VCARD\r\nFN:John Doe\r\nNOTE:note\r\nEND:VCARD\r\n";
+
+		IncrementalVCardReader reader = new IncrementalVCardReader(StandardCharsets.UTF_8, VCardVersion.V4_0);
+		reader.setPropertyFilter(FormattedName.class);
+		feed(reader, str);
+		reader.endOfInput();
+
+		VCard vcard = reader.readNext();
+		assertEquals(VCardVersion.V4_0, vcard.getVersion());
+		assertEquals(1, vcard.getProperties().size());
+	}
+
+	@Test
+	public void close() throws Exception {
+		IncrementalVCardReader reader = new IncrementalVCardReader(StandardCharsets.UTF_8);
+		feed(reader, "BEGIN:VCARD\r\nVERSION:3.0\r\nFN:John Doe\r\nEND:VCARD\r\n");
+		reader.close();
+		assertNull(reader.readNext());
+		assertTrue(reader.isDone());
+	}
+
+	private static void feed(IncrementalVCardReader reader, String str) {
+		reader.feed(ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static List<VCard> assertSameAsSequential(byte[] data, Charset charset, int chunkSize) throws IOException {
+		List<VCard> expected = new ArrayList<>();
+		List<List<ParseWarning>> expectedWarnings = new ArrayList<>();
+		try (VCardReader reader = new VCardReader(new InputStreamReader(new ByteArrayInputStream(data), charset))) {
+			readAll(reader, expected, expectedWarnings);
+		}
+
+		List<VCard> actual = new ArrayList<>();
+		List<List<ParseWarning>> actualWarnings = new ArrayList<>();
+		try (IncrementalVCardReader reader = new IncrementalVCardReader(charset)) {
+			for (int i = 0; i < data.length; i += chunkSize) {
+				reader.feed(ByteBuffer.wrap(data, i, Math.min(chunkSize, data.length - i)));
+				readAll(reader, actual, actualWarnings);
+			}
+			reader.endOfInput();
+			readAll(reader, actual, actualWarnings);
+			assertTrue(reader.isDone());
+		}
+
+		assertEquals(expected, actual);
+		assertEquals(expectedWarnings.size(), actualWarnings.size());
+		for (int i = 0; i < expectedWarnings.size(); i++) {
+			assertWarnings(expectedWarnings.get(i), actualWarnings.get(i));
+		}
+
+		return actual;
+	}
+
+	private static void readAll(StreamReader reader, List<VCard> vcards, List<List<ParseWarning>> warnings) throws IOException {
+		VCard vcard;
+		while ((vcard = reader.readNext()) != null) {
+			vcards.add(vcard);
+			warnings.add(reader.getWarnings());
+		}
+	}
+
+	private static void assertWarnings(List<ParseWarning> expected, List<ParseWarning> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).toString(), actual.get(i).toString());
+		}
+	}
+
+	private static byte[] load(String file) throws IOException {
+		try (InputStream in = IncrementalVCardReaderTest.class.getResourceAsStream(file)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+}
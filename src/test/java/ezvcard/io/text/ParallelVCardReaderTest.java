@@ -0,0 +1,402 @@
+package ezvcard.io.text;
+
+import static ezvcard.util.TestUtils.assertNoMoreVCards;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import ezvcard.Ezvcard;
+import ezvcard.VCard;
+import ezvcard.io.AggregatingInstrumentation;
+import ezvcard.io.LuckyNumProperty;
+import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
+import ezvcard.io.ParseWarning;
+import ezvcard.io.StreamReader;
+import ezvcard.io.WarningMode;
+import ezvcard.property.FormattedName;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class ParallelVCardReaderTest {
+	@Test
+	public void sample_files() throws Exception {
+		//@formatter:off
+		String[] files = {
+			"John_Doe_ANDROID.vcf", "John_Doe_BLACK_BERRY.vcf", "John_Doe_EVOLUTION.vcf",
+			"John_Doe_GMAIL.vcf", "John_Doe_IPHONE.vcf", "John_Doe_LOTUS_NOTES.vcf",
+			"John_Doe_MAC_ADDRESS_BOOK.vcf", "John_Doe_MS_OUTLOOK.vcf", "fullcontact.vcf",
+			"gmail-list.vcf", "gmail-single.vcf", "gmail-single2.vcf", "outlook-2003.vcf",
+			"outlook-2007.vcf", "rfc2426-example.vcf", "rfc6350-example.vcf",
+			"thunderbird-MoreFunctionsForAddressBook-extension.vcf"
+		};
+		//@formatter:on
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 10; i++) {
+			for (String file : files) {
+				sb.append(load(file)).append("\r\n");
+			}
+		}
+
+		assertSameAsSequential(sb.toString(), 4);
+	}
+
+	@Test
+	public void nested_vcards() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"AGENT:\r\n" +
+			"BEGIN:VCARD\r\n" +
+			"VERSION:2.1\r\n" +
+			"FN:Agent 007\r\n" +
+			"AGENT:\r\n" +
+				"BEGIN:VCARD\r\n" +
+				"VERSION:2.1\r\n" +
+				"FN:Agent 009\r\n" +
+				"END:VCARD\r\n" +
+			"END:VCARD\r\n" +
+		"FN:John Doe\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"FN:Jane Doe\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<VCard> vcards = assertSameAsSequential(str, 2);
+		assertEquals(2, vcards.size());
+		assertEquals("Agent 009", vcards.get(0).getAgent().getVCard().getAgent().getVCard().getFormattedName().getValue());
+	}
+
+	@Test
+	public void folded_lines() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"NOTE;ENCODING=QUOTED-PRINTABLE:one=\r\n" +
+		"END:VCARD=\r\n" +
+		"two\r\n" +
+		"FN:John \r\n" +
+		" Doe\r\n" +
+		"END:VC\r\n" +
+		" ARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"NOTE:three\r\n" +
+		"\r\n" +
+		" four\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<VCard> vcards = assertSameAsSequential(str, 2);
+		assertEquals(2, vcards.size());
+		assertEquals("oneEND:VCARDtwo", vcards.get(0).getNotes().get(0).getValue());
+		assertEquals("John Doe", vcards.get(0).getFormattedName().getValue());
+		assertEquals("threefour", vcards.get(1).getNotes().get(0).getValue());
+	}
+
+	@Test
+	public void warning_line_numbers() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"invalid line\r\n" +
+		"END:VCARD\r\n" +
+		"junk between vCards\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John Doe\r\n" +
+		"invalid line\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		try (ParallelVCardReader reader = new ParallelVCardReader(str, 2)) {
+			assertNotNull(reader.readNext());
+			assertEquals(1, reader.getWarnings().size());
+			assertEquals(Integer.valueOf(3), reader.getWarnings().get(0).getLineNumber());
+
+			assertNotNull(reader.readNext());
+			assertEquals(1, reader.getWarnings().size());
+			assertEquals(Integer.valueOf(9), reader.getWarnings().get(0).getLineNumber());
+
+			assertNoMoreVCards(reader);
+		}
+
+		assertSameAsSequential(str, 2);
+	}
+
+	@Test
+	public void warningListener() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			sb.append("BEGIN:VCARD\r\nVERSION:3.0\r\nFN:" + i + "\r\ninvalid line\r\nEND:VCARD\r\n");
+		}
+		String str = sb.toString();
+
+		List<String> received = new ArrayList<>();
+		try (ParallelVCardReader reader = new ParallelVCardReader(str, 4)) {
+			reader.setWarningMode(WarningMode.DISCARD);
+			reader.setWarningListener((vcardIndex, warning) -> {
+				received.add(vcardIndex + ":" + warning.getLineNumber());
+			});
+
+			assertEquals(100, reader.readAll().size());
+			assertEquals(0, reader.getWarnings().size());
+		}
+
+		assertEquals(100, received.size());
+		for (int i = 0; i < received.size(); i++) {
+			assertEquals(i + ":" + (i * 5 + 4), received.get(i));
+		}
+	}
+
+	@Test
+	public void instrumentation() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			sb.append("BEGIN:VCARD\r\nVERSION:3.0\r\nFN:" + i + "\r\ninvalid line\r\nEND:VCARD\r\n");
+		}
+		String str = sb.toString();
+
+		AggregatingInstrumentation instrumentation = new AggregatingInstrumentation();
+		try (ParallelVCardReader reader = new ParallelVCardReader(str, 4)) {
+			reader.setWarningMode(WarningMode.DISCARD);
+			reader.setInstrumentation(instrumentation);
+			assertEquals(100, reader.readAll().size());
+		}
+
+		AggregatingInstrumentation.Metrics metrics = instrumentation.getTotal();
+		assertEquals(100, metrics.getVCards());
+		assertEquals(500, metrics.getLines());
+		assertEquals(100, metrics.getParsedProperties().get("FN").getCount());
+		assertEquals(Integer.valueOf(100), metrics.getWarningCounts().get(27));
+	}
+
+	@Test
+	public void instrumentation_last_vcard() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			sb.append("BEGIN:VCARD\r\nVERSION:3.0\r\n");
+			for (int j = 0; j <= i; j++) {
+				sb.append("NOTE:" + j + "\r\n");
+			}
+			sb.append("END:VCARD\r\n");
+		}
+		String str = sb.toString();
+
+		AggregatingInstrumentation instrumentation = new AggregatingInstrumentation();
+		try (ParallelVCardReader reader = new ParallelVCardReader(str, 4)) {
+			reader.setInstrumentation(instrumentation);
+			for (int i = 0; i < 100; i++) {
+				assertNotNull(reader.readNext());
+
+				AggregatingInstrumentation.Metrics metrics = instrumentation.getLastVCard();
+				assertEquals(1, metrics.getVCards());
+				assertEquals(i + 4, metrics.getLines());
+				assertEquals(i + 1, metrics.getParsedProperties().get("NOTE").getCount());
+			}
+		}
+	}
+
+	@Test
+	public void non_vcard_components() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCALENDAR\r\n" +
+		"PRODID:-//Company//Application//EN\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John Doe\r\n" +
+		"END:VCALENDAR\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:Jane Doe\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<VCard> vcards = assertSameAsSequential(str, 2);
+		assertEquals(2, vcards.size());
+	}
+
+	@Test
+	public void unterminated_vcard() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John Doe\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:Jane Doe\r\n";
+		//@formatter:on
+
+		List<VCard> vcards = assertSameAsSequential(str, 2);
+		assertEquals(2, vcards.size());
+	}
+
+	@Test
+	public void no_vcards() throws Exception {
+		try (ParallelVCardReader reader = new ParallelVCardReader("", 2)) {
+			assertNull(reader.readNext());
+			assertNull(reader.readNext());
+		}
+	}
+
+	@Test
+	public void extended_properties() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			sb.append("BEGIN:VCARD\r\nVERSION:3.0\r\nX-LUCKY-NUM:" + i + "\r\nEND:VCARD\r\n");
+		}
+
+		try (ParallelVCardReader reader = new ParallelVCardReader(sb.toString(), 4)) {
+			reader.registerScribe(new LuckyNumScribe());
+
+			List<VCard> vcards = reader.readAll();
+			assertEquals(100, vcards.size());
+			for (int i = 0; i < vcards.size(); i++) {
+				assertEquals(i, vcards.get(i).getProperty(LuckyNumProperty.class).luckyNum);
+			}
+		}
+	}
+
+	@Test
+	public void chaining() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			sb.append("BEGIN:VCARD\r\nVERSION:3.0\r\nFN:" + i + "\r\ninvalid line\r\nEND:VCARD\r\n");
+		}
+		String str = sb.toString();
+
+		List<List<ParseWarning>> expectedWarnings = new ArrayList<>();
+		List<VCard> expected = Ezvcard.parse(str).warnings(expectedWarnings).all();
+
+		List<List<ParseWarning>> actualWarnings = new ArrayList<>();
+		List<VCard> actual = Ezvcard.parse(str).parallel(4).warnings(actualWarnings).all();
+
+		assertEquals(expected, actual);
+		assertEquals(expectedWarnings.size(), actualWarnings.size());
+		for (int i = 0; i < expectedWarnings.size(); i++) {
+			assertWarnings(expectedWarnings.get(i), actualWarnings.get(i));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalid_thread_count() {
+		new ParallelVCardReader("", 0);
+	}
+
+
+	@Test
+	public void propertyFilter() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			sb.append("BEGIN:VCARD\r\nVERSION:3.0\r\nFN:" + i + "\r\nNOTE:note\r\nEND:VCARD\r\n");
+		}
+
+		try (ParallelVCardReader reader = new ParallelVCardReader(sb.toString(), 4)) {
+			reader.setPropertyFilter(FormattedName.class);
+
+			List<VCard> vcards = reader.readAll();
+			assertEquals(100, vcards.size());
+			for (int i = 0; i < vcards.size(); i++) {
+				VCard vcard = vcards.get(i);
+				assertEquals(1, vcard.getProperties().size());
+				assertEquals(Integer.toString(i), vcard.getFormattedName().getValue());
+			}
+		}
+	}
+
+	private static List<VCard> assertSameAsSequential(String str, int threads) throws IOException {
+		List<VCard> expected = new ArrayList<>();
+		List<List<ParseWarning>> expectedWarnings = new ArrayList<>();
+		try (VCardReader reader = new VCardReader(str)) {
+			readAll(reader, expected, expectedWarnings);
+		}
+
+		List<VCard> actual = new ArrayList<>();
+		List<List<ParseWarning>> actualWarnings = new ArrayList<>();
+		try (ParallelVCardReader reader = new ParallelVCardReader(str, threads)) {
+			readAll(reader, actual, actualWarnings);
+		}
+
+		assertEquals(expected, actual);
+		assertEquals(expectedWarnings.size(), actualWarnings.size());
+		for (int i = 0; i < expectedWarnings.size(); i++) {
+			assertWarnings(expectedWarnings.get(i), actualWarnings.get(i));
+		}
+
+		return actual;
+	}
+
+	private static void readAll(StreamReader reader, List<VCard> vcards, List<List<ParseWarning>> warnings) throws IOException {
+		VCard vcard;
+		while ((vcard = reader.readNext()) != null) {
+			vcards.add(vcard);
+			warnings.add(reader.getWarnings());
+		}
+	}
+
+	private static void assertWarnings(List<ParseWarning> expected, List<ParseWarning> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).toString(), actual.get(i).toString());
+		}
+	}
+
+	private static String load(String file) throws IOException {
+		try (InputStream in = ParallelVCardReaderTest.class.getResourceAsStream(file)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,253 @@
+package ezvcard.io.text;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.AggregatingInstrumentation;
+import ezvcard.parameter.ImageType;
+import ezvcard.property.Agent;
+import ezvcard.property.Photo;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class ParallelVCardWriterTest {
+	//@formatter:off
+	private static final String[] SAMPLE_FILES = {
+		"John_Doe_ANDROID.vcf",
+		"John_Doe_BLACK_BERRY.vcf",
+		"John_Doe_EVOLUTION.vcf",
+		"John_Doe_GMAIL.vcf",
+		"John_Doe_IPHONE.vcf",
+		"John_Doe_LOTUS_NOTES.vcf",
+		"John_Doe_MAC_ADDRESS_BOOK.vcf",
+		"John_Doe_MS_OUTLOOK.vcf",
+		"fullcontact.vcf",
+		"gmail-list.vcf",
+		"gmail-single.vcf",
+		"gmail-single2.vcf",
+		"outlook-2003.vcf",
+		"outlook-2007.vcf",
+		"rfc2426-example.vcf",
+		"rfc6350-example.vcf",
+		"thunderbird-MoreFunctionsForAddressBook-extension.vcf"
+	};
+	//@formatter:on
+
+	@Test
+	public void sample_files() throws Exception {
+		List<VCard> vcards = new ArrayList<>();
+		for (String file : SAMPLE_FILES) {
+			try (InputStream in = getClass().getResourceAsStream(file); VCardReader reader = new VCardReader(in)) {
+				vcards.addAll(reader.readAll());
+			}
+		}
+
+		for (VCardVersion version : VCardVersion.values()) {
+			for (int threads : new int[] { 1, 3 }) {
+				assertSameAsSequential(vcards, version, threads, writer -> {
+					//use defaults
+				});
+			}
+		}
+	}
+
+	@Test
+	public void agents() throws Exception {
+		List<VCard> vcards = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			VCard agent2 = new VCard();
+			agent2.setFormattedName("Agent 009-" + i);
+			agent2.addNote("A long note that needs to be folded because it is part of an AGENT inside of an AGENT.");
+
+			VCard agent1 = new VCard();
+			agent1.setFormattedName("Agent 007-" + i);
+			agent1.setAgent(new Agent(agent2));
+
+			VCard vcard = new VCard();
+			vcard.setFormattedName("John Doe " + i);
+			vcard.setAgent(new Agent(agent1));
+			vcards.add(vcard);
+		}
+
+		for (VCardVersion version : new VCardVersion[] { VCardVersion.V2_1, VCardVersion.V3_0 }) {
+			assertSameAsSequential(vcards, version, 4, writer -> {
+				//use defaults
+			});
+			assertSameAsSequential(vcards, version, 4, writer -> writer.setAddProdId(false));
+		}
+	}
+
+	@Test
+	public void instrumentation() throws Exception {
+		List<Integer> noteCounts = new ArrayList<>();
+		AggregatingInstrumentation instrumentation = new AggregatingInstrumentation() {
+			@Override
+			public synchronized void vcardWritten() {
+				super.vcardWritten();
+				noteCounts.add(getLastVCard().getWrittenProperties().get("NOTE").getCount());
+			}
+		};
+
+		StringWriter sw = new StringWriter();
+		VCardWriter writer = new VCardWriter(sw, VCardVersion.V3_0);
+		writer.setInstrumentation(instrumentation);
+		List<Integer> expected = new ArrayList<>();
+		try (ParallelVCardWriter parallelWriter = new ParallelVCardWriter(writer, 4)) {
+			for (int i = 0; i < 100; i++) {
+				VCard vcard = new VCard();
+				for (int j = 0; j <= i; j++) {
+					vcard.addNote("Note " + j);
+				}
+				parallelWriter.write(vcard);
+				expected.add(i + 1);
+			}
+		}
+
+		assertEquals(expected, noteCounts);
+		assertEquals(100, instrumentation.getTotal().getVCards());
+	}
+
+	@Test
+	public void settings() throws Exception {
+		Random random = new Random(1);
+		List<VCard> vcards = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			byte[] data = new byte[random.nextInt(500)];
+			random.nextBytes(data);
+
+			VCard vcard = new VCard();
+			vcard.setFormattedName("John Doe " + i);
+			vcard.addNote("In the beginning God created the heavens and the earth. Now the earth was formless and empty.");
+			vcard.addPhoto(new Photo(data, ImageType.JPEG));
+			vcard.setMailer("mailer");
+			vcards.add(vcard);
+		}
+
+		for (VCardVersion version : VCardVersion.values()) {
+			assertSameAsSequential(vcards, version, 4, writer -> writer.getVObjectWriter().getFoldedLineWriter().setLineLength(null));
+			assertSameAsSequential(vcards, version, 4, writer -> {
+				writer.getVObjectWriter().getFoldedLineWriter().setLineLength(4);
+				writer.getVObjectWriter().getFoldedLineWriter().setIndent("\t\t\t");
+			});
+			assertSameAsSequential(vcards, version, 4, writer -> writer.setTargetApplication(TargetApplication.OUTLOOK));
+			assertSameAsSequential(vcards, version, 4, writer -> writer.setVersionStrict(false));
+			assertSameAsSequential(vcards, version, 4, writer -> writer.setIncludeTrailingSemicolons(true));
+		}
+	}
+
+	@Test
+	public void target_version_changes() throws Exception {
+		List<VCard> vcards = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			VCard vcard = new VCard();
+			vcard.setFormattedName("John Doe " + i);
+			vcards.add(vcard);
+		}
+
+		StringWriter expected = new StringWriter();
+		try (VCardWriter writer = new VCardWriter(expected, VCardVersion.V3_0)) {
+			for (int i = 0; i < vcards.size(); i++) {
+				writer.setTargetVersion(VCardVersion.values()[i % 3]);
+				writer.write(vcards.get(i));
+			}
+		}
+
+		StringWriter actual = new StringWriter();
+		VCardWriter writer = new VCardWriter(actual, VCardVersion.V3_0);
+		try (ParallelVCardWriter parallelWriter = new ParallelVCardWriter(writer, 4)) {
+			for (int i = 0; i < vcards.size(); i++) {
+				writer.setTargetVersion(VCardVersion.values()[i % 3]);
+				parallelWriter.write(vcards.get(i));
+			}
+		}
+
+		assertEquals(expected.toString(), actual.toString());
+	}
+
+	@Test
+	public void exception() throws Exception {
+		VCard vcard = new VCard();
+		vcard.setFormattedName("John Doe");
+		vcard.getFormattedName().getParameters().put("X-TEST", "George Herman \"Babe\" Ruth");
+
+		StringWriter sw = new StringWriter();
+		try (ParallelVCardWriter writer = new ParallelVCardWriter(new VCardWriter(sw, VCardVersion.V4_0), 2)) {
+			writer.write(vcard);
+			writer.flush();
+			fail("IllegalArgumentException expected.");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalid_thread_count() {
+		new ParallelVCardWriter(new VCardWriter(new StringWriter(), VCardVersion.V3_0), 0);
+	}
+
+	private static void assertSameAsSequential(List<VCard> vcards, VCardVersion version, int threads, WriterConfig config) throws IOException {
+		StringWriter expected = new StringWriter();
+		try (VCardWriter writer = new VCardWriter(expected, version)) {
+			config.configure(writer);
+			for (VCard vcard : vcards) {
+				writer.write(vcard);
+			}
+		}
+
+		StringWriter actual = new StringWriter();
+		VCardWriter writer = new VCardWriter(actual, version);
+		config.configure(writer);
+		try (ParallelVCardWriter parallelWriter = new ParallelVCardWriter(writer, threads)) {
+			for (VCard vcard : vcards) {
+				parallelWriter.write(vcard);
+			}
+		}
+
+		assertEquals(expected.toString(), actual.toString());
+	}
+
+	private interface WriterConfig {
+		void configure(VCardWriter writer);
+	}
+}
@@ -0,0 +1,378 @@
+package ezvcard.io.text;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ezvcard.Ezvcard;
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.parameter.Encoding;
+import ezvcard.parameter.ImageType;
+import ezvcard.property.Note;
+import ezvcard.property.Photo;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class Utf8VCardWriterTest {
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static final String[] SAMPLES = { "John_Doe_ANDROID.vcf", "John_Doe_BLACK_BERRY.vcf", "John_Doe_EVOLUTION.vcf", "John_Doe_GMAIL.vcf", "John_Doe_IPHONE.vcf", "John_Doe_LOTUS_NOTES.vcf", "John_Doe_MAC_ADDRESS_BOOK.vcf", "John_Doe_MS_OUTLOOK.vcf", "fullcontact.vcf", "gmail-list.vcf", "gmail-single.vcf", "gmail-single2.vcf", "outlook-2003.vcf", "outlook-2007.vcf", "rfc2426-example.vcf", "rfc6350-example.vcf", "thunderbird-MoreFunctionsForAddressBook-extension.vcf" };
+
+	@Test
+	public void same_output_as_VCardWriter() throws Throwable {
+		for (String sample : SAMPLES) {
+			List<VCard> vcards = Ezvcard.parse(getClass().getResourceAsStream(sample)).all();
+			for (VCardVersion version : VCardVersion.values()) {
+				String expected = writeChars(vcards, version);
+				byte[] actual = writeBytes(vcards, version);
+				String message = sample + " " + version;
+
+				if (isAscii(expected)) {
+					assertArrayEquals(message, expected.getBytes(StandardCharsets.UTF_8), actual);
+				} else {
+					assertEquals(message, unfold(expected), unfold(decode(actual)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void quoted_printable() throws Throwable {
+		VCard vcard = new VCard();
+		Note note = vcard.addNote("one\r\ntwo=three é中😀 " + repeat("four ", 30));
+		note.getParameters().setEncoding(Encoding.QUOTED_PRINTABLE);
+		vcard.addNote("one\r\ntwo");
+
+		String expected = writeChars(vcard, VCardVersion.V2_1);
+		byte[] actual = writeBytes(vcard, VCardVersion.V2_1);
+
+		//quoted-printable encoded values only contain ASCII characters
+		assertTrue(isAscii(expected));
+		assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), actual);
+	}
+
+	@Test
+	public void folding_settings() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.addNote(repeat("abcdefghij", 20));
+		vcard.addPhoto(new Photo(new byte[500], ImageType.JPEG));
+
+		for (VCardVersion version : VCardVersion.values()) {
+			{
+				StringWriter sw = new StringWriter();
+				VCardWriter expectedWriter = new VCardWriter(sw, version);
+				expectedWriter.getVObjectWriter().getFoldedLineWriter().setLineLength(30);
+				expectedWriter.getVObjectWriter().getFoldedLineWriter().setIndent("\t");
+				expectedWriter.write(vcard);
+				expectedWriter.close();
+
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				Utf8VCardWriter actualWriter = new Utf8VCardWriter(out, version);
+				actualWriter.getVObjectWriter().getFoldedLineWriter().setLineLength(30);
+				actualWriter.getVObjectWriter().getFoldedLineWriter().setIndent("\t");
+				actualWriter.write(vcard);
+				actualWriter.close();
+
+				assertArrayEquals(version.toString(), sw.toString().getBytes(StandardCharsets.UTF_8), out.toByteArray());
+			}
+
+			{
+				StringWriter sw = new StringWriter();
+				VCardWriter expectedWriter = new VCardWriter(sw, version);
+				expectedWriter.getVObjectWriter().getFoldedLineWriter().setLineLength(null);
+				expectedWriter.write(vcard);
+				expectedWriter.close();
+
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				Utf8VCardWriter actualWriter = new Utf8VCardWriter(out, version);
+				actualWriter.getVObjectWriter().getFoldedLineWriter().setLineLength(null);
+				actualWriter.write(vcard);
+				actualWriter.close();
+
+				assertArrayEquals(version.toString(), sw.toString().getBytes(StandardCharsets.UTF_8), out.toByteArray());
+			}
+		}
+	}
+
+	@Test
+	public void fold_by_octets() throws Throwable {
+		String note = repeat("aé中😀", 100);
+		VCard vcard = new VCard();
+		vcard.addNote(note);
+		vcard.setFormattedName(repeat("中", 100));
+
+		for (VCardVersion version : VCardVersion.values()) {
+			byte[] data = writeBytes(vcard, version);
+
+			int start = 0;
+			for (int i = 0; i < data.length - 1; i++) {
+				if (data[i] == '\r' && data[i + 1] == '\n') {
+					byte[] line = new byte[i - start];
+					System.arraycopy(data, start, line, 0, line.length);
+					assertTrue(version + ": line is " + line.length + " octets long", line.length <= 75);
+
+					//line must not begin or end in the middle of a character
+					decode(line);
+
+					start = i + 2;
+				}
+			}
+
+			VCard parsed = Ezvcard.parse(decode(data)).first();
+			assertEquals(note, parsed.getNotes().get(0).getValue());
+			assertEquals(repeat("中", 100), parsed.getFormattedName().getValue());
+		}
+	}
+
+	@Test
+	public void lone_surrogates() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.addNote("one\ud83dtwo\ude00three\ud83d");
+
+		byte[] actual = writeBytes(vcard, VCardVersion.V4_0);
+		String note = Ezvcard.parse(decode(actual)).first().getNotes().get(0).getValue();
+		assertEquals("one?two?three?", note);
+	}
+
+	@Test
+	public void large_output() throws Throwable {
+		//larger than the internal buffer
+		VCard vcard = new VCard();
+		String note = repeat("中😀abc", 5000);
+		vcard.addNote(note);
+
+		byte[] actual = writeBytes(vcard, VCardVersion.V4_0);
+		assertEquals(note, Ezvcard.parse(decode(actual)).first().getNotes().get(0).getValue());
+	}
+
+	@Test
+	public void file() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.addNote("Ɲote");
+		Path file = tempFolder.newFile().toPath();
+
+		try (Utf8VCardWriter writer = new Utf8VCardWriter(file, VCardVersion.V3_0)) {
+			writer.setAddProdId(false);
+			writer.write(vcard);
+		}
+
+		//@formatter:off
+		String expected = 
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"NOTE:Ɲote\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		assertEquals(expected, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+		try (Utf8VCardWriter writer = new Utf8VCardWriter(file, true, VCardVersion.V3_0)) {
+			writer.setAddProdId(false);
+			writer.write(vcard);
+		}
+		assertEquals(expected + expected, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+		try (Utf8VCardWriter writer = new Utf8VCardWriter(file, VCardVersion.V3_0)) {
+			writer.setAddProdId(false);
+			writer.write(vcard);
+		}
+		assertEquals(expected, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void flush() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.addNote("Ɲote");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Utf8VCardWriter writer = new Utf8VCardWriter(Channels.newChannel(out), VCardVersion.V4_0);
+		writer.setAddProdId(false);
+		writer.write(vcard);
+		assertEquals(0, out.size());
+
+		writer.flush();
+		//@formatter:off
+		String expected = 
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"NOTE:Ɲote\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+		assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+		writer.close();
+	}
+
+	@Test
+	public void reset() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.addNote("Ɲote");
+
+		//@formatter:off
+		String expected = 
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"NOTE:Ɲote\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+		Utf8VCardWriter writer = new Utf8VCardWriter(out1, VCardVersion.V4_0);
+		writer.setAddProdId(false);
+		writer.write(vcard);
+
+		ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+		writer.reset(out2);
+		assertEquals(expected, new String(out1.toByteArray(), StandardCharsets.UTF_8));
+
+		writer.write(vcard);
+		writer.flush();
+		assertEquals(expected, new String(out1.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(expected, new String(out2.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void reset_writer() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.addNote("Ɲote");
+
+		//@formatter:off
+		String expected = 
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"NOTE:Ɲote\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		VCardWriter writer = new Utf8VCardWriter(out, VCardVersion.V4_0);
+		writer.setAddProdId(false);
+		writer.write(vcard);
+
+		StringWriter sw = new StringWriter();
+		writer.reset(sw);
+		assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+		writer.write(vcard);
+		writer.flush();
+		assertEquals(expected, sw.toString());
+
+		//switch back to a byte stream
+		ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+		((Utf8VCardWriter) writer).reset(out2);
+		writer.write(vcard);
+		writer.close();
+		assertEquals(expected, sw.toString());
+		assertEquals(expected, new String(out2.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	private static String writeChars(VCard vcard, VCardVersion version) throws IOException {
+		return writeChars(Collections.singletonList(vcard), version);
+	}
+
+	private static String writeChars(List<VCard> vcards, VCardVersion version) throws IOException {
+		StringWriter sw = new StringWriter();
+		try (VCardWriter writer = new VCardWriter(sw, version)) {
+			for (VCard vcard : vcards) {
+				writer.write(vcard);
+			}
+		}
+		return sw.toString();
+	}
+
+	private static byte[] writeBytes(VCard vcard, VCardVersion version) throws IOException {
+		return writeBytes(Collections.singletonList(vcard), version);
+	}
+
+	private static byte[] writeBytes(List<VCard> vcards, VCardVersion version) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (Utf8VCardWriter writer = new Utf8VCardWriter(out, version)) {
+			for (VCard vcard : vcards) {
+				writer.write(vcard);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Decodes UTF-8 data, failing if the data is malformed.
+	 */
+	private static String decode(byte[] data) throws CharacterCodingException {
+		//@formatter:off
+		return StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPORT)
+			.onUnmappableCharacter(CodingErrorAction.REPORT)
+			.decode(ByteBuffer.wrap(data))
+			.toString();
+		//@formatter:on
+	}
+
+	private static String unfold(String str) {
+		return str.replace("\r\n ", "");
+	}
+
+	private static boolean isAscii(String str) {
+		for (int i = 0; i < str.length(); i++) {
+			if (str.charAt(i) >= 0x80) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String repeat(String str, int times) {
+		StringBuilder sb = new StringBuilder(str.length() * times);
+		for (int i = 0; i < times; i++) {
+			sb.append(str);
+		}
+		return sb.toString();
+	}
+}
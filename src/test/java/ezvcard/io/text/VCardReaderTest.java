@@ -11,39 +11,59 @@ import static ezvcard.util.TestUtils.assertParseWarnings;
 import static ezvcard.util.TestUtils.assertPropertyCount;
 import static ezvcard.util.TestUtils.assertVersion;
 import static ezvcard.util.TestUtils.each;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.github.mangstadt.vinnie.codec.QuotedPrintableCodec;
 
 import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
+import ezvcard.io.AggregatingInstrumentation;
 import ezvcard.io.EmbeddedVCardException;
 import ezvcard.io.LuckyNumProperty;
 import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
 import ezvcard.io.MyFormattedNameProperty;
 import ezvcard.io.MyFormattedNameProperty.MyFormattedNameScribe;
 import ezvcard.io.ParseContext;
+import ezvcard.io.ParseWarning;
+import ezvcard.io.TempFileStore;
+import ezvcard.io.WarningMode;
 import ezvcard.io.scribe.CannotParseScribe;
 import ezvcard.io.scribe.SkipMeScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.AddressType;
+import ezvcard.parameter.ImageType;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Address;
+import ezvcard.property.Agent;
+import ezvcard.property.CannotParseProperty;
 import ezvcard.property.FormattedName;
+import ezvcard.property.Key;
 import ezvcard.property.Label;
+import ezvcard.property.Note;
+import ezvcard.property.Photo;
 import ezvcard.property.RawProperty;
 import ezvcard.property.VCardProperty;
 import ezvcard.property.asserter.VCardAsserter;
+import ezvcard.util.org.apache.commons.codec.binary.Base64;
 
 /*
  Copyright (c) 2012-2023, Michael Angstadt
@@ -78,6 +98,9 @@ import ezvcard.property.asserter.VCardAsserter;
  * @author Michael Angstadt
  */
 public class VCardReaderTest {
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
 	/**
 	 * Account for an error in the 4.0 specification, which places multi-valued
 	 * TYPE parameters in double quotes.
@@ -882,6 +905,472 @@ public class VCardReaderTest {
 		}
 	}
 
+
+	@Test
+	public void tempFileStore() throws Exception {
+		byte[] large = new byte[2000];
+		new Random(1).nextBytes(large);
+		byte[] small = "small".getBytes();
+
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"PHOTO;ENCODING=B;TYPE=JPEG:" + Base64.encodeBase64String(large) + "\r\n" +
+			"KEY;ENCODING=B:" + Base64.encodeBase64String(small) + "\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"PHOTO:data:image/png;base64," + Base64.encodeBase64String(large) + "\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		for (boolean lazy : new boolean[] { false, true }) {
+			VCardReader reader = new VCardReader(str);
+			reader.setTempFileStore(new TempFileStore(1000, tempFolder.getRoot().toPath()));
+			reader.setLazyParsing(lazy);
+
+			VCard vcard = reader.readNext();
+			Photo photo = vcard.getPhotos().get(0);
+			assertEquals(ImageType.JPEG, photo.getContentType());
+			assertTrue(photo.getDataBuffer().isDirect());
+			assertArrayEquals(large, photo.getData());
+
+			Key key = vcard.getKeys().get(0);
+			assertFalse(key.getDataBuffer().isDirect());
+			assertArrayEquals(small, key.getData());
+
+			vcard = reader.readNext();
+			photo = vcard.getPhotos().get(0);
+			assertEquals(ImageType.PNG, photo.getContentType());
+			assertTrue(photo.getDataBuffer().isDirect());
+			assertArrayEquals(large, photo.getData());
+
+			assertNoMoreVCards(reader);
+		}
+
+		assertEquals(0, tempFolder.getRoot().list().length);
+	}
+
+	@Test
+	public void lazyParsing() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"FN:John Doe\r\n" +
+			"NOTE:one\r\n" +
+			"X-FOO:bar\r\n" +
+			"NOTE:two\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.setLazyParsing(true);
+		VCard vcard = reader.readNext();
+		assertTrue(vcard.hasDeferredProperties());
+
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+		assertTrue(vcard.hasDeferredProperties());
+
+		List<Note> notes = vcard.getNotes();
+		assertEquals(2, notes.size());
+		assertEquals("one", notes.get(0).getValue());
+		assertEquals("two", notes.get(1).getValue());
+		assertFalse(vcard.hasDeferredProperties());
+
+		assertEquals(new VCardReader(str).readNext(), vcard);
+	}
+
+	@Test
+	public void lazyParsing_warnings() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"group.CANNOTPARSE;PARAM=value:value\r\n" +
+			"SKIPME:value\r\n" +
+			"invalid line\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.setLazyParsing(true);
+		reader.registerScribe(new CannotParseScribe());
+		reader.registerScribe(new SkipMeScribe());
+		VCard vcard = reader.readNext();
+
+		List<ParseWarning> warnings = reader.getWarnings();
+		assertEquals(1, warnings.size());
+
+		RawProperty raw = vcard.getExtendedProperty("CANNOTPARSE");
+		assertEquals("group", raw.getGroup());
+		assertEquals("value", raw.getValue());
+		assertEquals("value", raw.getParameter("PARAM"));
+		assertEquals(1, vcard.getProperties().size());
+
+		assertEquals(3, warnings.size());
+		assertEquals(Integer.valueOf(5), warnings.get(0).getLineNumber());
+		assertEquals(Integer.valueOf(3), warnings.get(1).getLineNumber());
+		assertEquals(Integer.valueOf(25), warnings.get(1).getCode());
+		assertEquals(Integer.valueOf(4), warnings.get(2).getLineNumber());
+		assertEquals(Integer.valueOf(22), warnings.get(2).getCode());
+	}
+
+	@Test
+	public void lazyParsing_extended_property_does_not_parse_deferred() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"NOTE:one\r\n" +
+			"X-FOO:bar\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.setLazyParsing(true);
+		VCard vcard = reader.readNext();
+		assertTrue(vcard.hasDeferredProperties());
+		assertEquals(new VCardReader(str).readNext(), vcard);
+	}
+
+	@Test
+	public void lazyParsing_unparseable_property_order() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"FN:John Doe\r\n" +
+			"CANNOTPARSE:one\r\n" +
+			"NOTE:note\r\n" +
+			"X-TWO:two\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.registerScribe(new CannotParseScribe());
+		VCard expected = reader.readNext();
+
+		for (boolean parseUnparseableFirst : new boolean[] { false, true }) {
+			reader = new VCardReader(str);
+			reader.setLazyParsing(true);
+			reader.registerScribe(new CannotParseScribe());
+			VCard vcard = reader.readNext();
+
+			if (parseUnparseableFirst) {
+				assertNull(vcard.getProperty(CannotParseProperty.class));
+			}
+
+			List<RawProperty> raws = vcard.getExtendedProperties();
+			assertEquals(2, raws.size());
+			assertEquals("CANNOTPARSE", raws.get(0).getPropertyName());
+			assertEquals("X-TWO", raws.get(1).getPropertyName());
+
+			assertEquals(new ArrayList<>(expected.getProperties()), new ArrayList<>(vcard.getProperties()));
+		}
+	}
+
+	@Test
+	public void lazyParsing_embedded_vcard() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"NESTED:BEGIN:VCARD\\nVERSION:3.0\\nFN:Jane Doe\\nEND:VCARD\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.setLazyParsing(true);
+		reader.registerScribe(new NestedScribe());
+		VCard vcard = reader.readNext();
+		reader.close();
+		assertTrue(vcard.hasDeferredProperties());
+
+		VCard nested = vcard.getProperty(Nested.class).vcard;
+		assertEquals("Jane Doe", nested.getFormattedName().getValue());
+	}
+
+	@Test
+	public void lazyParsing_sample_files() throws Exception {
+		//@formatter:off
+		String[] files = {
+			"John_Doe_ANDROID.vcf", "John_Doe_BLACK_BERRY.vcf", "John_Doe_EVOLUTION.vcf",
+			"John_Doe_GMAIL.vcf", "John_Doe_IPHONE.vcf", "John_Doe_LOTUS_NOTES.vcf",
+			"John_Doe_MAC_ADDRESS_BOOK.vcf", "John_Doe_MS_OUTLOOK.vcf", "fullcontact.vcf",
+			"gmail-list.vcf", "gmail-single.vcf", "gmail-single2.vcf", "outlook-2003.vcf",
+			"outlook-2007.vcf", "rfc2426-example.vcf", "rfc6350-example.vcf",
+			"thunderbird-MoreFunctionsForAddressBook-extension.vcf"
+		};
+		//@formatter:on
+
+		for (String file : files) {
+			List<VCard> expected;
+			try (VCardReader reader = new VCardReader(open(file))) {
+				expected = reader.readAll();
+			}
+
+			try (VCardReader reader = new VCardReader(open(file))) {
+				reader.setLazyParsing(true);
+				for (VCard expectedVCard : expected) {
+					VCard vcard = reader.readNext();
+					assertTrue(file, vcard.getPhotos().size() == expectedVCard.getPhotos().size());
+					assertEquals(file, expectedVCard.write(), vcard.write());
+				}
+				assertNull(reader.readNext());
+			}
+		}
+	}
+
+
+	@Test
+	public void propertyFilter() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:2.1\r\n" +
+			"FN:John Doe\r\n" +
+			"NOTE:note\r\n" +
+			"ADR;HOME:;;123 Main St;Austin;TX;12345;USA\r\n" +
+			"LABEL;HOME:123 Main St.\r\n" +
+			"X-FOO:bar\r\n" +
+			"X-BAZ:bar\r\n" +
+			"AGENT:\r\n" +
+			"BEGIN:VCARD\r\n" +
+				"VERSION:2.1\r\n" +
+				"FN:Agent 007\r\n" +
+				"NOTE:note\r\n" +
+			"END:VCARD\r\n" +
+			"CANNOTPARSE:value\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.registerScribe(new CannotParseScribe());
+		reader.setPropertyFilter(Arrays.<Class<? extends VCardProperty>> asList(FormattedName.class, Address.class), Arrays.asList("x-foo"));
+		VCard vcard = reader.readNext();
+
+		assertEquals(3, vcard.getProperties().size());
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+		assertEquals("123 Main St.", vcard.getAddresses().get(0).getLabel());
+		assertEquals("bar", vcard.getExtendedProperty("X-FOO").getValue());
+		assertNull(vcard.getAgent());
+		assertEquals(0, reader.getWarnings().size());
+
+		reader = new VCardReader(str);
+		reader.setPropertyFilter(Agent.class, FormattedName.class);
+		vcard = reader.readNext();
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+		VCard agent = vcard.getAgent().getVCard();
+		assertEquals(1, agent.getProperties().size());
+		assertEquals("Agent 007", agent.getFormattedName().getValue());
+
+		reader = new VCardReader(str);
+		reader.setPropertyFilter(Note.class);
+		reader.clearPropertyFilter();
+		vcard = reader.readNext();
+		assertEquals(7, vcard.getProperties().size());
+	}
+
+	@Test
+	public void reset() throws Exception {
+		for (boolean fastTokenizer : new boolean[] { false, true }) {
+			VCardReader reader = new VCardReader("BEGIN:VCARD\r\nVERSION:3.0\r\nFN:John Doe\r\nAGENT:\r\nBEGIN:VCARD\r\nVERSION:2.1\r\n");
+			reader.setFastTokenizerEnabled(fastTokenizer);
+			reader.setCaretDecodingEnabled(false);
+			reader.setPropertyFilter(FormattedName.class, Note.class);
+
+			//stop in the middle of the data stream
+			VCard vcard = reader.readNext();
+			assertEquals("John Doe", vcard.getFormattedName().getValue());
+
+			//@formatter:off
+			reader.reset(
+			"BEGIN:VCARD\r\n" +
+				"VERSION:4.0\r\n" +
+				"FN:Jane ^' Doe\r\n" +
+				"NOTE;X-PARAM=^':one\r\n" +
+				"EMAIL:jane@example.com\r\n" +
+				"invalid line\r\n" +
+			"END:VCARD\r\n" +
+			"BEGIN:VCARD\r\n" +
+				"FN:Jim Doe\r\n" +
+			"END:VCARD\r\n"
+			);
+			//@formatter:on
+
+			vcard = reader.readNext();
+			assertVersion(V4_0, vcard);
+			assertEquals(2, vcard.getProperties().size());
+			assertEquals("Jane ^' Doe", vcard.getFormattedName().getValue());
+			assertEquals("^'", vcard.getNotes().get(0).getParameter("X-PARAM"));
+			assertEquals(1, reader.getWarnings().size());
+			assertEquals(Integer.valueOf(6), reader.getWarnings().get(0).getLineNumber());
+
+			vcard = reader.readNext();
+			assertVersion(V2_1, vcard);
+			assertEquals("Jim Doe", vcard.getFormattedName().getValue());
+			assertEquals(0, reader.getWarnings().size());
+
+			assertNoMoreVCards(reader);
+		}
+	}
+
+	@Test
+	public void warningMode() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"invalid line\r\n" +
+			"invalid line\r\n" +
+			"CANNOTPARSE:value\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		{
+			VCardReader reader = new VCardReader(str);
+			reader.registerScribe(new CannotParseScribe());
+			assertEquals(WarningMode.KEEP, reader.getWarningMode());
+
+			reader.readNext();
+			assertEquals(3, reader.getWarnings().size());
+			Map<Integer, Integer> counts = reader.getWarningCounts();
+			assertEquals(2, counts.size());
+			assertEquals(Integer.valueOf(2), counts.get(27));
+			assertEquals(Integer.valueOf(1), counts.get(reader.getWarnings().get(2).getCode()));
+
+			reader.readNext();
+			assertEquals(0, reader.getWarnings().size());
+			assertEquals(0, reader.getWarningCounts().size());
+		}
+
+		{
+			VCardReader reader = new VCardReader(str);
+			reader.registerScribe(new CannotParseScribe());
+			reader.setWarningMode(WarningMode.COUNT);
+
+			reader.readNext();
+			assertEquals(0, reader.getWarnings().size());
+			Map<Integer, Integer> counts = reader.getWarningCounts();
+			assertEquals(2, counts.size());
+			assertEquals(Integer.valueOf(2), counts.get(27));
+		}
+
+		{
+			VCardReader reader = new VCardReader(str);
+			reader.registerScribe(new CannotParseScribe());
+			reader.setWarningMode(WarningMode.DISCARD);
+
+			reader.readNext();
+			assertEquals(0, reader.getWarnings().size());
+			assertEquals(0, reader.getWarningCounts().size());
+		}
+	}
+
+	@Test
+	public void warningListener() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"invalid line\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"FN:John Doe\r\n" +
+			"invalid line\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<String> received = new ArrayList<>();
+		VCardReader reader = new VCardReader(str);
+		assertNull(reader.getWarningListener());
+		reader.setWarningMode(WarningMode.DISCARD);
+		reader.setWarningListener((vcardIndex, warning) -> {
+			received.add(vcardIndex + ":" + warning.getLineNumber() + ":" + warning.getCode());
+		});
+
+		assertEquals(3, reader.readAll().size());
+		assertEquals(Arrays.asList("0:3:27", "2:11:27"), received);
+		assertEquals(0, reader.getWarnings().size());
+		assertEquals(0, reader.getWarningCounts().size());
+
+		//the index starts over when the reader is reset
+		received.clear();
+		reader.reset(str);
+		assertEquals(3, reader.readAll().size());
+		assertEquals(Arrays.asList("0:3:27", "2:11:27"), received);
+	}
+
+	@Test
+	public void instrumentation() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"FN:John Doe\r\n" +
+			"PHOTO;ENCODING=b;TYPE=jpeg:AAEC\r\n" +
+			"AGENT:BEGIN:VCARD\\nVERSION:3.0\\nFN:Agent\\nEND:VCARD\r\n" +
+			"invalid line\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"FN:Jane Doe\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		for (boolean fastTokenizer : new boolean[] { false, true }) {
+			AggregatingInstrumentation instrumentation = new AggregatingInstrumentation();
+			VCardReader reader = new VCardReader(str);
+			reader.setFastTokenizerEnabled(fastTokenizer);
+			reader.setWarningMode(WarningMode.DISCARD);
+			reader.setInstrumentation(instrumentation);
+
+			reader.readNext();
+			AggregatingInstrumentation.Metrics metrics = instrumentation.getLastVCard();
+			assertEquals(1, metrics.getVCards());
+			assertEquals(7, metrics.getLines());
+			assertEquals(1, metrics.getNestedVCards());
+			assertEquals(3, metrics.getBinaryBytesDecoded());
+			assertEquals(2, metrics.getParsedProperties().get("FN").getCount());
+			assertEquals(1, metrics.getParsedProperties().get("PHOTO").getCount());
+			assertEquals(1, metrics.getParsedProperties().get("AGENT").getCount());
+			assertEquals(Integer.valueOf(1), metrics.getWarningCounts().get(27));
+
+			reader.readNext();
+			metrics = instrumentation.getLastVCard();
+			assertEquals(1, metrics.getVCards());
+			assertEquals(4, metrics.getLines());
+			assertEquals(0, metrics.getNestedVCards());
+			assertEquals(1, metrics.getParsedProperties().size());
+			assertEquals(1, metrics.getParsedProperties().get("FN").getCount());
+			assertEquals(0, metrics.getWarningCounts().size());
+
+			assertNoMoreVCards(reader);
+
+			metrics = instrumentation.getTotal();
+			assertEquals(2, metrics.getVCards());
+			assertEquals(11, metrics.getLines());
+			assertEquals(1, metrics.getNestedVCards());
+			assertEquals(3, metrics.getBinaryBytesDecoded());
+			assertEquals(3, metrics.getParsedProperties().get("FN").getCount());
+			assertEquals(Integer.valueOf(1), metrics.getWarningCounts().get(27));
+			assertTrue(metrics.getWrittenProperties().isEmpty());
+		}
+	}
+
+	private static InputStream open(String file) throws IOException {
+		return VCardReaderTest.class.getResourceAsStream(file);
+	}
+
 	private static class ValueProp extends VCardProperty {
 		private final VCardDataType dataType;
 
@@ -0,0 +1,372 @@
+package ezvcard.io.text;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.ParseWarning;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Verifies that {@link VCardTokenizer} produces the same vCards and warnings
+ * as vinnie's parser.
+ * @author Michael Angstadt
+ */
+public class VCardTokenizerTest {
+	//@formatter:off
+	private static final String[] SAMPLE_FILES = {
+		"John_Doe_ANDROID.vcf",
+		"John_Doe_BLACK_BERRY.vcf",
+		"John_Doe_EVOLUTION.vcf",
+		"John_Doe_GMAIL.vcf",
+		"John_Doe_IPHONE.vcf",
+		"John_Doe_LOTUS_NOTES.vcf",
+		"John_Doe_MAC_ADDRESS_BOOK.vcf",
+		"John_Doe_MS_OUTLOOK.vcf",
+		"fullcontact.vcf",
+		"gmail-list.vcf",
+		"gmail-single.vcf",
+		"gmail-single2.vcf",
+		"outlook-2003.vcf",
+		"outlook-2007.vcf",
+		"rfc2426-example.vcf",
+		"rfc6350-example.vcf",
+		"thunderbird-MoreFunctionsForAddressBook-extension.vcf",
+		"../../issue/issue114.vcf"
+	};
+	//@formatter:on
+
+	@Test
+	public void sample_files() throws Exception {
+		for (String file : SAMPLE_FILES) {
+			String str = load(file);
+			assertSameAsVinnie(file, str);
+		}
+	}
+
+	@Test
+	public void folding() throws Exception {
+		//@formatter:off
+		assertSameAsVinnie(
+			"BEGIN:VCARD\r\n" +
+			"VERSION:2.1\r\n" +
+			"NOTE:one\r\n" +
+			"  two\r\n" +
+			"\t three\r\n" +
+			"EMAIL;\r\n" +
+			" INTERNET:a@example.com\r\n" +
+			"END:VCARD\r\n" +
+			"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"NOTE:one\r\n" +
+			"  two\r\n" +
+			"\t three\r\n" +
+			"EMAIL;TY\r\n" +
+			" PE=home:a@example.com\r\n" +
+			"END:VCARD\r\n"
+		);
+		//@formatter:on
+	}
+
+	@Test
+	public void newlines() throws Exception {
+		assertSameAsVinnie("\r\n\r\nBEGIN:VCARD\r\nFN:John\r\n\r\n\r\nNOTE:one\r\n two\r\nEND:VCARD\r\n");
+		assertSameAsVinnie("BEGIN:VCARD\nFN:John\n\nNOTE:one\n two\nEND:VCARD\n");
+		assertSameAsVinnie("BEGIN:VCARD\rFN:John\r\rNOTE:one\r two\rEND:VCARD");
+		assertSameAsVinnie("BEGIN:VCARD\r\nFN:John");
+		assertSameAsVinnie("");
+	}
+
+	@Test
+	public void quoted_printable() throws Exception {
+		//@formatter:off
+		assertSameAsVinnie(
+			"BEGIN:VCARD\r\n" +
+			"VERSION:2.1\r\n" +
+			"NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=UTF-8:one=0D=0A=\r\n" +
+			"two =C3=A9=\r\n" +
+			"three\r\n" +
+			"LABEL;QUOTED-PRINTABLE:one=\r\n" +
+			"=\r\n" +
+			" two\r\n" +
+			"NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=invalid:one=0D=0A\r\n" +
+			"NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=bad!charset:one\r\n" +
+			"NOTE;ENCODING=QUOTED-PRINTABLE:one=ZZ\r\n" +
+			"NOTE:not=\r\n" +
+			"folded\r\n" +
+			"END:VCARD\r\n"
+		);
+		//@formatter:on
+	}
+
+	@Test
+	public void parameters() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"TEL;HOME ; WORK;X-P = a\\;b\\\\c\\d;X-Q=\"a,b\";X-R=^n:1\r\n" +
+		"ADR;TYPE=home,work:;;street\r\n" +
+		"item1.X-S;;=;:value\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:4.0\r\n" +
+		"TEL;TYPE=home,work;TYPE=\"cell,voice\";X-P=\"a;b:c\";X-Q=a^nb^^c^'d^e:1\r\n" +
+		"ADR;LABEL=\"123 Main St\\nAnytown\";GEO=\"geo:1,2\":;;street\r\n" +
+		"group.x-name;x-p=a\\;b:value\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		assertSameAsVinnie(str);
+
+		List<VCard> expected = new ArrayList<>();
+		List<List<ParseWarning>> expectedWarnings = new ArrayList<>();
+		try (VCardReader reader = new VCardReader(str)) {
+			reader.setCaretDecodingEnabled(false);
+			readAll(reader, expected, expectedWarnings);
+		}
+
+		List<VCard> actual = new ArrayList<>();
+		List<List<ParseWarning>> actualWarnings = new ArrayList<>();
+		try (VCardReader reader = new VCardReader(str)) {
+			reader.setCaretDecodingEnabled(false);
+			reader.setFastTokenizerEnabled(true);
+			readAll(reader, actual, actualWarnings);
+		}
+
+		assertEquals(expected, actual);
+		assertWarnings(expectedWarnings, actualWarnings);
+	}
+
+	@Test
+	public void warnings() throws Exception {
+		//@formatter:off
+		assertSameAsVinnie(
+			"BEGIN:VCARD\r\n" +
+			"VERSION:5.0\r\n" +
+			"malformed line\r\n" +
+			"BEGIN:\r\n" +
+			"END: \r\n" +
+			"END:VEVENT\r\n" +
+			"BEGIN:VEVENT\r\n" +
+			"SUMMARY:ignored\r\n" +
+			"bad\r\n" +
+			"END:VEVENT\r\n" +
+			"BDAY:invalid\r\n" +
+			"END:VCARD\r\n" +
+			"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"BEGIN:VEVENT\r\n" +
+			"END:VCARD\r\n" +
+			"outside\r\n" +
+			"FN:outside\r\n" +
+			"END:VCARD\r\n"
+		);
+		//@formatter:on
+	}
+
+	@Test
+	public void versions() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"X-P;A=\"b:c\";D=e\\;f:value\r\n" +
+		"VERSION:3.0\r\n" +
+		"X-P;A=\"b:c\";D=e\\;f:value\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"X-P;A=\"b:c\";D=e\\;f:value\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"X-P;A=\"b:c\";D=e\\;f:value\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		assertSameAsVinnie(str);
+		for (VCardVersion version : VCardVersion.values()) {
+			assertSameAsVinnie(str, version);
+		}
+	}
+
+	@Test
+	public void nested_vcards() throws Exception {
+		//@formatter:off
+		assertSameAsVinnie(
+			"BEGIN:VCARD\r\n" +
+			"VERSION:2.1\r\n" +
+			"FN:John\r\n" +
+			"AGENT:\r\n" +
+			"BEGIN:VCARD\r\n" +
+			"VERSION:2.1\r\n" +
+			"FN:Agent 007\r\n" +
+			"AGENT:\r\n" +
+			"BEGIN:VCARD\r\n" +
+			"FN:Agent 009\r\n" +
+			"END:VCARD\r\n" +
+			"END:VCARD\r\n" +
+			"LABEL;HOME:label\r\n" +
+			"END:VCARD\r\n" +
+			"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"AGENT:BEGIN:VCARD\\nVERSION:3.0\\nFN:Agent 007\\nX-P;A=^'b^':c\\nEND:VCARD\r\n" +
+			"END:VCARD\r\n"
+		);
+		//@formatter:on
+	}
+
+	@Test
+	public void long_lines() throws Exception {
+		StringBuilder value = new StringBuilder();
+		for (int i = 0; i < 50000; i++) {
+			value.append((char) ('a' + (i % 26)));
+		}
+
+		StringBuilder folded = new StringBuilder();
+		for (int i = 0; i < value.length(); i += 73) {
+			if (i > 0) {
+				folded.append("\r\n ");
+			}
+			folded.append(value, i, Math.min(i + 73, value.length()));
+		}
+
+		//@formatter:off
+		assertSameAsVinnie(
+			"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"NOTE:" + value + "\r\n" +
+			"X-LONG;X-P=" + value + ":value\r\n" +
+			"NOTE:" + folded + "\r\n" +
+			"END:VCARD\r\n"
+		);
+		//@formatter:on
+	}
+
+	private static void assertSameAsVinnie(String str) throws IOException {
+		assertSameAsVinnie(str, VCardVersion.V2_1);
+	}
+
+	private static void assertSameAsVinnie(String str, VCardVersion defaultVersion) throws IOException {
+		assertSameAsVinnie(null, str, defaultVersion);
+	}
+
+	private static void assertSameAsVinnie(String file, String str) throws IOException {
+		assertSameAsVinnie(file, str, VCardVersion.V2_1);
+	}
+
+	private static void assertSameAsVinnie(String file, String str, VCardVersion defaultVersion) throws IOException {
+		List<VCard> expected = new ArrayList<>();
+		List<List<ParseWarning>> expectedWarnings = new ArrayList<>();
+		try (VCardReader reader = new VCardReader(str, defaultVersion)) {
+			readAll(reader, expected, expectedWarnings);
+		}
+
+		/*
+		 * Read the data one character at a time, as well as all at once, to
+		 * make sure nothing is lost when the tokenizer refills its buffer.
+		 */
+		for (boolean trickle : new boolean[] { false, true }) {
+			Reader in = new StringReader(str);
+			if (trickle) {
+				in = new TrickleReader(in);
+			}
+
+			List<VCard> actual = new ArrayList<>();
+			List<List<ParseWarning>> actualWarnings = new ArrayList<>();
+			try (VCardReader reader = new VCardReader(in, defaultVersion)) {
+				reader.setFastTokenizerEnabled(true);
+				readAll(reader, actual, actualWarnings);
+			}
+
+			assertEquals(file, expected, actual);
+			assertWarnings(expectedWarnings, actualWarnings);
+		}
+	}
+
+	private static void readAll(VCardReader reader, List<VCard> vcards, List<List<ParseWarning>> warnings) throws IOException {
+		VCard vcard;
+		while ((vcard = reader.readNext()) != null) {
+			vcards.add(vcard);
+			warnings.add(reader.getWarnings());
+		}
+	}
+
+	private static void assertWarnings(List<List<ParseWarning>> expected, List<List<ParseWarning>> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			List<ParseWarning> expectedList = expected.get(i);
+			List<ParseWarning> actualList = actual.get(i);
+			assertEquals(expectedList.size(), actualList.size());
+			for (int j = 0; j < expectedList.size(); j++) {
+				assertEquals(expectedList.get(j).toString(), actualList.get(j).toString());
+			}
+		}
+	}
+
+	private static String load(String file) throws IOException {
+		try (InputStream in = VCardTokenizerTest.class.getResourceAsStream(file)) {
+			Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+			StringBuilder sb = new StringBuilder();
+			char[] buffer = new char[4096];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				sb.append(buffer, 0, read);
+			}
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Returns one character at a time.
+	 */
+	private static class TrickleReader extends FilterReader {
+		public TrickleReader(Reader in) {
+			super(in);
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			return super.read(cbuf, off, Math.min(len, 1));
+		}
+	}
+}
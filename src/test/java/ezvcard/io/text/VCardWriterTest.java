@@ -1,14 +1,18 @@
 package ezvcard.io.text;
 
 import static ezvcard.util.TestUtils.assertValidate;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnmappableCharacterException;
 import java.nio.file.Path;
 import java.time.ZoneOffset;
+import java.util.Random;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -17,7 +21,11 @@ import org.junit.rules.TemporaryFolder;
 import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
+import ezvcard.io.AggregatingInstrumentation;
 import ezvcard.io.ParseContext;
+import ezvcard.io.SkipMeException;
+import ezvcard.io.scribe.KeyScribe;
+import ezvcard.io.scribe.PhotoScribe;
 import ezvcard.io.scribe.SkipMeScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.AddressType;
@@ -526,6 +534,90 @@ public class VCardWriterTest {
 		}
 	}
 
+	@Test
+	public void binary_data() throws Throwable {
+		byte[] data = new byte[10000];
+		new Random(1).nextBytes(data);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+		buffer.put(data).flip();
+
+		for (VCardVersion version : VCardVersion.values()) {
+			VCard withArray = new VCard();
+			Photo photo = new Photo(data, ImageType.JPEG);
+			photo.setGroup("group");
+			photo.getParameters().put("X-PARAM", "one\"two");
+			withArray.addPhoto(photo);
+
+			VCard withBuffer = new VCard();
+			photo = new Photo(buffer, ImageType.JPEG);
+			photo.setGroup("group");
+			photo.getParameters().put("X-PARAM", "one\"two");
+			withBuffer.addPhoto(photo);
+
+			StringWriter expected = new StringWriter();
+			try (VCardWriter writer = new VCardWriter(expected, version)) {
+				writer.setAddProdId(false);
+				writer.setCaretEncodingEnabled(true);
+				writer.write(withArray);
+			}
+
+			StringWriter actual = new StringWriter();
+			try (VCardWriter writer = new VCardWriter(actual, version)) {
+				writer.setAddProdId(false);
+				writer.setCaretEncodingEnabled(true);
+				writer.write(withBuffer);
+			}
+
+			assertEquals(expected.toString(), actual.toString());
+			for (String line : actual.toString().split("\r\n")) {
+				assertTrue(line.length() <= 75);
+			}
+
+			VCardReader reader = new VCardReader(actual.toString());
+			reader.setCaretDecodingEnabled(true);
+			VCard parsed = reader.readNext();
+			photo = parsed.getPhotos().get(0);
+			assertEquals("group", photo.getGroup());
+			assertEquals("one\"two", photo.getParameter("X-PARAM"));
+			assertArrayEquals(data, photo.getData());
+		}
+	}
+
+	@Test
+	public void binary_data_scribe_overrides_writeText() throws Throwable {
+		StringWriter sw = new StringWriter();
+		try (VCardWriter writer = new VCardWriter(sw, VCardVersion.V4_0)) {
+			writer.setAddProdId(false);
+			writer.registerScribe(new PhotoScribe() {
+				@Override
+				protected String _writeText(Photo property, WriteContext context) {
+					throw new SkipMeException();
+				}
+			});
+			writer.registerScribe(new KeyScribe() {
+				@Override
+				protected String _writeText(Key property, WriteContext context) {
+					return "custom";
+				}
+			});
+
+			VCard vcard = new VCard();
+			vcard.addPhoto(new Photo("data".getBytes(), ImageType.JPEG));
+			vcard.addKey(new Key("data".getBytes(), KeyType.PGP));
+			writer.write(vcard);
+		}
+
+		//@formatter:off
+		String expected =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"KEY:custom\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+		assertEquals(expected, sw.toString());
+	}
+
 	@Test
 	public void setTargetApplication_outlook() throws Throwable {
 		VCard vcard = new VCard();
@@ -889,4 +981,67 @@ public class VCardWriterTest {
 
 		assertEquals(expected, actual);
 	}
+
+	@Test
+	public void instrumentation() throws Throwable {
+		VCard agentVCard = new VCard();
+		agentVCard.setFormattedName("Agent");
+
+		VCard vcard = new VCard();
+		vcard.setFormattedName("John Doe");
+		vcard.addPhoto(new Photo(new byte[] { 0, 1, 2 }, ImageType.JPEG));
+		vcard.setAgent(new Agent(agentVCard));
+
+		for (VCardVersion version : new VCardVersion[] { VCardVersion.V2_1, VCardVersion.V3_0 }) {
+			AggregatingInstrumentation instrumentation = new AggregatingInstrumentation();
+			StringWriter sw = new StringWriter();
+			try (VCardWriter writer = new VCardWriter(sw, version)) {
+				writer.setInstrumentation(instrumentation);
+				writer.write(vcard);
+				writer.write(agentVCard);
+			}
+
+			AggregatingInstrumentation.Metrics metrics = instrumentation.getLastVCard();
+			assertEquals(1, metrics.getVCards());
+			assertEquals(0, metrics.getNestedVCards());
+			assertEquals(1, metrics.getWrittenProperties().get("FN").getCount());
+
+			metrics = instrumentation.getTotal();
+			assertEquals(2, metrics.getVCards());
+			assertEquals(1, metrics.getNestedVCards());
+			assertEquals(3, metrics.getWrittenProperties().get("FN").getCount());
+			assertEquals(1, metrics.getWrittenProperties().get("PHOTO").getCount());
+			assertEquals(1, metrics.getWrittenProperties().get("AGENT").getCount());
+			assertTrue(metrics.getParsedProperties().isEmpty());
+		}
+	}
+
+	@Test
+	public void reset() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.setFormattedName("John Doe");
+		vcard.addNote("one two three");
+
+		StringWriter sw1 = new StringWriter();
+		VCardWriter writer = new VCardWriter(sw1, VCardVersion.V3_0);
+		writer.setAddProdId(false);
+		writer.getVObjectWriter().getFoldedLineWriter().setLineLength(10);
+		writer.write(vcard);
+
+		StringWriter sw2 = new StringWriter();
+		writer.reset(sw2);
+		writer.write(vcard);
+
+		//the settings should be kept
+		StringWriter sw3 = new StringWriter();
+		VCardWriter writer2 = new VCardWriter(sw3, VCardVersion.V3_0);
+		writer2.setAddProdId(false);
+		writer2.getVObjectWriter().getFoldedLineWriter().setLineLength(10);
+		writer2.write(vcard);
+		String expected = sw3.toString();
+		assertTrue(expected.contains("NOTE:one t\r\n wo three"));
+
+		assertEquals(expected, sw1.toString());
+		assertEquals(expected, sw2.toString());
+	}
 }
@@ -0,0 +1,261 @@
+package ezvcard.io.xml;
+
+import static ezvcard.VCardVersion.V4_0;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.SAXException;
+
+import ezvcard.VCard;
+import ezvcard.io.LuckyNumProperty;
+import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
+import ezvcard.io.StreamWriter;
+import ezvcard.io.scribe.SkipMeScribe;
+import ezvcard.parameter.EmailType;
+import ezvcard.parameter.ImageType;
+import ezvcard.property.Address;
+import ezvcard.property.Photo;
+import ezvcard.property.SkipMeProperty;
+import ezvcard.property.StructuredName;
+import ezvcard.property.Telephone;
+import ezvcard.property.Xml;
+import ezvcard.util.Gobble;
+import ezvcard.util.TelUri;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class StaxXCardWriterTest {
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	/**
+	 * Makes sure that this writer and {@link XCardWriter} produce exactly the
+	 * same output, and that the output has not changed.
+	 */
+	@Test
+	public void golden_file() throws Exception {
+		String expected = new Gobble(getClass().getResourceAsStream("golden.xml")).asString(StandardCharsets.UTF_8);
+
+		StringWriter sw = new StringWriter();
+		try (XCardWriter writer = new XCardWriter(sw)) {
+			writeGoldenVCards(writer);
+		}
+		assertEquals(expected, sw.toString());
+
+		sw = new StringWriter();
+		try (StaxXCardWriter writer = new StaxXCardWriter(sw)) {
+			writeGoldenVCards(writer);
+		}
+		assertEquals(expected, sw.toString());
+	}
+
+	@Test
+	public void write_empty() throws Exception {
+		StringWriter sw = new StringWriter();
+		new StaxXCardWriter(sw).close();
+
+		String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><vcards xmlns=\"" + V4_0.getXmlNamespace() + "\"/>";
+		assertEquals(expected, sw.toString());
+	}
+
+	@Test
+	public void write_non_bmp_characters() throws Exception {
+		StringWriter sw = new StringWriter();
+		try (StaxXCardWriter writer = new StaxXCardWriter(sw)) {
+			writer.setAddProdId(false);
+
+			VCard vcard = new VCard();
+			vcard.setFormattedName("😀");
+			writer.write(vcard);
+		}
+
+		VCard vcard = new XCardReader(sw.toString()).readNext();
+		assertEquals("😀", vcard.getFormattedName().getValue());
+	}
+
+	@Test
+	public void write_xml_stream_writer() throws Exception {
+		StringWriter sw = new StringWriter();
+		XMLStreamWriter xmlWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(sw);
+		xmlWriter.writeStartDocument();
+		xmlWriter.writeStartElement("root");
+
+		StaxXCardWriter writer = new StaxXCardWriter(xmlWriter);
+		writer.setAddProdId(false);
+		VCard vcard = new VCard();
+		vcard.setFormattedName("John Doe");
+		writer.write(vcard);
+		writer.close();
+
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndDocument();
+		xmlWriter.close();
+
+		//@formatter:off
+		String expected =
+		"<?xml version=\"1.0\" ?>" +
+		"<root>" +
+			"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+				"<vcard>" +
+					"<fn><text>John Doe</text></fn>" +
+				"</vcard>" +
+			"</vcards>" +
+		"</root>";
+		//@formatter:on
+		assertEquals(expected, sw.toString());
+	}
+
+	@Test
+	public void write_xml_property_namespace_prefixes() throws Exception {
+		StringWriter sw = new StringWriter();
+		try (StaxXCardWriter writer = new StaxXCardWriter(sw)) {
+			writer.setAddProdId(false);
+
+			VCard vcard = new VCard();
+			vcard.addXml(new Xml("<a:foo xmlns:a=\"http://example.com/a\" xmlns:b=\"http://example.com/b\" b:attr=\"value\"><b:child>text</b:child></a:foo>"));
+			writer.write(vcard);
+		}
+
+		//@formatter:off
+		String expected =
+		"<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<foo xmlns=\"http://example.com/a\" b:attr=\"value\">" +
+					"<child xmlns=\"http://example.com/b\">text</child>" +
+				"</foo>" +
+			"</vcard>" +
+		"</vcards>";
+		//@formatter:on
+		assertEquals(expected, sw.toString());
+	}
+
+	@Test
+	public void write_file() throws Exception {
+		Path file = tempFolder.getRoot().toPath().resolve("file.xml");
+		try (StaxXCardWriter writer = new StaxXCardWriter(file)) {
+			writer.setAddProdId(false);
+			VCard vcard = new VCard();
+			vcard.setFormattedName("Jöhn Doe");
+			writer.write(vcard);
+		}
+
+		//@formatter:off
+		String expected =
+		"<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<fn><text>Jöhn Doe</text></fn>" +
+			"</vcard>" +
+		"</vcards>";
+		//@formatter:on
+		assertEquals(expected, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Writes a variety of vCards that cover the different ways properties are
+	 * written (streamed elements, DOM elements, binary data, etc).
+	 * @param writer the writer
+	 * @throws IOException if there's a problem writing the vCards
+	 * @throws SAXException if there's a problem parsing the XML property
+	 */
+	private static void writeGoldenVCards(StreamWriter writer) throws IOException, SAXException {
+		writer.setAddProdId(false);
+		writer.registerScribe(new LuckyNumScribe());
+		writer.registerScribe(new SkipMeScribe());
+
+		for (VCard vcard : goldenVCards()) {
+			writer.write(vcard);
+		}
+	}
+
+	private static List<VCard> goldenVCards() throws SAXException {
+		List<VCard> vcards = new ArrayList<>();
+
+		VCard vcard = new VCard();
+		vcard.setFormattedName("Simon Perreault");
+
+		StructuredName n = new StructuredName();
+		n.setFamily("Perreault");
+		n.setGiven("Simon");
+		n.getSuffixes().addAll(Arrays.asList("ing. jr", "M.Sc."));
+		vcard.setStructuredName(n);
+
+		vcard.addLanguage("fr").setPref(1);
+		vcard.setOrganization("Viagenie").setType("work");
+
+		Address adr = new Address();
+		adr.setStreetAddress("2875 boul. Laurier, suite D2-630");
+		adr.setLocality("Quebec");
+		adr.setLabel("Simon Perreault\n2875 boul. Laurier\r\nQuebec");
+		adr.setGroup("work");
+		vcard.addAddress(adr);
+
+		vcard.addTelephoneNumber(new Telephone(new TelUri.Builder("+1-418-656-9254").extension("102").build()));
+		vcard.addEmail("simon.perreault@viagenie.ca", EmailType.WORK).setGroup("work");
+		vcard.setGeo(46.766336, -71.28955);
+		vcard.addNote("<special> & \"characters\" 'here' é\t]]>");
+		vcard.addNote("").setLanguage("");
+		vcard.setExtendedProperty("X-FOO", "bar").setParameter("X-EMPTY", "");
+		vcard.addProperty(new LuckyNumProperty(13));
+		vcard.addProperty(new SkipMeProperty());
+		vcard.addXml(new Xml("<foo xmlns=\"http://example.com\" a=\"b\">bar<car/><child>text</child></foo>"));
+		vcards.add(vcard);
+
+		vcard = new VCard();
+		byte[] data = new byte[1000];
+		new Random(1).nextBytes(data);
+		vcard.addPhoto(new Photo(data, ImageType.JPEG));
+		vcard.addPhoto(new Photo("http://example.com/photo.jpg", ImageType.JPEG));
+		vcards.add(vcard);
+
+		vcards.add(new VCard());
+
+		return vcards;
+	}
+}
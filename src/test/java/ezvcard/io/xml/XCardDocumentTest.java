@@ -5,10 +5,14 @@ import static ezvcard.util.StringUtils.NEWLINE;
 import static ezvcard.util.TestUtils.assertValidate;
 import static org.custommonkey.xmlunit.XMLAssert.assertXMLEqual;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.ZoneOffset;
@@ -19,6 +23,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 import ezvcard.Ezvcard;
@@ -61,6 +66,7 @@ import ezvcard.property.SkipMeProperty;
 import ezvcard.property.StructuredName;
 import ezvcard.property.Telephone;
 import ezvcard.property.Timezone;
+import ezvcard.property.Uid;
 import ezvcard.property.Url;
 import ezvcard.property.VCardProperty;
 import ezvcard.property.Xml;
@@ -160,6 +166,163 @@ public class XCardDocumentTest {
 		//@formatter:on
 	}
 
+	@Test
+	public void vcards_element_not_root() throws Throwable {
+		//@formatter:off
+		String xml =
+		"<root>" +
+			"<foo xmlns=\"" + V4_0.getXmlNamespace() + "\"><vcard><fn><text>Not me</text></fn></vcard></foo>" +
+			"<bar>" +
+				"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+					"<vcard><fn><text>John Doe</text></fn></vcard>" +
+				"</vcards>" +
+			"</bar>" +
+			"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+				"<vcard><fn><text>Not me either</text></fn></vcard>" +
+			"</vcards>" +
+		"</root>";
+		//@formatter:on
+
+		XCardDocument xcard = new XCardDocument(xml);
+		assertEquals(1, xcard.size());
+		assertEquals("John Doe", xcard.getVCard(0).getFormattedName().getValue());
+	}
+
+	@Test
+	public void vcards_element_missing() throws Throwable {
+		XCardDocument xcard = new XCardDocument("<root><vcards/></root>");
+		assertEquals(0, xcard.size());
+		assertNull(xcard.getVCardByUid("1"));
+		assertTrue(xcard.getVCards().isEmpty());
+
+		xcard.addVCard(new VCard());
+		assertEquals(1, xcard.size());
+	}
+
+	@Test
+	public void getVCard() throws Throwable {
+		//@formatter:off
+		String xml =
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard><fn><text>John Doe</text></fn></vcard>" +
+			"<vcard><fn><text>Jane Doe</text></fn></vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		XCardDocument xcard = new XCardDocument(xml);
+		assertEquals(2, xcard.size());
+
+		VCard vcard = xcard.getVCard(1);
+		assertEquals("Jane Doe", vcard.getFormattedName().getValue());
+		assertSame(vcard, xcard.getVCard(1));
+		assertEquals("John Doe", xcard.getVCard(0).getFormattedName().getValue());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void getVCard_out_of_range() throws Throwable {
+		XCardDocument xcard = new XCardDocument();
+		xcard.addVCard(new VCard());
+		xcard.getVCard(1);
+	}
+
+	@Test
+	public void getVCard_dom_modified() throws Throwable {
+		//@formatter:off
+		String xml =
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard><fn><text>John Doe</text></fn></vcard>" +
+			"<vcard><fn><text>Jane Doe</text></fn></vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		XCardDocument xcard = new XCardDocument(xml);
+		VCard john = xcard.getVCard(0);
+		VCard jane = xcard.getVCard(1);
+
+		//modify a vCard (changes made inside of a <vcard> element are not detected)
+		Element vcards = xcard.getDocument().getDocumentElement();
+		Element text = (Element) vcards.getFirstChild().getFirstChild().getFirstChild();
+		text.setTextContent("Johnny Doe");
+		assertSame(john, xcard.getVCard(0));
+
+		//replace a vCard
+		Element johnnyElement = (Element) vcards.getFirstChild().cloneNode(true);
+		vcards.replaceChild(johnnyElement, vcards.getFirstChild());
+
+		VCard johnny = xcard.getVCard(0);
+		assertNotSame(john, johnny);
+		assertEquals("Johnny Doe", johnny.getFormattedName().getValue());
+		assertSame(jane, xcard.getVCard(1));
+
+		//remove a vCard
+		vcards.removeChild(vcards.getFirstChild());
+		assertEquals(1, xcard.size());
+		assertSame(jane, xcard.getVCard(0));
+
+		//add a vCard
+		VCard vcard = new VCard();
+		vcard.setFormattedName("Joe Doe");
+		xcard.addVCard(vcard);
+		assertEquals(2, xcard.size());
+		assertSame(jane, xcard.getVCard(0));
+		assertEquals("Joe Doe", xcard.getVCard(1).getFormattedName().getValue());
+	}
+
+	@Test
+	public void getVCard_wrapped_document_not_cached() throws Throwable {
+		//@formatter:off
+		String xml =
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard><fn><text>John Doe</text></fn></vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		XCardDocument xcard = new XCardDocument(XmlUtils.toDocument(xml));
+		VCard john = xcard.getVCard(0);
+		assertNotSame(john, xcard.getVCard(0));
+
+		Element text = (Element) xcard.getDocument().getDocumentElement().getFirstChild().getFirstChild().getFirstChild();
+		text.setTextContent("Johnny Doe");
+		assertEquals("Johnny Doe", xcard.getVCard(0).getFormattedName().getValue());
+	}
+
+	@Test
+	public void getVCardByUid() throws Throwable {
+		//@formatter:off
+		String xml =
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard><fn><text>John Doe</text></fn><uid><uri>urn:uuid:1</uri></uid></vcard>" +
+			"<vcard><group name=\"g\"><uid><uri>urn:uuid:2</uri></uid></group><fn><text>Jane Doe</text></fn></vcard>" +
+			"<vcard><fn><text>No UID</text></fn></vcard>" +
+			"<vcard><fn><text>Duplicate</text></fn><uid><uri>urn:uuid:1</uri></uid></vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		XCardDocument xcard = new XCardDocument(xml);
+		VCard vcard = xcard.getVCardByUid("urn:uuid:1");
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+		assertSame(vcard, xcard.getVCard(0));
+		assertEquals("Jane Doe", xcard.getVCardByUid("urn:uuid:2").getFormattedName().getValue());
+		assertNull(xcard.getVCardByUid("urn:uuid:3"));
+
+		//replace a vCard
+		Element vcards = xcard.getDocument().getDocumentElement();
+		Element johnnyElement = (Element) vcards.getFirstChild().cloneNode(true);
+		johnnyElement.getFirstChild().getFirstChild().setTextContent("Johnny Doe");
+		vcards.replaceChild(johnnyElement, vcards.getFirstChild());
+		assertEquals("Johnny Doe", xcard.getVCardByUid("urn:uuid:1").getFormattedName().getValue());
+
+		//remove a vCard
+		vcards.removeChild(vcards.getFirstChild());
+		assertEquals("Duplicate", xcard.getVCardByUid("urn:uuid:1").getFormattedName().getValue());
+
+		//add a vCard
+		VCard added = new VCard();
+		added.setUid(new Uid("urn:uuid:4"));
+		xcard.addVCard(added);
+		assertEquals("urn:uuid:4", xcard.getVCardByUid("urn:uuid:4").getUid().getValue());
+	}
+
 	@Test
 	public void add_basicType() throws Throwable {
 		VCard vcard = new VCard();
@@ -681,6 +844,88 @@ public class XCardDocumentTest {
 		assertTrue(xml.matches(".*?<note><text>\u019dote</text></note>.*"));
 	}
 
+	@Test
+	public void streamTo() throws Throwable {
+		VCard vcard1 = new VCard();
+		vcard1.setFormattedName("John Doe");
+		vcard1.addEmail("johndoe@example.com", EmailType.WORK).setGroup("work");
+		vcard1.addNote("<special> & \"characters\"");
+		vcard1.addXml(new Xml("<a:foo xmlns:a=\"http://example.com/a\" xmlns:b=\"http://example.com/b\" b:attr=\"value\"><b:child>text</b:child></a:foo>"));
+		VCard vcard2 = new VCard();
+		vcard2.setFormattedName("Jane Doe");
+
+		XCardDocument xcard = new XCardDocument();
+		xcard.addVCard(vcard1);
+		xcard.addVCard(vcard2);
+		String expected = xcard.write(2);
+
+		StringWriter sw = new StringWriter();
+		XCardDocument streaming = XCardDocument.streamTo(sw, new XCardOutputProperties(2, null));
+		streaming.addVCard(vcard1);
+		streaming.addVCard(vcard2);
+		streaming.finish();
+		assertEquals(expected, sw.toString());
+
+		//the vCards are not kept in the DOM
+		assertTrue(streaming.getVCards().isEmpty());
+	}
+
+	@Test
+	public void streamTo_empty() throws Throwable {
+		StringWriter sw = new StringWriter();
+		XCardDocument xcard = XCardDocument.streamTo(sw);
+		xcard.finish();
+		xcard.finish();
+
+		String expected = new XCardDocument().write();
+		assertEquals(expected, sw.toString());
+	}
+
+	@Test
+	public void streamTo_writer_close() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.setFormattedName("John Doe");
+
+		StringWriter sw = new StringWriter();
+		XCardDocument xcard = XCardDocument.streamTo(sw);
+		try (XCardDocumentStreamWriter writer = xcard.writer()) {
+			writer.setAddProdId(false);
+			writer.write(vcard);
+		}
+
+		String expected = "<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\"><vcard><fn><text>John Doe</text></fn></vcard></vcards>";
+		assertTrue(sw.toString().endsWith(expected));
+	}
+
+	@Test
+	public void streamTo_file() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.addNote("\u019dote");
+
+		Path file = tempFolder.newFile().toPath();
+		XCardDocument xcard = XCardDocument.streamTo(file);
+		xcard.addVCard(vcard);
+		xcard.finish();
+
+		String xml = new Gobble(file).asString(StandardCharsets.UTF_8);
+		assertTrue(xml.matches("(?i)<\\?xml.*?encoding=\"utf-8\".*?\\?>.*"));
+		assertTrue(xml.matches(".*?<note><text>\u019dote</text></note>.*"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void streamTo_write() throws Throwable {
+		XCardDocument xcard = XCardDocument.streamTo(new StringWriter());
+		xcard.addVCard(new VCard());
+		xcard.write();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void streamTo_add_after_finish() throws Throwable {
+		XCardDocument xcard = XCardDocument.streamTo(new StringWriter());
+		xcard.finish();
+		xcard.addVCard(new VCard());
+	}
+
 	@Test
 	public void add_quoted_printable_encoding_not_supported() throws Throwable {
 		VCard vcard = new VCard();
@@ -3,6 +3,7 @@ package ezvcard.io.xml;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
@@ -12,7 +13,11 @@ import java.util.List;
 import org.junit.Test;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
 
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
@@ -204,6 +209,96 @@ public class XCardElementTest {
 		assertEquals(XmlUtils.toElementList(xcardElement.element().getChildNodes()), elements);
 	}
 
+	@Test
+	public void streamed() {
+		//@formatter:off
+		String[] inputs = {
+			"<prop><one>1</one><two>2</two></prop>",
+			"<prop><text>one</text><text /><text>two</text></prop>",
+			"<prop><unknown>one</unknown></prop>",
+			"<prop><n:foo xmlns:n=\"http://example.com\">one</n:foo><text>two</text></prop>",
+			"<prop><n:foo xmlns:n=\"http://example.com\">one</n:foo><n:bar xmlns:n=\"http://example.com\">two</n:bar></prop>",
+			"<prop>text<text>one<n:b xmlns:n=\"http://example.com\">two</n:b></text></prop>",
+			"<prop />"
+		};
+		//@formatter:on
+
+		for (String input : inputs) {
+			XCardElement dom = build(input);
+			XCardElement streamed = buildStreamed(input);
+
+			assertEquals(input, dom.first("one", "two"), streamed.first("one", "two"));
+			assertEquals(input, dom.first(VCardDataType.TEXT), streamed.first(VCardDataType.TEXT));
+			assertEquals(input, dom.first((VCardDataType) null), streamed.first((VCardDataType) null));
+			assertEquals(input, dom.all("text"), streamed.all("text"));
+			assertEquals(input, dom.firstValue().getDataType(), streamed.firstValue().getDataType());
+			assertEquals(input, dom.firstValue().getValue(), streamed.firstValue().getValue());
+		}
+	}
+
+	@Test
+	public void streamed_element() throws Exception {
+		String input = "<prop>text<x:a xmlns:x=\"http://example.com\" attr=\"value\">one<x:b>two</x:b></x:a><text>three</text></prop>";
+		XCardElement xcardElement = buildStreamed(input);
+
+		Element element = xcardElement.element();
+		assertSame(element, xcardElement.element());
+		assertSame(xcardElement.document(), element.getOwnerDocument());
+
+		//namespace prefixes are not preserved
+		String expected = XmlUtils.toString(build("<prop>text<a xmlns=\"http://example.com\" attr=\"value\">one<b>two</b></a><text>three</text></prop>").element());
+		assertEquals(expected, XmlUtils.toString(element));
+	}
+
+	@Test
+	public void streamed_append() {
+		XCardElement xcardElement = buildStreamed("<prop><one>1</one></prop>");
+		xcardElement.append("two", "2");
+
+		assertEquals("1", xcardElement.first("one"));
+		assertEquals("2", xcardElement.first("two"));
+		assertEquals(2, XmlUtils.toElementList(xcardElement.element().getChildNodes()).size());
+	}
+
+	/**
+	 * Builds an {@link XCardElement} that is backed by a
+	 * {@link StreamedElement}, like the ones that {@link XCardReader} creates.
+	 * @param innerXml the property element
+	 * @return the xCard element
+	 */
+	private static XCardElement buildStreamed(String innerXml) {
+		Element element = build(innerXml).element();
+		return new XCardElement(toStreamed(element, null), XmlUtils.createDocument(), VCardVersion.V4_0);
+	}
+
+	private static StreamedElement toStreamed(Element element, StreamedElement parent) {
+		AttributesImpl attributes = new AttributesImpl();
+		NamedNodeMap attrs = element.getAttributes();
+		for (int i = 0; i < attrs.getLength(); i++) {
+			Node attr = attrs.item(i);
+			String localName = (attr.getLocalName() == null) ? attr.getNodeName() : attr.getLocalName();
+			attributes.addAttribute("", localName, attr.getNodeName(), "CDATA", attr.getNodeValue());
+		}
+
+		String namespace = (element.getNamespaceURI() == null) ? "" : element.getNamespaceURI();
+		StreamedElement streamed = new StreamedElement(namespace, element.getLocalName(), attributes, parent);
+
+		NodeList children = element.getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			Node child = children.item(i);
+			switch (child.getNodeType()) {
+			case Node.ELEMENT_NODE:
+				streamed.appendChild(toStreamed((Element) child, streamed));
+				break;
+			case Node.TEXT_NODE:
+				streamed.appendText(child.getNodeValue());
+				break;
+			}
+		}
+
+		return streamed;
+	}
+
 	private static XCardElement build(String innerXml) {
 		return build(innerXml, null);
 	}
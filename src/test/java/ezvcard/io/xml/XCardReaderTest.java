@@ -18,8 +18,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZoneOffset;
 import java.util.Iterator;
+import java.util.List;
 
-import javax.xml.transform.TransformerException;
+import javax.xml.stream.XMLStreamException;
 
 import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.BeforeClass;
@@ -363,8 +364,7 @@ public class XCardReaderTest {
 			reader.readNext();
 			fail();
 		} catch (IOException e) {
-			assertTrue(e.getCause() instanceof TransformerException);
-			assertTrue(e.getCause().getCause() instanceof SAXException);
+			assertTrue(e.getCause() instanceof XMLStreamException);
 		}
 
 		assertNoMoreVCards(reader);
@@ -726,6 +726,56 @@ public class XCardReaderTest {
 		assertNoMoreVCards(reader);
 	}
 
+	@Test
+	public void read_dom() throws Exception {
+		//@formatter:off
+		String xml =
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<fn><text>Dr. Gregory House M.D.</text></fn>" +
+				"<n:foo xmlns:n=\"http://example.com\" xmlns=\"http://example.com/other\" a=\"1\">" +
+					"<bar>one<![CDATA[<two>]]></bar>" +
+				"</n:foo>" +
+			"</vcard>" +
+			"<vcard>" +
+				"<fn><text>Dr. Lisa Cuddy M.D.</text></fn>" +
+			"</vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		List<VCard> expected = new XCardReader(xml).readAll();
+		List<VCard> actual = new XCardReader(XmlUtils.toDocument(xml)).readAll();
+		assertEquals(2, actual.size());
+		assertEquals(expected, actual);
+
+		Xml xmlProperty = actual.get(0).getXmls().get(0);
+		assertXMLEqual(XmlUtils.toDocument("<foo xmlns=\"http://example.com\" a=\"1\"><bar xmlns=\"http://example.com/other\">one&lt;two&gt;</bar></foo>"), xmlProperty.getValue());
+	}
+
+	@Test
+	public void read_xxe() throws Exception {
+		//@formatter:off
+		String xml =
+		"<?xml version=\"1.0\"?>" +
+		"<!DOCTYPE vcards [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>" +
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<fn><text>&xxe;</text></fn>" +
+			"</vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		XCardReader reader = new XCardReader(xml);
+		try {
+			reader.readNext();
+			fail();
+		} catch (IOException e) {
+			assertTrue(e.getCause() instanceof XMLStreamException);
+		}
+
+		assertNoMoreVCards(reader);
+	}
+
 	@Test
 	public void read_utf8() throws Exception {
 		//@formatter:off
@@ -859,6 +909,52 @@ public class XCardReaderTest {
 		asserter.done();
 	}
 
+
+	@Test
+	public void propertyFilter() throws Exception {
+		//@formatter:off
+		String xml =
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<fn><text>John Doe</text></fn>" +
+				"<note><parameters><pref><integer>1</integer></pref></parameters><text>note</text></note>" +
+				"<group name=\"grp\">" +
+					"<note><text>note</text></note>" +
+					"<fn><text>Johnny</text></fn>" +
+				"</group>" +
+				"<x-foo><unknown>bar</unknown></x-foo>" +
+				"<foo xmlns=\"http://example.com\"><note><text>note</text></note></foo>" +
+			"</vcard>" +
+			"<vcard>" +
+				"<note><text>note</text></note>" +
+				"<fn><text>Jane Doe</text></fn>" +
+			"</vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		XCardReader reader = new XCardReader(xml);
+		reader.setPropertyFilter(FormattedName.class);
+
+		VCard vcard = reader.readNext();
+		assertEquals(2, vcard.getProperties().size());
+		assertEquals("John Doe", vcard.getFormattedNames().get(0).getValue());
+		assertEquals("Johnny", vcard.getFormattedNames().get(1).getValue());
+		assertEquals("grp", vcard.getFormattedNames().get(1).getGroup());
+		assertParseWarnings(reader);
+
+		vcard = reader.readNext();
+		assertEquals(1, vcard.getProperties().size());
+		assertEquals("Jane Doe", vcard.getFormattedName().getValue());
+		assertNoMoreVCards(reader);
+
+		reader = new XCardReader(xml);
+		reader.setPropertyFilter(RawProperty.class, Xml.class);
+		vcard = reader.readNext();
+		assertEquals(2, vcard.getProperties().size());
+		assertEquals("bar", vcard.getExtendedProperty("X-FOO").getValue());
+		assertEquals(1, vcard.getXmls().size());
+	}
+
 	private static VCardAsserter read(String file) throws SAXException, IOException {
 		XCardReader reader = new XCardReader(XCardReaderTest.class.getResourceAsStream(file));
 		return new VCardAsserter(reader);
@@ -9,9 +9,11 @@ import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.ZoneOffset;
+import java.util.Random;
 
 import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.Before;
@@ -63,6 +65,7 @@ import ezvcard.util.Gobble;
 import ezvcard.util.PartialDate;
 import ezvcard.util.TelUri;
 import ezvcard.util.XmlUtils;
+import ezvcard.util.org.apache.commons.codec.binary.Base64;
 
 /*
  Copyright (c) 2012-2023, Michael Angstadt
@@ -136,6 +139,39 @@ public class XCardWriterTest {
 		assertOutput(expected);
 	}
 
+	@Test
+	public void binary_data() throws Exception {
+		byte[] data = new byte[10000];
+		new Random(1).nextBytes(data);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+		buffer.put(data).flip();
+
+		VCard vcard = new VCard();
+		Photo photo = new Photo(buffer, ImageType.JPEG);
+		photo.setGroup("group");
+		photo.setPref(1);
+		vcard.addPhoto(photo);
+		writer.write(vcard);
+
+		writer.close();
+
+		//@formatter:off
+		String expected =
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<group name=\"group\">" +
+					"<photo>" +
+						"<parameters><pref><integer>1</integer></pref></parameters>" +
+						"<uri>data:image/jpeg;base64," + Base64.encodeBase64String(data) + "</uri>" +
+					"</photo>" +
+				"</group>" +
+			"</vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		assertOutput(expected);
+	}
+
 	@Test
 	public void write_multiple() throws Exception {
 		VCard vcard = new VCard();
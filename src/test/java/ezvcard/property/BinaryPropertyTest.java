@@ -7,10 +7,13 @@ import static ezvcard.property.PropertySensei.assertValidate;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -102,6 +105,55 @@ public class BinaryPropertyTest {
 		assertNull(property.getData());
 	}
 
+	@Test
+	public void byte_buffer() throws Exception {
+		byte[] data = "data".getBytes();
+
+		//buffer that wraps an entire array
+		BinaryPropertyImpl property = new BinaryPropertyImpl(ByteBuffer.wrap(data), ImageType.JPEG);
+		assertEquals(ImageType.JPEG, property.getContentType());
+		assertSame(data, property.getData());
+		assertEquals(4, property.getDataLength());
+
+		//buffer that wraps part of an array
+		ByteBuffer buffer = ByteBuffer.wrap(data, 1, 2);
+		property = new BinaryPropertyImpl(buffer, ImageType.JPEG);
+		assertEquals("at", new String(property.getData()));
+		assertEquals(2, property.getDataLength());
+		assertEquals(1, buffer.position());
+
+		//direct buffer
+		buffer = ByteBuffer.allocateDirect(4);
+		buffer.put(data).flip();
+		property = new BinaryPropertyImpl(buffer, ImageType.JPEG);
+		assertTrue(property.hasData());
+		assertEquals(4, property.getDataLength());
+		assertEquals("data", new String(property.getData()));
+		assertTrue(property.getDataBuffer().isReadOnly());
+		assertEquals(buffer, property.getDataBuffer());
+
+		BinaryPropertyImpl withArray = new BinaryPropertyImpl(data, ImageType.JPEG);
+		assertEquals(withArray, property);
+		assertEquals(property, withArray);
+		assertEquals(withArray.hashCode(), property.hashCode());
+
+		InputStream in = property.getDataStream();
+		assertEquals(4, in.available());
+		assertEquals('d', in.read());
+		assertEquals(2, in.skip(2));
+		assertEquals('a', in.read());
+		assertEquals(-1, in.read());
+
+		BinaryPropertyImpl copy = new BinaryPropertyImpl(property);
+		assertEquals(property, copy);
+
+		property.setUrl("one", ImageType.PNG);
+		assertFalse(property.hasData());
+		assertEquals(-1, property.getDataLength());
+		assertNull(property.getDataBuffer());
+		assertNull(property.getData());
+	}
+
 	@Test
 	public void validate() {
 		BinaryPropertyImpl empty = new BinaryPropertyImpl();
@@ -171,6 +223,10 @@ public class BinaryPropertyTest {
 			super(data, type);
 		}
 
+		public BinaryPropertyImpl(ByteBuffer data, ImageType type) {
+			super(data, type);
+		}
+
 		public BinaryPropertyImpl(InputStream in, ImageType type) throws IOException {
 			super(in, type);
 		}
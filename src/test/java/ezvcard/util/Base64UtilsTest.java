@@ -0,0 +1,139 @@
+package ezvcard.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ezvcard.util.org.apache.commons.codec.binary.Base64;
+
+/*
+ Copyright (c) 2012-2023, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class Base64UtilsTest {
+	@Test
+	public void encode() throws Exception {
+		Random random = new Random(1);
+		for (int length : new int[] { 0, 1, 2, 3, 4, 5, 3 * 1024 - 1, 3 * 1024, 3 * 1024 + 1, 10000 }) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+
+			StringWriter sw = new StringWriter();
+			Base64Utils.encode(ByteBuffer.wrap(data), sw);
+			assertEquals(Base64.encodeBase64String(data), sw.toString());
+		}
+	}
+
+	@Test
+	public void encode_does_not_modify_buffer() throws Exception {
+		ByteBuffer buffer = ByteBuffer.wrap("data".getBytes());
+		buffer.position(1);
+
+		StringWriter sw = new StringWriter();
+		Base64Utils.encode(buffer, sw);
+		assertEquals(Base64.encodeBase64String("ata".getBytes()), sw.toString());
+		assertEquals(1, buffer.position());
+	}
+
+	@Test
+	public void encodingReader() throws Exception {
+		Random random = new Random(1);
+		for (int length : new int[] { 0, 1, 2, 3, 3 * 1024 + 1, 10000 }) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+
+			Reader reader = Base64Utils.encodingReader("data:,", ByteBuffer.wrap(data));
+			StringBuilder sb = new StringBuilder();
+			char[] buffer = new char[7];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				sb.append(buffer, 0, read);
+			}
+
+			assertEquals("data:," + Base64.encodeBase64String(data), sb.toString());
+		}
+	}
+
+	@Test
+	public void decode_stream() throws Exception {
+		Random random = new Random(1);
+		for (int length : new int[] { 0, 1, 2, 3, 3 * 1024, 3 * 1024 + 1, 10000 }) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+
+			String encoded = "xx" + Base64.encodeBase64String(data);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			assertEquals(length, Base64Utils.decode(encoded, 2, out));
+			assertArrayEquals(data, out.toByteArray());
+		}
+	}
+
+	@Test
+	public void decode() {
+		Random random = new Random(1);
+		for (int length : new int[] { 0, 1, 2, 3, 4, 5, 1000 }) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+
+			String encoded = Base64.encodeBase64String(data);
+			assertArrayEquals(data, Base64Utils.decode(encoded));
+		}
+	}
+
+	@Test
+	public void decode_lenient() {
+		//@formatter:off
+		String[] values = {
+			"ZGF0YQ==",
+			"ZGF0YQ",
+			"ZGF0 YQ==\r\n",
+			"ZG\tF0YQ==ignored",
+			"ZGF0YQ=ZZ",
+			"-_-_",
+			"Zé",
+			"Z",
+			"",
+			"==="
+		};
+		//@formatter:on
+
+		for (String value : values) {
+			assertArrayEquals(value, Base64.decodeBase64(value), Base64Utils.decode(value));
+		}
+	}
+}
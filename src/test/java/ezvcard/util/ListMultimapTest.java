@@ -6,7 +6,9 @@ import static ezvcard.util.TestUtils.assertEqualsMethodEssentials;
 import static ezvcard.util.TestUtils.assertNotEqualsBothWays;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -299,6 +301,164 @@ public class ListMultimapTest {
 		assertEquals(Arrays.asList("3"), original.get("three"));
 	}
 
+	@Test
+	public void copy_on_write() {
+		ListMultimap<String, String> original = new ListMultimap<>();
+		original.put("one", "1");
+		original.put("two", "2");
+		original.put("two", "22");
+
+		ListMultimap<String, String> copy = new ListMultimap<>(original, true);
+		assertEquals(original, copy);
+
+		//data is shared until the copy is modified
+		assertSame(original.getMap(), copy.getMap());
+
+		//methods that do not modify anything do not trigger a copy
+		copy.remove("one", "2");
+		copy.remove("three", "3");
+		copy.removeAll("three");
+		copy.replace("three", (String) null);
+		copy.get("one").remove("2");
+		copy.get("three").clear();
+		assertSame(original.getMap(), copy.getMap());
+		assertEquals(Arrays.asList("1"), copy.get("one"));
+
+		copy.put("one", "11");
+		assertNotSame(original.getMap(), copy.getMap());
+		assertEquals(Arrays.asList("1", "11"), copy.get("one"));
+		assertEquals(Arrays.asList("1"), original.get("one"));
+		assertEquals(Arrays.asList("2", "22"), copy.get("two"));
+
+		//the original is unaffected by further modifications to the copy
+		copy.removeAll("two");
+		assertEquals(Arrays.asList("2", "22"), original.get("two"));
+
+		copy.clear();
+		assertTrue(copy.isEmpty());
+		assertEquals(3, original.size());
+	}
+
+	@Test
+	public void copy_on_write_mutators() {
+		ListMultimap<String, String> original = new ListMultimap<>();
+		original.put("one", "1");
+		original.put("one", "11");
+
+		//@formatter:off
+		List<Modification> modifications = Arrays.asList(
+			map -> map.put("one", "111"),
+			map -> map.putAll("one", Arrays.asList("111")),
+			map -> map.remove("one", "1"),
+			map -> map.removeAll("one"),
+			map -> map.replace("one", "111"),
+			map -> map.replace("one", Arrays.asList("111")),
+			map -> map.clear(),
+			map -> map.get("one").add("111"),
+			map -> map.get("one").add(0, "111"),
+			map -> map.get("one").addAll(Arrays.asList("111")),
+			map -> map.get("one").addAll(0, Arrays.asList("111")),
+			map -> map.get("one").set(0, "111"),
+			map -> map.get("one").remove(0),
+			map -> map.get("one").remove("1"),
+			map -> map.get("one").removeAll(Arrays.asList("1")),
+			map -> map.get("one").retainAll(Arrays.asList("1")),
+			map -> map.get("one").clear(),
+			map -> map.get("one").subList(0, 1).clear(),
+			map -> map.get("two").add("2")
+		);
+		//@formatter:on
+
+		for (Modification modification : modifications) {
+			ListMultimap<String, String> copy = new ListMultimap<>(original, true);
+			modification.modify(copy);
+			assertNotSame(original.getMap(), copy.getMap());
+			assertEquals(Arrays.asList("1", "11"), original.get("one"));
+			assertEquals(1, original.getMap().size());
+		}
+	}
+
+	@Test
+	public void copy_on_write_WrappedList() {
+		ListMultimap<String, String> original = new ListMultimap<>();
+		original.put("one", "1");
+
+		ListMultimap<String, String> copy = new ListMultimap<>(original, true);
+		List<String> one = copy.get("one");
+		List<String> two = copy.get("two");
+
+		//lists that were retrieved before the copy was made follow the copy
+		copy.put("one", "11");
+		assertEquals(Arrays.asList("1", "11"), one);
+		assertEquals(Arrays.asList("1"), original.get("one"));
+
+		one.add("111");
+		assertEquals(Arrays.asList("1", "11", "111"), copy.get("one"));
+		assertEquals(Arrays.asList("1"), original.get("one"));
+
+		two.add("2");
+		assertEquals(Arrays.asList("2"), copy.get("two"));
+		assertTrue(original.get("two").isEmpty());
+	}
+
+	@Test
+	public void copy_on_write_listIterator() {
+		ListMultimap<String, String> original = new ListMultimap<>();
+		original.putAll("one", Arrays.asList("1", "2", "3", "4"));
+
+		//remove after next()
+		{
+			ListMultimap<String, String> copy = new ListMultimap<>(original, true);
+			Iterator<String> it = copy.get("one").iterator();
+			while (it.hasNext()) {
+				if (it.next().equals("2")) {
+					it.remove();
+				}
+			}
+			assertEquals(Arrays.asList("1", "3", "4"), copy.get("one"));
+			assertEquals(Arrays.asList("1", "2", "3", "4"), original.get("one"));
+		}
+
+		//set after previous()
+		{
+			ListMultimap<String, String> copy = new ListMultimap<>(original, true);
+			ListIterator<String> it = copy.get("one").listIterator(2);
+			assertEquals("2", it.previous());
+			it.set("22");
+			assertEquals("22", it.next());
+			assertEquals("3", it.next());
+			assertEquals(Arrays.asList("1", "22", "3", "4"), copy.get("one"));
+			assertEquals(Arrays.asList("1", "2", "3", "4"), original.get("one"));
+		}
+
+		//add
+		{
+			ListMultimap<String, String> copy = new ListMultimap<>(original, true);
+			ListIterator<String> it = copy.get("one").listIterator();
+			it.next();
+			it.add("11");
+			assertEquals("2", it.next());
+			assertEquals(Arrays.asList("1", "11", "2", "3", "4"), copy.get("one"));
+			assertEquals(Arrays.asList("1", "2", "3", "4"), original.get("one"));
+		}
+
+		//the copy is made by another part of the multimap while iterating
+		{
+			ListMultimap<String, String> copy = new ListMultimap<>(original, true);
+			Iterator<String> it = copy.get("one").iterator();
+			assertEquals("1", it.next());
+			copy.put("two", "2");
+			assertEquals("2", it.next());
+			it.remove();
+			assertEquals(Arrays.asList("1", "3", "4"), copy.get("one"));
+			assertEquals(Arrays.asList("1", "2", "3", "4"), original.get("one"));
+		}
+	}
+
+	private interface Modification {
+		void modify(ListMultimap<String, String> map);
+	}
+
 	@Test
 	public void clear() {
 		ListMultimap<String, String> map = new ListMultimap<>();
@@ -3,9 +3,12 @@ package ezvcard.util;
 import static org.custommonkey.xmlunit.XMLAssert.assertXMLEqual;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.StringReader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -14,6 +17,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 
 import org.junit.Rule;
@@ -153,6 +158,82 @@ public class XmlUtilsTest {
 		assertXMLEqual(expected, actual);
 	}
 
+	@Test
+	public void toString_output_properties_not_reused() throws Exception {
+		Document document = XmlUtils.toDocument("<root/>");
+		Map<String, String> outputProperties = new HashMap<>();
+		outputProperties.put(OutputKeys.OMIT_XML_DECLARATION, "yes");
+		assertEquals("<root/>", XmlUtils.toString(document, outputProperties));
+
+		String string = XmlUtils.toString(document);
+		assertTrue(string.startsWith("<?xml"));
+	}
+
+	@Test
+	public void toDocument_reuse_after_error() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			try {
+				XmlUtils.toDocument("not-xml");
+				fail();
+			} catch (SAXException e) {
+				//expected
+			}
+
+			Document document = XmlUtils.toDocument(xml);
+			assertEquals("root", document.getDocumentElement().getLocalName());
+		}
+	}
+
+	@Test
+	public void toDocument_doctype_not_allowed() throws Exception {
+		//@formatter:off
+		String xml =
+		"<!DOCTYPE root [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>" +
+		"<root>&xxe;</root>";
+		//@formatter:on
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				XmlUtils.toDocument(xml);
+				fail();
+			} catch (SAXException e) {
+				//expected
+			}
+		}
+	}
+
+	@Test
+	public void createXMLStreamReader() throws Exception {
+		XMLStreamReader reader = XmlUtils.createXMLStreamReader(new StringReader("<root xmlns=\"ns\" />"));
+		reader.nextTag();
+		assertEquals("ns", reader.getNamespaceURI());
+		assertEquals("root", reader.getLocalName());
+	}
+
+	@Test
+	public void createXMLStreamReader_dtd_not_supported() throws Exception {
+		//@formatter:off
+		String xml =
+		"<!DOCTYPE root [<!ENTITY entity \"value\">]>" +
+		"<root>&entity;</root>";
+		//@formatter:on
+
+		XMLStreamReader reader = XmlUtils.createXMLStreamReader(new StringReader(xml));
+		try {
+			while (reader.hasNext()) {
+				reader.next();
+			}
+			fail();
+		} catch (XMLStreamException e) {
+			//expected
+		}
+	}
+
+	@Test
+	public void newTransformerHandler() {
+		assertNotSame(XmlUtils.newTransformerHandler(), XmlUtils.newTransformerHandler());
+	}
+
 	@Test
 	public void toElementList() throws Exception {
 		Document document = XmlUtils.toDocument(xml);